@@ -0,0 +1,34 @@
+package com.foodordering.config;
+
+import com.foodordering.dto.ErrorResponse;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Turns a connection acquisition timeout (the pool wait budget, spring.datasource.hikari.connection-timeout)
+ * into 503 Service Unavailable instead of a generic error.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+    
+    @Value("${app.datasource.pool.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+    
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<ErrorResponse> handleConnectionTimeout(CannotCreateTransactionException e,
+                                                                 HttpServletResponse response) {
+        if (response.isCommitted()) {
+            // Mid-stream (e.g. the admin order list): too late for a 503, let the container abort
+            throw e;
+        }
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(new ErrorResponse("SERVICE_OVERLOADED", "Server is busy, please retry shortly"));
+    }
+}
@@ -0,0 +1,61 @@
+package com.foodordering.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodordering.dto.ErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Rejects API requests with 503 while too many threads are already queued for a
+ * database connection, so overload sheds load instead of stacking up latency.
+ */
+@Component
+public class ConnectionPoolLoadSheddingFilter extends OncePerRequestFilter {
+    
+    @Autowired
+    private ConnectionPoolMonitor connectionPoolMonitor;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${app.datasource.pool.max-pending:32}")
+    private int maxPending;
+    
+    @Value("${app.datasource.pool.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return maxPending <= 0 || !request.getRequestURI().startsWith("/api/");
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (connectionPoolMonitor.getPendingThreads() >= maxPending) {
+            writeOverloaded(response, objectMapper, retryAfterSeconds);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+    
+    static void writeOverloaded(HttpServletResponse response, ObjectMapper objectMapper, int retryAfterSeconds)
+            throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse("SERVICE_OVERLOADED", "Server is busy, please retry shortly"));
+    }
+}
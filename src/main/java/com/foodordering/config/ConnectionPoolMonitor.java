@@ -0,0 +1,155 @@
+package com.foodordering.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tunes every Hikari pool before it starts and records its saturation metrics.
+ *
+ * Pool size comes from app.datasource.pool.max-size, or when that is 0 from
+ * (cores * 2 + 1) capped by app.datasource.pool.db-max-connections, the classic
+ * sizing rule for a pool in front of a single database. Acquisition timeout and
+ * leak detection stay on spring.datasource.hikari.*.
+ */
+@Component
+public class ConnectionPoolMonitor implements BeanPostProcessor, EnvironmentAware, MetricsTrackerFactory {
+
+    private final Map<String, HikariDataSource> pools = new ConcurrentHashMap<>();
+    private final Map<String, PoolTracker> trackers = new ConcurrentHashMap<>();
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        if (bean instanceof HikariDataSource dataSource) {
+            register(dataSource);
+        }
+        return bean;
+    }
+
+    /**
+     * Apply pool sizing and metrics to a pool that has not been started yet
+     */
+    public void register(HikariDataSource dataSource) {
+        int configuredSize = environment.getProperty("app.datasource.pool.max-size", Integer.class, 0);
+        int dbMaxConnections = environment.getProperty("app.datasource.pool.db-max-connections", Integer.class, 20);
+        int maxSize = configuredSize > 0 ? configuredSize : derivePoolSize(dbMaxConnections);
+
+        dataSource.setMaximumPoolSize(maxSize);
+        if (dataSource.getMinimumIdle() < 0 || dataSource.getMinimumIdle() > maxSize) {
+            dataSource.setMinimumIdle(maxSize);
+        }
+        dataSource.setMetricsTrackerFactory(this);
+        if (dataSource.getPoolName() == null) {
+            dataSource.setPoolName("pool-" + (pools.size() + 1));
+        }
+        pools.put(dataSource.getPoolName(), dataSource);
+    }
+
+    static int derivePoolSize(int dbMaxConnections) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        return Math.max(2, Math.min(cores * 2 + 1, dbMaxConnections));
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        PoolTracker tracker = new PoolTracker();
+        trackers.put(poolName, tracker);
+        return tracker;
+    }
+
+    /**
+     * Threads currently blocked waiting for a connection, across all started pools
+     */
+    public int getPendingThreads() {
+        int pending = 0;
+        for (HikariDataSource dataSource : pools.values()) {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            if (pool != null) {
+                pending += pool.getThreadsAwaitingConnection();
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Active, idle, pending and acquire-time figures for each pool
+     */
+    public List<Map<String, Object>> snapshot() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (HikariDataSource dataSource : pools.values()) {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("pool", dataSource.getPoolName());
+            stats.put("maxSize", dataSource.getMaximumPoolSize());
+            stats.put("connectionTimeoutMs", dataSource.getConnectionTimeout());
+            stats.put("leakDetectionThresholdMs", dataSource.getLeakDetectionThreshold());
+
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            stats.put("active", pool != null ? pool.getActiveConnections() : 0);
+            stats.put("idle", pool != null ? pool.getIdleConnections() : 0);
+            stats.put("total", pool != null ? pool.getTotalConnections() : 0);
+            stats.put("pending", pool != null ? pool.getThreadsAwaitingConnection() : 0);
+
+            PoolTracker tracker = trackers.get(dataSource.getPoolName());
+            long acquired = tracker != null ? tracker.acquireCount.sum() : 0;
+            stats.put("acquireCount", acquired);
+            stats.put("acquireAvgMs", acquired > 0 ? nanosToMillis(tracker.acquireNanos.sum() / acquired) : 0.0);
+            stats.put("acquireMaxMs", tracker != null ? nanosToMillis(tracker.acquireMaxNanos.get()) : 0.0);
+            stats.put("usageAvgMs", acquired > 0 ? tracker.usageMillis.sum() / (double) acquired : 0.0);
+            stats.put("timeouts", tracker != null ? tracker.timeouts.sum() : 0);
+            result.add(stats);
+        }
+        return result;
+    }
+
+    private static double nanosToMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static final class PoolTracker implements IMetricsTracker {
+        private final LongAdder acquireCount = new LongAdder();
+        private final LongAdder acquireNanos = new LongAdder();
+        private final AtomicLong acquireMaxNanos = new AtomicLong();
+        private final LongAdder usageMillis = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            acquireCount.increment();
+            acquireNanos.add(elapsedAcquiredNanos);
+            acquireMaxNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            usageMillis.add(elapsedBorrowedMillis);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeouts.increment();
+        }
+    }
+}
@@ -1,91 +1,133 @@
 package com.foodordering.config;
 
-import com.foodordering.entity.MenuItem;
+import com.foodordering.dto.MenuItemRequest;
 import com.foodordering.entity.Role;
 import com.foodordering.entity.User;
 import com.foodordering.repository.MenuItemRepository;
 import com.foodordering.repository.UserRepository;
+import com.foodordering.service.MenuBulkImportService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+/**
+ * Seeds the sample users and menu.
+ *
+ * Seeding is skipped with app.seed.enabled=false. With app.seed.async=true it runs on a
+ * background thread once the application is ready, so it no longer delays the first request.
+ */
 @Component
+@ConditionalOnProperty(name = "app.seed.enabled", havingValue = "true", matchIfMissing = true)
 public class DataLoader implements CommandLineRunner {
-    
+
+    // BCrypt (strength 10) hashes of "admin123" and "customer123", precomputed so startup does no hashing
+    private static final String ADMIN_PASSWORD_HASH = "$2a$10$X40Ac1mkgkkJMwz.guOjE.NW.l5V.gN0cgpx5bjiXEa5S/JQoR6uK";
+    private static final String CUSTOMER_PASSWORD_HASH = "$2a$10$hYwu89YwHi/lJzoQsgmPm.JQLC39ASMDNXqtSt5roc3TGGufj1Dgq";
+
     @Autowired
     private MenuItemRepository menuItemRepository;
-    
+
     @Autowired
     private UserRepository userRepository;
-    
+
     @Autowired
-    private PasswordEncoder passwordEncoder;
-    
+    private MenuBulkImportService menuBulkImportService;
+
+    @Value("${app.seed.async:false}")
+    private boolean async;
+
     @Override
     public void run(String... args) throws Exception {
-        // Create admin user if not exists
-        if (userRepository.findByEmail("admin@foodordering.com").isEmpty()) {
-            User admin = new User();
-            admin.setEmail("admin@foodordering.com");
-            admin.setPassword(passwordEncoder.encode("admin123"));
-            admin.setRole(Role.ADMIN);
-            userRepository.save(admin);
-            System.out.println("Admin user created: admin@foodordering.com / admin123");
+        if (!async) {
+            seed();
         }
-        
-        // Create sample customer if not exists
-        if (userRepository.findByEmail("customer@example.com").isEmpty()) {
-            User customer = new User();
-            customer.setEmail("customer@example.com");
-            customer.setPassword(passwordEncoder.encode("customer123"));
-            customer.setRole(Role.CUSTOMER);
-            userRepository.save(customer);
-            System.out.println("Customer user created: customer@example.com / customer123");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedAfterStartup() {
+        if (async) {
+            new SimpleAsyncTaskExecutor("data-seeder-").execute(this::seed);
         }
-        
-        // Create sample menu items if not exists
+    }
+
+    void seed() {
+        long start = System.nanoTime();
+
+        // Create sample users that do not exist yet, checked with a single query
+        List<User> sampleUsers = List.of(
+            new User("admin@foodordering.com", ADMIN_PASSWORD_HASH, Role.ADMIN),
+            new User("customer@example.com", CUSTOMER_PASSWORD_HASH, Role.CUSTOMER)
+        );
+        Set<String> existingEmails = userRepository.findByEmailIn(
+                sampleUsers.stream().map(User::getEmail).collect(Collectors.toList()))
+            .stream()
+            .map(User::getEmail)
+            .collect(Collectors.toSet());
+        List<User> missingUsers = sampleUsers.stream()
+            .filter(user -> !existingEmails.contains(user.getEmail()))
+            .collect(Collectors.toList());
+        if (!missingUsers.isEmpty()) {
+            userRepository.saveAll(missingUsers);
+            missingUsers.forEach(user -> System.out.println("Sample user created: " + user.getEmail()));
+        }
+
+        // Create sample menu items if not exists, as one JDBC batch
         if (menuItemRepository.count() == 0) {
-            createSampleMenuItems();
+            menuBulkImportService.importItems(sampleMenuItems());
             System.out.println("Sample menu items created with categories: Pizza, Burgers, Drinks");
         }
+
+        System.out.println("Sample data seeded in " + (System.nanoTime() - start) / 1_000_000 + " ms");
     }
-    
-    private void createSampleMenuItems() {
+
+    private List<MenuItemRequest> sampleMenuItems() {
+        List<MenuItemRequest> items = new ArrayList<>();
+
         // Pizza Category
-        menuItemRepository.save(new MenuItem("Margherita Pizza", new BigDecimal("12.99"), "Pizza", true));
-        menuItemRepository.save(new MenuItem("Pepperoni Pizza", new BigDecimal("14.99"), "Pizza", true));
-        menuItemRepository.save(new MenuItem("Vegetarian Pizza", new BigDecimal("13.99"), "Pizza", true));
-        menuItemRepository.save(new MenuItem("Hawaiian Pizza", new BigDecimal("15.99"), "Pizza", true));
-        menuItemRepository.save(new MenuItem("Meat Lovers Pizza", new BigDecimal("17.99"), "Pizza", true));
-        menuItemRepository.save(new MenuItem("BBQ Chicken Pizza", new BigDecimal("16.99"), "Pizza", true));
-        menuItemRepository.save(new MenuItem("Four Cheese Pizza", new BigDecimal("15.49"), "Pizza", true));
-        menuItemRepository.save(new MenuItem("Supreme Pizza", new BigDecimal("18.99"), "Pizza", true));
-        
+        items.add(new MenuItemRequest("Margherita Pizza", new BigDecimal("12.99"), "Pizza", true));
+        items.add(new MenuItemRequest("Pepperoni Pizza", new BigDecimal("14.99"), "Pizza", true));
+        items.add(new MenuItemRequest("Vegetarian Pizza", new BigDecimal("13.99"), "Pizza", true));
+        items.add(new MenuItemRequest("Hawaiian Pizza", new BigDecimal("15.99"), "Pizza", true));
+        items.add(new MenuItemRequest("Meat Lovers Pizza", new BigDecimal("17.99"), "Pizza", true));
+        items.add(new MenuItemRequest("BBQ Chicken Pizza", new BigDecimal("16.99"), "Pizza", true));
+        items.add(new MenuItemRequest("Four Cheese Pizza", new BigDecimal("15.49"), "Pizza", true));
+        items.add(new MenuItemRequest("Supreme Pizza", new BigDecimal("18.99"), "Pizza", true));
+
         // Burgers Category
-        menuItemRepository.save(new MenuItem("Classic Burger", new BigDecimal("9.99"), "Burgers", true));
-        menuItemRepository.save(new MenuItem("Cheeseburger", new BigDecimal("10.99"), "Burgers", true));
-        menuItemRepository.save(new MenuItem("Bacon Burger", new BigDecimal("12.99"), "Burgers", true));
-        menuItemRepository.save(new MenuItem("Double Cheeseburger", new BigDecimal("14.99"), "Burgers", true));
-        menuItemRepository.save(new MenuItem("Veggie Burger", new BigDecimal("11.99"), "Burgers", true));
-        menuItemRepository.save(new MenuItem("BBQ Bacon Burger", new BigDecimal("15.99"), "Burgers", true));
-        menuItemRepository.save(new MenuItem("Mushroom Swiss Burger", new BigDecimal("13.99"), "Burgers", true));
-        menuItemRepository.save(new MenuItem("Spicy Jalapeño Burger", new BigDecimal("13.49"), "Burgers", true));
-        
+        items.add(new MenuItemRequest("Classic Burger", new BigDecimal("9.99"), "Burgers", true));
+        items.add(new MenuItemRequest("Cheeseburger", new BigDecimal("10.99"), "Burgers", true));
+        items.add(new MenuItemRequest("Bacon Burger", new BigDecimal("12.99"), "Burgers", true));
+        items.add(new MenuItemRequest("Double Cheeseburger", new BigDecimal("14.99"), "Burgers", true));
+        items.add(new MenuItemRequest("Veggie Burger", new BigDecimal("11.99"), "Burgers", true));
+        items.add(new MenuItemRequest("BBQ Bacon Burger", new BigDecimal("15.99"), "Burgers", true));
+        items.add(new MenuItemRequest("Mushroom Swiss Burger", new BigDecimal("13.99"), "Burgers", true));
+        items.add(new MenuItemRequest("Spicy Jalapeño Burger", new BigDecimal("13.49"), "Burgers", true));
+
         // Drinks Category
-        menuItemRepository.save(new MenuItem("Coca Cola", new BigDecimal("2.99"), "Drinks", true));
-        menuItemRepository.save(new MenuItem("Pepsi", new BigDecimal("2.99"), "Drinks", true));
-        menuItemRepository.save(new MenuItem("Orange Juice", new BigDecimal("3.99"), "Drinks", true));
-        menuItemRepository.save(new MenuItem("Apple Juice", new BigDecimal("3.99"), "Drinks", true));
-        menuItemRepository.save(new MenuItem("Water", new BigDecimal("1.99"), "Drinks", true));
-        menuItemRepository.save(new MenuItem("Sparkling Water", new BigDecimal("2.49"), "Drinks", true));
-        menuItemRepository.save(new MenuItem("Iced Tea", new BigDecimal("2.79"), "Drinks", true));
-        menuItemRepository.save(new MenuItem("Coffee", new BigDecimal("3.49"), "Drinks", true));
-        menuItemRepository.save(new MenuItem("Hot Chocolate", new BigDecimal("3.99"), "Drinks", true));
-        menuItemRepository.save(new MenuItem("Milkshake - Vanilla", new BigDecimal("4.99"), "Drinks", true));
-        menuItemRepository.save(new MenuItem("Milkshake - Chocolate", new BigDecimal("4.99"), "Drinks", true));
-        menuItemRepository.save(new MenuItem("Milkshake - Strawberry", new BigDecimal("4.99"), "Drinks", true));
+        items.add(new MenuItemRequest("Coca Cola", new BigDecimal("2.99"), "Drinks", true));
+        items.add(new MenuItemRequest("Pepsi", new BigDecimal("2.99"), "Drinks", true));
+        items.add(new MenuItemRequest("Orange Juice", new BigDecimal("3.99"), "Drinks", true));
+        items.add(new MenuItemRequest("Apple Juice", new BigDecimal("3.99"), "Drinks", true));
+        items.add(new MenuItemRequest("Water", new BigDecimal("1.99"), "Drinks", true));
+        items.add(new MenuItemRequest("Sparkling Water", new BigDecimal("2.49"), "Drinks", true));
+        items.add(new MenuItemRequest("Iced Tea", new BigDecimal("2.79"), "Drinks", true));
+        items.add(new MenuItemRequest("Coffee", new BigDecimal("3.49"), "Drinks", true));
+        items.add(new MenuItemRequest("Hot Chocolate", new BigDecimal("3.99"), "Drinks", true));
+        items.add(new MenuItemRequest("Milkshake - Vanilla", new BigDecimal("4.99"), "Drinks", true));
+        items.add(new MenuItemRequest("Milkshake - Chocolate", new BigDecimal("4.99"), "Drinks", true));
+        items.add(new MenuItemRequest("Milkshake - Strawberry", new BigDecimal("4.99"), "Drinks", true));
+
+        return items;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,88 @@
+package com.foodordering.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Kitchen stations under app.kitchen.*.
+ *
+ * Order lines go to the first station listing their menu category, otherwise to
+ * defaultStation. maxBatch is how many units of one menu item a station prepares at once.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.kitchen")
+public class KitchenProperties {
+
+    private long promiseMinutes = 30;
+    private String defaultStation = "prep";
+    private List<Station> stations = new ArrayList<>();
+
+    // Getters and Setters
+    public long getPromiseMinutes() {
+        return promiseMinutes;
+    }
+
+    public void setPromiseMinutes(long promiseMinutes) {
+        this.promiseMinutes = promiseMinutes;
+    }
+
+    public String getDefaultStation() {
+        return defaultStation;
+    }
+
+    public void setDefaultStation(String defaultStation) {
+        this.defaultStation = defaultStation;
+    }
+
+    public List<Station> getStations() {
+        return stations;
+    }
+
+    public void setStations(List<Station> stations) {
+        this.stations = stations;
+    }
+
+    public static class Station {
+
+        private String name;
+        private List<String> categories = new ArrayList<>();
+        private int maxBatch = 1;
+
+        // Constructors
+        public Station() {}
+
+        public Station(String name, List<String> categories, int maxBatch) {
+            this.name = name;
+            this.categories = categories;
+            this.maxBatch = maxBatch;
+        }
+
+        // Getters and Setters
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public List<String> getCategories() {
+            return categories;
+        }
+
+        public void setCategories(List<String> categories) {
+            this.categories = categories;
+        }
+
+        public int getMaxBatch() {
+            return maxBatch;
+        }
+
+        public void setMaxBatch(int maxBatch) {
+            this.maxBatch = maxBatch;
+        }
+    }
+}
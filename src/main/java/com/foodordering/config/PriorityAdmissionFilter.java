@@ -0,0 +1,245 @@
+package com.foodordering.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Classifies API requests as CRITICAL, STANDARD or LOW and caps how many of each may
+ * run at once, so browsing and admin traffic cannot take every request thread.
+ *
+ * STANDARD and LOW have concurrency limits well below the Tomcat thread pool; whatever
+ * they cannot use is headroom reserved for CRITICAL requests (order placement, login),
+ * which are never queued. Over its limit a request waits up to the class queue timeout
+ * and is then rejected with 503. LOW requests are also rejected outright while STANDARD
+ * requests are queueing, so they degrade first.
+ *
+ * A queued request still holds its Tomcat thread, so queues are bounded too: the threads
+ * left after every class limit and app.admission.critical.reserved-threads are split
+ * between the classes that queue, and a request finding its queue full is rejected at once.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class PriorityAdmissionFilter extends OncePerRequestFilter {
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<RequestClass, ClassGate> gates = new EnumMap<>(RequestClass.class);
+    private final List<String[]> criticalRoutes = new ArrayList<>();
+    private final List<String[]> lowRoutes = new ArrayList<>();
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.admission.critical-paths:POST /api/orders}")
+    private List<String> criticalPaths;
+
+    @Value("${app.admission.low-paths:}")
+    private List<String> lowPaths;
+
+    @Value("${app.admission.critical.max-concurrent:0}")
+    private int criticalMaxConcurrent;
+
+    @Value("${app.admission.critical.reserved-threads:20}")
+    private int criticalReservedThreads;
+
+    @Value("${server.tomcat.threads.max:200}")
+    private int maxThreads;
+
+    @Value("${app.admission.standard.max-concurrent:120}")
+    private int standardMaxConcurrent;
+
+    @Value("${app.admission.standard.queue-timeout-ms:500}")
+    private long standardQueueTimeoutMs;
+
+    @Value("${app.admission.low.max-concurrent:16}")
+    private int lowMaxConcurrent;
+
+    @Value("${app.admission.low.queue-timeout-ms:0}")
+    private long lowQueueTimeoutMs;
+
+    @Value("${app.admission.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+
+    @PostConstruct
+    void init() {
+        int queueingClasses = (standardQueueTimeoutMs > 0 ? 1 : 0) + (lowQueueTimeoutMs > 0 ? 1 : 0);
+        int spareThreads = maxThreads - Math.max(0, criticalMaxConcurrent) - standardMaxConcurrent
+                - lowMaxConcurrent - criticalReservedThreads;
+        int maxQueued = queueingClasses == 0 ? 0 : Math.max(0, spareThreads) / queueingClasses;
+        gates.put(RequestClass.CRITICAL, new ClassGate(criticalMaxConcurrent, 0, 0));
+        gates.put(RequestClass.STANDARD, new ClassGate(standardMaxConcurrent, standardQueueTimeoutMs, maxQueued));
+        gates.put(RequestClass.LOW, new ClassGate(lowMaxConcurrent, lowQueueTimeoutMs, maxQueued));
+        parseRoutes(criticalPaths, criticalRoutes);
+        parseRoutes(lowPaths, lowRoutes);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/") || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestClass requestClass = classify(request);
+        ClassGate gate = gates.get(requestClass);
+
+        boolean standardBacklogged = gates.get(RequestClass.STANDARD).queued.get() > 0;
+        long queuedAt = System.nanoTime();
+        boolean admitted;
+        try {
+            admitted = !(requestClass == RequestClass.LOW && standardBacklogged) && gate.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if (!admitted) {
+            gate.rejected.increment();
+            ConnectionPoolLoadSheddingFilter.writeOverloaded(response, objectMapper, retryAfterSeconds);
+            return;
+        }
+
+        long startedAt = System.nanoTime();
+        gate.queueWaitNanos.add(startedAt - queuedAt);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            gate.release(System.nanoTime() - startedAt);
+        }
+    }
+
+    RequestClass classify(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (matches(criticalRoutes, request.getMethod(), path)) {
+            return RequestClass.CRITICAL;
+        }
+        if (matches(lowRoutes, request.getMethod(), path)) {
+            return RequestClass.LOW;
+        }
+        return RequestClass.STANDARD;
+    }
+
+    /**
+     * In-flight and queued requests, rejections and latency per class
+     */
+    public List<Map<String, Object>> snapshot() {
+        List<Map<String, Object>> classes = new ArrayList<>();
+        for (Map.Entry<RequestClass, ClassGate> entry : gates.entrySet()) {
+            ClassGate gate = entry.getValue();
+            long completed = gate.completed.sum();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("class", entry.getKey().name());
+            stats.put("maxConcurrent", gate.maxConcurrent > 0 ? gate.maxConcurrent : "unlimited");
+            stats.put("inFlight", gate.inFlight.get());
+            stats.put("queued", gate.queued.get());
+            stats.put("maxQueued", gate.maxQueued);
+            stats.put("completed", completed);
+            stats.put("rejected", gate.rejected.sum());
+            stats.put("avgQueueWaitMs", completed == 0 ? 0.0 : gate.queueWaitNanos.sum() / 1_000_000.0 / completed);
+            stats.put("avgLatencyMs", completed == 0 ? 0.0 : gate.latencyNanos.sum() / 1_000_000.0 / completed);
+            stats.put("maxLatencyMs", gate.maxLatencyNanos.get() / 1_000_000.0);
+            classes.add(stats);
+        }
+        return classes;
+    }
+
+    private boolean matches(List<String[]> routes, String method, String path) {
+        for (String[] route : routes) {
+            if ((route[0] == null || route[0].equalsIgnoreCase(method)) && pathMatcher.match(route[1], path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // "POST /api/orders" limits the route to one method, "/api/analytics/**" matches any
+    private static void parseRoutes(List<String> specs, List<String[]> routes) {
+        for (String spec : specs) {
+            String trimmed = spec.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int space = trimmed.indexOf(' ');
+            routes.add(space < 0
+                    ? new String[]{null, trimmed}
+                    : new String[]{trimmed.substring(0, space), trimmed.substring(space + 1).trim()});
+        }
+    }
+
+    private static final class ClassGate {
+        private final int maxConcurrent;
+        private final long queueTimeoutMs;
+        private final int maxQueued;
+        private final Semaphore permits;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder queueWaitNanos = new LongAdder();
+        private final LongAdder latencyNanos = new LongAdder();
+        private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+        private ClassGate(int maxConcurrent, long queueTimeoutMs, int maxQueued) {
+            this.maxConcurrent = maxConcurrent;
+            this.queueTimeoutMs = queueTimeoutMs;
+            this.maxQueued = maxQueued;
+            this.permits = maxConcurrent > 0 ? new Semaphore(maxConcurrent, true) : null;
+        }
+
+        private boolean acquire() throws InterruptedException {
+            if (permits != null && !permits.tryAcquire()) {
+                if (queueTimeoutMs <= 0) {
+                    return false;
+                }
+                if (queued.incrementAndGet() > maxQueued) {
+                    queued.decrementAndGet();
+                    return false;
+                }
+                try {
+                    if (!permits.tryAcquire(queueTimeoutMs, TimeUnit.MILLISECONDS)) {
+                        return false;
+                    }
+                } finally {
+                    queued.decrementAndGet();
+                }
+            }
+            inFlight.incrementAndGet();
+            return true;
+        }
+
+        private void release(long latency) {
+            inFlight.decrementAndGet();
+            if (permits != null) {
+                permits.release();
+            }
+            completed.increment();
+            latencyNanos.add(latency);
+            maxLatencyNanos.accumulateAndGet(latency, Math::max);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.foodordering.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodordering.dto.ErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token-bucket rate limiting per client and route, answering 429 with Retry-After.
+ *
+ * Clients are keyed by session user id when logged in, otherwise by remote address.
+ * Runs ahead of the security chain so rejected requests cost no authentication work
+ * (e.g. BCrypt on login). Idle buckets are evicted by a scheduled sweep to keep memory
+ * bounded. Once app.rate-limit.max-buckets is reached, new clients share an overflow bucket
+ * per rule until the next sweep; the request path never scans the map.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        int ruleIndex = findRule(request);
+        if (ruleIndex < 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        RateLimitProperties.Rule rule = properties.getRules().get(ruleIndex);
+        long now = System.nanoTime();
+        String key = ruleIndex + "|" + clientKey(request);
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= properties.getMaxBuckets()) {
+                // Full: newcomers share one bucket per rule until the sweep frees room
+                key = ruleIndex + "|overflow";
+            }
+            bucket = buckets.computeIfAbsent(key,
+                    k -> new TokenBucket(rule.getCapacity(), rule.getRefillPerSecond(), now));
+        }
+
+        long waitNanos = bucket.tryAcquire(now);
+        if (waitNanos > 0) {
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    new ErrorResponse("RATE_LIMITED", "Too many requests, please retry later"));
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Drop buckets that have been full for the idle period
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        evictIdleBuckets(TimeUnit.SECONDS.toNanos(properties.getIdleEvictionSeconds()));
+    }
+
+    int getBucketCount() {
+        return buckets.size();
+    }
+
+    private void evictIdleBuckets(long idleNanos) {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isIdle(now, idleNanos));
+    }
+
+    private int findRule(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        List<RateLimitProperties.Rule> rules = properties.getRules();
+        for (int i = 0; i < rules.size(); i++) {
+            RateLimitProperties.Rule rule = rules.get(i);
+            boolean methodMatches = rule.getMethod() == null || rule.getMethod().isEmpty()
+                    || rule.getMethod().equalsIgnoreCase(request.getMethod());
+            if (methodMatches && pathMatcher.match(rule.getPath(), path)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        Object userId = session != null ? session.getAttribute("userId") : null;
+        return userId != null ? "user:" + userId : "ip:" + request.getRemoteAddr();
+    }
+}
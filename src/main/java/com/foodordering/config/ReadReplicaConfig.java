@@ -0,0 +1,102 @@
+package com.foodordering.config;
+
+import com.foodordering.event.OrderPlacedEvent;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routes @Transactional(readOnly = true) work to read replicas when
+ * app.datasource.replicas.enabled=true. Writes, and reads outside a read-only
+ * transaction, stay on the primary configured by spring.datasource.*.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Autowired
+    private ConnectionPoolMonitor connectionPoolMonitor;
+
+    @Value("${app.datasource.replicas.urls}")
+    private List<String> replicaUrls;
+
+    @Value("${app.datasource.replicas.username:${spring.datasource.username:}}")
+    private String replicaUsername;
+
+    @Value("${app.datasource.replicas.password:${spring.datasource.password:}}")
+    private String replicaPassword;
+
+    @Value("${app.datasource.replicas.read-your-writes-ms:5000}")
+    private long readYourWritesMillis;
+
+    private final List<HikariDataSource> replicas = new ArrayList<>();
+
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource) {
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setJdbcUrl(replicaUrls.get(i).trim());
+            replica.setUsername(replicaUsername);
+            replica.setPassword(replicaPassword);
+            replica.setPoolName("ReplicaPool-" + i);
+            replica.setReadOnly(true);
+            replica.setConnectionTimeout(primaryDataSource.getConnectionTimeout());
+            connectionPoolMonitor.register(replica);
+            replicas.add(replica);
+        }
+
+        routingDataSource = new ReadWriteRoutingDataSource(
+                primaryDataSource, new ArrayList<>(replicas), readYourWritesMillis);
+        routingDataSource.afterPropertiesSet();
+
+        // Defer fetching the physical connection until the first statement, when the
+        // transaction's read-only flag is already known
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * Keep the user's reads on the primary once their order is committed
+     */
+    @TransactionalEventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        if (routingDataSource != null) {
+            routingDataSource.recordWrite(event.getUserId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.health-check-ms:5000}")
+    public void checkReplicaHealth() {
+        if (routingDataSource != null) {
+            routingDataSource.checkHealth();
+        }
+    }
+
+    @PreDestroy
+    public void closeReplicas() {
+        replicas.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,123 @@
+package com.foodordering.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to healthy read replicas (round-robin) and everything
+ * else to the primary.
+ *
+ * A user who has just written (e.g. placed an order) keeps reading from the primary
+ * for a short window, so they see their own writes despite replica lag. Must be wrapped
+ * in a LazyConnectionDataSourceProxy so the read-only flag is known when the connection
+ * is actually fetched.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Map<Long, Long> lastWriteByUser = new ConcurrentHashMap<>();
+    private final long readYourWritesMillis;
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicaDataSources, long readYourWritesMillis) {
+        this.readYourWritesMillis = readYourWritesMillis;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicaDataSources.size(); i++) {
+            Replica replica = new Replica("replica-" + i, replicaDataSources.get(i));
+            replicas.add(replica);
+            targets.put(replica.key, replica.dataSource);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || isWithinReadYourWritesWindow()) {
+            return PRIMARY;
+        }
+
+        // Round-robin over healthy replicas, falling back to the primary if none are up
+        int size = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica.key;
+            }
+        }
+        return PRIMARY;
+    }
+
+    /**
+     * Route the given user's reads to the primary for the read-your-writes window
+     */
+    public void recordWrite(Long userId) {
+        if (userId != null && readYourWritesMillis > 0) {
+            lastWriteByUser.put(userId, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Probe every replica, taking failing ones out of rotation until they recover,
+     * and forget expired read-your-writes entries.
+     */
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                replica.healthy = connection.isValid(1);
+            } catch (SQLException e) {
+                replica.healthy = false;
+            }
+        }
+        long cutoff = System.currentTimeMillis() - readYourWritesMillis;
+        lastWriteByUser.values().removeIf(writtenAt -> writtenAt < cutoff);
+    }
+
+    public Map<String, Boolean> getReplicaHealth() {
+        Map<String, Boolean> health = new HashMap<>();
+        for (Replica replica : replicas) {
+            health.put(replica.key, replica.healthy);
+        }
+        return health;
+    }
+
+    private boolean isWithinReadYourWritesWindow() {
+        if (lastWriteByUser.isEmpty()) {
+            return false;
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return false;
+        }
+        Object userId = attributes.getAttribute("userId", RequestAttributes.SCOPE_SESSION);
+        Long writtenAt = userId != null ? lastWriteByUser.get(userId) : null;
+        return writtenAt != null && System.currentTimeMillis() - writtenAt < readYourWritesMillis;
+    }
+
+    private static final class Replica {
+        private final String key;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        private Replica(String key, DataSource dataSource) {
+            this.key = key;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.foodordering.config;
+
+/**
+ * Scheduling priority of an API request, see PriorityAdmissionFilter.
+ */
+public enum RequestClass {
+    // Order placement and authentication: always admitted, uses the reserved headroom
+    CRITICAL,
+    // Menu browsing, order history and everything not classified otherwise
+    STANDARD,
+    // Admin listings, analytics and bulk jobs: the first to be shed under load
+    LOW
+}
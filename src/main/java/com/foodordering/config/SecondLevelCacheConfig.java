@@ -0,0 +1,139 @@
+package com.foodordering.config;
+
+import com.foodordering.entity.MenuItem;
+import com.foodordering.event.MenuCatalogChangedEvent;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate second-level cache backed by size-bounded Caffeine JCache regions.
+ *
+ * Caches MenuItem by id, User by id and by natural id (email), and query results of
+ * cacheable repository queries. Writes through Hibernate invalidate the regions
+ * themselves; JDBC bulk writes announce MenuCatalogChangedEvent and are evicted here.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String MENU_ITEMS_REGION = "menuItems";
+    public static final String USERS_REGION = "users";
+    public static final String USER_EMAILS_REGION = "userEmails";
+    public static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Autowired
+    @Lazy
+    private EntityManagerFactory entityManagerFactory;
+
+    @Value("${app.cache.menu-items.max-size:1000}")
+    private long menuItemsMaxSize;
+
+    @Value("${app.cache.users.max-size:10000}")
+    private long usersMaxSize;
+
+    @Value("${app.cache.query-results.max-size:500}")
+    private long queryResultsMaxSize;
+
+    @Value("${app.cache.expire-after-write-seconds:600}")
+    private long expireAfterWriteSeconds;
+
+    // Hibernate statistics are kept on every session, so only collect them while they are wanted
+    @Value("${app.cache.statistics.enabled:false}")
+    private boolean statisticsEnabled;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        // One manager per application context, so test contexts never share regions
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("foodordering-" + System.identityHashCode(this)), getClass().getClassLoader());
+
+        createRegion(cacheManager, MENU_ITEMS_REGION, menuItemsMaxSize, expireAfterWriteSeconds);
+        createRegion(cacheManager, USERS_REGION, usersMaxSize, expireAfterWriteSeconds);
+        createRegion(cacheManager, USER_EMAILS_REGION, usersMaxSize, expireAfterWriteSeconds);
+        createRegion(cacheManager, QUERY_RESULTS_REGION, queryResultsMaxSize, expireAfterWriteSeconds);
+        // Timestamps decide whether cached query results are stale, so they must never be evicted early
+        createRegion(cacheManager, UPDATE_TIMESTAMPS_REGION, 0, 0);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put("hibernate.cache.use_second_level_cache", true);
+            properties.put("hibernate.cache.use_query_cache", true);
+            properties.put("hibernate.cache.region.factory_class", "jcache");
+            properties.put("hibernate.javax.cache.cache_manager", hibernateCacheManager);
+            properties.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+            properties.put("hibernate.generate_statistics", statisticsEnabled);
+        };
+    }
+
+    /**
+     * Bulk imports write menu rows with plain JDBC, bypassing Hibernate's own invalidation
+     */
+    @EventListener(MenuCatalogChangedEvent.class)
+    public void evictMenuCatalog() {
+        entityManagerFactory.getCache().evict(MenuItem.class);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+    }
+
+    /**
+     * Current size for every region, plus hit, miss and put counts when app.cache.statistics.enabled
+     */
+    public List<Map<String, Object>> snapshot() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<Map<String, Object>> regions = new ArrayList<>();
+        for (String region : List.of(MENU_ITEMS_REGION, USERS_REGION, USER_EMAILS_REGION, QUERY_RESULTS_REGION)) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics == null) {
+                continue;
+            }
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("region", region);
+            if (statistics.isStatisticsEnabled()) {
+                long hits = regionStatistics.getHitCount();
+                long misses = regionStatistics.getMissCount();
+                stats.put("hits", hits);
+                stats.put("misses", misses);
+                stats.put("puts", regionStatistics.getPutCount());
+                stats.put("hitRatio", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+            }
+            stats.put("size", regionStatistics.getElementCountInMemory());
+            regions.add(stats);
+        }
+        return regions;
+    }
+
+    private static void createRegion(CacheManager cacheManager, String name, long maxSize, long expireAfterWriteSeconds) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        if (maxSize > 0) {
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+        }
+        if (expireAfterWriteSeconds > 0) {
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(expireAfterWriteSeconds)));
+        }
+        configuration.setStatisticsEnabled(true);
+        cacheManager.createCache(name, configuration);
+    }
+}
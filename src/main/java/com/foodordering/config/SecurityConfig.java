@@ -32,11 +32,20 @@ public class SecurityConfig {
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/h2-console/**").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/menu/items/**").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/menu/changes").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/menu/search").permitAll()
                 .requestMatchers(HttpMethod.POST, "/api/menu/items").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/menu/items/bulk").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.PUT, "/api/menu/items/**").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.DELETE, "/api/menu/items/**").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.PATCH, "/api/menu/items/**").hasRole("ADMIN")
                 .requestMatchers("/api/orders/**").hasAnyRole("CUSTOMER", "ADMIN")
+                .requestMatchers("/api/cart/**").hasAnyRole("CUSTOMER", "ADMIN")
+                .requestMatchers("/api/analytics/**").hasRole("ADMIN")
+                .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                .requestMatchers("/api/kitchen/**").hasRole("ADMIN")
+                .requestMatchers("/api/delivery/**").hasRole("ADMIN")
+                .requestMatchers("/api/pricing/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
             .sessionManagement(session -> session
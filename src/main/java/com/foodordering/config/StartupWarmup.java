@@ -0,0 +1,37 @@
+package com.foodordering.config;
+
+import com.foodordering.repository.OrderRepository;
+import com.foodordering.service.MenuService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the hottest read paths once after startup so a file-backed database has the
+ * menu and order index pages in its cache, and the query plans are compiled, before
+ * real traffic arrives.
+ */
+@Component
+@ConditionalOnProperty(name = "app.warmup.enabled", havingValue = "true")
+public class StartupWarmup {
+    
+    @Autowired
+    private MenuService menuService;
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long start = System.nanoTime();
+        
+        int menuItems = menuService.getAllMenuItems().size();
+        menuService.getAvailableMenuItems();
+        long orders = orderRepository.count();
+        
+        System.out.println("Warm-up loaded " + menuItems + " menu items and " + orders + " orders in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+}
@@ -0,0 +1,48 @@
+package com.foodordering.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, kept as a single "theoretical arrival time" (the GCRA form).
+ *
+ * The bucket is full when the arrival time is at or before now; each request pushes it
+ * one emission interval (1 / refill rate) into the future, and a request is refused
+ * when that would take it more than a full bucket's worth ahead of now. One CAS per
+ * request and no timer thread.
+ */
+class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final AtomicLong arrivalTime;
+
+    TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+        this.emissionIntervalNanos = Math.max(1, (long) (1_000_000_000L / refillPerSecond));
+        this.burstNanos = emissionIntervalNanos * capacity;
+        this.arrivalTime = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Take one token. Returns 0 when granted, otherwise how many nanoseconds until one is available.
+     */
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = arrivalTime.get();
+            long next = Math.max(current, nowNanos) + emissionIntervalNanos;
+            long waitNanos = next - burstNanos - nowNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (arrivalTime.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * True once the bucket has been full for at least idleNanos, so dropping it loses nothing
+     */
+    boolean isIdle(long nowNanos, long idleNanos) {
+        return nowNanos - arrivalTime.get() >= idleNanos;
+    }
+}
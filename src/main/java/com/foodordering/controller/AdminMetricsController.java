@@ -0,0 +1,167 @@
+package com.foodordering.controller;
+
+import com.foodordering.config.ConnectionPoolMonitor;
+import com.foodordering.config.PriorityAdmissionFilter;
+import com.foodordering.config.SecondLevelCacheConfig;
+import com.foodordering.dto.ErrorResponse;
+import com.foodordering.entity.Role;
+import com.foodordering.service.EtaService;
+import com.foodordering.service.OrderArchiveService;
+import com.foodordering.service.OrderAuditService;
+import com.foodordering.service.OutboxService;
+import com.foodordering.service.ScheduledOrderService;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/metrics")
+@CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
+public class AdminMetricsController {
+    
+    @Autowired
+    private ConnectionPoolMonitor connectionPoolMonitor;
+    
+    @Autowired
+    private SecondLevelCacheConfig secondLevelCacheConfig;
+    
+    @Autowired
+    private PriorityAdmissionFilter priorityAdmissionFilter;
+    
+    @Autowired
+    private EtaService etaService;
+    
+    @Autowired
+    private ScheduledOrderService scheduledOrderService;
+    
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+    
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired
+    private OrderAuditService orderAuditService;
+    
+    /**
+     * GET /api/admin/metrics/connection-pool - Pool saturation and acquire times
+     * Admin only endpoint
+     */
+    @GetMapping("/connection-pool")
+    public ResponseEntity<?> getConnectionPoolMetrics(HttpSession session) {
+        ResponseEntity<?> denied = checkAdmin(session);
+        if (denied != null) {
+            return denied;
+        }
+        return ResponseEntity.ok(connectionPoolMonitor.snapshot());
+    }
+    
+    /**
+     * GET /api/admin/metrics/cache - Second-level cache hit ratios and sizes
+     * Admin only endpoint
+     */
+    @GetMapping("/cache")
+    public ResponseEntity<?> getCacheMetrics(HttpSession session) {
+        ResponseEntity<?> denied = checkAdmin(session);
+        if (denied != null) {
+            return denied;
+        }
+        return ResponseEntity.ok(secondLevelCacheConfig.snapshot());
+    }
+    
+    /**
+     * GET /api/admin/metrics/request-classes - Queue depth, rejections and latency per priority class
+     * Admin only endpoint
+     */
+    @GetMapping("/request-classes")
+    public ResponseEntity<?> getRequestClassMetrics(HttpSession session) {
+        ResponseEntity<?> denied = checkAdmin(session);
+        if (denied != null) {
+            return denied;
+        }
+        return ResponseEntity.ok(priorityAdmissionFilter.snapshot());
+    }
+    
+    /**
+     * GET /api/admin/metrics/eta - Learned time per order status behind delivery ETAs
+     * Admin only endpoint
+     */
+    @GetMapping("/eta")
+    public ResponseEntity<?> getEtaMetrics(HttpSession session) {
+        ResponseEntity<?> denied = checkAdmin(session);
+        if (denied != null) {
+            return denied;
+        }
+        return ResponseEntity.ok(etaService.snapshot());
+    }
+    
+    /**
+     * GET /api/admin/metrics/scheduled-orders - Scheduled orders waiting to be released
+     * Admin only endpoint
+     */
+    @GetMapping("/scheduled-orders")
+    public ResponseEntity<?> getScheduledOrderMetrics(HttpSession session) {
+        ResponseEntity<?> denied = checkAdmin(session);
+        if (denied != null) {
+            return denied;
+        }
+        return ResponseEntity.ok(scheduledOrderService.snapshot());
+    }
+    
+    /**
+     * GET /api/admin/metrics/order-archive - Archived order count and the last archive run
+     * Admin only endpoint
+     */
+    @GetMapping("/order-archive")
+    public ResponseEntity<?> getOrderArchiveMetrics(HttpSession session) {
+        ResponseEntity<?> denied = checkAdmin(session);
+        if (denied != null) {
+            return denied;
+        }
+        return ResponseEntity.ok(orderArchiveService.snapshot());
+    }
+    
+    /**
+     * GET /api/admin/metrics/outbox - Outbox backlog, relay lag and batch sizes
+     * Admin only endpoint
+     */
+    @GetMapping("/outbox")
+    public ResponseEntity<?> getOutboxMetrics(HttpSession session) {
+        ResponseEntity<?> denied = checkAdmin(session);
+        if (denied != null) {
+            return denied;
+        }
+        return ResponseEntity.ok(outboxService.snapshot());
+    }
+    
+    /**
+     * GET /api/admin/metrics/audit-journal - Audit journal segments, syncs and failed appends
+     * Admin only endpoint
+     */
+    @GetMapping("/audit-journal")
+    public ResponseEntity<?> getAuditJournalMetrics(HttpSession session) {
+        ResponseEntity<?> denied = checkAdmin(session);
+        if (denied != null) {
+            return denied;
+        }
+        return ResponseEntity.ok(orderAuditService.snapshot());
+    }
+    
+    private ResponseEntity<?> checkAdmin(HttpSession session) {
+        Long userId = (Long) session.getAttribute("userId");
+        Role userRole = (Role) session.getAttribute("userRole");
+        
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(new ErrorResponse("UNAUTHORIZED", "User not authenticated"));
+        }
+        
+        if (userRole != Role.ADMIN) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(new ErrorResponse("FORBIDDEN", "Only admins can view metrics"));
+        }
+        return null;
+    }
+}
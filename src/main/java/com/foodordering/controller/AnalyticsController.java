@@ -0,0 +1,85 @@
+package com.foodordering.controller;
+
+import com.foodordering.dto.ErrorResponse;
+import com.foodordering.dto.SalesRollupResponse;
+import com.foodordering.entity.Role;
+import com.foodordering.entity.RollupDimension;
+import com.foodordering.service.SalesAnalyticsService;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/analytics")
+@CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
+public class AnalyticsController {
+    
+    @Autowired
+    private SalesAnalyticsService salesAnalyticsService;
+    
+    /**
+     * GET /api/analytics/sales/hourly - Hourly rollups for a dimension
+     * Admin only endpoint. Defaults to the last 24 hours.
+     */
+    @GetMapping("/sales/hourly")
+    public ResponseEntity<?> getHourlySales(
+            @RequestParam(defaultValue = "STORE") RollupDimension dimension,
+            @RequestParam(required = false) String key,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            HttpSession session) {
+        ResponseEntity<?> denied = checkAdmin(session);
+        if (denied != null) {
+            return denied;
+        }
+        
+        LocalDateTime end = to != null ? to : LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusHours(1);
+        LocalDateTime start = from != null ? from : end.minusHours(24);
+        List<SalesRollupResponse> rollups = salesAnalyticsService.getHourlyRollups(dimension, key, start, end);
+        return ResponseEntity.ok(rollups);
+    }
+    
+    /**
+     * GET /api/analytics/sales/totals - Totals per key for a dimension, best sellers first
+     * Admin only endpoint. Defaults to the last 24 hours.
+     */
+    @GetMapping("/sales/totals")
+    public ResponseEntity<?> getSalesTotals(
+            @RequestParam(defaultValue = "MENU_ITEM") RollupDimension dimension,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            HttpSession session) {
+        ResponseEntity<?> denied = checkAdmin(session);
+        if (denied != null) {
+            return denied;
+        }
+        
+        LocalDateTime end = to != null ? to : LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusHours(1);
+        LocalDateTime start = from != null ? from : end.minusHours(24);
+        List<SalesRollupResponse> totals = salesAnalyticsService.getTotals(dimension, start, end);
+        return ResponseEntity.ok(totals);
+    }
+    
+    private ResponseEntity<?> checkAdmin(HttpSession session) {
+        Long userId = (Long) session.getAttribute("userId");
+        Role userRole = (Role) session.getAttribute("userRole");
+        
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(new ErrorResponse("UNAUTHORIZED", "User not authenticated"));
+        }
+        
+        if (userRole != Role.ADMIN) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(new ErrorResponse("FORBIDDEN", "Only admins can view analytics"));
+        }
+        return null;
+    }
+}
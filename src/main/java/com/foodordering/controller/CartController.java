@@ -0,0 +1,39 @@
+package com.foodordering.controller;
+
+import com.foodordering.dto.CartQuoteRequest;
+import com.foodordering.dto.CartQuoteResponse;
+import com.foodordering.dto.ErrorResponse;
+import com.foodordering.service.CartQuoteService;
+import jakarta.servlet.http.HttpSession;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/cart")
+@CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
+public class CartController {
+
+    @Autowired
+    private CartQuoteService cartQuoteService;
+
+    /**
+     * POST /api/cart/quote - Validate and price a cart before checkout
+     * Returns 400 with every problem found when the cart cannot be ordered
+     */
+    @PostMapping("/quote")
+    public ResponseEntity<?> quote(@Valid @RequestBody CartQuoteRequest request, HttpSession session) {
+        Long userId = (Long) session.getAttribute("userId");
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(new ErrorResponse("UNAUTHORIZED", "User not authenticated"));
+        }
+        CartQuoteResponse quote = cartQuoteService.quote(request.getItems(), userId);
+        if (!quote.getErrors().isEmpty()) {
+            return ResponseEntity.badRequest().body(quote);
+        }
+        return ResponseEntity.ok(quote);
+    }
+}
@@ -0,0 +1,165 @@
+package com.foodordering.controller;
+
+import com.foodordering.dto.DriverLocationRequest;
+import com.foodordering.dto.DriverRequest;
+import com.foodordering.dto.DriverResponse;
+import com.foodordering.dto.ErrorResponse;
+import com.foodordering.entity.DriverStatus;
+import com.foodordering.entity.Role;
+import com.foodordering.service.DispatchService;
+import jakarta.servlet.http.HttpSession;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/delivery")
+@CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
+public class DeliveryController {
+
+    @Autowired
+    private DispatchService dispatchService;
+
+    /**
+     * GET /api/delivery/drivers - All drivers with status and last position
+     * Admin only endpoint
+     */
+    @GetMapping("/drivers")
+    public ResponseEntity<?> getDrivers(HttpSession session) {
+        ResponseEntity<?> denied = checkAdmin(session);
+        if (denied != null) {
+            return denied;
+        }
+        return ResponseEntity.ok(dispatchService.getDrivers());
+    }
+
+    /**
+     * POST /api/delivery/drivers - Register a driver, available at the given position
+     * Admin only endpoint
+     */
+    @PostMapping("/drivers")
+    public ResponseEntity<?> createDriver(@Valid @RequestBody DriverRequest request, HttpSession session) {
+        ResponseEntity<?> denied = checkAdmin(session);
+        if (denied != null) {
+            return denied;
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(dispatchService.createDriver(request));
+    }
+
+    /**
+     * PUT /api/delivery/drivers/{driverId}/location - Report a driver's position
+     * Admin only endpoint
+     */
+    @PutMapping("/drivers/{driverId}/location")
+    public ResponseEntity<?> updateLocation(@PathVariable Long driverId,
+                                            @Valid @RequestBody DriverLocationRequest request,
+                                            HttpSession session) {
+        ResponseEntity<?> denied = checkAdmin(session);
+        if (denied != null) {
+            return denied;
+        }
+        if (!dispatchService.updateLocation(driverId, request.getLatitude(), request.getLongitude())) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * PUT /api/delivery/drivers/{driverId}/status?status=AVAILABLE|OFFLINE - Bring a driver on or off shift
+     * Admin only endpoint
+     */
+    @PutMapping("/drivers/{driverId}/status")
+    public ResponseEntity<?> setDriverStatus(@PathVariable Long driverId, @RequestParam String status,
+                                             HttpSession session) {
+        ResponseEntity<?> denied = checkAdmin(session);
+        if (denied != null) {
+            return denied;
+        }
+        try {
+            Optional<DriverResponse> driver = dispatchService.setDriverStatus(driverId,
+                    DriverStatus.valueOf(status.toUpperCase()));
+            return driver.<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest()
+                .body(new ErrorResponse("DRIVER_STATUS_UPDATE_FAILED", e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /api/delivery/assignments - Deliveries in progress, latest runs first
+     * Admin only endpoint
+     */
+    @GetMapping("/assignments")
+    public ResponseEntity<?> getActiveAssignments(HttpSession session) {
+        ResponseEntity<?> denied = checkAdmin(session);
+        if (denied != null) {
+            return denied;
+        }
+        return ResponseEntity.ok(dispatchService.getActiveAssignments());
+    }
+
+    /**
+     * POST /api/delivery/assignments/{assignmentId}/delivered - Mark a delivery as done
+     * Admin only endpoint
+     */
+    @PostMapping("/assignments/{assignmentId}/delivered")
+    public ResponseEntity<?> completeDelivery(@PathVariable Long assignmentId, HttpSession session) {
+        ResponseEntity<?> denied = checkAdmin(session);
+        if (denied != null) {
+            return denied;
+        }
+        if (!dispatchService.completeDelivery(assignmentId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(new ErrorResponse("ASSIGNMENT_NOT_FOUND", "No delivery in progress with id " + assignmentId));
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * GET /api/delivery/dispatch - Waiting orders, free drivers and the last dispatch window
+     * Admin only endpoint
+     */
+    @GetMapping("/dispatch")
+    public ResponseEntity<?> getDispatchStats(HttpSession session) {
+        ResponseEntity<?> denied = checkAdmin(session);
+        if (denied != null) {
+            return denied;
+        }
+        return ResponseEntity.ok(dispatchService.snapshot());
+    }
+
+    /**
+     * POST /api/delivery/dispatch/run - Run a dispatch window now instead of waiting for the next one
+     * Admin only endpoint
+     */
+    @PostMapping("/dispatch/run")
+    public ResponseEntity<?> runDispatchWindow(HttpSession session) {
+        ResponseEntity<?> denied = checkAdmin(session);
+        if (denied != null) {
+            return denied;
+        }
+        return ResponseEntity.ok(Map.of("assignedOrders", dispatchService.runDispatchWindow()));
+    }
+
+    private ResponseEntity<?> checkAdmin(HttpSession session) {
+        Long userId = (Long) session.getAttribute("userId");
+        Role userRole = (Role) session.getAttribute("userRole");
+
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(new ErrorResponse("UNAUTHORIZED", "User not authenticated"));
+        }
+
+        if (userRole != Role.ADMIN) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(new ErrorResponse("FORBIDDEN", "Only admins can manage deliveries"));
+        }
+        return null;
+    }
+}
@@ -0,0 +1,89 @@
+package com.foodordering.controller;
+
+import com.foodordering.dto.ErrorResponse;
+import com.foodordering.dto.KitchenBatchResponse;
+import com.foodordering.entity.Role;
+import com.foodordering.service.KitchenService;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/kitchen")
+@CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
+public class KitchenController {
+
+    @Autowired
+    private KitchenService kitchenService;
+
+    /**
+     * GET /api/kitchen/stations - Queue depth and next promise per station
+     * Admin only endpoint
+     */
+    @GetMapping("/stations")
+    public ResponseEntity<?> getStations(HttpSession session) {
+        ResponseEntity<?> denied = checkAdmin(session);
+        if (denied != null) {
+            return denied;
+        }
+        return ResponseEntity.ok(kitchenService.snapshot());
+    }
+
+    /**
+     * POST /api/kitchen/stations/{station}/next - Take the next batch for a station
+     * Returns 204 when the station has nothing queued. Admin only endpoint
+     */
+    @PostMapping("/stations/{station}/next")
+    public ResponseEntity<?> pullNextBatch(@PathVariable String station, HttpSession session) {
+        ResponseEntity<?> denied = checkAdmin(session);
+        if (denied != null) {
+            return denied;
+        }
+        if (!kitchenService.hasStation(station)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(new ErrorResponse("STATION_NOT_FOUND", "Unknown kitchen station: " + station));
+        }
+        Optional<KitchenBatchResponse> batch = kitchenService.pullNextBatch(station);
+        if (batch.isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(batch.get());
+    }
+
+    /**
+     * POST /api/kitchen/batches/{batchId}/complete - Mark a batch as prepared
+     * Admin only endpoint
+     */
+    @PostMapping("/batches/{batchId}/complete")
+    public ResponseEntity<?> completeBatch(@PathVariable Long batchId, HttpSession session) {
+        ResponseEntity<?> denied = checkAdmin(session);
+        if (denied != null) {
+            return denied;
+        }
+        if (!kitchenService.completeBatch(batchId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(new ErrorResponse("BATCH_NOT_FOUND", "No batch in progress with id " + batchId));
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    private ResponseEntity<?> checkAdmin(HttpSession session) {
+        Long userId = (Long) session.getAttribute("userId");
+        Role userRole = (Role) session.getAttribute("userRole");
+
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(new ErrorResponse("UNAUTHORIZED", "User not authenticated"));
+        }
+
+        if (userRole != Role.ADMIN) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(new ErrorResponse("FORBIDDEN", "Only admins can use the kitchen queue"));
+        }
+        return null;
+    }
+}
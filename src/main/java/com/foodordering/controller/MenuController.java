@@ -1,18 +1,29 @@
 package com.foodordering.controller;
 
+import com.foodordering.dto.BulkImportResponse;
+import com.foodordering.dto.MenuChangesResponse;
 import com.foodordering.dto.MenuItemRequest;
 import com.foodordering.dto.MenuItemResponse;
 import com.foodordering.dto.ErrorResponse;
+import com.foodordering.service.BulkImportValidationException;
+import com.foodordering.service.MenuBulkImportService;
+import com.foodordering.service.MenuSearchService;
 import com.foodordering.service.MenuService;
+import com.foodordering.service.TrendingItemsService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/menu")
@@ -21,6 +32,15 @@ public class MenuController {
     @Autowired
     private MenuService menuService;
     
+    @Autowired
+    private TrendingItemsService trendingItemsService;
+    
+    @Autowired
+    private MenuBulkImportService menuBulkImportService;
+    
+    @Autowired
+    private MenuSearchService menuSearchService;
+    
     /**
      * GET /api/menu/items - Get all menu items
      * Public endpoint - no authentication required
@@ -43,6 +63,47 @@ public class MenuController {
         return ResponseEntity.ok(menuItems);
     }
     
+    /**
+     * GET /api/menu/items/trending - Get items that are popular right now
+     * Public endpoint - no authentication required
+     */
+    @GetMapping("/items/trending")
+    public ResponseEntity<List<MenuItemResponse>> getTrendingItems(
+            @RequestParam(required = false, defaultValue = "10") int limit) {
+        
+        int boundedLimit = Math.min(Math.max(limit, 1), TrendingItemsService.MAX_LIMIT);
+        List<MenuItemResponse> trendingItems = trendingItemsService.getTrendingItems(boundedLimit);
+        
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(trendingItemsService.getCacheTtlSeconds(), TimeUnit.SECONDS).cachePublic())
+                .body(trendingItems);
+    }
+    
+    /**
+     * GET /api/menu/search?q={text} - Search item names and categories, best match first
+     * Public endpoint - no authentication required. Tolerates one typo per word and matches
+     * the last word as a prefix, so it can drive autocomplete.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<MenuItemResponse>> searchMenuItems(
+            @RequestParam String q,
+            @RequestParam(required = false, defaultValue = "20") int limit,
+            @RequestParam(required = false, defaultValue = "false") boolean availableOnly) {
+        
+        int boundedLimit = Math.min(Math.max(limit, 1), MenuSearchService.MAX_LIMIT);
+        return ResponseEntity.ok(menuSearchService.search(q, boundedLimit, availableOnly));
+    }
+    
+    /**
+     * GET /api/menu/changes?since={version} - Get items changed since a catalog version
+     * Public endpoint - no authentication required. Returns the full menu (snapshot=true)
+     * when since is omitted or too old; clients keep the returned version for the next call.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<MenuChangesResponse> getMenuChanges(@RequestParam(required = false) Long since) {
+        return ResponseEntity.ok(menuService.getChangesSince(since));
+    }
+    
     /**
      * GET /api/menu/items/{id} - Get specific menu item
      * Public endpoint - no authentication required
@@ -75,6 +136,35 @@ public class MenuController {
         }
     }
     
+    /**
+     * POST /api/menu/items/bulk - Create or update many menu items, matched by name
+     * Admin only endpoint. Nothing is written if any item is invalid.
+     */
+    @PostMapping(value = "/items/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkImportResponse> bulkUpsertMenuItems(@RequestBody List<MenuItemRequest> requests) {
+        try {
+            return ResponseEntity.ok(menuBulkImportService.importItems(requests));
+        } catch (BulkImportValidationException e) {
+            return ResponseEntity.badRequest().body(BulkImportResponse.failed(e.getErrors()));
+        }
+    }
+    
+    /**
+     * POST /api/menu/items/bulk - Same as above for a streamed CSV body
+     * (header row: name,price,category,available,imageUrl)
+     * Admin only endpoint
+     */
+    @PostMapping(value = "/items/bulk", consumes = "text/csv")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkImportResponse> bulkUpsertMenuItemsCsv(HttpServletRequest request) throws IOException {
+        try {
+            return ResponseEntity.ok(menuBulkImportService.importCsv(request.getInputStream()));
+        } catch (BulkImportValidationException e) {
+            return ResponseEntity.badRequest().body(BulkImportResponse.failed(e.getErrors()));
+        }
+    }
+    
     /**
      * PUT /api/menu/items/{id} - Update existing menu item
      * Admin only endpoint
@@ -82,7 +172,13 @@ public class MenuController {
     @PutMapping("/items/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> updateMenuItem(@PathVariable Long id, @Valid @RequestBody MenuItemRequest request) {
-        Optional<MenuItemResponse> updatedMenuItem = menuService.updateMenuItem(id, request);
+        Optional<MenuItemResponse> updatedMenuItem;
+        try {
+            updatedMenuItem = menuService.updateMenuItem(id, request);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse("UPDATE_FAILED", "Failed to update menu item: " + e.getMessage()));
+        }
         
         if (updatedMenuItem.isPresent()) {
             return ResponseEntity.ok(updatedMenuItem.get());
@@ -0,0 +1,71 @@
+package com.foodordering.controller;
+
+import com.foodordering.dto.ErrorResponse;
+import com.foodordering.entity.Role;
+import com.foodordering.service.OrderAuditService;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/audit")
+@CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
+public class OrderAuditController {
+
+    @Autowired
+    private OrderAuditService orderAuditService;
+
+    /**
+     * GET /api/admin/audit/orders/{orderId} - Every recorded event of an order, oldest first
+     * Fails if a record no longer matches its checksum. Admin only endpoint
+     */
+    @GetMapping("/orders/{orderId}")
+    public ResponseEntity<?> getOrderHistory(@PathVariable Long orderId, HttpSession session) {
+        ResponseEntity<?> denied = checkAdmin(session);
+        if (denied != null) {
+            return denied;
+        }
+        try {
+            return ResponseEntity.ok(orderAuditService.getOrderHistory(orderId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest()
+                .body(new ErrorResponse("AUDIT_READ_FAILED", e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /api/admin/audit/verify - Re-check the checksum chain of the whole journal
+     * Admin only endpoint
+     */
+    @GetMapping("/verify")
+    public ResponseEntity<?> verify(HttpSession session) {
+        ResponseEntity<?> denied = checkAdmin(session);
+        if (denied != null) {
+            return denied;
+        }
+        try {
+            return ResponseEntity.ok(orderAuditService.verify());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest()
+                .body(new ErrorResponse("AUDIT_VERIFY_FAILED", e.getMessage()));
+        }
+    }
+
+    private ResponseEntity<?> checkAdmin(HttpSession session) {
+        Long userId = (Long) session.getAttribute("userId");
+        Role userRole = (Role) session.getAttribute("userRole");
+
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(new ErrorResponse("UNAUTHORIZED", "User not authenticated"));
+        }
+
+        if (userRole != Role.ADMIN) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(new ErrorResponse("FORBIDDEN", "Only admins can read the order audit log"));
+        }
+        return null;
+    }
+}
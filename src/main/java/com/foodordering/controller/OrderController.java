@@ -1,18 +1,38 @@
 package com.foodordering.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.foodordering.dto.CreateOrderRequest;
 import com.foodordering.dto.ErrorResponse;
 import com.foodordering.dto.OrderResponse;
 import com.foodordering.entity.Role;
 import com.foodordering.service.OrderService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -22,6 +42,15 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
     
+    @Autowired
+    private MappingJackson2HttpMessageConverter jsonConverter;
+    
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+    
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+    
     @PostMapping
     public ResponseEntity<?> createOrder(@Valid @RequestBody CreateOrderRequest request, HttpSession session) {
         try {
@@ -34,6 +63,9 @@ public class OrderController {
             OrderResponse orderResponse = orderService.createOrder(request, userId);
             return ResponseEntity.status(HttpStatus.CREATED).body(orderResponse);
             
+        } catch (CannotCreateTransactionException e) {
+            // No connection within the pool's wait budget: ApiExceptionHandler answers 503
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest()
                 .body(new ErrorResponse("ORDER_CREATION_FAILED", e.getMessage()));
@@ -41,7 +73,7 @@ public class OrderController {
     }
     
     @GetMapping("/{orderId}")
-    public ResponseEntity<?> getOrder(@PathVariable Long orderId, HttpSession session) {
+    public ResponseEntity<?> getOrder(@PathVariable Long orderId, HttpSession session, WebRequest webRequest) {
         try {
             Long userId = (Long) session.getAttribute("userId");
             if (userId == null) {
@@ -49,8 +81,20 @@ public class OrderController {
                     .body(new ErrorResponse("UNAUTHORIZED", "User not authenticated"));
             }
             
-            OrderResponse orderResponse = orderService.getOrderById(orderId, userId);
-            return ResponseEntity.ok(orderResponse);
+            // The order row and its lines, read as a projection, answer an unchanged poll with 304
+            Optional<OrderResponse> current = orderService.findUserOrder(orderId, userId);
+            if (current.isPresent() && notModified(webRequest, current.get().getUpdatedAt(),
+                    estimateTag(current.get().getEstimatedDeliveryAt()))) {
+                return null;
+            }
+            
+            // Archived orders, and other users' orders (refused), go through the full lookup
+            OrderResponse orderResponse = current.isPresent()
+                ? current.get()
+                : orderService.getOrderById(orderId, userId);
+            return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(orderResponse);
             
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest()
@@ -58,8 +102,15 @@ public class OrderController {
         }
     }
     
+    /**
+     * With updatedSince, only orders changed since then (oldest change first) are returned.
+     * includeArchived adds orders moved to the archive; archived orders never change.
+     */
     @GetMapping
-    public ResponseEntity<?> getUserOrders(HttpSession session) {
+    public ResponseEntity<?> getUserOrders(@RequestParam(required = false)
+                                           @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince,
+                                           @RequestParam(defaultValue = "false") boolean includeArchived,
+                                           HttpSession session, WebRequest webRequest) {
         try {
             Long userId = (Long) session.getAttribute("userId");
             if (userId == null) {
@@ -67,8 +118,20 @@ public class OrderController {
                     .body(new ErrorResponse("UNAUTHORIZED", "User not authenticated"));
             }
             
-            List<OrderResponse> orders = orderService.getUserOrders(userId);
-            return ResponseEntity.ok(orders);
+            // Newest updated_at or archived_at, each from a (user_id, ...) index, decides whether anything changed;
+            // the open orders' rows, without their lines, stand in for their ETAs
+            Optional<LocalDateTime> lastModified = orderService.getUserOrdersLastModified(userId);
+            if (lastModified.isPresent() && notModified(webRequest, lastModified.get(),
+                    orderService.getUserOrdersEtaTag(userId))) {
+                return null;
+            }
+            
+            List<OrderResponse> orders = updatedSince != null
+                ? orderService.getUserOrdersUpdatedSince(userId, updatedSince)
+                : orderService.getUserOrders(userId, includeArchived);
+            return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(orders);
             
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest()
@@ -105,28 +168,107 @@ public class OrderController {
     }
     
     @GetMapping("/admin/all")
-    public ResponseEntity<?> getAllOrders(HttpSession session) {
+    public ResponseEntity<?> getAllOrders(@RequestParam(required = false)
+                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince,
+                                          HttpSession session,
+                                          @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                          HttpServletResponse response) throws IOException {
+        // Everything that can refuse the request is decided before the first byte is written
+        Long userId = (Long) session.getAttribute("userId");
+        Role userRole = (Role) session.getAttribute("userRole");
+        
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(new ErrorResponse("UNAUTHORIZED", "User not authenticated"));
+        }
+        
+        // Only admins can view all orders
+        if (userRole != Role.ADMIN) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(new ErrorResponse("FORBIDDEN", "Only admins can view all orders"));
+        }
+        
+        AbstractJackson2HttpMessageConverter converter;
         try {
-            Long userId = (Long) session.getAttribute("userId");
-            Role userRole = (Role) session.getAttribute("userRole");
-            
-            if (userId == null) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(new ErrorResponse("UNAUTHORIZED", "User not authenticated"));
-            }
-            
-            // Only admins can view all orders
-            if (userRole != Role.ADMIN) {
-                return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(new ErrorResponse("FORBIDDEN", "Only admins can view all orders"));
-            }
-            
-            List<OrderResponse> orders = orderService.getAllOrders();
-            return ResponseEntity.ok(orders);
-            
-        } catch (RuntimeException e) {
+            converter = negotiateConverter(accept);
+        } catch (InvalidMediaTypeException e) {
             return ResponseEntity.badRequest()
                 .body(new ErrorResponse("ORDERS_FETCH_FAILED", e.getMessage()));
         }
+        
+        // Written to the response as the orders are read, never materialized as one list.
+        // Closing the generator would complete the array, so it is only closed on success.
+        ObjectWriter writer = converter.getObjectMapper().writerFor(OrderResponse.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+            .without(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+        response.setContentType(converter.getSupportedMediaTypes().get(0).toString());
+        JsonGenerator generator = writer.createGenerator(response.getOutputStream());
+        try {
+            generator.writeStartArray();
+            if (updatedSince != null) {
+                orderService.forEachOrderUpdatedSince(updatedSince, order -> writeOrder(writer, generator, order));
+            } else {
+                orderService.forEachOrder(order -> writeOrder(writer, generator, order));
+            }
+            generator.writeEndArray();
+        } catch (RuntimeException e) {
+            // Before the 200 is committed the error can still be reported normally. After it,
+            // rethrowing makes the container abort the connection, so the client sees a broken
+            // response rather than a complete-looking truncated list.
+            if (!response.isCommitted()) {
+                response.reset();
+            }
+            throw e;
+        }
+        generator.close();
+        return null;
+    }
+    
+    /**
+     * The streamed list bypasses Spring's message converters, so pick the format here:
+     * JSON unless the client asks for CBOR or Smile
+     */
+    private AbstractJackson2HttpMessageConverter negotiateConverter(String accept) {
+        if (accept != null) {
+            for (MediaType mediaType : MediaType.parseMediaTypes(accept)) {
+                for (AbstractJackson2HttpMessageConverter converter : List.of(jsonConverter, cborConverter, smileConverter)) {
+                    if (converter.canWrite(OrderResponse.class, mediaType)) {
+                        return converter;
+                    }
+                }
+            }
+        }
+        return jsonConverter;
+    }
+    
+    /**
+     * Conditional GET on updatedAt and the ETAs in the response. The weak ETag carries the full
+     * timestamp (Last-Modified only has second precision) and a tag for the ETAs, which move
+     * with the clock and kitchen load while updatedAt stands still. Last-Modified cannot express
+     * an ETA, so it is only sent, and If-Modified-Since only honoured, when there is none
+     * (etaTag is null). Sets 304 (or the validators on a 200) on the response.
+     */
+    private static boolean notModified(WebRequest webRequest, LocalDateTime lastModified, String etaTag) {
+        long lastModifiedMillis = lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        if (etaTag == null) {
+            return webRequest.checkNotModified("W/\"" + lastModifiedMillis + "\"", lastModifiedMillis);
+        }
+        return webRequest.checkNotModified("W/\"" + lastModifiedMillis + "-" + etaTag + "\"");
+    }
+    
+    /**
+     * The ETA to the minute, or null when the order has none
+     */
+    private static String estimateTag(LocalDateTime estimate) {
+        return estimate == null ? null
+            : Long.toHexString(estimate.atZone(ZoneId.systemDefault()).toEpochSecond() / 60);
+    }
+    
+    private static void writeOrder(ObjectWriter writer, JsonGenerator generator, OrderResponse order) {
+        try {
+            writer.writeValue(generator, order);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,125 @@
+package com.foodordering.controller;
+
+import com.foodordering.dto.ErrorResponse;
+import com.foodordering.dto.PricingRuleRequest;
+import com.foodordering.dto.PricingRuleResponse;
+import com.foodordering.entity.Role;
+import com.foodordering.service.PricingService;
+import jakarta.servlet.http.HttpSession;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/pricing")
+@CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
+public class PricingController {
+
+    @Autowired
+    private PricingService pricingService;
+
+    /**
+     * GET /api/pricing/rules - All pricing rules, including disabled ones
+     * Admin only endpoint
+     */
+    @GetMapping("/rules")
+    public ResponseEntity<?> getRules(HttpSession session) {
+        ResponseEntity<?> denied = checkAdmin(session);
+        if (denied != null) {
+            return denied;
+        }
+        return ResponseEntity.ok(pricingService.getRules());
+    }
+
+    /**
+     * POST /api/pricing/rules - Create a promotion; it applies to new quotes and orders at once
+     * Admin only endpoint
+     */
+    @PostMapping("/rules")
+    public ResponseEntity<?> createRule(@Valid @RequestBody PricingRuleRequest request, HttpSession session) {
+        ResponseEntity<?> denied = checkAdmin(session);
+        if (denied != null) {
+            return denied;
+        }
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(pricingService.createRule(request));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest()
+                .body(new ErrorResponse("INVALID_RULE", e.getMessage()));
+        }
+    }
+
+    /**
+     * PUT /api/pricing/rules/{id} - Replace a promotion
+     * Admin only endpoint
+     */
+    @PutMapping("/rules/{id}")
+    public ResponseEntity<?> updateRule(@PathVariable Long id, @Valid @RequestBody PricingRuleRequest request,
+                                        HttpSession session) {
+        ResponseEntity<?> denied = checkAdmin(session);
+        if (denied != null) {
+            return denied;
+        }
+        try {
+            Optional<PricingRuleResponse> updated = pricingService.updateRule(id, request);
+            if (updated.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ErrorResponse("NOT_FOUND", "Pricing rule not found with id: " + id));
+            }
+            return ResponseEntity.ok(updated.get());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest()
+                .body(new ErrorResponse("INVALID_RULE", e.getMessage()));
+        }
+    }
+
+    /**
+     * DELETE /api/pricing/rules/{id} - Remove a promotion
+     * Admin only endpoint
+     */
+    @DeleteMapping("/rules/{id}")
+    public ResponseEntity<?> deleteRule(@PathVariable Long id, HttpSession session) {
+        ResponseEntity<?> denied = checkAdmin(session);
+        if (denied != null) {
+            return denied;
+        }
+        if (!pricingService.deleteRule(id)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(new ErrorResponse("NOT_FOUND", "Pricing rule not found with id: " + id));
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * GET /api/pricing/plan - Size of the compiled plan and when it is next recompiled
+     * Admin only endpoint
+     */
+    @GetMapping("/plan")
+    public ResponseEntity<?> getPlan(HttpSession session) {
+        ResponseEntity<?> denied = checkAdmin(session);
+        if (denied != null) {
+            return denied;
+        }
+        return ResponseEntity.ok(pricingService.snapshot());
+    }
+
+    private ResponseEntity<?> checkAdmin(HttpSession session) {
+        Long userId = (Long) session.getAttribute("userId");
+        Role userRole = (Role) session.getAttribute("userRole");
+
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(new ErrorResponse("UNAUTHORIZED", "User not authenticated"));
+        }
+
+        if (userRole != Role.ADMIN) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(new ErrorResponse("FORBIDDEN", "Only admins can manage pricing rules"));
+        }
+        return null;
+    }
+}
@@ -0,0 +1,70 @@
+package com.foodordering.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkImportResponse {
+    
+    private int processed;
+    private int created;
+    private int updated;
+    private int chunks;
+    private List<String> errors = new ArrayList<>();
+    
+    // Constructors
+    public BulkImportResponse() {}
+    
+    public BulkImportResponse(int processed, int created, int updated, int chunks) {
+        this.processed = processed;
+        this.created = created;
+        this.updated = updated;
+        this.chunks = chunks;
+    }
+    
+    public static BulkImportResponse failed(List<String> errors) {
+        BulkImportResponse response = new BulkImportResponse();
+        response.setErrors(errors);
+        return response;
+    }
+    
+    // Getters and Setters
+    public int getProcessed() {
+        return processed;
+    }
+    
+    public void setProcessed(int processed) {
+        this.processed = processed;
+    }
+    
+    public int getCreated() {
+        return created;
+    }
+    
+    public void setCreated(int created) {
+        this.created = created;
+    }
+    
+    public int getUpdated() {
+        return updated;
+    }
+    
+    public void setUpdated(int updated) {
+        this.updated = updated;
+    }
+    
+    public int getChunks() {
+        return chunks;
+    }
+    
+    public void setChunks(int chunks) {
+        this.chunks = chunks;
+    }
+    
+    public List<String> getErrors() {
+        return errors;
+    }
+    
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+}
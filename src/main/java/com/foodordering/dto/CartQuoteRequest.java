@@ -0,0 +1,28 @@
+package com.foodordering.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+
+public class CartQuoteRequest {
+    
+    @NotEmpty(message = "Cart items cannot be empty")
+    @Valid
+    private List<CreateOrderRequest.OrderItemRequest> items;
+    
+    // Constructors
+    public CartQuoteRequest() {}
+    
+    public CartQuoteRequest(List<CreateOrderRequest.OrderItemRequest> items) {
+        this.items = items;
+    }
+    
+    // Getters and Setters
+    public List<CreateOrderRequest.OrderItemRequest> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<CreateOrderRequest.OrderItemRequest> items) {
+        this.items = items;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,188 @@
+package com.foodordering.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CartQuoteResponse {
+    
+    // Pass back as CreateOrderRequest.quoteToken to order at these prices until expiresAt
+    private String quoteToken;
+    private LocalDateTime expiresAt;
+    private Long catalogVersion;
+    private BigDecimal subtotal;
+    private BigDecimal discount;
+    // Names of the pricing rules behind the discount
+    private List<String> appliedPromotions = new ArrayList<>();
+    private BigDecimal total;
+    private List<QuoteItem> items = new ArrayList<>();
+    private List<String> errors = new ArrayList<>();
+    
+    // Constructors
+    public CartQuoteResponse() {}
+    
+    public CartQuoteResponse(String quoteToken, LocalDateTime expiresAt, Long catalogVersion,
+                             BigDecimal subtotal, BigDecimal discount, List<String> appliedPromotions,
+                             List<QuoteItem> items) {
+        this.quoteToken = quoteToken;
+        this.expiresAt = expiresAt;
+        this.catalogVersion = catalogVersion;
+        this.subtotal = subtotal;
+        this.discount = discount;
+        this.appliedPromotions = appliedPromotions;
+        this.total = subtotal.subtract(discount);
+        this.items = items;
+    }
+    
+    public static CartQuoteResponse failed(List<String> errors) {
+        CartQuoteResponse response = new CartQuoteResponse();
+        response.setErrors(errors);
+        return response;
+    }
+    
+    // Getters and Setters
+    public String getQuoteToken() {
+        return quoteToken;
+    }
+    
+    public void setQuoteToken(String quoteToken) {
+        this.quoteToken = quoteToken;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+    
+    public Long getCatalogVersion() {
+        return catalogVersion;
+    }
+    
+    public void setCatalogVersion(Long catalogVersion) {
+        this.catalogVersion = catalogVersion;
+    }
+    
+    public BigDecimal getSubtotal() {
+        return subtotal;
+    }
+    
+    public void setSubtotal(BigDecimal subtotal) {
+        this.subtotal = subtotal;
+    }
+    
+    public BigDecimal getDiscount() {
+        return discount;
+    }
+    
+    public void setDiscount(BigDecimal discount) {
+        this.discount = discount;
+    }
+    
+    public List<String> getAppliedPromotions() {
+        return appliedPromotions;
+    }
+    
+    public void setAppliedPromotions(List<String> appliedPromotions) {
+        this.appliedPromotions = appliedPromotions;
+    }
+    
+    public BigDecimal getTotal() {
+        return total;
+    }
+    
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+    
+    public List<QuoteItem> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<QuoteItem> items) {
+        this.items = items;
+    }
+    
+    public List<String> getErrors() {
+        return errors;
+    }
+    
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+    
+    public static class QuoteItem {
+        
+        private Long menuItemId;
+        private String menuItemName;
+        private String category;
+        private Integer quantity;
+        private BigDecimal unitPrice;
+        private BigDecimal subtotal;
+        
+        // Constructors
+        public QuoteItem() {}
+        
+        public QuoteItem(Long menuItemId, String menuItemName, String category,
+                         Integer quantity, BigDecimal unitPrice) {
+            this.menuItemId = menuItemId;
+            this.menuItemName = menuItemName;
+            this.category = category;
+            this.quantity = quantity;
+            this.unitPrice = unitPrice;
+            this.subtotal = unitPrice.multiply(BigDecimal.valueOf(quantity));
+        }
+        
+        // Getters and Setters
+        public Long getMenuItemId() {
+            return menuItemId;
+        }
+        
+        public void setMenuItemId(Long menuItemId) {
+            this.menuItemId = menuItemId;
+        }
+        
+        public String getMenuItemName() {
+            return menuItemName;
+        }
+        
+        public void setMenuItemName(String menuItemName) {
+            this.menuItemName = menuItemName;
+        }
+        
+        public String getCategory() {
+            return category;
+        }
+        
+        public void setCategory(String category) {
+            this.category = category;
+        }
+        
+        public Integer getQuantity() {
+            return quantity;
+        }
+        
+        public void setQuantity(Integer quantity) {
+            this.quantity = quantity;
+        }
+        
+        public BigDecimal getUnitPrice() {
+            return unitPrice;
+        }
+        
+        public void setUnitPrice(BigDecimal unitPrice) {
+            this.unitPrice = unitPrice;
+        }
+        
+        public BigDecimal getSubtotal() {
+            return subtotal;
+        }
+        
+        public void setSubtotal(BigDecimal subtotal) {
+            this.subtotal = subtotal;
+        }
+    }
+}
\ No newline at end of file
@@ -1,8 +1,12 @@
 package com.foodordering.dto;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public class CreateOrderRequest {
@@ -11,6 +15,22 @@ public class CreateOrderRequest {
     @Valid
     private List<OrderItemRequest> items;
     
+    // Optional drop-off point for delivery dispatch
+    @DecimalMin(value = "-90.0", message = "Delivery latitude must be between -90 and 90")
+    @DecimalMax(value = "90.0", message = "Delivery latitude must be between -90 and 90")
+    private Double deliveryLatitude;
+    
+    @DecimalMin(value = "-180.0", message = "Delivery longitude must be between -180 and 180")
+    @DecimalMax(value = "180.0", message = "Delivery longitude must be between -180 and 180")
+    private Double deliveryLongitude;
+    
+    // Optional CartQuoteResponse.quoteToken; a current quote skips looking up and pricing the items
+    private String quoteToken;
+    
+    // Optional time the customer wants the order for; null for as soon as possible
+    @Future(message = "Scheduled time must be in the future")
+    private LocalDateTime scheduledFor;
+    
     // Constructors
     public CreateOrderRequest() {}
     
@@ -27,6 +47,38 @@ public class CreateOrderRequest {
         this.items = items;
     }
     
+    public Double getDeliveryLatitude() {
+        return deliveryLatitude;
+    }
+    
+    public void setDeliveryLatitude(Double deliveryLatitude) {
+        this.deliveryLatitude = deliveryLatitude;
+    }
+    
+    public Double getDeliveryLongitude() {
+        return deliveryLongitude;
+    }
+    
+    public void setDeliveryLongitude(Double deliveryLongitude) {
+        this.deliveryLongitude = deliveryLongitude;
+    }
+    
+    public String getQuoteToken() {
+        return quoteToken;
+    }
+    
+    public void setQuoteToken(String quoteToken) {
+        this.quoteToken = quoteToken;
+    }
+    
+    public LocalDateTime getScheduledFor() {
+        return scheduledFor;
+    }
+    
+    public void setScheduledFor(LocalDateTime scheduledFor) {
+        this.scheduledFor = scheduledFor;
+    }
+    
     public static class OrderItemRequest {
         
         @NotNull(message = "Menu item ID is required")
@@ -0,0 +1,96 @@
+package com.foodordering.dto;
+
+import com.foodordering.entity.DeliveryAssignment;
+import com.foodordering.entity.DeliveryStatus;
+import java.time.LocalDateTime;
+
+public class DeliveryAssignmentResponse {
+    
+    private Long id;
+    private Long orderId;
+    private Long driverId;
+    private Integer stopNumber;
+    private DeliveryStatus status;
+    private Double pickupDistanceKm;
+    private LocalDateTime assignedAt;
+    private LocalDateTime completedAt;
+    
+    // Constructors
+    public DeliveryAssignmentResponse() {}
+    
+    public DeliveryAssignmentResponse(DeliveryAssignment assignment) {
+        this.id = assignment.getId();
+        this.orderId = assignment.getOrderId();
+        this.driverId = assignment.getDriverId();
+        this.stopNumber = assignment.getStopNumber();
+        this.status = assignment.getStatus();
+        this.pickupDistanceKm = assignment.getPickupDistanceKm();
+        this.assignedAt = assignment.getAssignedAt();
+        this.completedAt = assignment.getCompletedAt();
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getOrderId() {
+        return orderId;
+    }
+    
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+    
+    public Long getDriverId() {
+        return driverId;
+    }
+    
+    public void setDriverId(Long driverId) {
+        this.driverId = driverId;
+    }
+    
+    public Integer getStopNumber() {
+        return stopNumber;
+    }
+    
+    public void setStopNumber(Integer stopNumber) {
+        this.stopNumber = stopNumber;
+    }
+    
+    public DeliveryStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(DeliveryStatus status) {
+        this.status = status;
+    }
+    
+    public Double getPickupDistanceKm() {
+        return pickupDistanceKm;
+    }
+    
+    public void setPickupDistanceKm(Double pickupDistanceKm) {
+        this.pickupDistanceKm = pickupDistanceKm;
+    }
+    
+    public LocalDateTime getAssignedAt() {
+        return assignedAt;
+    }
+    
+    public void setAssignedAt(LocalDateTime assignedAt) {
+        this.assignedAt = assignedAt;
+    }
+    
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+    
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+}
@@ -0,0 +1,76 @@
+package com.foodordering.dto;
+
+import com.foodordering.entity.Driver;
+import com.foodordering.entity.DriverStatus;
+import java.time.LocalDateTime;
+
+public class DriverResponse {
+    
+    private Long id;
+    private String name;
+    private DriverStatus status;
+    private Double latitude;
+    private Double longitude;
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public DriverResponse() {}
+    
+    public DriverResponse(Driver driver) {
+        this.id = driver.getId();
+        this.name = driver.getName();
+        this.status = driver.getStatus();
+        this.latitude = driver.getLatitude();
+        this.longitude = driver.getLongitude();
+        this.updatedAt = driver.getUpdatedAt();
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public DriverStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(DriverStatus status) {
+        this.status = status;
+    }
+    
+    public Double getLatitude() {
+        return latitude;
+    }
+    
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+    
+    public Double getLongitude() {
+        return longitude;
+    }
+    
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
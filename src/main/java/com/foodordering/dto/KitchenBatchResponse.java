@@ -0,0 +1,137 @@
+package com.foodordering.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class KitchenBatchResponse {
+    
+    private Long batchId;
+    private String station;
+    private Long menuItemId;
+    private String menuItemName;
+    private int quantity;
+    private LocalDateTime promisedAt;
+    private LocalDateTime startedAt;
+    private List<BatchLine> lines = new ArrayList<>();
+    
+    // Constructors
+    public KitchenBatchResponse() {}
+    
+    public KitchenBatchResponse(Long batchId, String station, Long menuItemId, String menuItemName, int quantity,
+                                LocalDateTime promisedAt, LocalDateTime startedAt, List<BatchLine> lines) {
+        this.batchId = batchId;
+        this.station = station;
+        this.menuItemId = menuItemId;
+        this.menuItemName = menuItemName;
+        this.quantity = quantity;
+        this.promisedAt = promisedAt;
+        this.startedAt = startedAt;
+        this.lines = lines;
+    }
+    
+    // Getters and Setters
+    public Long getBatchId() {
+        return batchId;
+    }
+    
+    public void setBatchId(Long batchId) {
+        this.batchId = batchId;
+    }
+    
+    public String getStation() {
+        return station;
+    }
+    
+    public void setStation(String station) {
+        this.station = station;
+    }
+    
+    public Long getMenuItemId() {
+        return menuItemId;
+    }
+    
+    public void setMenuItemId(Long menuItemId) {
+        this.menuItemId = menuItemId;
+    }
+    
+    public String getMenuItemName() {
+        return menuItemName;
+    }
+    
+    public void setMenuItemName(String menuItemName) {
+        this.menuItemName = menuItemName;
+    }
+    
+    public int getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+    
+    public LocalDateTime getPromisedAt() {
+        return promisedAt;
+    }
+    
+    public void setPromisedAt(LocalDateTime promisedAt) {
+        this.promisedAt = promisedAt;
+    }
+    
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+    
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+    
+    public List<BatchLine> getLines() {
+        return lines;
+    }
+    
+    public void setLines(List<BatchLine> lines) {
+        this.lines = lines;
+    }
+    
+    public static class BatchLine {
+        private Long orderId;
+        private int quantity;
+        private LocalDateTime promisedAt;
+        
+        // Constructors
+        public BatchLine() {}
+        
+        public BatchLine(Long orderId, int quantity, LocalDateTime promisedAt) {
+            this.orderId = orderId;
+            this.quantity = quantity;
+            this.promisedAt = promisedAt;
+        }
+        
+        // Getters and Setters
+        public Long getOrderId() {
+            return orderId;
+        }
+        
+        public void setOrderId(Long orderId) {
+            this.orderId = orderId;
+        }
+        
+        public int getQuantity() {
+            return quantity;
+        }
+        
+        public void setQuantity(int quantity) {
+            this.quantity = quantity;
+        }
+        
+        public LocalDateTime getPromisedAt() {
+            return promisedAt;
+        }
+        
+        public void setPromisedAt(LocalDateTime promisedAt) {
+            this.promisedAt = promisedAt;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.foodordering.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class MenuChangesResponse {
+
+    private long version;
+    private boolean snapshot;
+    private List<MenuItemResponse> items = new ArrayList<>();
+    private List<Long> deletedIds = new ArrayList<>();
+
+    // Constructors
+    public MenuChangesResponse() {}
+
+    public MenuChangesResponse(long version, boolean snapshot, List<MenuItemResponse> items, List<Long> deletedIds) {
+        this.version = version;
+        this.snapshot = snapshot;
+        this.items = items;
+        this.deletedIds = deletedIds;
+    }
+
+    // Getters and Setters
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public boolean isSnapshot() {
+        return snapshot;
+    }
+
+    public void setSnapshot(boolean snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public List<MenuItemResponse> getItems() {
+        return items;
+    }
+
+    public void setItems(List<MenuItemResponse> items) {
+        this.items = items;
+    }
+
+    public List<Long> getDeletedIds() {
+        return deletedIds;
+    }
+
+    public void setDeletedIds(List<Long> deletedIds) {
+        this.deletedIds = deletedIds;
+    }
+}
@@ -0,0 +1,99 @@
+package com.foodordering.dto;
+
+import com.foodordering.entity.OrderStatus;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class OrderAuditEntryResponse {
+    
+    private Long sequence;
+    private LocalDateTime recordedAt;
+    private Long orderId;
+    private Long userId;
+    private String eventType;
+    private OrderStatus previousStatus;
+    private OrderStatus status;
+    private BigDecimal total;
+    
+    // Constructors
+    public OrderAuditEntryResponse() {}
+    
+    public OrderAuditEntryResponse(Long sequence, LocalDateTime recordedAt, Long orderId, Long userId, String eventType,
+                                   OrderStatus previousStatus, OrderStatus status, BigDecimal total) {
+        this.sequence = sequence;
+        this.recordedAt = recordedAt;
+        this.orderId = orderId;
+        this.userId = userId;
+        this.eventType = eventType;
+        this.previousStatus = previousStatus;
+        this.status = status;
+        this.total = total;
+    }
+    
+    // Getters and Setters
+    public Long getSequence() {
+        return sequence;
+    }
+    
+    public void setSequence(Long sequence) {
+        this.sequence = sequence;
+    }
+    
+    public LocalDateTime getRecordedAt() {
+        return recordedAt;
+    }
+    
+    public void setRecordedAt(LocalDateTime recordedAt) {
+        this.recordedAt = recordedAt;
+    }
+    
+    public Long getOrderId() {
+        return orderId;
+    }
+    
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    // ORDER_PLACED or ORDER_STATUS_CHANGED
+    public String getEventType() {
+        return eventType;
+    }
+    
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+    
+    public OrderStatus getPreviousStatus() {
+        return previousStatus;
+    }
+    
+    public void setPreviousStatus(OrderStatus previousStatus) {
+        this.previousStatus = previousStatus;
+    }
+    
+    public OrderStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(OrderStatus status) {
+        this.status = status;
+    }
+    
+    // Only recorded when the order is placed
+    public BigDecimal getTotal() {
+        return total;
+    }
+    
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+}
@@ -3,6 +3,7 @@ package com.foodordering.dto;
 import com.foodordering.entity.OrderStatus;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 public class OrderResponse {
@@ -11,13 +12,30 @@ public class OrderResponse {
     private Long userId;
     private List<OrderItemResponse> items;
     private BigDecimal total;
+    private BigDecimal discount = BigDecimal.ZERO;
     private OrderStatus status;
+    // Requested time of a scheduled order; null for as soon as possible
+    private LocalDateTime scheduledFor;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    // Null once the order is delivered or cancelled
+    private LocalDateTime estimatedDeliveryAt;
     
     // Constructors
     public OrderResponse() {}
     
+    public OrderResponse(Long id, Long userId, BigDecimal total, OrderStatus status,
+                        LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, userId, new ArrayList<>(), total, status, createdAt, updatedAt);
+    }
+    
+    public OrderResponse(Long id, Long userId, BigDecimal total, BigDecimal discount, OrderStatus status,
+                        LocalDateTime scheduledFor, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, userId, new ArrayList<>(), total, status, createdAt, updatedAt);
+        this.discount = discount;
+        this.scheduledFor = scheduledFor;
+    }
+    
     public OrderResponse(Long id, Long userId, List<OrderItemResponse> items, 
                         BigDecimal total, OrderStatus status, 
                         LocalDateTime createdAt, LocalDateTime updatedAt) {
@@ -63,6 +81,14 @@ public class OrderResponse {
         this.total = total;
     }
     
+    public BigDecimal getDiscount() {
+        return discount;
+    }
+    
+    public void setDiscount(BigDecimal discount) {
+        this.discount = discount;
+    }
+    
     public OrderStatus getStatus() {
         return status;
     }
@@ -71,6 +97,14 @@ public class OrderResponse {
         this.status = status;
     }
     
+    public LocalDateTime getScheduledFor() {
+        return scheduledFor;
+    }
+    
+    public void setScheduledFor(LocalDateTime scheduledFor) {
+        this.scheduledFor = scheduledFor;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -87,11 +121,20 @@ public class OrderResponse {
         this.updatedAt = updatedAt;
     }
     
+    public LocalDateTime getEstimatedDeliveryAt() {
+        return estimatedDeliveryAt;
+    }
+    
+    public void setEstimatedDeliveryAt(LocalDateTime estimatedDeliveryAt) {
+        this.estimatedDeliveryAt = estimatedDeliveryAt;
+    }
+    
     public static class OrderItemResponse {
         
         private Long id;
         private Long menuItemId;
         private String menuItemName;
+        private String category;
         private Integer quantity;
         private BigDecimal unitPrice;
         private BigDecimal subtotal;
@@ -109,6 +152,12 @@ public class OrderResponse {
             this.subtotal = subtotal;
         }
         
+        public OrderItemResponse(Long id, Long menuItemId, String menuItemName, String category,
+                               Integer quantity, BigDecimal unitPrice, BigDecimal subtotal) {
+            this(id, menuItemId, menuItemName, quantity, unitPrice, subtotal);
+            this.category = category;
+        }
+        
         // Getters and Setters
         public Long getId() {
             return id;
@@ -134,6 +183,14 @@ public class OrderResponse {
             this.menuItemName = menuItemName;
         }
         
+        public String getCategory() {
+            return category;
+        }
+        
+        public void setCategory(String category) {
+            this.category = category;
+        }
+        
         public Integer getQuantity() {
             return quantity;
         }
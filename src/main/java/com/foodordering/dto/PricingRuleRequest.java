@@ -0,0 +1,160 @@
+package com.foodordering.dto;
+
+import com.foodordering.entity.PricingRuleType;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+public class PricingRuleRequest {
+    
+    @NotBlank(message = "Name is required")
+    private String name;
+    
+    @NotNull(message = "Type is required")
+    private PricingRuleType type;
+    
+    // Exactly one of menuItemId and category, except for COMBO rules
+    private Long menuItemId;
+    
+    private String category;
+    
+    // Comma-separated, 2 to 4 categories, for COMBO rules
+    private String comboCategories;
+    
+    @DecimalMin(value = "0.01", message = "Discount value must be positive")
+    private BigDecimal discountValue;
+    
+    @Min(value = 1, message = "Buy quantity must be at least 1")
+    private Integer buyQuantity;
+    
+    @Min(value = 1, message = "Free quantity must be at least 1")
+    private Integer freeQuantity;
+    
+    private LocalDateTime startsAt;
+    
+    private LocalDateTime endsAt;
+    
+    private LocalTime dailyStart;
+    
+    private LocalTime dailyEnd;
+    
+    private Boolean active = true;
+    
+    // Constructors
+    public PricingRuleRequest() {}
+    
+    public PricingRuleRequest(String name, PricingRuleType type, BigDecimal discountValue) {
+        this.name = name;
+        this.type = type;
+        this.discountValue = discountValue;
+    }
+    
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public PricingRuleType getType() {
+        return type;
+    }
+    
+    public void setType(PricingRuleType type) {
+        this.type = type;
+    }
+    
+    public Long getMenuItemId() {
+        return menuItemId;
+    }
+    
+    public void setMenuItemId(Long menuItemId) {
+        this.menuItemId = menuItemId;
+    }
+    
+    public String getCategory() {
+        return category;
+    }
+    
+    public void setCategory(String category) {
+        this.category = category;
+    }
+    
+    public String getComboCategories() {
+        return comboCategories;
+    }
+    
+    public void setComboCategories(String comboCategories) {
+        this.comboCategories = comboCategories;
+    }
+    
+    public BigDecimal getDiscountValue() {
+        return discountValue;
+    }
+    
+    public void setDiscountValue(BigDecimal discountValue) {
+        this.discountValue = discountValue;
+    }
+    
+    public Integer getBuyQuantity() {
+        return buyQuantity;
+    }
+    
+    public void setBuyQuantity(Integer buyQuantity) {
+        this.buyQuantity = buyQuantity;
+    }
+    
+    public Integer getFreeQuantity() {
+        return freeQuantity;
+    }
+    
+    public void setFreeQuantity(Integer freeQuantity) {
+        this.freeQuantity = freeQuantity;
+    }
+    
+    public LocalDateTime getStartsAt() {
+        return startsAt;
+    }
+    
+    public void setStartsAt(LocalDateTime startsAt) {
+        this.startsAt = startsAt;
+    }
+    
+    public LocalDateTime getEndsAt() {
+        return endsAt;
+    }
+    
+    public void setEndsAt(LocalDateTime endsAt) {
+        this.endsAt = endsAt;
+    }
+    
+    public LocalTime getDailyStart() {
+        return dailyStart;
+    }
+    
+    public void setDailyStart(LocalTime dailyStart) {
+        this.dailyStart = dailyStart;
+    }
+    
+    public LocalTime getDailyEnd() {
+        return dailyEnd;
+    }
+    
+    public void setDailyEnd(LocalTime dailyEnd) {
+        this.dailyEnd = dailyEnd;
+    }
+    
+    public Boolean getActive() {
+        return active;
+    }
+    
+    public void setActive(Boolean active) {
+        this.active = active;
+    }
+}
@@ -0,0 +1,168 @@
+package com.foodordering.dto;
+
+import com.foodordering.entity.PricingRule;
+import com.foodordering.entity.PricingRuleType;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+public class PricingRuleResponse {
+    
+    private Long id;
+    private String name;
+    private PricingRuleType type;
+    private Long menuItemId;
+    private String category;
+    private String comboCategories;
+    private BigDecimal discountValue;
+    private Integer buyQuantity;
+    private Integer freeQuantity;
+    private LocalDateTime startsAt;
+    private LocalDateTime endsAt;
+    private LocalTime dailyStart;
+    private LocalTime dailyEnd;
+    private Boolean active;
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public PricingRuleResponse() {}
+    
+    public PricingRuleResponse(PricingRule rule) {
+        this.id = rule.getId();
+        this.name = rule.getName();
+        this.type = rule.getType();
+        this.menuItemId = rule.getMenuItemId();
+        this.category = rule.getCategory();
+        this.comboCategories = rule.getComboCategories();
+        this.discountValue = rule.getDiscountValue();
+        this.buyQuantity = rule.getBuyQuantity();
+        this.freeQuantity = rule.getFreeQuantity();
+        this.startsAt = rule.getStartsAt();
+        this.endsAt = rule.getEndsAt();
+        this.dailyStart = rule.getDailyStart();
+        this.dailyEnd = rule.getDailyEnd();
+        this.active = rule.getActive();
+        this.createdAt = rule.getCreatedAt();
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public PricingRuleType getType() {
+        return type;
+    }
+    
+    public void setType(PricingRuleType type) {
+        this.type = type;
+    }
+    
+    public Long getMenuItemId() {
+        return menuItemId;
+    }
+    
+    public void setMenuItemId(Long menuItemId) {
+        this.menuItemId = menuItemId;
+    }
+    
+    public String getCategory() {
+        return category;
+    }
+    
+    public void setCategory(String category) {
+        this.category = category;
+    }
+    
+    public String getComboCategories() {
+        return comboCategories;
+    }
+    
+    public void setComboCategories(String comboCategories) {
+        this.comboCategories = comboCategories;
+    }
+    
+    public BigDecimal getDiscountValue() {
+        return discountValue;
+    }
+    
+    public void setDiscountValue(BigDecimal discountValue) {
+        this.discountValue = discountValue;
+    }
+    
+    public Integer getBuyQuantity() {
+        return buyQuantity;
+    }
+    
+    public void setBuyQuantity(Integer buyQuantity) {
+        this.buyQuantity = buyQuantity;
+    }
+    
+    public Integer getFreeQuantity() {
+        return freeQuantity;
+    }
+    
+    public void setFreeQuantity(Integer freeQuantity) {
+        this.freeQuantity = freeQuantity;
+    }
+    
+    public LocalDateTime getStartsAt() {
+        return startsAt;
+    }
+    
+    public void setStartsAt(LocalDateTime startsAt) {
+        this.startsAt = startsAt;
+    }
+    
+    public LocalDateTime getEndsAt() {
+        return endsAt;
+    }
+    
+    public void setEndsAt(LocalDateTime endsAt) {
+        this.endsAt = endsAt;
+    }
+    
+    public LocalTime getDailyStart() {
+        return dailyStart;
+    }
+    
+    public void setDailyStart(LocalTime dailyStart) {
+        this.dailyStart = dailyStart;
+    }
+    
+    public LocalTime getDailyEnd() {
+        return dailyEnd;
+    }
+    
+    public void setDailyEnd(LocalTime dailyEnd) {
+        this.dailyEnd = dailyEnd;
+    }
+    
+    public Boolean getActive() {
+        return active;
+    }
+    
+    public void setActive(Boolean active) {
+        this.active = active;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
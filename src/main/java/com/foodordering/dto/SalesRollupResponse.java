@@ -0,0 +1,87 @@
+package com.foodordering.dto;
+
+import com.foodordering.entity.RollupDimension;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class SalesRollupResponse {
+    
+    private RollupDimension dimension;
+    private String key;
+    private String label;
+    private LocalDateTime bucketStart;
+    private BigDecimal revenue;
+    private Long quantity;
+    private Long orderCount;
+    
+    // Constructors
+    public SalesRollupResponse() {}
+    
+    public SalesRollupResponse(RollupDimension dimension, String key, String label, LocalDateTime bucketStart,
+                               BigDecimal revenue, Long quantity, Long orderCount) {
+        this.dimension = dimension;
+        this.key = key;
+        this.label = label;
+        this.bucketStart = bucketStart;
+        this.revenue = revenue;
+        this.quantity = quantity;
+        this.orderCount = orderCount;
+    }
+    
+    // Getters and Setters
+    public RollupDimension getDimension() {
+        return dimension;
+    }
+    
+    public void setDimension(RollupDimension dimension) {
+        this.dimension = dimension;
+    }
+    
+    public String getKey() {
+        return key;
+    }
+    
+    public void setKey(String key) {
+        this.key = key;
+    }
+    
+    public String getLabel() {
+        return label;
+    }
+    
+    public void setLabel(String label) {
+        this.label = label;
+    }
+    
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+    
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+    
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+    
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+    
+    public Long getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(Long quantity) {
+        this.quantity = quantity;
+    }
+    
+    public Long getOrderCount() {
+        return orderCount;
+    }
+    
+    public void setOrderCount(Long orderCount) {
+        this.orderCount = orderCount;
+    }
+}
@@ -0,0 +1,127 @@
+package com.foodordering.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A finished order moved out of orders and order_items by OrderArchiveService. The columns
+ * needed to find and list it stay plain; the order with its items and delivery is kept as
+ * deflated JSON in payload. The id is the original order id.
+ */
+@Entity
+@Table(name = "order_archive", indexes = {
+    @Index(name = "idx_order_archive_user_created_at", columnList = "user_id, created_at"),
+    @Index(name = "idx_order_archive_user_archived_at", columnList = "user_id, archived_at")
+})
+public class ArchivedOrder implements Persistable<Long> {
+    
+    @Id
+    private Long id;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus status;
+    
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal total;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+    
+    @Column(nullable = false, length = 1_000_000)
+    private byte[] payload;
+    
+    // Ids are assigned, so tell Spring Data to insert rather than look the row up first
+    @Transient
+    private boolean isNew = true;
+    
+    // Constructors
+    public ArchivedOrder() {}
+    
+    public ArchivedOrder(Order order, byte[] payload, LocalDateTime archivedAt) {
+        this.id = order.getId();
+        this.userId = order.getUserId();
+        this.status = order.getStatus();
+        this.total = order.getTotal();
+        this.createdAt = order.getCreatedAt();
+        this.archivedAt = archivedAt;
+        this.payload = payload;
+    }
+    
+    // Getters and Setters
+    @Override
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public OrderStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(OrderStatus status) {
+        this.status = status;
+    }
+    
+    public BigDecimal getTotal() {
+        return total;
+    }
+    
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+    
+    public void setArchivedAt(LocalDateTime archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+    
+    public byte[] getPayload() {
+        return payload;
+    }
+    
+    public void setPayload(byte[] payload) {
+        this.payload = payload;
+    }
+    
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+    
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
@@ -0,0 +1,118 @@
+package com.foodordering.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One order handed to one driver. Orders bundled into the same run share the
+ * driver and assignedAt and are delivered in stopNumber order.
+ */
+@Entity
+@Table(name = "delivery_assignments",
+       uniqueConstraints = @UniqueConstraint(name = "uk_delivery_assignments_order", columnNames = "order_id"),
+       indexes = @Index(name = "idx_delivery_assignments_driver_status", columnList = "driver_id, status"))
+public class DeliveryAssignment {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+    
+    @Column(name = "driver_id", nullable = false)
+    private Long driverId;
+    
+    @Column(name = "stop_number", nullable = false)
+    private Integer stopNumber;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private DeliveryStatus status = DeliveryStatus.ASSIGNED;
+    
+    @Column(name = "pickup_distance_km", nullable = false)
+    private Double pickupDistanceKm;
+    
+    @Column(name = "assigned_at", nullable = false)
+    private LocalDateTime assignedAt;
+    
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+    
+    // Constructors
+    public DeliveryAssignment() {}
+    
+    public DeliveryAssignment(Long orderId, Long driverId, Integer stopNumber,
+                              Double pickupDistanceKm, LocalDateTime assignedAt) {
+        this.orderId = orderId;
+        this.driverId = driverId;
+        this.stopNumber = stopNumber;
+        this.pickupDistanceKm = pickupDistanceKm;
+        this.assignedAt = assignedAt;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getOrderId() {
+        return orderId;
+    }
+    
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+    
+    public Long getDriverId() {
+        return driverId;
+    }
+    
+    public void setDriverId(Long driverId) {
+        this.driverId = driverId;
+    }
+    
+    public Integer getStopNumber() {
+        return stopNumber;
+    }
+    
+    public void setStopNumber(Integer stopNumber) {
+        this.stopNumber = stopNumber;
+    }
+    
+    public DeliveryStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(DeliveryStatus status) {
+        this.status = status;
+    }
+    
+    public Double getPickupDistanceKm() {
+        return pickupDistanceKm;
+    }
+    
+    public void setPickupDistanceKm(Double pickupDistanceKm) {
+        this.pickupDistanceKm = pickupDistanceKm;
+    }
+    
+    public LocalDateTime getAssignedAt() {
+        return assignedAt;
+    }
+    
+    public void setAssignedAt(LocalDateTime assignedAt) {
+        this.assignedAt = assignedAt;
+    }
+    
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+    
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+}
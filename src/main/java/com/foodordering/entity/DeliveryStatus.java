@@ -0,0 +1,7 @@
+package com.foodordering.entity;
+
+public enum DeliveryStatus {
+    ASSIGNED,
+    DELIVERED,
+    CANCELLED
+}
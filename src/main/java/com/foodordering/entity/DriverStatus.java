@@ -0,0 +1,7 @@
+package com.foodordering.entity;
+
+public enum DriverStatus {
+    OFFLINE,
+    AVAILABLE,
+    ON_DELIVERY
+}
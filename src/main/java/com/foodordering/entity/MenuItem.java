@@ -1,11 +1,14 @@
 package com.foodordering.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "menu_items")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "menuItems")
+@Table(name = "menu_items", uniqueConstraints = @UniqueConstraint(name = "uk_menu_items_name", columnNames = "name"))
 public class MenuItem {
     
     @Id
@@ -7,7 +7,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+    @Index(name = "idx_orders_updated_at", columnList = "updated_at"),
+    @Index(name = "idx_orders_user_updated_at", columnList = "user_id, updated_at"),
+    @Index(name = "idx_orders_status_scheduled_for", columnList = "status, scheduled_for"),
+    @Index(name = "idx_orders_created_at_id", columnList = "created_at, id")
+})
 public class Order {
     
     @Id
@@ -24,9 +29,14 @@ public class Order {
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<OrderItem> items = new ArrayList<>();
     
+    // After discount
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal total;
     
+    // Taken off by pricing rules
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal discount = BigDecimal.ZERO;
+    
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private OrderStatus status = OrderStatus.PENDING;
@@ -37,6 +47,17 @@ public class Order {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Drop-off point used by delivery dispatch; null when the customer gave none
+    @Column(name = "delivery_latitude")
+    private Double deliveryLatitude;
+    
+    @Column(name = "delivery_longitude")
+    private Double deliveryLongitude;
+    
+    // When the customer wants the order; null for as soon as possible
+    @Column(name = "scheduled_for")
+    private LocalDateTime scheduledFor;
+    
     // Constructors
     public Order() {}
     
@@ -89,6 +110,14 @@ public class Order {
         this.total = total;
     }
     
+    public BigDecimal getDiscount() {
+        return discount;
+    }
+    
+    public void setDiscount(BigDecimal discount) {
+        this.discount = discount;
+    }
+    
     public OrderStatus getStatus() {
         return status;
     }
@@ -113,6 +142,30 @@ public class Order {
         this.updatedAt = updatedAt;
     }
     
+    public Double getDeliveryLatitude() {
+        return deliveryLatitude;
+    }
+    
+    public void setDeliveryLatitude(Double deliveryLatitude) {
+        this.deliveryLatitude = deliveryLatitude;
+    }
+    
+    public Double getDeliveryLongitude() {
+        return deliveryLongitude;
+    }
+    
+    public void setDeliveryLongitude(Double deliveryLongitude) {
+        this.deliveryLongitude = deliveryLongitude;
+    }
+    
+    public LocalDateTime getScheduledFor() {
+        return scheduledFor;
+    }
+    
+    public void setScheduledFor(LocalDateTime scheduledFor) {
+        this.scheduledFor = scheduledFor;
+    }
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -1,6 +1,8 @@
 package com.foodordering.entity;
 
 public enum OrderStatus {
+    // Placed ahead of time; released to PENDING by ScheduledOrderService at the kitchen lead time
+    SCHEDULED,
     PENDING,
     CONFIRMED,
     PREPARING,
@@ -0,0 +1,84 @@
+package com.foodordering.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * An order event waiting to be relayed to the outbox sinks. Written in the transaction that
+ * changed the order and deleted once every sink took it, so the table only holds the backlog.
+ * Ids give the relay order.
+ */
+@Entity
+@Table(name = "outbox_events")
+public class OutboxEvent {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false)
+    private OutboxEventType eventType;
+    
+    // The order the event is about
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+    
+    // The event as JSON
+    @Column(nullable = false, length = 1_000_000)
+    private String payload;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public OutboxEvent() {}
+    
+    public OutboxEvent(OutboxEventType eventType, Long aggregateId, String payload, LocalDateTime createdAt) {
+        this.eventType = eventType;
+        this.aggregateId = aggregateId;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public OutboxEventType getEventType() {
+        return eventType;
+    }
+    
+    public void setEventType(OutboxEventType eventType) {
+        this.eventType = eventType;
+    }
+    
+    public Long getAggregateId() {
+        return aggregateId;
+    }
+    
+    public void setAggregateId(Long aggregateId) {
+        this.aggregateId = aggregateId;
+    }
+    
+    public String getPayload() {
+        return payload;
+    }
+    
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
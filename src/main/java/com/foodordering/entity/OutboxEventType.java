@@ -0,0 +1,6 @@
+package com.foodordering.entity;
+
+public enum OutboxEventType {
+    ORDER_PLACED,
+    ORDER_STATUS_CHANGED
+}
\ No newline at end of file
@@ -0,0 +1,201 @@
+package com.foodordering.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * A promotion. PERCENT_OFF and AMOUNT_OFF (per unit) and BUY_X_GET_Y apply to the lines of
+ * one menu item or one category; COMBO takes discountValue off for every set of one item
+ * from each of comboCategories. startsAt/endsAt bound the whole promotion and
+ * dailyStart/dailyEnd limit it to a time of day (happy hours may run past midnight).
+ */
+@Entity
+@Table(name = "pricing_rules")
+public class PricingRule {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private String name;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PricingRuleType type;
+    
+    @Column(name = "menu_item_id")
+    private Long menuItemId;
+    
+    @Column
+    private String category;
+    
+    // Comma-separated, for COMBO rules
+    @Column(name = "combo_categories")
+    private String comboCategories;
+    
+    // Percent for PERCENT_OFF, amount per unit for AMOUNT_OFF, amount per set for COMBO
+    @Column(name = "discount_value", precision = 10, scale = 2)
+    private BigDecimal discountValue;
+    
+    @Column(name = "buy_quantity")
+    private Integer buyQuantity;
+    
+    @Column(name = "free_quantity")
+    private Integer freeQuantity;
+    
+    @Column(name = "starts_at")
+    private LocalDateTime startsAt;
+    
+    @Column(name = "ends_at")
+    private LocalDateTime endsAt;
+    
+    @Column(name = "daily_start")
+    private LocalTime dailyStart;
+    
+    @Column(name = "daily_end")
+    private LocalTime dailyEnd;
+    
+    @Column(nullable = false)
+    private Boolean active = true;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public PricingRule() {}
+    
+    public PricingRule(String name, PricingRuleType type, BigDecimal discountValue) {
+        this.name = name;
+        this.type = type;
+        this.discountValue = discountValue;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public PricingRuleType getType() {
+        return type;
+    }
+    
+    public void setType(PricingRuleType type) {
+        this.type = type;
+    }
+    
+    public Long getMenuItemId() {
+        return menuItemId;
+    }
+    
+    public void setMenuItemId(Long menuItemId) {
+        this.menuItemId = menuItemId;
+    }
+    
+    public String getCategory() {
+        return category;
+    }
+    
+    public void setCategory(String category) {
+        this.category = category;
+    }
+    
+    public String getComboCategories() {
+        return comboCategories;
+    }
+    
+    public void setComboCategories(String comboCategories) {
+        this.comboCategories = comboCategories;
+    }
+    
+    public BigDecimal getDiscountValue() {
+        return discountValue;
+    }
+    
+    public void setDiscountValue(BigDecimal discountValue) {
+        this.discountValue = discountValue;
+    }
+    
+    public Integer getBuyQuantity() {
+        return buyQuantity;
+    }
+    
+    public void setBuyQuantity(Integer buyQuantity) {
+        this.buyQuantity = buyQuantity;
+    }
+    
+    public Integer getFreeQuantity() {
+        return freeQuantity;
+    }
+    
+    public void setFreeQuantity(Integer freeQuantity) {
+        this.freeQuantity = freeQuantity;
+    }
+    
+    public LocalDateTime getStartsAt() {
+        return startsAt;
+    }
+    
+    public void setStartsAt(LocalDateTime startsAt) {
+        this.startsAt = startsAt;
+    }
+    
+    public LocalDateTime getEndsAt() {
+        return endsAt;
+    }
+    
+    public void setEndsAt(LocalDateTime endsAt) {
+        this.endsAt = endsAt;
+    }
+    
+    public LocalTime getDailyStart() {
+        return dailyStart;
+    }
+    
+    public void setDailyStart(LocalTime dailyStart) {
+        this.dailyStart = dailyStart;
+    }
+    
+    public LocalTime getDailyEnd() {
+        return dailyEnd;
+    }
+    
+    public void setDailyEnd(LocalTime dailyEnd) {
+        this.dailyEnd = dailyEnd;
+    }
+    
+    public Boolean getActive() {
+        return active;
+    }
+    
+    public void setActive(Boolean active) {
+        this.active = active;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,8 @@
+package com.foodordering.entity;
+
+public enum PricingRuleType {
+    PERCENT_OFF,
+    AMOUNT_OFF,
+    BUY_X_GET_Y,
+    COMBO
+}
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.foodordering.entity;
+
+public enum RollupDimension {
+    STORE,
+    CATEGORY,
+    MENU_ITEM
+}
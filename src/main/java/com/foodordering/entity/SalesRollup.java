@@ -0,0 +1,118 @@
+package com.foodordering.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Hourly sales totals for one dimension value (the whole store, a category or a menu item).
+ * Rows are only ever incremented by SalesAnalyticsService flushes.
+ */
+@Entity
+@Table(name = "sales_rollups",
+       uniqueConstraints = @UniqueConstraint(name = "uk_sales_rollups_bucket",
+                                             columnNames = {"dimension", "dimension_key", "bucket_start"}),
+       indexes = @Index(name = "idx_sales_rollups_dimension_bucket", columnList = "dimension, bucket_start"))
+public class SalesRollup {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private RollupDimension dimension;
+    
+    @Column(name = "dimension_key", nullable = false)
+    private String dimensionKey;
+    
+    @Column
+    private String label;
+    
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+    
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue = BigDecimal.ZERO;
+    
+    @Column(nullable = false)
+    private Long quantity = 0L;
+    
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount = 0L;
+    
+    // Constructors
+    public SalesRollup() {}
+    
+    public SalesRollup(RollupDimension dimension, String dimensionKey, String label, LocalDateTime bucketStart) {
+        this.dimension = dimension;
+        this.dimensionKey = dimensionKey;
+        this.label = label;
+        this.bucketStart = bucketStart;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public RollupDimension getDimension() {
+        return dimension;
+    }
+    
+    public void setDimension(RollupDimension dimension) {
+        this.dimension = dimension;
+    }
+    
+    public String getDimensionKey() {
+        return dimensionKey;
+    }
+    
+    public void setDimensionKey(String dimensionKey) {
+        this.dimensionKey = dimensionKey;
+    }
+    
+    public String getLabel() {
+        return label;
+    }
+    
+    public void setLabel(String label) {
+        this.label = label;
+    }
+    
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+    
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+    
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+    
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+    
+    public Long getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(Long quantity) {
+        this.quantity = quantity;
+    }
+    
+    public Long getOrderCount() {
+        return orderCount;
+    }
+    
+    public void setOrderCount(Long orderCount) {
+        this.orderCount = orderCount;
+    }
+}
@@ -0,0 +1,18 @@
+package com.foodordering.event;
+
+/**
+ * Published after menu items were written outside of JPA (e.g. bulk JDBC imports),
+ * so every cache derived from the menu must be dropped and rebuilt.
+ */
+public class MenuCatalogChangedEvent {
+    
+    private final int affectedItems;
+    
+    public MenuCatalogChangedEvent(int affectedItems) {
+        this.affectedItems = affectedItems;
+    }
+    
+    public int getAffectedItems() {
+        return affectedItems;
+    }
+}
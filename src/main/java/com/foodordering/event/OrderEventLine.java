@@ -0,0 +1,123 @@
+package com.foodordering.event;
+
+import com.foodordering.entity.OrderItem;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Detached snapshot of an order line carried by order events, so listeners
+ * never touch lazy JPA associations after the transaction has committed.
+ */
+public class OrderEventLine {
+    
+    private final Long menuItemId;
+    private final String menuItemName;
+    private final String category;
+    private final int quantity;
+    private final BigDecimal unitPrice;
+    // This line's share of the order's promotion discount
+    private final BigDecimal discount;
+    
+    public OrderEventLine(Long menuItemId, String menuItemName, String category, int quantity, BigDecimal unitPrice) {
+        this(menuItemId, menuItemName, category, quantity, unitPrice, BigDecimal.ZERO);
+    }
+    
+    public OrderEventLine(Long menuItemId, String menuItemName, String category, int quantity, BigDecimal unitPrice,
+                          BigDecimal discount) {
+        this.menuItemId = menuItemId;
+        this.menuItemName = menuItemName;
+        this.category = category;
+        this.quantity = quantity;
+        this.unitPrice = unitPrice;
+        this.discount = discount;
+    }
+    
+    public static OrderEventLine from(OrderItem item) {
+        return from(item, BigDecimal.ZERO);
+    }
+    
+    private static OrderEventLine from(OrderItem item, BigDecimal discount) {
+        return new OrderEventLine(
+                item.getMenuItem().getId(),
+                item.getMenuItem().getName(),
+                item.getMenuItem().getCategory(),
+                item.getQuantity(),
+                item.getUnitPrice(),
+                discount
+        );
+    }
+    
+    /**
+     * Lines of an order with its discount split across them in proportion to their subtotals.
+     * Shares are rounded down to cents and the largest line takes the rest, so they add up
+     * to the discount exactly and the net subtotals to the order total.
+     */
+    public static List<OrderEventLine> from(List<OrderItem> items, BigDecimal discount) {
+        BigDecimal gross = BigDecimal.ZERO;
+        int largest = 0;
+        for (int i = 0; i < items.size(); i++) {
+            BigDecimal subtotal = items.get(i).getSubtotal();
+            gross = gross.add(subtotal);
+            if (subtotal.compareTo(items.get(largest).getSubtotal()) > 0) {
+                largest = i;
+            }
+        }
+        BigDecimal[] shares = new BigDecimal[items.size()];
+        BigDecimal allocated = BigDecimal.ZERO;
+        for (int i = 0; i < items.size(); i++) {
+            shares[i] = discount == null || discount.signum() == 0 || gross.signum() == 0 ? BigDecimal.ZERO
+                    : discount.multiply(items.get(i).getSubtotal()).divide(gross, 2, RoundingMode.DOWN);
+            if (i != largest) {
+                allocated = allocated.add(shares[i]);
+            }
+        }
+        if (!items.isEmpty() && discount != null && discount.signum() != 0) {
+            shares[largest] = discount.subtract(allocated);
+        }
+        List<OrderEventLine> lines = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            lines.add(from(items.get(i), shares[i]));
+        }
+        return lines;
+    }
+    
+    public Long getMenuItemId() {
+        return menuItemId;
+    }
+    
+    public String getMenuItemName() {
+        return menuItemName;
+    }
+    
+    public String getCategory() {
+        return category;
+    }
+    
+    public int getQuantity() {
+        return quantity;
+    }
+    
+    public BigDecimal getUnitPrice() {
+        return unitPrice;
+    }
+    
+    public BigDecimal getDiscount() {
+        return discount;
+    }
+    
+    /**
+     * List price times quantity, before promotions
+     */
+    public BigDecimal getSubtotal() {
+        return unitPrice.multiply(BigDecimal.valueOf(quantity));
+    }
+    
+    /**
+     * What was charged for the line: its subtotal less its share of the discount
+     */
+    public BigDecimal getNetSubtotal() {
+        return getSubtotal().subtract(discount);
+    }
+}
@@ -0,0 +1,57 @@
+package com.foodordering.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published by OrderService inside the createOrder transaction.
+ */
+public class OrderPlacedEvent {
+    
+    private final Long orderId;
+    private final Long userId;
+    private final BigDecimal total;
+    private final LocalDateTime createdAt;
+    private final List<OrderEventLine> lines;
+    // Requested time when the order was placed as SCHEDULED, otherwise null
+    private final LocalDateTime scheduledFor;
+    
+    public OrderPlacedEvent(Long orderId, Long userId, BigDecimal total, LocalDateTime createdAt, List<OrderEventLine> lines) {
+        this(orderId, userId, total, createdAt, lines, null);
+    }
+    
+    public OrderPlacedEvent(Long orderId, Long userId, BigDecimal total, LocalDateTime createdAt, List<OrderEventLine> lines,
+                            LocalDateTime scheduledFor) {
+        this.orderId = orderId;
+        this.userId = userId;
+        this.total = total;
+        this.createdAt = createdAt;
+        this.lines = List.copyOf(lines);
+        this.scheduledFor = scheduledFor;
+    }
+    
+    public Long getOrderId() {
+        return orderId;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public BigDecimal getTotal() {
+        return total;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public List<OrderEventLine> getLines() {
+        return lines;
+    }
+    
+    public LocalDateTime getScheduledFor() {
+        return scheduledFor;
+    }
+}
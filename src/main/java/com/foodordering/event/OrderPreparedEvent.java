@@ -0,0 +1,26 @@
+package com.foodordering.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by KitchenService once every line of an order has been prepared,
+ * i.e. the order is ready to be handed to a driver.
+ */
+public class OrderPreparedEvent {
+    
+    private final Long orderId;
+    private final LocalDateTime preparedAt;
+    
+    public OrderPreparedEvent(Long orderId, LocalDateTime preparedAt) {
+        this.orderId = orderId;
+        this.preparedAt = preparedAt;
+    }
+    
+    public Long getOrderId() {
+        return orderId;
+    }
+    
+    public LocalDateTime getPreparedAt() {
+        return preparedAt;
+    }
+}
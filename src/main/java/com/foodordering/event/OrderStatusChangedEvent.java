@@ -0,0 +1,66 @@
+package com.foodordering.event;
+
+import com.foodordering.entity.OrderStatus;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published by OrderService inside the updateOrderStatus transaction.
+ * previousStatusSince is the time the order entered its previous status.
+ */
+public class OrderStatusChangedEvent {
+    
+    private final Long orderId;
+    private final Long userId;
+    private final OrderStatus previousStatus;
+    private final OrderStatus newStatus;
+    private final LocalDateTime orderCreatedAt;
+    private final LocalDateTime previousStatusSince;
+    private final LocalDateTime changedAt;
+    private final List<OrderEventLine> lines;
+    
+    public OrderStatusChangedEvent(Long orderId, Long userId, OrderStatus previousStatus, OrderStatus newStatus,
+                                   LocalDateTime orderCreatedAt, LocalDateTime previousStatusSince,
+                                   LocalDateTime changedAt, List<OrderEventLine> lines) {
+        this.orderId = orderId;
+        this.userId = userId;
+        this.previousStatus = previousStatus;
+        this.newStatus = newStatus;
+        this.orderCreatedAt = orderCreatedAt;
+        this.previousStatusSince = previousStatusSince;
+        this.changedAt = changedAt;
+        this.lines = List.copyOf(lines);
+    }
+    
+    public Long getOrderId() {
+        return orderId;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public OrderStatus getPreviousStatus() {
+        return previousStatus;
+    }
+    
+    public OrderStatus getNewStatus() {
+        return newStatus;
+    }
+    
+    public LocalDateTime getOrderCreatedAt() {
+        return orderCreatedAt;
+    }
+    
+    public LocalDateTime getPreviousStatusSince() {
+        return previousStatusSince;
+    }
+    
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+    
+    public List<OrderEventLine> getLines() {
+        return lines;
+    }
+}
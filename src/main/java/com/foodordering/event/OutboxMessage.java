@@ -0,0 +1,53 @@
+package com.foodordering.event;
+
+import com.foodordering.entity.OutboxEvent;
+import com.foodordering.entity.OutboxEventType;
+import java.time.LocalDateTime;
+
+/**
+ * An order event relayed from the outbox. Delivery is at least once, so consumers use id
+ * to drop messages they have already handled; ids increase in the order events were written.
+ * Also published in-process by InProcessOutboxSink.
+ */
+public class OutboxMessage {
+    
+    private final Long id;
+    private final OutboxEventType eventType;
+    private final Long orderId;
+    private final String payload;
+    private final LocalDateTime createdAt;
+    
+    public OutboxMessage(Long id, OutboxEventType eventType, Long orderId, String payload, LocalDateTime createdAt) {
+        this.id = id;
+        this.eventType = eventType;
+        this.orderId = orderId;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+    
+    public static OutboxMessage from(OutboxEvent event) {
+        return new OutboxMessage(event.getId(), event.getEventType(), event.getAggregateId(), event.getPayload(),
+                event.getCreatedAt());
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public OutboxEventType getEventType() {
+        return eventType;
+    }
+    
+    public Long getOrderId() {
+        return orderId;
+    }
+    
+    // The OrderPlacedEvent or OrderStatusChangedEvent as JSON
+    public String getPayload() {
+        return payload;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
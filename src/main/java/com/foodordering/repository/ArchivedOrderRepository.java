@@ -0,0 +1,22 @@
+package com.foodordering.repository;
+
+import com.foodordering.entity.ArchivedOrder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+    
+    List<ArchivedOrder> findByUserIdOrderByCreatedAtDesc(Long userId);
+    
+    /**
+     * When an order of the user was last archived, answered from the (user_id, archived_at) index.
+     */
+    @Query("SELECT MAX(a.archivedAt) FROM ArchivedOrder a WHERE a.userId = :userId")
+    Optional<LocalDateTime> findLastArchivedAtByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,28 @@
+package com.foodordering.repository;
+
+import com.foodordering.entity.DeliveryAssignment;
+import com.foodordering.entity.DeliveryStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DeliveryAssignmentRepository extends JpaRepository<DeliveryAssignment, Long> {
+    
+    Optional<DeliveryAssignment> findByOrderId(Long orderId);
+    
+    List<DeliveryAssignment> findByStatusOrderByAssignedAtDescStopNumber(DeliveryStatus status);
+    
+    long countByDriverIdAndStatus(Long driverId, DeliveryStatus status);
+    
+    List<DeliveryAssignment> findByOrderIdIn(Collection<Long> orderIds);
+    
+    @Modifying
+    @Query("DELETE FROM DeliveryAssignment a WHERE a.orderId IN :orderIds")
+    int deleteByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+}
@@ -0,0 +1,31 @@
+package com.foodordering.repository;
+
+import com.foodordering.entity.Driver;
+import com.foodordering.entity.DriverStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DriverRepository extends JpaRepository<Driver, Long> {
+    
+    List<Driver> findByStatus(DriverStatus status);
+    
+    // Serializes status changes of one driver, e.g. two of their deliveries finishing at once
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM Driver d WHERE d.id = :id")
+    Optional<Driver> findByIdForUpdate(@Param("id") Long id);
+    
+    // Location pings are frequent, so skip loading the entity
+    @Modifying
+    @Query("UPDATE Driver d SET d.latitude = :latitude, d.longitude = :longitude, d.updatedAt = :updatedAt WHERE d.id = :id")
+    int updateLocation(@Param("id") Long id, @Param("latitude") double latitude, @Param("longitude") double longitude,
+                       @Param("updatedAt") LocalDateTime updatedAt);
+}
@@ -1,11 +1,22 @@
 package com.foodordering.repository;
 
+import com.foodordering.dto.OrderResponse;
 import com.foodordering.entity.Order;
+import com.foodordering.entity.OrderStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
@@ -14,6 +25,127 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     
     List<Order> findAllByOrderByCreatedAtDesc();
     
+    /**
+     * Order headers as DTOs (items left empty), without loading any managed entities.
+     */
+    @Query("SELECT new com.foodordering.dto.OrderResponse(o.id, o.userId, o.total, o.discount, o.status, o.scheduledFor, " +
+           "o.createdAt, o.updatedAt) " +
+           "FROM Order o ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderResponse> findAllOrderSummaries();
+    
+    /**
+     * First page of findAllOrderSummaries; continue with findOrderSummariesBefore.
+     */
+    @Query("SELECT new com.foodordering.dto.OrderResponse(o.id, o.userId, o.total, o.discount, o.status, o.scheduledFor, " +
+           "o.createdAt, o.updatedAt) " +
+           "FROM Order o ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderResponse> findOrderSummariesPage(Pageable pageable);
+    
+    /**
+     * Next page of findAllOrderSummaries after the given last row, by keyset on (createdAt, id).
+     */
+    @Query("SELECT new com.foodordering.dto.OrderResponse(o.id, o.userId, o.total, o.discount, o.status, o.scheduledFor, " +
+           "o.createdAt, o.updatedAt) " +
+           "FROM Order o WHERE o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderResponse> findOrderSummariesBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                                 Pageable pageable);
+    
+    @Query("SELECT new com.foodordering.dto.OrderResponse(o.id, o.userId, o.total, o.discount, o.status, o.scheduledFor, " +
+           "o.createdAt, o.updatedAt) " +
+           "FROM Order o WHERE o.userId = :userId ORDER BY o.createdAt DESC")
+    List<OrderResponse> findOrderSummariesByUserId(@Param("userId") Long userId);
+    
+    @Query("SELECT new com.foodordering.dto.OrderResponse(o.id, o.userId, o.total, o.discount, o.status, o.scheduledFor, " +
+           "o.createdAt, o.updatedAt) " +
+           "FROM Order o WHERE o.userId = :userId AND o.updatedAt >= :since ORDER BY o.updatedAt")
+    List<OrderResponse> findOrderSummariesByUserIdUpdatedSince(@Param("userId") Long userId,
+                                                               @Param("since") LocalDateTime since);
+    
+    /**
+     * Orders changed after (updatedAt, id), oldest change first: a keyset page. Pass id 0 to
+     * start at updatedAt inclusive.
+     */
+    @Query("SELECT new com.foodordering.dto.OrderResponse(o.id, o.userId, o.total, o.discount, o.status, o.scheduledFor, " +
+           "o.createdAt, o.updatedAt) " +
+           "FROM Order o WHERE o.updatedAt > :updatedAt OR (o.updatedAt = :updatedAt AND o.id > :id) " +
+           "ORDER BY o.updatedAt, o.id")
+    List<OrderResponse> findOrderSummariesUpdatedAfter(@Param("updatedAt") LocalDateTime updatedAt, @Param("id") Long id,
+                                                       Pageable pageable);
+    
+    /**
+     * Latest change to any of the user's orders, answered from the (user_id, updated_at) index.
+     */
+    @Query("SELECT MAX(o.updatedAt) FROM Order o WHERE o.userId = :userId")
+    Optional<LocalDateTime> findLastUpdatedAtByUserId(@Param("userId") Long userId);
+    
+    @Query("SELECT new com.foodordering.dto.OrderResponse(o.id, o.userId, o.total, o.discount, o.status, o.scheduledFor, " +
+           "o.createdAt, o.updatedAt) " +
+           "FROM Order o WHERE o.id = :orderId AND o.userId = :userId")
+    Optional<OrderResponse> findOrderSummaryByIdAndUserId(@Param("orderId") Long orderId, @Param("userId") Long userId);
+    
+    /**
+     * (orderId, status, scheduledFor) for the user's orders in the given statuses, without their lines
+     */
+    @Query("SELECT o.id, o.status, o.scheduledFor FROM Order o " +
+           "WHERE o.userId = :userId AND o.status IN :statuses ORDER BY o.id")
+    List<Object[]> findEtaInputsByUserIdAndStatusIn(@Param("userId") Long userId,
+                                                    @Param("statuses") Collection<OrderStatus> statuses);
+    
+    /**
+     * (orderId, itemId, menuItemId, menuItemName, quantity, unitPrice, category) for every line of the given orders.
+     */
+    @Query("SELECT o.id, oi.id, m.id, m.name, oi.quantity, oi.unitPrice, m.category FROM OrderItem oi " +
+           "JOIN oi.order o JOIN oi.menuItem m WHERE o.id IN :orderIds ORDER BY oi.id")
+    List<Object[]> findItemRowsByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+    
+    /**
+     * (orderId, scheduledFor) of every order in the given status, answered from the (status, scheduled_for)
+     * index. Must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT o.id, o.scheduledFor FROM Order o WHERE o.status = :status")
+    Stream<Object[]> streamScheduledForByStatus(@Param("status") OrderStatus status);
+    
     @Query("SELECT o FROM Order o LEFT JOIN FETCH o.items oi LEFT JOIN FETCH oi.menuItem WHERE o.id = :orderId")
     Order findByIdWithItems(@Param("orderId") Long orderId);
+    
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.items oi LEFT JOIN FETCH oi.menuItem " +
+           "WHERE o.status IN :statuses ORDER BY o.createdAt")
+    List<Order> findByStatusInWithItems(@Param("statuses") Collection<OrderStatus> statuses);
+    
+    /**
+     * Streams (menuItemId, quantity, createdAt) for every non-cancelled order line since the given time.
+     * Must be consumed inside a transaction and closed.
+     */
+    @Query("SELECT oi.menuItem.id, oi.quantity, o.createdAt FROM OrderItem oi JOIN oi.order o " +
+           "WHERE o.createdAt >= :since AND o.status <> com.foodordering.entity.OrderStatus.CANCELLED")
+    Stream<Object[]> streamItemSalesSince(@Param("since") LocalDateTime since);
+    
+    /**
+     * Ids of orders in the given statuses created before the cutoff, oldest id first.
+     */
+    @Query("SELECT o.id FROM Order o WHERE o.status IN :statuses AND o.createdAt < :cutoff ORDER BY o.id")
+    List<Long> findIdsByStatusInCreatedBefore(@Param("statuses") Collection<OrderStatus> statuses,
+                                              @Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+    
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.items oi LEFT JOIN FETCH oi.menuItem " +
+           "WHERE o.id IN :orderIds ORDER BY o.id")
+    List<Order> findByIdInWithItems(@Param("orderIds") Collection<Long> orderIds);
+    
+    /**
+     * Compare-and-set of the status: changes nothing, and returns 0, unless the order is still in expected.
+     */
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :status, o.updatedAt = :updatedAt WHERE o.id = :id AND o.status = :expected")
+    int updateStatusIf(@Param("id") Long id, @Param("expected") OrderStatus expected, @Param("status") OrderStatus status,
+                       @Param("updatedAt") LocalDateTime updatedAt);
+    
+    @Modifying
+    @Query("DELETE FROM OrderItem oi WHERE oi.order.id IN :orderIds")
+    int deleteItemsByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+    
+    @Modifying
+    @Query("DELETE FROM Order o WHERE o.id IN :orderIds")
+    int deleteByIdIn(@Param("orderIds") Collection<Long> orderIds);
 }
\ No newline at end of file
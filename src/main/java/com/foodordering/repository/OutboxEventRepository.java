@@ -0,0 +1,32 @@
+package com.foodordering.repository;
+
+import com.foodordering.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    
+    /**
+     * The oldest waiting events, in id order, read from the primary key.
+     */
+    @Query("SELECT e FROM OutboxEvent e ORDER BY e.id")
+    List<OutboxEvent> findBacklog(Pageable pageable);
+    
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e")
+    Optional<LocalDateTime> findOldestCreatedAt();
+    
+    List<OutboxEvent> findByAggregateIdOrderById(Long aggregateId);
+    
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
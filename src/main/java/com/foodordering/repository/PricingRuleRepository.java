@@ -0,0 +1,12 @@
+package com.foodordering.repository;
+
+import com.foodordering.entity.PricingRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface PricingRuleRepository extends JpaRepository<PricingRule, Long> {
+    
+    List<PricingRule> findByActiveTrue();
+}
@@ -0,0 +1,19 @@
+package com.foodordering.repository;
+
+import com.foodordering.entity.RollupDimension;
+import com.foodordering.entity.SalesRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SalesRollupRepository extends JpaRepository<SalesRollup, Long> {
+    
+    Optional<SalesRollup> findByDimensionAndDimensionKeyAndBucketStart(RollupDimension dimension, String dimensionKey,
+                                                                       LocalDateTime bucketStart);
+    
+    List<SalesRollup> findByDimensionAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStart(
+            RollupDimension dimension, LocalDateTime from, LocalDateTime to);
+}
@@ -0,0 +1,526 @@
+package com.foodordering.service;
+
+import com.foodordering.entity.OrderStatus;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of order events in memory-mapped, fixed-size segment files.
+ *
+ * A segment is named after its first sequence number and holds a 32 byte header (magic,
+ * key check, first sequence, the tag carried over from the previous segment) followed by
+ * 72 byte records:
+ *
+ *   int length | 16 byte tag | long sequence | long outboxId | long at (epoch ms) | long orderId |
+ *   long userId | byte type | byte status | byte previousStatus | byte totalScale | long totalUnscaled
+ *
+ * The tag is HMAC-SHA256, truncated to 128 bits, over the previous record's tag and the
+ * record's own body, so records form one chain across segments that cannot be rebuilt
+ * without the key: changing, dropping or reordering any record but the newest breaks the
+ * check of the records after it. A zero length marks the unused end of a segment. A record
+ * failing its check at the end of the last segment is a write torn by a crash and is cut off
+ * on open; that is reported, since cutting the newest records is the one edit the chain
+ * itself does not reveal. The key check, a short HMAC of a fixed label, makes opening with a
+ * different key fail instead of cutting off records that only look torn under it.
+ *
+ * Records come from the transactional outbox, which may deliver a message more than once;
+ * the outbox ids of the last dedupeWindow records are remembered, also across restarts, and
+ * a repeated one is not appended again.
+ *
+ * Appends only write to the mapping. sync(sequence) makes them durable by group commit: one
+ * caller forces the mapping for everything appended so far while the others wait for it.
+ * Records of an order are found through a per-segment index rebuilt on open, kept as sorted
+ * arrays once a segment is full.
+ */
+final class AuditJournal implements Closeable {
+
+    static final byte ORDER_PLACED = 1;
+    static final byte STATUS_CHANGED = 2;
+
+    static final int HEADER_BYTES = 32;
+    static final int TAG_BYTES = 16;
+    static final int BODY_BYTES = 52;
+    static final int RECORD_BYTES = 4 + TAG_BYTES + BODY_BYTES;
+
+    private static final int MAGIC = 0x4F415544;
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final byte[] KEY_CHECK_LABEL = "order-audit-journal".getBytes(StandardCharsets.US_ASCII);
+    private static final String SUFFIX = ".seg";
+    private static final byte NONE = -1;
+
+    // On-disk status codes are positions in this array: append new statuses, never reorder
+    private static final OrderStatus[] STATUS_CODES = {
+            OrderStatus.PENDING, OrderStatus.CONFIRMED, OrderStatus.PREPARING, OrderStatus.OUT_FOR_DELIVERY,
+            OrderStatus.DELIVERED, OrderStatus.CANCELLED, OrderStatus.SCHEDULED
+    };
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final int dedupeWindow;
+    private final int keyCheck;
+
+    // Guarded by this
+    private final Mac mac;
+    private final List<Segment> segments = new ArrayList<>();
+    private final LinkedHashSet<Long> recentOutboxIds = new LinkedHashSet<>();
+    private final byte[] body = new byte[BODY_BYTES];
+    private long nextSequence = 1;
+    private byte[] lastTag = new byte[TAG_BYTES];
+    private boolean tornTail;
+    private int damagedSegments;
+    private long duplicates;
+
+    // Guarded by syncLock
+    private final Object syncLock = new Object();
+    private long durableSequence;
+    private boolean syncing;
+    private long syncs;
+
+    private AuditJournal(Path dir, int segmentBytes, byte[] key, int dedupeWindow) {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.dedupeWindow = dedupeWindow;
+        try {
+            mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(key, HMAC_ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(HMAC_ALGORITHM + " is not available", e);
+        }
+        keyCheck = ByteBuffer.wrap(mac.doFinal(KEY_CHECK_LABEL)).getInt();
+    }
+
+    /**
+     * Open the journal in dir, creating it if needed, and rebuild the order index from its segments.
+     * Throws if the existing segments were written with another key.
+     */
+    static AuditJournal open(Path dir, int segmentBytes, byte[] key, int dedupeWindow) throws IOException {
+        if (segmentBytes < HEADER_BYTES + RECORD_BYTES) {
+            throw new IllegalArgumentException("Audit segments must hold at least one record");
+        }
+        Files.createDirectories(dir);
+        AuditJournal journal = new AuditJournal(dir, segmentBytes, key, dedupeWindow);
+        journal.recover();
+        return journal;
+    }
+
+    /**
+     * Write a record to the mapping and return its sequence number, or 0 if the outbox message
+     * was already journaled. Not durable until synced.
+     */
+    synchronized long append(long outboxId, byte type, long atMillis, long orderId, long userId,
+                             OrderStatus status, OrderStatus previousStatus, BigDecimal total) {
+        if (recentOutboxIds.contains(outboxId)) {
+            duplicates++;
+            return 0;
+        }
+        Segment segment = segments.get(segments.size() - 1);
+        if (segment.end + RECORD_BYTES > segment.buffer.capacity()) {
+            segment = roll(segment);
+        }
+
+        long sequence = nextSequence;
+        ByteBuffer out = ByteBuffer.wrap(body);
+        out.putLong(sequence).putLong(outboxId).putLong(atMillis).putLong(orderId).putLong(userId)
+                .put(type).put(code(status)).put(code(previousStatus));
+        if (total == null) {
+            out.put(NONE).putLong(0);
+        } else {
+            if (total.scale() < 0 || total.scale() > Byte.MAX_VALUE) {
+                throw new IllegalArgumentException("Unsupported amount scale: " + total);
+            }
+            out.put((byte) total.scale()).putLong(total.unscaledValue().longValueExact());
+        }
+        mac.update(lastTag);
+        mac.update(body);
+        byte[] tag = Arrays.copyOf(mac.doFinal(), TAG_BYTES);
+
+        // Length last: a non-zero length is what makes the record exist
+        int position = segment.end;
+        segment.buffer.put(position + 4 + TAG_BYTES, body);
+        segment.buffer.put(position + 4, tag);
+        segment.buffer.putInt(position, BODY_BYTES);
+        segment.index(orderId, position);
+        segment.end += RECORD_BYTES;
+        nextSequence++;
+        lastTag = tag;
+        remember(outboxId);
+        return sequence;
+    }
+
+    /**
+     * Block until the record with the given sequence, and everything before it, is on disk
+     */
+    void sync(long sequence) {
+        synchronized (syncLock) {
+            while (syncing && durableSequence < sequence) {
+                try {
+                    syncLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted waiting for the audit journal sync", e);
+                }
+            }
+            if (durableSequence >= sequence) {
+                return;
+            }
+            syncing = true;
+        }
+
+        Segment segment;
+        long upTo;
+        synchronized (this) {
+            // Earlier segments were forced when they rolled
+            segment = segments.get(segments.size() - 1);
+            upTo = nextSequence - 1;
+        }
+        boolean forced = false;
+        try {
+            segment.buffer.force();
+            forced = true;
+        } finally {
+            synchronized (syncLock) {
+                if (forced) {
+                    durableSequence = upTo;
+                    syncs++;
+                }
+                syncing = false;
+                syncLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * All records of an order, oldest first. Throws if one fails its check.
+     */
+    synchronized List<Entry> find(long orderId) {
+        List<Entry> entries = new ArrayList<>();
+        for (Segment segment : segments) {
+            for (int position : segment.positionsOf(orderId)) {
+                byte[] previous = position == HEADER_BYTES
+                        ? segment.previousTag()
+                        : tagAt(segment.buffer, position - RECORD_BYTES);
+                if (!MessageDigest.isEqual(tagOf(previous, segment.buffer, position), tagAt(segment.buffer, position))) {
+                    throw new IllegalStateException("Audit record at " + segment.path.getFileName() + ":" + position
+                            + " fails its check");
+                }
+                entries.add(decode(segment.buffer, position));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Re-check the whole chain as it is on disk now
+     */
+    synchronized Verification verify() {
+        long records = 0;
+        long expected = segments.get(0).firstSequence;
+        byte[] chain = segments.get(0).previousTag();
+        for (Segment segment : segments) {
+            String name = segment.path.getFileName().toString();
+            if (segment.buffer.getInt(0) != MAGIC || segment.buffer.getLong(8) != expected
+                    || !Arrays.equals(segment.previousTag(), chain)) {
+                return new Verification(records, expected, "Segment " + name + " does not continue the chain");
+            }
+            for (int position = HEADER_BYTES; position < segment.end; position += RECORD_BYTES) {
+                byte[] tag = tagAt(segment.buffer, position);
+                if (segment.buffer.getInt(position) != BODY_BYTES
+                        || segment.buffer.getLong(position + 4 + TAG_BYTES) != expected
+                        || !MessageDigest.isEqual(tagOf(chain, segment.buffer, position), tag)) {
+                    return new Verification(records, expected, "Record " + expected + " in " + name + " fails its check");
+                }
+                chain = tag;
+                expected++;
+                records++;
+            }
+        }
+        return new Verification(records, null, null);
+    }
+
+    /**
+     * Size, recovery and sync counters, for diagnostics
+     */
+    Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        synchronized (this) {
+            Segment active = segments.get(segments.size() - 1);
+            result.put("segments", segments.size());
+            result.put("records", nextSequence - segments.get(0).firstSequence);
+            result.put("nextSequence", nextSequence);
+            result.put("activeSegment", active.path.getFileName().toString());
+            result.put("activeSegmentUsedBytes", active.end);
+            result.put("segmentBytes", segmentBytes);
+            result.put("duplicatesSkipped", duplicates);
+            result.put("tornTailRecovered", tornTail);
+            result.put("damagedSegments", damagedSegments);
+        }
+        synchronized (syncLock) {
+            result.put("durableSequence", durableSequence);
+            result.put("syncs", syncs);
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void close() {
+        segments.get(segments.size() - 1).buffer.force();
+    }
+
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(dir)) {
+            files = list.filter(file -> file.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        for (int i = 0; i < files.size(); i++) {
+            Segment segment = Segment.open(files.get(i));
+            if (segment.buffer.getInt(4) != keyCheck) {
+                throw new IllegalStateException("Audit segment " + files.get(i).getFileName()
+                        + " was written with another key");
+            }
+            boolean last = i == files.size() - 1;
+            if (!segments.isEmpty() && (!Arrays.equals(segment.previousTag(), lastTag)
+                    || segment.firstSequence != nextSequence)) {
+                damagedSegments++;
+            }
+
+            long expected = segment.firstSequence;
+            byte[] chain = segment.previousTag();
+            int position = HEADER_BYTES;
+            boolean broken = false;
+            while (position + RECORD_BYTES <= segment.buffer.capacity()) {
+                int length = segment.buffer.getInt(position);
+                if (length == 0) {
+                    break;
+                }
+                byte[] tag = tagAt(segment.buffer, position);
+                if (length != BODY_BYTES || segment.buffer.getLong(position + 4 + TAG_BYTES) != expected
+                        || !MessageDigest.isEqual(tagOf(chain, segment.buffer, position), tag)) {
+                    broken = true;
+                    break;
+                }
+                chain = tag;
+                Entry entry = decode(segment.buffer, position);
+                segment.index(entry.orderId(), position);
+                remember(entry.outboxId());
+                expected++;
+                position += RECORD_BYTES;
+            }
+            segment.end = position;
+            if (broken && last) {
+                tornTail = true;
+                for (int at = position; at + RECORD_BYTES <= segment.buffer.capacity()
+                        && segment.buffer.getInt(at) != 0; at += RECORD_BYTES) {
+                    segment.buffer.put(at, new byte[RECORD_BYTES]);
+                }
+                segment.buffer.force();
+            } else if (broken) {
+                damagedSegments++;
+            }
+            if (!last) {
+                segment.seal();
+            }
+            segments.add(segment);
+            nextSequence = expected;
+            lastTag = chain;
+        }
+        if (segments.isEmpty()) {
+            segments.add(Segment.create(dir.resolve(fileName(nextSequence)), segmentBytes, keyCheck, lastTag,
+                    nextSequence));
+        }
+        durableSequence = nextSequence - 1;
+    }
+
+    private Segment roll(Segment full) {
+        full.buffer.force();
+        full.seal();
+        try {
+            Segment next = Segment.create(dir.resolve(fileName(nextSequence)), segmentBytes, keyCheck, lastTag,
+                    nextSequence);
+            segments.add(next);
+            return next;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void remember(long outboxId) {
+        recentOutboxIds.add(outboxId);
+        if (recentOutboxIds.size() > dedupeWindow) {
+            recentOutboxIds.remove(recentOutboxIds.iterator().next());
+        }
+    }
+
+    private byte[] tagOf(byte[] previous, ByteBuffer buffer, int position) {
+        mac.update(previous);
+        mac.update(buffer.slice(position + 4 + TAG_BYTES, BODY_BYTES));
+        return Arrays.copyOf(mac.doFinal(), TAG_BYTES);
+    }
+
+    private static byte[] tagAt(ByteBuffer buffer, int position) {
+        byte[] tag = new byte[TAG_BYTES];
+        buffer.get(position + 4, tag);
+        return tag;
+    }
+
+    private static Entry decode(ByteBuffer buffer, int position) {
+        int at = position + 4 + TAG_BYTES;
+        byte scale = buffer.get(at + 43);
+        BigDecimal total = scale == NONE ? null : new BigDecimal(BigInteger.valueOf(buffer.getLong(at + 44)), scale);
+        return new Entry(buffer.getLong(at), buffer.getLong(at + 8), buffer.getLong(at + 16), buffer.getLong(at + 24),
+                buffer.getLong(at + 32), buffer.get(at + 40), status(buffer.get(at + 41)), status(buffer.get(at + 42)),
+                total);
+    }
+
+    private static byte code(OrderStatus status) {
+        if (status == null) {
+            return NONE;
+        }
+        for (byte code = 0; code < STATUS_CODES.length; code++) {
+            if (STATUS_CODES[code] == status) {
+                return code;
+            }
+        }
+        throw new IllegalArgumentException("No audit code for status " + status);
+    }
+
+    private static OrderStatus status(byte code) {
+        return code == NONE ? null : STATUS_CODES[code];
+    }
+
+    private static String fileName(long firstSequence) {
+        return String.format("%020d%s", firstSequence, SUFFIX);
+    }
+
+    /**
+     * One record as written
+     */
+    record Entry(long sequence, long outboxId, long atMillis, long orderId, long userId, byte type,
+                 OrderStatus status, OrderStatus previousStatus, BigDecimal total) {
+    }
+
+    /**
+     * Records checked, and the first sequence that failed with why, or nulls if all passed
+     */
+    record Verification(long records, Long firstBadSequence, String problem) {
+    }
+
+    private static final class Segment {
+
+        final Path path;
+        final MappedByteBuffer buffer;
+        final long firstSequence;
+        int end = HEADER_BYTES;
+
+        // Positions by order while the segment is written to, then sorted arrays
+        private Map<Long, List<Integer>> openIndex = new HashMap<>();
+        private long[] orderIds;
+        private int[] positions;
+
+        private Segment(Path path, MappedByteBuffer buffer) {
+            this.path = path;
+            this.buffer = buffer;
+            this.firstSequence = buffer.getLong(8);
+        }
+
+        static Segment create(Path path, int size, int keyCheck, byte[] previousTag, long firstSequence)
+                throws IOException {
+            MappedByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            }
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, keyCheck);
+            buffer.putLong(8, firstSequence);
+            buffer.put(16, previousTag);
+            buffer.force();
+            return new Segment(path, buffer);
+        }
+
+        static Segment open(Path path) throws IOException {
+            MappedByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                if (channel.size() < HEADER_BYTES || channel.size() > Integer.MAX_VALUE) {
+                    throw new IllegalStateException("Not an audit segment: " + path);
+                }
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            }
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IllegalStateException("Not an audit segment: " + path);
+            }
+            return new Segment(path, buffer);
+        }
+
+        byte[] previousTag() {
+            byte[] tag = new byte[TAG_BYTES];
+            buffer.get(16, tag);
+            return tag;
+        }
+
+        void index(long orderId, int position) {
+            openIndex.computeIfAbsent(orderId, id -> new ArrayList<>()).add(position);
+        }
+
+        void seal() {
+            int count = openIndex.values().stream().mapToInt(List::size).sum();
+            orderIds = new long[count];
+            positions = new int[count];
+            int i = 0;
+            for (Long orderId : openIndex.keySet().stream().sorted().collect(Collectors.toList())) {
+                for (int position : openIndex.get(orderId)) {
+                    orderIds[i] = orderId;
+                    positions[i] = position;
+                    i++;
+                }
+            }
+            openIndex = null;
+        }
+
+        List<Integer> positionsOf(long orderId) {
+            if (openIndex != null) {
+                return openIndex.getOrDefault(orderId, List.of());
+            }
+            int low = 0;
+            int high = orderIds.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (orderIds[mid] < orderId) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            List<Integer> found = new ArrayList<>();
+            for (int i = low; i < orderIds.length && orderIds[i] == orderId; i++) {
+                found.add(positions[i]);
+            }
+            return found;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.foodordering.service;
+
+import java.util.List;
+
+/**
+ * Thrown when a bulk import is rejected before anything was written.
+ */
+public class BulkImportValidationException extends RuntimeException {
+    
+    private final List<String> errors;
+    
+    public BulkImportValidationException(List<String> errors) {
+        super("Bulk import rejected: " + errors.size() + " invalid row(s)");
+        this.errors = List.copyOf(errors);
+    }
+    
+    public List<String> getErrors() {
+        return errors;
+    }
+}
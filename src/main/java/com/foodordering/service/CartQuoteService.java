@@ -0,0 +1,205 @@
+package com.foodordering.service;
+
+import com.foodordering.dto.CartQuoteResponse;
+import com.foodordering.dto.CreateOrderRequest;
+import com.foodordering.dto.MenuItemResponse;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Validates and prices carts before checkout, from the in-memory menu held by MenuSearchService.
+ *
+ * A valid cart gets a quote token: the user, the catalog version the prices were read at, an
+ * expiry, the promotion discount and the priced lines, signed with HMAC-SHA256 so the server
+ * keeps no quote state. createOrder redeems it instead of loading and pricing every item, as
+ * long as the catalog has not changed since; otherwise the order is priced the usual way.
+ * The quoted discount is honoured until the quote expires, even if a promotion ends first.
+ */
+@Service
+public class CartQuoteService {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    @Autowired
+    private MenuSearchService menuSearchService;
+
+    @Autowired
+    private MenuService menuService;
+
+    @Autowired
+    private PricingService pricingService;
+
+    // Blank: a random key per start, so quotes do not survive a restart and are not shared between nodes
+    @Value("${cart.quote.secret:}")
+    private String secret;
+
+    @Value("${cart.quote.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private SecretKeySpec key;
+
+    @PostConstruct
+    void init() {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        key = new SecretKeySpec(keyBytes, HMAC_ALGORITHM);
+    }
+
+    /**
+     * Price a cart, or list everything wrong with it. Reads no database rows.
+     */
+    public CartQuoteResponse quote(List<CreateOrderRequest.OrderItemRequest> items, Long userId) {
+        // Read the version before the prices: a change racing with pricing makes the quote stale, never fresh
+        long catalogVersion = menuService.getCatalogVersion();
+        List<String> errors = new ArrayList<>();
+        List<CartQuoteResponse.QuoteItem> quoted = new ArrayList<>();
+        List<PricingPlan.Line> pricingLines = new ArrayList<>();
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (int i = 0; i < items.size(); i++) {
+            CreateOrderRequest.OrderItemRequest item = items.get(i);
+            String prefix = "Item " + (i + 1) + ": ";
+            if (item.getQuantity() < 1) {
+                errors.add(prefix + "quantity must be at least 1");
+                continue;
+            }
+            Optional<MenuItemResponse> menuItem = menuSearchService.getItem(item.getMenuItemId());
+            if (menuItem.isEmpty()) {
+                errors.add(prefix + "menu item not found: " + item.getMenuItemId());
+                continue;
+            }
+            if (!Boolean.TRUE.equals(menuItem.get().getAvailable())) {
+                errors.add(prefix + "menu item is not available: " + menuItem.get().getName());
+                continue;
+            }
+            CartQuoteResponse.QuoteItem line = new CartQuoteResponse.QuoteItem(menuItem.get().getId(),
+                    menuItem.get().getName(), menuItem.get().getCategory(), item.getQuantity(),
+                    menuItem.get().getPrice());
+            quoted.add(line);
+            pricingLines.add(new PricingPlan.Line(line.getMenuItemId(), line.getCategory(), line.getQuantity(),
+                    line.getUnitPrice()));
+            subtotal = subtotal.add(line.getSubtotal());
+        }
+        if (!errors.isEmpty()) {
+            return CartQuoteResponse.failed(errors);
+        }
+
+        PricingPlan.Result pricing = pricingService.price(pricingLines);
+        BigDecimal discount = pricing.discount().min(subtotal);
+        long expiresAtMillis = System.currentTimeMillis() + ttlSeconds * 1000;
+        StringBuilder payload = new StringBuilder()
+                .append(userId).append('|')
+                .append(catalogVersion).append('|')
+                .append(expiresAtMillis).append('|')
+                .append(discount.toPlainString()).append('|');
+        for (int i = 0; i < quoted.size(); i++) {
+            CartQuoteResponse.QuoteItem line = quoted.get(i);
+            payload.append(i == 0 ? "" : ";")
+                    .append(line.getMenuItemId()).append(':')
+                    .append(line.getQuantity()).append(':')
+                    .append(line.getUnitPrice().toPlainString());
+        }
+        LocalDateTime expiresAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(expiresAtMillis), ZoneId.systemDefault());
+        return new CartQuoteResponse(sign(payload.toString()), expiresAt, catalogVersion, subtotal, discount,
+                pricing.appliedRules(), quoted);
+    }
+
+    /**
+     * The quoted lines and discount for an order placing exactly the quoted cart, or empty when
+     * the catalog changed since the quote and the order must be priced again. Throws if the token
+     * is not a valid, unexpired quote for this user and these items.
+     */
+    Optional<RedeemedQuote> redeem(String token, List<CreateOrderRequest.OrderItemRequest> items, Long userId) {
+        String[] fields = verify(token).split("\\|", -1);
+        if (fields.length != 5) {
+            throw new RuntimeException("Invalid cart quote");
+        }
+        if (!fields[0].equals(String.valueOf(userId))) {
+            throw new RuntimeException("Cart quote belongs to another user");
+        }
+        if (System.currentTimeMillis() > Long.parseLong(fields[2])) {
+            throw new RuntimeException("Cart quote has expired");
+        }
+
+        List<QuotedLine> lines = new ArrayList<>();
+        for (String line : fields[4].split(";")) {
+            String[] parts = line.split(":");
+            lines.add(new QuotedLine(Long.parseLong(parts[0]), Integer.parseInt(parts[1]), new BigDecimal(parts[2])));
+        }
+        if (lines.size() != items.size()) {
+            throw new RuntimeException("Cart changed since it was quoted");
+        }
+        for (int i = 0; i < lines.size(); i++) {
+            if (!lines.get(i).menuItemId().equals(items.get(i).getMenuItemId())
+                    || !lines.get(i).quantity().equals(items.get(i).getQuantity())) {
+                throw new RuntimeException("Cart changed since it was quoted");
+            }
+        }
+
+        if (Long.parseLong(fields[1]) != menuService.getCatalogVersion()) {
+            return Optional.empty();
+        }
+        return Optional.of(new RedeemedQuote(lines, new BigDecimal(fields[3])));
+    }
+
+    private String sign(String payload) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        return encoder.encodeToString(bytes) + "." + encoder.encodeToString(hmac(bytes));
+    }
+
+    private String verify(String token) {
+        int dot = token.indexOf('.');
+        try {
+            if (dot < 0) {
+                throw new IllegalArgumentException("missing signature");
+            }
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            byte[] payload = decoder.decode(token.substring(0, dot));
+            byte[] signature = decoder.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(hmac(payload), signature)) {
+                throw new IllegalArgumentException("bad signature");
+            }
+            return new String(payload, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid cart quote");
+        }
+    }
+
+    private byte[] hmac(byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(HMAC_ALGORITHM + " is not available", e);
+        }
+    }
+
+    record QuotedLine(Long menuItemId, Integer quantity, BigDecimal unitPrice) {
+    }
+
+    record RedeemedQuote(List<QuotedLine> lines, BigDecimal discount) {
+    }
+}
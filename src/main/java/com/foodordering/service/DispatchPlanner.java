@@ -0,0 +1,152 @@
+package com.foodordering.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plans one dispatch window: which free driver takes which ready orders, in what order.
+ *
+ * Every order is picked up at the kitchen, so the cost of giving a run to a driver is the
+ * driver's distance to the kitchen, and only the nearest free drivers are worth using.
+ * Runs are matched oldest ready order first to nearest driver first; with one pickup point
+ * this greedy matching minimises the longest time an order waits for its driver.
+ *
+ * When more orders are ready than drivers are nearby, orders whose drop-offs lie within
+ * bundleRadiusKm of each other share a run (up to maxOrdersPerRun), so fewer drivers are
+ * needed. Stops in a run are ordered nearest drop-off first, starting from the kitchen.
+ */
+class DispatchPlanner {
+
+    private static final Comparator<ReadyOrder> BY_READY_TIME = Comparator
+            .comparingLong(ReadyOrder::readyAtMillis)
+            .thenComparing(ReadyOrder::orderId);
+
+    private final double pickupLatitude;
+    private final double pickupLongitude;
+    private final double maxPickupKm;
+    private final int maxOrdersPerRun;
+    private final double bundleRadiusKm;
+
+    DispatchPlanner(double pickupLatitude, double pickupLongitude, double maxPickupKm, int maxOrdersPerRun,
+                    double bundleRadiusKm) {
+        this.pickupLatitude = pickupLatitude;
+        this.pickupLongitude = pickupLongitude;
+        this.maxPickupKm = maxPickupKm;
+        this.maxOrdersPerRun = Math.max(1, maxOrdersPerRun);
+        this.bundleRadiusKm = bundleRadiusKm;
+    }
+
+    /**
+     * Runs for this window. Orders left out stay ready for the next window.
+     */
+    List<Run> plan(List<ReadyOrder> ready, GeoGrid drivers) {
+        if (ready.isEmpty()) {
+            return List.of();
+        }
+        List<GeoGrid.Neighbour> candidates = drivers.nearest(pickupLatitude, pickupLongitude, maxPickupKm,
+                ready.size());
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+
+        List<ReadyOrder> byReadyTime = new ArrayList<>(ready);
+        byReadyTime.sort(BY_READY_TIME);
+        // Under a backlog, only the oldest orders can get a driver this window
+        int assignable = (int) Math.min((long) candidates.size() * maxOrdersPerRun, byReadyTime.size());
+        byReadyTime = byReadyTime.subList(0, assignable);
+        List<List<ReadyOrder>> runs = new ArrayList<>();
+        if (byReadyTime.size() > candidates.size() && maxOrdersPerRun > 1) {
+            runs = bundle(byReadyTime);
+        } else {
+            for (ReadyOrder order : byReadyTime) {
+                runs.add(List.of(order));
+            }
+        }
+
+        List<Run> plan = new ArrayList<>();
+        for (int i = 0; i < runs.size() && i < candidates.size(); i++) {
+            GeoGrid.Neighbour driver = candidates.get(i);
+            plan.add(new Run(driver.id(), driver.distanceKm(), orderStops(runs.get(i))));
+        }
+        return plan;
+    }
+
+    private List<List<ReadyOrder>> bundle(List<ReadyOrder> byReadyTime) {
+        // A cell per bundle radius keeps each lookup to the 3x3 cells around the drop-off
+        GeoGrid dropOffs = new GeoGrid(pickupLatitude, bundleRadiusKm);
+        Map<Long, ReadyOrder> byId = new HashMap<>();
+        for (ReadyOrder order : byReadyTime) {
+            byId.put(order.orderId(), order);
+            if (order.hasDropOff()) {
+                dropOffs.put(order.orderId(), order.latitude(), order.longitude());
+            }
+        }
+
+        List<List<ReadyOrder>> runs = new ArrayList<>();
+        for (ReadyOrder order : byReadyTime) {
+            if (byId.remove(order.orderId()) == null) {
+                // Already bundled with an earlier order
+                continue;
+            }
+            List<ReadyOrder> run = new ArrayList<>();
+            run.add(order);
+            if (order.hasDropOff()) {
+                dropOffs.remove(order.orderId());
+                for (GeoGrid.Neighbour neighbour : dropOffs.nearest(order.latitude(), order.longitude(),
+                        bundleRadiusKm, maxOrdersPerRun - 1)) {
+                    dropOffs.remove(neighbour.id());
+                    run.add(byId.remove(neighbour.id()));
+                }
+            }
+            runs.add(run);
+        }
+        return runs;
+    }
+
+    private List<ReadyOrder> orderStops(List<ReadyOrder> run) {
+        if (run.size() == 1) {
+            return run;
+        }
+        List<ReadyOrder> remaining = new LinkedList<>(run);
+        List<ReadyOrder> stops = new ArrayList<>();
+        double latitude = pickupLatitude;
+        double longitude = pickupLongitude;
+        while (!remaining.isEmpty()) {
+            ReadyOrder next = null;
+            double best = Double.MAX_VALUE;
+            for (ReadyOrder candidate : remaining) {
+                double distance = candidate.hasDropOff()
+                        ? GeoGrid.distanceKm(latitude, longitude, candidate.latitude(), candidate.longitude())
+                        : 0;
+                if (distance < best) {
+                    best = distance;
+                    next = candidate;
+                }
+            }
+            remaining.remove(next);
+            stops.add(next);
+            if (next.hasDropOff()) {
+                latitude = next.latitude();
+                longitude = next.longitude();
+            }
+        }
+        return stops;
+    }
+
+    /**
+     * A prepared order waiting for a driver. latitude/longitude are null without a drop-off point.
+     */
+    record ReadyOrder(Long orderId, Double latitude, Double longitude, long readyAtMillis) {
+
+        boolean hasDropOff() {
+            return latitude != null && longitude != null;
+        }
+    }
+
+    record Run(long driverId, double pickupDistanceKm, List<ReadyOrder> stops) {
+    }
+}
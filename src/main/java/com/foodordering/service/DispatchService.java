@@ -0,0 +1,391 @@
+package com.foodordering.service;
+
+import com.foodordering.dto.DeliveryAssignmentResponse;
+import com.foodordering.dto.DriverRequest;
+import com.foodordering.dto.DriverResponse;
+import com.foodordering.entity.DeliveryAssignment;
+import com.foodordering.entity.DeliveryStatus;
+import com.foodordering.entity.Driver;
+import com.foodordering.entity.DriverStatus;
+import com.foodordering.entity.Order;
+import com.foodordering.entity.OrderStatus;
+import com.foodordering.event.OrderPreparedEvent;
+import com.foodordering.event.OrderStatusChangedEvent;
+import com.foodordering.repository.DeliveryAssignmentRepository;
+import com.foodordering.repository.DriverRepository;
+import com.foodordering.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Delivery dispatch. Prepared orders wait here until the next dispatch window, which
+ * hands them to free drivers found through an in-memory grid of driver positions
+ * (see DispatchPlanner), records the assignments and moves the orders to OUT_FOR_DELIVERY.
+ *
+ * Drivers become free again once their last delivery is DELIVERED or CANCELLED, at the
+ * drop-off they finished at. Waiting orders are not persisted: after a restart the kitchen
+ * re-queues PREPARING orders and they come back here when prepared again.
+ *
+ * A run whose assignment fails, for example because no connection could be had, leaves
+ * its orders waiting; they sit out dispatch.retry-base-ms, doubling per failure up to
+ * dispatch.retry-max-ms, before they are planned again.
+ */
+@Service
+public class DispatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(DispatchService.class);
+
+    @Autowired
+    private DriverRepository driverRepository;
+
+    @Autowired
+    private DeliveryAssignmentRepository assignmentRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${dispatch.pickup-latitude:40.7128}")
+    private double pickupLatitude;
+
+    @Value("${dispatch.pickup-longitude:-74.0060}")
+    private double pickupLongitude;
+
+    @Value("${dispatch.max-pickup-km:10}")
+    private double maxPickupKm;
+
+    @Value("${dispatch.max-orders-per-run:3}")
+    private int maxOrdersPerRun;
+
+    @Value("${dispatch.bundle-radius-km:1.5}")
+    private double bundleRadiusKm;
+
+    @Value("${dispatch.grid-cell-km:0.5}")
+    private double gridCellKm;
+
+    @Value("${dispatch.retry-base-ms:2000}")
+    private long retryBaseMillis;
+
+    @Value("${dispatch.retry-max-ms:60000}")
+    private long retryMaxMillis;
+
+    private GeoGrid availableDrivers;
+
+    private DispatchPlanner planner;
+
+    private TransactionTemplate transactionTemplate;
+
+    // After-commit listeners must not write through the transaction that just committed
+    private TransactionTemplate newTransaction;
+
+    // Prepared orders waiting for a driver; guarded by this
+    private final Map<Long, DispatchPlanner.ReadyOrder> waiting = new LinkedHashMap<>();
+
+    // Waiting orders whose last assignment failed, and when they may be planned again; guarded by this
+    private final Map<Long, Backoff> backoffs = new HashMap<>();
+
+    private final Object windowLock = new Object();
+
+    private volatile Map<String, Object> lastWindow = Map.of();
+
+    @PostConstruct
+    void init() {
+        availableDrivers = new GeoGrid(pickupLatitude, gridCellKm);
+        planner = new DispatchPlanner(pickupLatitude, pickupLongitude, maxPickupKm, maxOrdersPerRun, bundleRadiusKm);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAvailableDrivers() {
+        for (Driver driver : driverRepository.findByStatus(DriverStatus.AVAILABLE)) {
+            if (driver.getLatitude() != null && driver.getLongitude() != null) {
+                availableDrivers.put(driver.getId(), driver.getLatitude(), driver.getLongitude());
+            }
+        }
+    }
+
+    @EventListener
+    public void onOrderPrepared(OrderPreparedEvent event) {
+        Optional<Order> order = orderRepository.findById(event.getOrderId());
+        if (order.isEmpty() || order.get().getStatus() != OrderStatus.PREPARING) {
+            return;
+        }
+        DispatchPlanner.ReadyOrder ready = new DispatchPlanner.ReadyOrder(event.getOrderId(),
+                order.get().getDeliveryLatitude(), order.get().getDeliveryLongitude(),
+                event.getPreparedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        synchronized (this) {
+            waiting.put(ready.orderId(), ready);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        switch (event.getNewStatus()) {
+            case OUT_FOR_DELIVERY -> stopWaiting(event.getOrderId());
+            case DELIVERED -> finishAssignment(event.getOrderId(), DeliveryStatus.DELIVERED, event.getChangedAt());
+            case CANCELLED -> {
+                stopWaiting(event.getOrderId());
+                finishAssignment(event.getOrderId(), DeliveryStatus.CANCELLED, event.getChangedAt());
+            }
+            default -> { }
+        }
+    }
+
+    /**
+     * Assign waiting orders to free drivers. Returns how many orders were assigned.
+     */
+    @Scheduled(fixedDelayString = "${dispatch.window-ms:2000}")
+    public int runDispatchWindow() {
+        synchronized (windowLock) {
+            List<DispatchPlanner.ReadyOrder> ready = new ArrayList<>();
+            long nowMillis = System.currentTimeMillis();
+            synchronized (this) {
+                for (DispatchPlanner.ReadyOrder order : waiting.values()) {
+                    Backoff backoff = backoffs.get(order.orderId());
+                    if (backoff == null || backoff.notBeforeMillis() <= nowMillis) {
+                        ready.add(order);
+                    }
+                }
+            }
+            if (ready.isEmpty()) {
+                return 0;
+            }
+            long start = System.nanoTime();
+            List<DispatchPlanner.Run> runs = planner.plan(ready, availableDrivers);
+            long planMicros = (System.nanoTime() - start) / 1_000;
+
+            LocalDateTime now = LocalDateTime.now();
+            int assigned = 0;
+            for (DispatchPlanner.Run run : runs) {
+                assigned += assignRun(run, now);
+            }
+
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("ranAt", now);
+            stats.put("readyOrders", ready.size());
+            stats.put("runs", runs.size());
+            stats.put("assignedOrders", assigned);
+            stats.put("planMicros", planMicros);
+            lastWindow = stats;
+            return assigned;
+        }
+    }
+
+    @Transactional
+    public DriverResponse createDriver(DriverRequest request) {
+        Driver driver = new Driver(request.getName(), request.getLatitude(), request.getLongitude());
+        driver.setStatus(DriverStatus.AVAILABLE);
+        Driver saved = driverRepository.save(driver);
+        availableDrivers.put(saved.getId(), saved.getLatitude(), saved.getLongitude());
+        return new DriverResponse(saved);
+    }
+
+    /**
+     * Record a driver's position. Returns false if the driver does not exist.
+     */
+    @Transactional
+    public boolean updateLocation(Long driverId, double latitude, double longitude) {
+        if (driverRepository.updateLocation(driverId, latitude, longitude, LocalDateTime.now()) == 0) {
+            return false;
+        }
+        // Only drivers still free; one taken by a dispatch run meanwhile must not come back
+        availableDrivers.replaceIfPresent(driverId, latitude, longitude);
+        return true;
+    }
+
+    /**
+     * Bring a driver online (AVAILABLE) or take them offline (OFFLINE)
+     */
+    @Transactional
+    public Optional<DriverResponse> setDriverStatus(Long driverId, DriverStatus status) {
+        if (status == DriverStatus.ON_DELIVERY) {
+            throw new RuntimeException("Drivers go ON_DELIVERY through dispatch only");
+        }
+        return driverRepository.findByIdForUpdate(driverId).map(driver -> {
+            // A driver left ON_DELIVERY without open assignments can still be reset
+            if (driver.getStatus() == DriverStatus.ON_DELIVERY
+                    && assignmentRepository.countByDriverIdAndStatus(driverId, DeliveryStatus.ASSIGNED) > 0) {
+                throw new RuntimeException("Driver has deliveries in progress: " + driverId);
+            }
+            driver.setStatus(status);
+            if (status == DriverStatus.AVAILABLE && driver.getLatitude() != null && driver.getLongitude() != null) {
+                availableDrivers.put(driverId, driver.getLatitude(), driver.getLongitude());
+            } else {
+                availableDrivers.remove(driverId);
+            }
+            return new DriverResponse(driverRepository.save(driver));
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public List<DriverResponse> getDrivers() {
+        return driverRepository.findAll().stream()
+                .map(DriverResponse::new)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public List<DeliveryAssignmentResponse> getActiveAssignments() {
+        return assignmentRepository.findByStatusOrderByAssignedAtDescStopNumber(DeliveryStatus.ASSIGNED).stream()
+                .map(DeliveryAssignmentResponse::new)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Mark an assigned delivery as delivered. Returns false if it is not in progress.
+     */
+    public boolean completeDelivery(Long assignmentId) {
+        Optional<DeliveryAssignment> assignment = assignmentRepository.findById(assignmentId);
+        if (assignment.isEmpty() || assignment.get().getStatus() != DeliveryStatus.ASSIGNED) {
+            return false;
+        }
+        // onOrderStatusChanged closes the assignment and frees the driver after this commits
+        orderService.updateOrderStatus(assignment.get().getOrderId(), OrderStatus.DELIVERED.name());
+        return true;
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (this) {
+            stats.put("waitingOrders", waiting.size());
+            stats.put("backingOffOrders", backoffs.size());
+        }
+        stats.put("availableDrivers", availableDrivers.size());
+        stats.put("lastWindow", lastWindow);
+        return stats;
+    }
+
+    private int assignRun(DispatchPlanner.Run run, LocalDateTime now) {
+        // The driver may have gone offline since the plan was made
+        GeoGrid.Point driverPosition = availableDrivers.remove(run.driverId());
+        if (driverPosition == null) {
+            return 0;
+        }
+        List<Long> assigned;
+        try {
+            assigned = transactionTemplate.execute(status -> {
+                List<Long> orderIds = new ArrayList<>();
+                for (DispatchPlanner.ReadyOrder stop : run.stops()) {
+                    Optional<Order> order = orderRepository.findById(stop.orderId());
+                    if (order.isEmpty() || order.get().getStatus() != OrderStatus.PREPARING) {
+                        continue;
+                    }
+                    assignmentRepository.save(new DeliveryAssignment(stop.orderId(), run.driverId(),
+                            orderIds.size() + 1, run.pickupDistanceKm(), now));
+                    orderService.updateOrderStatus(stop.orderId(), OrderStatus.OUT_FOR_DELIVERY.name());
+                    orderIds.add(stop.orderId());
+                }
+                if (!orderIds.isEmpty()) {
+                    driverRepository.findById(run.driverId())
+                            .orElseThrow(() -> new RuntimeException("Driver not found: " + run.driverId()))
+                            .setStatus(DriverStatus.ON_DELIVERY);
+                }
+                return orderIds;
+            });
+        } catch (RuntimeException e) {
+            // Nothing was committed: the orders keep waiting and are retried after a backoff
+            log.warn("Dispatch run for driver {} with orders {} failed, retrying later", run.driverId(),
+                    run.stops().stream().map(DispatchPlanner.ReadyOrder::orderId).collect(Collectors.toList()), e);
+            backOff(run.stops());
+            availableDrivers.put(run.driverId(), driverPosition.latitude(), driverPosition.longitude());
+            return 0;
+        }
+        synchronized (this) {
+            // Assigned, or skipped because they are no longer PREPARING
+            for (DispatchPlanner.ReadyOrder stop : run.stops()) {
+                waiting.remove(stop.orderId());
+                backoffs.remove(stop.orderId());
+            }
+        }
+        if (assigned.isEmpty()) {
+            availableDrivers.put(run.driverId(), driverPosition.latitude(), driverPosition.longitude());
+        }
+        return assigned.size();
+    }
+
+    private synchronized void backOff(List<DispatchPlanner.ReadyOrder> stops) {
+        long nowMillis = System.currentTimeMillis();
+        for (DispatchPlanner.ReadyOrder stop : stops) {
+            if (!waiting.containsKey(stop.orderId())) {
+                continue;
+            }
+            Backoff previous = backoffs.get(stop.orderId());
+            int failures = previous == null ? 1 : previous.failures() + 1;
+            long delay = Math.min(retryMaxMillis, retryBaseMillis << Math.min(failures - 1, 20));
+            backoffs.put(stop.orderId(), new Backoff(failures, nowMillis + delay));
+        }
+    }
+
+    private synchronized void stopWaiting(Long orderId) {
+        waiting.remove(orderId);
+        backoffs.remove(orderId);
+    }
+
+    private void finishAssignment(Long orderId, DeliveryStatus status, LocalDateTime finishedAt) {
+        newTransaction.executeWithoutResult(tx -> assignmentRepository.findByOrderId(orderId)
+                .filter(assignment -> assignment.getStatus() == DeliveryStatus.ASSIGNED)
+                .ifPresent(assignment -> {
+                    // Count under the driver's row lock: two stops finishing at once would otherwise
+                    // each still see the other ASSIGNED, and neither would free the driver
+                    driverRepository.findByIdForUpdate(assignment.getDriverId());
+                    assignment.setStatus(status);
+                    assignment.setCompletedAt(finishedAt);
+                    assignmentRepository.save(assignment);
+                    if (assignmentRepository.countByDriverIdAndStatus(assignment.getDriverId(),
+                            DeliveryStatus.ASSIGNED) == 0) {
+                        releaseDriver(assignment.getDriverId(), orderId);
+                    }
+                }));
+    }
+
+    private void releaseDriver(Long driverId, Long lastOrderId) {
+        driverRepository.findById(driverId).ifPresent(driver -> {
+            if (driver.getStatus() != DriverStatus.ON_DELIVERY) {
+                return;
+            }
+            // The driver is where they dropped off the last order, when we know where that is
+            orderRepository.findById(lastOrderId)
+                    .filter(order -> order.getDeliveryLatitude() != null && order.getDeliveryLongitude() != null)
+                    .ifPresent(order -> {
+                        driver.setLatitude(order.getDeliveryLatitude());
+                        driver.setLongitude(order.getDeliveryLongitude());
+                    });
+            driver.setStatus(DriverStatus.AVAILABLE);
+            if (driver.getLatitude() != null && driver.getLongitude() != null) {
+                availableDrivers.put(driverId, driver.getLatitude(), driver.getLongitude());
+            }
+        });
+    }
+
+    private record Backoff(int failures, long notBeforeMillis) {
+    }
+}
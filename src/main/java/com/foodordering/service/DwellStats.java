@@ -0,0 +1,99 @@
+package com.foodordering.service;
+
+/**
+ * Streaming statistics of how long orders stay in one status, in constant memory.
+ *
+ * Samples go into a log-scale histogram (8% wide buckets from 1 second to about 5 hours)
+ * whose counts decay by (1 - alpha) per sample, so old behaviour fades out at the same rate
+ * as the EWMA of the mean. Quantiles are recomputed on write and read without locking.
+ * typicalBacklog is a separate EWMA of the kitchen backlog seen when orders entered the status.
+ */
+class DwellStats {
+
+    private static final int BUCKETS = 128;
+    private static final double BUCKET_GROWTH = 1.08;
+    private static final double LOG_GROWTH = Math.log(BUCKET_GROWTH);
+
+    private final double alpha;
+    private final double[] counts = new double[BUCKETS];
+    private double weight;
+    private double mean;
+    private long samples;
+
+    private volatile Snapshot snapshot = new Snapshot(0, 0, 0, 0);
+    private volatile double typicalBacklog = -1;
+
+    DwellStats(double alpha) {
+        if (alpha <= 0 || alpha >= 1) {
+            throw new IllegalArgumentException("alpha must be between 0 and 1");
+        }
+        this.alpha = alpha;
+    }
+
+    synchronized void record(double seconds) {
+        double value = Math.max(seconds, 0);
+        double decay = 1 - alpha;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] *= decay;
+        }
+        counts[bucket(value)] += 1;
+        weight = weight * decay + 1;
+        // A plain running mean for the first 1 / alpha samples, so early samples are not underweighted
+        samples++;
+        mean += (value - mean) * Math.max(alpha, 1.0 / samples);
+        snapshot = new Snapshot(weight, mean, quantile(0.5), quantile(0.9));
+    }
+
+    synchronized void recordBacklog(int units) {
+        typicalBacklog = typicalBacklog < 0 ? units : typicalBacklog + alpha * (units - typicalBacklog);
+    }
+
+    /**
+     * Decayed sample count; about 1 / alpha once many samples have been seen
+     */
+    double getWeight() {
+        return snapshot.weight();
+    }
+
+    double getMeanSeconds() {
+        return snapshot.mean();
+    }
+
+    double getMedianSeconds() {
+        return snapshot.p50();
+    }
+
+    double getP90Seconds() {
+        return snapshot.p90();
+    }
+
+    /**
+     * EWMA of the backlog at entry, or -1 before any was recorded
+     */
+    double getTypicalBacklog() {
+        return typicalBacklog;
+    }
+
+    private double quantile(double q) {
+        double target = weight * q;
+        double seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                // Geometric middle of the bucket
+                return i == 0 ? 1 : Math.pow(BUCKET_GROWTH, i + 0.5);
+            }
+        }
+        return Math.pow(BUCKET_GROWTH, BUCKETS);
+    }
+
+    private static int bucket(double seconds) {
+        if (seconds < BUCKET_GROWTH) {
+            return 0;
+        }
+        return Math.min(BUCKETS - 1, (int) (Math.log(seconds) / LOG_GROWTH));
+    }
+
+    private record Snapshot(double weight, double mean, double p50, double p90) {
+    }
+}
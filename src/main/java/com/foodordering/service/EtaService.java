@@ -0,0 +1,257 @@
+package com.foodordering.service;
+
+import com.foodordering.dto.OrderResponse;
+import com.foodordering.entity.OrderStatus;
+import com.foodordering.event.OrderEventLine;
+import com.foodordering.event.OrderStatusChangedEvent;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Delivery ETAs for open orders.
+ *
+ * Learns how long orders stay in each status from committed status changes, as DwellStats
+ * per status, menu category and hour of day, with fallbacks to all hours, all categories and
+ * finally the configured defaults while there is too little data. Kitchen statuses use the
+ * slowest category in the order; the CONFIRMED wait is scaled by the current kitchen backlog
+ * against the backlog typically seen at that hour.
+ *
+ * An estimate only reads the in-memory statistics and the order's own lines, never the database.
+ */
+@Service
+public class EtaService {
+
+    // Category key for statuses that do not depend on what was ordered, and for all-category fallbacks
+    static final String ANY_CATEGORY = "*";
+
+    private static final int ANY_HOUR = -1;
+
+    // Orders past their median dwell still need some time; never promise less than this
+    private static final long MIN_REMAINING_SECONDS = 60;
+
+    @Autowired
+    @Lazy
+    private KitchenService kitchenService;
+
+    @Value("${eta.alpha:0.05}")
+    private double alpha;
+
+    @Value("${eta.min-samples:5}")
+    private double minSamples;
+
+    @Value("${eta.default-minutes.pending:3}")
+    private long defaultPendingMinutes;
+
+    @Value("${eta.default-minutes.confirmed:10}")
+    private long defaultConfirmedMinutes;
+
+    @Value("${eta.default-minutes.preparing:15}")
+    private long defaultPreparingMinutes;
+
+    @Value("${eta.default-minutes.out-for-delivery:20}")
+    private long defaultOutForDeliveryMinutes;
+
+    private final Map<StatsKey, DwellStats> stats = new ConcurrentHashMap<>();
+
+    private final Map<OrderStatus, Long> defaultSeconds = new EnumMap<>(OrderStatus.class);
+
+    @PostConstruct
+    void init() {
+        defaultSeconds.put(OrderStatus.PENDING, defaultPendingMinutes * 60);
+        defaultSeconds.put(OrderStatus.CONFIRMED, defaultConfirmedMinutes * 60);
+        defaultSeconds.put(OrderStatus.PREPARING, defaultPreparingMinutes * 60);
+        defaultSeconds.put(OrderStatus.OUT_FOR_DELIVERY, defaultOutForDeliveryMinutes * 60);
+    }
+
+    @TransactionalEventListener
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        Set<String> categories = categoriesOf(event);
+        if (event.getNewStatus() == OrderStatus.CONFIRMED) {
+            int hour = event.getChangedAt().getHour();
+            for (String category : categories) {
+                int backlog = kitchenService.getQueuedUnits(category);
+                statsFor(OrderStatus.CONFIRMED, category, hour).recordBacklog(backlog);
+                statsFor(OrderStatus.CONFIRMED, category, ANY_HOUR).recordBacklog(backlog);
+            }
+        }
+
+        OrderStatus previous = event.getPreviousStatus();
+        if (!defaultSeconds.containsKey(previous) || event.getPreviousStatusSince() == null) {
+            return;
+        }
+        double seconds = Duration.between(event.getPreviousStatusSince(), event.getChangedAt()).toMillis() / 1000.0;
+        if (seconds < 0) {
+            return;
+        }
+        int hour = event.getPreviousStatusSince().getHour();
+        if (isKitchenStatus(previous)) {
+            for (String category : categories) {
+                statsFor(previous, category, hour).record(seconds);
+                statsFor(previous, category, ANY_HOUR).record(seconds);
+            }
+        }
+        statsFor(previous, ANY_CATEGORY, hour).record(seconds);
+        statsFor(previous, ANY_CATEGORY, ANY_HOUR).record(seconds);
+    }
+
+    /**
+     * Estimated delivery time of an order, or null once it is delivered or cancelled
+     */
+    public LocalDateTime estimateDeliveryAt(OrderResponse order) {
+        return estimateDeliveryAt(order, LocalDateTime.now());
+    }
+
+    LocalDateTime estimateDeliveryAt(OrderResponse order, LocalDateTime now) {
+        OrderStatus status = order.getStatus();
+        if (status == OrderStatus.SCHEDULED) {
+            // Promised for the requested time; the kitchen only starts at the lead time before it
+            return order.getScheduledFor();
+        }
+        if (status == null || !defaultSeconds.containsKey(status)) {
+            return null;
+        }
+        Set<String> categories = new LinkedHashSet<>();
+        for (OrderResponse.OrderItemResponse item : order.getItems()) {
+            if (item.getCategory() != null) {
+                categories.add(item.getCategory());
+            }
+        }
+        if (categories.isEmpty()) {
+            categories.add(ANY_CATEGORY);
+        }
+        int hour = now.getHour();
+        double elapsed = order.getUpdatedAt() == null ? 0
+                : Math.max(0, Duration.between(order.getUpdatedAt(), now).toMillis() / 1000.0);
+
+        double remaining = 0;
+        switch (status) {
+            case PENDING -> remaining = remainingIn(OrderStatus.PENDING, Set.of(ANY_CATEGORY), hour, elapsed)
+                    + queueWait(categories, hour)
+                    + typical(OrderStatus.PREPARING, categories, hour)
+                    + typical(OrderStatus.OUT_FOR_DELIVERY, Set.of(ANY_CATEGORY), hour);
+            case CONFIRMED -> remaining = queueWait(categories, hour)
+                    + typical(OrderStatus.PREPARING, categories, hour)
+                    + typical(OrderStatus.OUT_FOR_DELIVERY, Set.of(ANY_CATEGORY), hour);
+            case PREPARING -> remaining = remainingIn(OrderStatus.PREPARING, categories, hour, elapsed)
+                    + typical(OrderStatus.OUT_FOR_DELIVERY, Set.of(ANY_CATEGORY), hour);
+            case OUT_FOR_DELIVERY -> remaining = remainingIn(OrderStatus.OUT_FOR_DELIVERY, Set.of(ANY_CATEGORY),
+                    hour, elapsed);
+            default -> { }
+        }
+        return now.plusSeconds(Math.round(remaining));
+    }
+
+    /**
+     * Median, p90 and sample weight per status for all categories and hours, for diagnostics
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (OrderStatus status : defaultSeconds.keySet()) {
+            DwellStats overall = stats.get(new StatsKey(status, ANY_CATEGORY, ANY_HOUR));
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("samples", overall == null ? 0 : Math.round(overall.getWeight()));
+            entry.put("medianSeconds", overall == null ? null : Math.round(overall.getMedianSeconds()));
+            entry.put("p90Seconds", overall == null ? null : Math.round(overall.getP90Seconds()));
+            entry.put("defaultSeconds", defaultSeconds.get(status));
+            result.put(status.name(), entry);
+        }
+        result.put("trackedKeys", stats.size());
+        return result;
+    }
+
+    /**
+     * Time left in a status the order entered elapsed seconds ago, slowest category first
+     */
+    private double remainingIn(OrderStatus status, Set<String> categories, int hour, double elapsed) {
+        double remaining = MIN_REMAINING_SECONDS;
+        for (String category : categories) {
+            DwellStats current = lookup(status, category, hour);
+            double median = current == null ? defaultSeconds.get(status) : current.getMedianSeconds();
+            double p90 = current == null ? median * 1.5 : current.getP90Seconds();
+            // Already slower than usual: the tail of the distribution is the better guess
+            double left = elapsed < median ? median - elapsed : p90 - elapsed;
+            remaining = Math.max(remaining, left);
+        }
+        return remaining;
+    }
+
+    private double typical(OrderStatus status, Set<String> categories, int hour) {
+        double typical = 0;
+        for (String category : categories) {
+            DwellStats current = lookup(status, category, hour);
+            typical = Math.max(typical, current == null ? defaultSeconds.get(status) : current.getMedianSeconds());
+        }
+        return typical;
+    }
+
+    /**
+     * Expected CONFIRMED wait given how much is queued at the kitchen right now
+     */
+    private double queueWait(Set<String> categories, int hour) {
+        double wait = 0;
+        for (String category : categories) {
+            DwellStats current = lookup(OrderStatus.CONFIRMED, category, hour);
+            if (current == null) {
+                wait = Math.max(wait, defaultSeconds.get(OrderStatus.CONFIRMED));
+                continue;
+            }
+            double scale = 1;
+            double typicalBacklog = current.getTypicalBacklog();
+            if (typicalBacklog >= 0 && !ANY_CATEGORY.equals(category)) {
+                scale = (kitchenService.getQueuedUnits(category) + 1) / (typicalBacklog + 1);
+            }
+            wait = Math.max(wait, current.getMedianSeconds() * scale);
+        }
+        return wait;
+    }
+
+    /**
+     * Most specific statistics with enough samples, or null to use the default
+     */
+    private DwellStats lookup(OrderStatus status, String category, int hour) {
+        DwellStats found = stats.get(new StatsKey(status, category, hour));
+        if (found != null && found.getWeight() >= minSamples) {
+            return found;
+        }
+        found = stats.get(new StatsKey(status, category, ANY_HOUR));
+        if (found != null && found.getWeight() >= minSamples) {
+            return found;
+        }
+        found = stats.get(new StatsKey(status, ANY_CATEGORY, ANY_HOUR));
+        return found != null && found.getWeight() >= minSamples ? found : null;
+    }
+
+    private DwellStats statsFor(OrderStatus status, String category, int hour) {
+        return stats.computeIfAbsent(new StatsKey(status, category, hour), key -> new DwellStats(alpha));
+    }
+
+    private static boolean isKitchenStatus(OrderStatus status) {
+        return status == OrderStatus.CONFIRMED || status == OrderStatus.PREPARING;
+    }
+
+    private static Set<String> categoriesOf(OrderStatusChangedEvent event) {
+        Set<String> categories = new LinkedHashSet<>();
+        for (OrderEventLine line : event.getLines()) {
+            if (line.getCategory() != null) {
+                categories.add(line.getCategory());
+            }
+        }
+        return categories;
+    }
+
+    private record StatsKey(OrderStatus status, String category, int hour) {
+    }
+}
@@ -0,0 +1,63 @@
+package com.foodordering.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.foodordering.event.OutboxMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends relayed messages to a local file, one JSON object per line, and forces each batch
+ * to disk before it counts as delivered. Lines repeat after a redelivery; readers dedupe by id.
+ */
+@Component
+public class FileOutboxSink implements OutboxSink {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${outbox.file.path:data/outbox/order-events.log}")
+    private Path path;
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> batch) throws IOException {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream();
+        for (OutboxMessage message : batch) {
+            ObjectNode line = objectMapper.createObjectNode();
+            line.put("id", message.getId());
+            line.put("eventType", message.getEventType().name());
+            line.put("orderId", message.getOrderId());
+            line.put("createdAt", message.getCreatedAt().toString());
+            line.set("payload", objectMapper.readTree(message.getPayload()));
+            objectMapper.writeValue(lines, line);
+            lines.write('\n');
+        }
+
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.foodordering.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Uniform grid of points (drivers, drop-offs) for nearest-neighbour lookups within a city.
+ *
+ * Positions are projected once to kilometres around referenceLatitude, which is accurate
+ * to well under 1% over city distances. A lookup walks rings of cells outwards from the
+ * query point and stops as soon as the rings not yet visited cannot hold anything closer.
+ */
+class GeoGrid {
+
+    private static final double KM_PER_DEGREE_LATITUDE = 110.574;
+    private static final double KM_PER_DEGREE_LONGITUDE_AT_EQUATOR = 111.320;
+
+    private final double cellKm;
+    private final double kmPerDegreeLongitude;
+    private final Map<Long, Map<Long, Point>> cells = new HashMap<>();
+    private final Map<Long, Point> points = new HashMap<>();
+
+    GeoGrid(double referenceLatitude, double cellKm) {
+        if (cellKm <= 0) {
+            throw new IllegalArgumentException("cellKm must be positive");
+        }
+        this.cellKm = cellKm;
+        this.kmPerDegreeLongitude = KM_PER_DEGREE_LONGITUDE_AT_EQUATOR * Math.cos(Math.toRadians(referenceLatitude));
+    }
+
+    synchronized void put(long id, double latitude, double longitude) {
+        remove(id);
+        Point point = new Point(id, latitude, longitude, longitude * kmPerDegreeLongitude,
+                latitude * KM_PER_DEGREE_LATITUDE);
+        points.put(id, point);
+        cells.computeIfAbsent(cellKey(cell(point.x()), cell(point.y())), key -> new HashMap<>()).put(id, point);
+    }
+
+    /**
+     * Move a point that is in the grid; does nothing if it is not. Returns whether it moved.
+     */
+    synchronized boolean replaceIfPresent(long id, double latitude, double longitude) {
+        if (!points.containsKey(id)) {
+            return false;
+        }
+        put(id, latitude, longitude);
+        return true;
+    }
+
+    /**
+     * Remove a point and return it, or null if it was not in the grid
+     */
+    synchronized Point remove(long id) {
+        Point point = points.remove(id);
+        if (point != null) {
+            long key = cellKey(cell(point.x()), cell(point.y()));
+            Map<Long, Point> cell = cells.get(key);
+            cell.remove(id);
+            if (cell.isEmpty()) {
+                cells.remove(key);
+            }
+        }
+        return point;
+    }
+
+    synchronized boolean contains(long id) {
+        return points.containsKey(id);
+    }
+
+    synchronized int size() {
+        return points.size();
+    }
+
+    /**
+     * Up to limit points within maxKm of the given position, nearest first
+     */
+    synchronized List<Neighbour> nearest(double latitude, double longitude, double maxKm, int limit) {
+        List<Neighbour> found = new ArrayList<>();
+        if (limit <= 0 || points.isEmpty()) {
+            return found;
+        }
+        double x = longitude * kmPerDegreeLongitude;
+        double y = latitude * KM_PER_DEGREE_LATITUDE;
+        long centerX = cell(x);
+        long centerY = cell(y);
+        int maxRing = (int) Math.ceil(maxKm / cellKm);
+        int visitedPoints = 0;
+
+        for (int ring = 0; ring <= maxRing && visitedPoints < points.size(); ring++) {
+            for (long dx = -ring; dx <= ring; dx++) {
+                // Only the border of the ring: full rows at the top and bottom, the two end cells otherwise
+                long step = (dx == -ring || dx == ring) ? 1 : Math.max(1, 2L * ring);
+                for (long dy = -ring; dy <= ring; dy += step) {
+                    Map<Long, Point> cell = cells.get(cellKey(centerX + dx, centerY + dy));
+                    if (cell == null) {
+                        continue;
+                    }
+                    visitedPoints += cell.size();
+                    for (Point point : cell.values()) {
+                        double distance = Math.hypot(point.x() - x, point.y() - y);
+                        if (distance <= maxKm) {
+                            found.add(new Neighbour(point.id(), distance));
+                        }
+                    }
+                }
+            }
+            // Cells beyond this ring are at least ring * cellKm away from the query point
+            if (found.size() >= limit && countWithin(found, ring * cellKm) >= limit) {
+                break;
+            }
+        }
+        found.sort(Comparator.comparingDouble(Neighbour::distanceKm));
+        return found.size() > limit ? new ArrayList<>(found.subList(0, limit)) : found;
+    }
+
+    static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double kmPerDegreeLongitude = KM_PER_DEGREE_LONGITUDE_AT_EQUATOR
+                * Math.cos(Math.toRadians((latitude1 + latitude2) / 2));
+        return Math.hypot((longitude1 - longitude2) * kmPerDegreeLongitude,
+                (latitude1 - latitude2) * KM_PER_DEGREE_LATITUDE);
+    }
+
+    private static int countWithin(List<Neighbour> found, double km) {
+        int count = 0;
+        for (Neighbour neighbour : found) {
+            if (neighbour.distanceKm() <= km) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private long cell(double km) {
+        return (long) Math.floor(km / cellKm);
+    }
+
+    private static long cellKey(long cellX, long cellY) {
+        return (cellX << 32) ^ (cellY & 0xffffffffL);
+    }
+
+    record Point(long id, double latitude, double longitude, double x, double y) {
+    }
+
+    record Neighbour(long id, double distanceKm) {
+    }
+}
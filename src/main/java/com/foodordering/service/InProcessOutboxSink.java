@@ -0,0 +1,31 @@
+package com.foodordering.service;
+
+import com.foodordering.event.OutboxMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Hands each relayed message to @EventListener methods taking OutboxMessage, one at a time
+ * on the relay thread. A listener that throws fails the batch, which is redelivered.
+ */
+@Component
+public class InProcessOutboxSink implements OutboxSink {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public String getName() {
+        return "in-process";
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> batch) {
+        for (OutboxMessage message : batch) {
+            eventPublisher.publishEvent(message);
+        }
+    }
+}
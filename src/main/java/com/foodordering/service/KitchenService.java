@@ -0,0 +1,281 @@
+package com.foodordering.service;
+
+import com.foodordering.config.KitchenProperties;
+import com.foodordering.dto.KitchenBatchResponse;
+import com.foodordering.entity.Order;
+import com.foodordering.entity.OrderStatus;
+import com.foodordering.event.OrderEventLine;
+import com.foodordering.event.OrderPreparedEvent;
+import com.foodordering.event.OrderStatusChangedEvent;
+import com.foodordering.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Kitchen preparation queues. Lines of confirmed orders are routed to a station by menu
+ * category and prepared earliest promise first, identical items batched together.
+ *
+ * Stations pull work without blocking: the first batch pulled for an order moves it to
+ * PREPARING, and completing the batch holding its last line publishes OrderPreparedEvent.
+ * Queues live in memory and are rebuilt from CONFIRMED and PREPARING orders at startup.
+ */
+@Service
+public class KitchenService {
+
+    @Autowired
+    private KitchenProperties properties;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<String, StationQueue> stations = new LinkedHashMap<>();
+
+    // Keyed by lower-cased menu category
+    private final Map<String, StationQueue> stationsByCategory = new HashMap<>();
+
+    private StationQueue defaultStation;
+
+    private final AtomicLong ticketSequence = new AtomicLong();
+
+    private final AtomicLong batchSequence = new AtomicLong();
+
+    private final Map<Long, KitchenBatchResponse> inFlight = new ConcurrentHashMap<>();
+
+    // Lines not yet prepared per tracked order, and which of those are already PREPARING; guarded by this
+    private final Map<Long, Integer> outstandingLines = new HashMap<>();
+
+    private final Set<Long> startedOrders = new HashSet<>();
+
+    @PostConstruct
+    void init() {
+        for (KitchenProperties.Station config : properties.getStations()) {
+            StationQueue station = new StationQueue(config.getName(), config.getMaxBatch());
+            stations.put(config.getName(), station);
+            for (String category : config.getCategories()) {
+                stationsByCategory.putIfAbsent(category.toLowerCase(Locale.ROOT), station);
+            }
+        }
+        defaultStation = stations.computeIfAbsent(properties.getDefaultStation(), name -> new StationQueue(name, 1));
+    }
+
+    @TransactionalEventListener
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        switch (event.getNewStatus()) {
+            case CONFIRMED -> enqueue(event.getOrderId(), event.getOrderCreatedAt(), event.getLines(), false);
+            case PREPARING -> markStarted(event.getOrderId());
+            // Moved on by hand (or cancelled): the kitchen no longer owes anything for it
+            case OUT_FOR_DELIVERY, DELIVERED, CANCELLED -> cancel(event.getOrderId());
+            default -> { }
+        }
+    }
+
+    /**
+     * Re-queue every open order so a restart does not lose kitchen work. Lines already
+     * handed out before the restart are queued again, since batches are not persisted.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildFromOpenOrders() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            List<Order> orders = orderRepository.findByStatusInWithItems(
+                    List.of(OrderStatus.CONFIRMED, OrderStatus.PREPARING));
+            for (Order order : orders) {
+                List<OrderEventLine> lines = order.getItems().stream()
+                        .map(OrderEventLine::from)
+                        .collect(Collectors.toList());
+                enqueue(order.getId(), order.getCreatedAt(), lines, order.getStatus() == OrderStatus.PREPARING);
+            }
+        });
+    }
+
+    public boolean hasStation(String station) {
+        return stations.containsKey(station);
+    }
+
+    /**
+     * Take the next batch for a station, or empty if nothing is queued there
+     */
+    public Optional<KitchenBatchResponse> pullNextBatch(String stationName) {
+        StationQueue station = stations.get(stationName);
+        if (station == null) {
+            throw new RuntimeException("Unknown kitchen station: " + stationName);
+        }
+        List<StationQueue.Ticket> tickets;
+        do {
+            tickets = station.pollBatch();
+            if (tickets.isEmpty()) {
+                return Optional.empty();
+            }
+            // Empty when every order in the batch was cancelled meanwhile: take the next one
+            tickets = startOrders(tickets);
+        } while (tickets.isEmpty());
+
+        StationQueue.Ticket head = tickets.get(0);
+        List<KitchenBatchResponse.BatchLine> lines = new ArrayList<>();
+        int units = 0;
+        for (StationQueue.Ticket ticket : tickets) {
+            lines.add(new KitchenBatchResponse.BatchLine(ticket.orderId(), ticket.quantity(), ticket.promisedAt()));
+            units += ticket.quantity();
+        }
+        KitchenBatchResponse batch = new KitchenBatchResponse(batchSequence.incrementAndGet(), stationName,
+                head.menuItemId(), head.menuItemName(), units, head.promisedAt(), LocalDateTime.now(), lines);
+        inFlight.put(batch.getBatchId(), batch);
+        return Optional.of(batch);
+    }
+
+    /**
+     * Mark a batch as prepared. Returns false if the batch is unknown or already completed.
+     */
+    public boolean completeBatch(Long batchId) {
+        KitchenBatchResponse batch = inFlight.remove(batchId);
+        if (batch == null) {
+            return false;
+        }
+        List<Long> prepared = new ArrayList<>();
+        synchronized (this) {
+            for (KitchenBatchResponse.BatchLine line : batch.getLines()) {
+                Integer remaining = outstandingLines.get(line.getOrderId());
+                if (remaining == null) {
+                    // Cancelled while the batch was cooking
+                    continue;
+                }
+                if (remaining > 1) {
+                    outstandingLines.put(line.getOrderId(), remaining - 1);
+                } else {
+                    outstandingLines.remove(line.getOrderId());
+                    startedOrders.remove(line.getOrderId());
+                    prepared.add(line.getOrderId());
+                }
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (Long orderId : prepared) {
+            eventPublisher.publishEvent(new OrderPreparedEvent(orderId, now));
+        }
+        return true;
+    }
+
+    /**
+     * Units queued at the station that prepares the given menu category
+     */
+    public int getQueuedUnits(String category) {
+        return stationFor(category).getQueuedUnits();
+    }
+
+    public List<Map<String, Object>> snapshot() {
+        Map<String, Integer> inFlightByStation = new HashMap<>();
+        for (KitchenBatchResponse batch : inFlight.values()) {
+            inFlightByStation.merge(batch.getStation(), 1, Integer::sum);
+        }
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (StationQueue station : stations.values()) {
+            Map<String, Object> stats = station.snapshot();
+            stats.put("batchesInProgress", inFlightByStation.getOrDefault(station.getName(), 0));
+            result.add(stats);
+        }
+        return result;
+    }
+
+    private void enqueue(Long orderId, LocalDateTime createdAt, List<OrderEventLine> lines, boolean started) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            if (outstandingLines.containsKey(orderId)) {
+                return;
+            }
+            outstandingLines.put(orderId, lines.size());
+            if (started) {
+                startedOrders.add(orderId);
+            }
+        }
+        LocalDateTime promisedAt = createdAt.plusMinutes(properties.getPromiseMinutes());
+        for (OrderEventLine line : lines) {
+            stationFor(line.getCategory()).add(new StationQueue.Ticket(ticketSequence.incrementAndGet(), orderId,
+                    line.getMenuItemId(), line.getMenuItemName(), line.getQuantity(), promisedAt));
+        }
+    }
+
+    /**
+     * Move the orders these tickets start to PREPARING, and drop the tickets of orders that
+     * had already left CONFIRMED (cancelled or moved on by hand) and so are no longer cooked
+     */
+    private List<StationQueue.Ticket> startOrders(List<StationQueue.Ticket> tickets) {
+        List<Long> newlyStarted = new ArrayList<>();
+        synchronized (this) {
+            for (StationQueue.Ticket ticket : tickets) {
+                if (outstandingLines.containsKey(ticket.orderId()) && startedOrders.add(ticket.orderId())) {
+                    newlyStarted.add(ticket.orderId());
+                }
+            }
+        }
+        // Outside the lock: the status update commits a transaction and re-enters onOrderStatusChanged
+        Set<Long> skipped = new HashSet<>();
+        for (Long orderId : newlyStarted) {
+            if (!orderService.startPreparing(orderId)) {
+                skipped.add(orderId);
+                cancel(orderId);
+            }
+        }
+        if (skipped.isEmpty()) {
+            return tickets;
+        }
+        return tickets.stream()
+                .filter(ticket -> !skipped.contains(ticket.orderId()))
+                .collect(Collectors.toList());
+    }
+
+    private synchronized void markStarted(Long orderId) {
+        if (outstandingLines.containsKey(orderId)) {
+            startedOrders.add(orderId);
+        }
+    }
+
+    private void cancel(Long orderId) {
+        synchronized (this) {
+            outstandingLines.remove(orderId);
+            startedOrders.remove(orderId);
+        }
+        for (StationQueue station : stations.values()) {
+            station.removeOrder(orderId);
+        }
+    }
+
+    private StationQueue stationFor(String category) {
+        if (category == null) {
+            return defaultStation;
+        }
+        return stationsByCategory.getOrDefault(category.toLowerCase(Locale.ROOT), defaultStation);
+    }
+}
@@ -0,0 +1,248 @@
+package com.foodordering.service;
+
+import com.foodordering.dto.BulkImportResponse;
+import com.foodordering.dto.MenuItemRequest;
+import com.foodordering.event.MenuCatalogChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk upsert of menu items keyed by name, which uk_menu_items_name keeps unique.
+ *
+ * The whole input is validated before anything is written. Rows are then written
+ * with JDBC batch statements, one transaction per chunk, and menu caches are
+ * invalidated once at the end through a single MenuCatalogChangedEvent. The event
+ * is also published when a later chunk fails, since earlier chunks stay committed.
+ */
+@Service
+public class MenuBulkImportService {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO menu_items (name, price, category, available, image_url, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_SQL =
+            "UPDATE menu_items SET price = ?, category = ?, available = ?, image_url = ?, updated_at = ? WHERE name = ?";
+
+    private static final String EXISTING_NAMES_SQL =
+            "SELECT name FROM menu_items WHERE name IN (:names)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${menu.bulk-import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${menu.bulk-import.max-reported-errors:100}")
+    private int maxReportedErrors;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Upsert a list of menu items
+     */
+    public BulkImportResponse importItems(List<MenuItemRequest> requests) {
+        ErrorCollector errors = new ErrorCollector();
+        for (int i = 0; i < requests.size(); i++) {
+            validate(requests.get(i), "Item " + i, errors);
+        }
+        errors.throwIfAny();
+
+        BulkImportResponse response = new BulkImportResponse();
+        try {
+            for (int from = 0; from < requests.size(); from += chunkSize) {
+                writeChunk(requests.subList(from, Math.min(from + chunkSize, requests.size())), response);
+            }
+        } finally {
+            finish(response);
+        }
+        return response;
+    }
+
+    /**
+     * Upsert menu items from a CSV stream. The stream is spooled to a temporary file so it can be
+     * validated in full and then written, without ever holding more than one chunk in memory.
+     */
+    public BulkImportResponse importCsv(InputStream input) throws IOException {
+        Path spool = Files.createTempFile("menu-import-", ".csv");
+        try {
+            Files.copy(input, spool, StandardCopyOption.REPLACE_EXISTING);
+
+            ErrorCollector errors = new ErrorCollector();
+            try (MenuCsvReader reader = openCsv(spool)) {
+                String line;
+                while ((line = reader.nextLine()) != null) {
+                    String location = "Line " + reader.getLineNumber();
+                    try {
+                        validate(reader.parse(line), location, errors);
+                    } catch (IllegalArgumentException e) {
+                        errors.add(location + ": " + e.getMessage());
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                errors.add(e.getMessage());
+            }
+            errors.throwIfAny();
+
+            BulkImportResponse response = new BulkImportResponse();
+            try (MenuCsvReader reader = openCsv(spool)) {
+                List<MenuItemRequest> chunk = new ArrayList<>(chunkSize);
+                String line;
+                while ((line = reader.nextLine()) != null) {
+                    chunk.add(reader.parse(line));
+                    if (chunk.size() == chunkSize) {
+                        writeChunk(chunk, response);
+                        chunk.clear();
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    writeChunk(chunk, response);
+                }
+            } finally {
+                finish(response);
+            }
+            return response;
+        } finally {
+            Files.deleteIfExists(spool);
+        }
+    }
+
+    private void writeChunk(List<MenuItemRequest> chunk, BulkImportResponse response) {
+        // Last row wins when a name repeats inside the chunk
+        Map<String, MenuItemRequest> byName = new LinkedHashMap<>();
+        for (MenuItemRequest request : chunk) {
+            byName.put(request.getName(), request);
+        }
+
+        try {
+            upsertChunk(byName, response);
+        } catch (DuplicateKeyException e) {
+            // A concurrent import inserted one of these names after the lookup; those rows are updates now
+            upsertChunk(byName, response);
+        }
+
+        response.setProcessed(response.getProcessed() + chunk.size());
+        response.setChunks(response.getChunks() + 1);
+    }
+
+    private void upsertChunk(Map<String, MenuItemRequest> byName, BulkImportResponse response) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Set<String> existingNames = new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                    EXISTING_NAMES_SQL, Map.of("names", byName.keySet()), String.class));
+            LocalDateTime now = LocalDateTime.now();
+            List<Object[]> inserts = new ArrayList<>();
+            List<Object[]> updates = new ArrayList<>();
+
+            for (MenuItemRequest request : byName.values()) {
+                Boolean available = request.getAvailable() != null ? request.getAvailable() : Boolean.TRUE;
+                if (existingNames.contains(request.getName())) {
+                    updates.add(new Object[] {request.getPrice(), request.getCategory(), available,
+                            request.getImageUrl(), now, request.getName()});
+                } else {
+                    inserts.add(new Object[] {request.getName(), request.getPrice(), request.getCategory(),
+                            available, request.getImageUrl(), now, now});
+                }
+            }
+
+            if (!inserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+            }
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+            }
+            response.setCreated(response.getCreated() + inserts.size());
+            response.setUpdated(response.getUpdated() + updates.size());
+        });
+    }
+
+    /**
+     * Announce whatever chunks committed, whether or not the import completed
+     */
+    private void finish(BulkImportResponse response) {
+        if (response.getChunks() > 0) {
+            eventPublisher.publishEvent(new MenuCatalogChangedEvent(response.getProcessed()));
+        }
+    }
+
+    private void validate(MenuItemRequest request, String location, ErrorCollector errors) {
+        if (request == null) {
+            errors.add(location + ": item is empty");
+            return;
+        }
+        for (ConstraintViolation<MenuItemRequest> violation : validator.validate(request)) {
+            errors.add(location + ": " + violation.getMessage());
+        }
+    }
+
+    private MenuCsvReader openCsv(Path path) throws IOException {
+        return new MenuCsvReader(Files.newBufferedReader(path, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Keeps the first few error messages and a count of the rest.
+     */
+    private class ErrorCollector {
+        private final List<String> messages = new ArrayList<>();
+        private int suppressed;
+
+        void add(String message) {
+            if (messages.size() < maxReportedErrors) {
+                messages.add(message);
+            } else {
+                suppressed++;
+            }
+        }
+
+        void throwIfAny() {
+            if (messages.isEmpty()) {
+                return;
+            }
+            List<String> reported = new ArrayList<>(messages);
+            if (suppressed > 0) {
+                reported.add("... and " + suppressed + " more error(s)");
+            }
+            throw new BulkImportValidationException(reported);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.foodordering.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded log of menu item changes keyed by a monotonically increasing catalog version.
+ *
+ * Only (version, item id, deleted) is kept per change, in a ring of {@code capacity}
+ * slots. When the ring overflows, or a change cannot be attributed to single items,
+ * the floor moves up and clients older than it must take a full snapshot instead.
+ * Versions start at the given value (the boot time in milliseconds), so versions
+ * handed out before a restart always fall below the floor of the new log.
+ */
+class MenuChangeLog {
+
+    private final long[] versions;
+    private final long[] itemIds;
+    private final boolean[] deleted;
+    private int head;
+    private int size;
+    private long version;
+    private long floor;
+
+    MenuChangeLog(int capacity, long initialVersion) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.versions = new long[capacity];
+        this.itemIds = new long[capacity];
+        this.deleted = new boolean[capacity];
+        this.version = initialVersion;
+        this.floor = initialVersion;
+    }
+
+    /**
+     * Record that an item was created or updated (or deleted, as a tombstone) and return the new version
+     */
+    synchronized long record(long itemId, boolean isDeleted) {
+        version++;
+        if (size == versions.length) {
+            floor = versions[head];
+            head = (head + 1) % versions.length;
+            size--;
+        }
+        int slot = (head + size) % versions.length;
+        versions[slot] = version;
+        itemIds[slot] = itemId;
+        deleted[slot] = isDeleted;
+        size++;
+        return version;
+    }
+
+    /**
+     * Bump the version and forget all history, forcing every client onto a snapshot
+     */
+    synchronized long reset() {
+        version++;
+        floor = version;
+        head = 0;
+        size = 0;
+        return version;
+    }
+
+    synchronized long currentVersion() {
+        return version;
+    }
+
+    /**
+     * Latest state of every item changed after {@code since}, or null if the log no longer
+     * covers that version (or never handed it out) and a snapshot is needed
+     */
+    synchronized Delta since(long since) {
+        if (since < floor || since > version) {
+            return null;
+        }
+        Map<Long, Boolean> changes = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            int slot = (head + i) % versions.length;
+            if (versions[slot] > since) {
+                changes.remove(itemIds[slot]);
+                changes.put(itemIds[slot], deleted[slot]);
+            }
+        }
+        return new Delta(version, changes);
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Changed item ids in the order of their last change, mapped to whether that change was a delete
+     */
+    record Delta(long version, Map<Long, Boolean> changes) {
+    }
+}
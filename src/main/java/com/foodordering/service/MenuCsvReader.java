@@ -0,0 +1,139 @@
+package com.foodordering.service;
+
+import com.foodordering.dto.MenuItemRequest;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streaming reader for menu CSV files with a header row.
+ *
+ * Recognised columns are name, price, category, available and imageUrl (case-insensitive,
+ * in any order). Fields may be double-quoted; quoted fields cannot span lines.
+ */
+class MenuCsvReader implements Closeable {
+
+    private final BufferedReader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private int lineNumber;
+
+    MenuCsvReader(Reader reader) throws IOException {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        String header = this.reader.readLine();
+        lineNumber = 1;
+        if (header == null) {
+            throw new IllegalArgumentException("CSV is empty");
+        }
+        List<String> names = split(stripBom(header));
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("name", "price", "category")) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header is missing column: " + required);
+            }
+        }
+    }
+
+    /**
+     * Next non-blank data line, or null at the end of input
+     */
+    String nextLine() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            lineNumber++;
+        } while (line != null && line.isBlank());
+        return line;
+    }
+
+    int getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Parse one data line; throws IllegalArgumentException for malformed values
+     */
+    MenuItemRequest parse(String line) {
+        List<String> fields = split(line);
+        MenuItemRequest request = new MenuItemRequest();
+        request.setName(field(fields, "name"));
+        request.setCategory(field(fields, "category"));
+        request.setImageUrl(field(fields, "imageurl"));
+
+        String price = field(fields, "price");
+        if (price != null) {
+            try {
+                request.setPrice(new BigDecimal(price));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("price is not a number: " + price);
+            }
+        }
+
+        String available = field(fields, "available");
+        if (available != null) {
+            if (!available.equalsIgnoreCase("true") && !available.equalsIgnoreCase("false")) {
+                throw new IllegalArgumentException("available must be true or false: " + available);
+            }
+            request.setAvailable(Boolean.parseBoolean(available));
+        }
+        return request;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private String field(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String stripBom(String line) {
+        return !line.isEmpty() && line.charAt(0) == '\uFEFF' ? line.substring(1) : line;
+    }
+
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
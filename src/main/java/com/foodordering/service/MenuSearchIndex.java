@@ -0,0 +1,408 @@
+package com.foodordering.service;
+
+import com.foodordering.dto.MenuItemResponse;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index over menu item names and categories.
+ *
+ * Items live in dense slots and every term maps to a primitive postings list of slots,
+ * so a query only walks int arrays and accumulates into a pooled float[] per slot.
+ * Terms are also kept sorted, so the terms starting with a prefix are one contiguous
+ * range (the lookup a prefix trie gives, without a node per character). Typos are
+ * found by looking up every one-edit variant of a query token in the term dictionary,
+ * which costs a few hundred hash lookups and no extra index memory.
+ *
+ * All query tokens must match. Each token scores its best match per item (exact, then
+ * prefix for the token being typed, then one typo), weighted by inverse document
+ * frequency and boosted for name over category matches.
+ */
+class MenuSearchIndex {
+
+    static final int NAME = 1;
+    static final int CATEGORY = 2;
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final char[] ALPHABET = "abcdefghijklmnopqrstuvwxyz0123456789".toCharArray();
+
+    private static final float EXACT = 1.0f;
+    private static final float PREFIX = 0.8f;
+    private static final float TYPO = 0.6f;
+    private static final float NAME_BOOST = 2.0f;
+
+    // Shorter tokens produce too many accidental one-edit matches
+    private static final int MIN_TYPO_LENGTH = 4;
+    // Bounds the work for very short prefixes; the most frequent terms are expanded
+    private static final int MAX_PREFIX_SCAN = 2_000;
+    private static final int MAX_PREFIX_TERMS = 64;
+
+    private final List<MenuItemResponse> items = new ArrayList<>();
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final NavigableSet<String> sortedTerms = new TreeSet<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // One scratch buffer per concurrent search rather than per thread
+    private final Queue<Scratch> scratchPool = new ConcurrentLinkedQueue<>();
+
+    void put(MenuItemResponse item) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(item.getId());
+            int slot;
+            if (freeSlots.isEmpty()) {
+                slot = items.size();
+                items.add(item);
+            } else {
+                slot = freeSlots.pop();
+                items.set(slot, item);
+            }
+            slotsById.put(item.getId(), slot);
+            fieldsByTerm(item).forEach((term, fields) ->
+                    postings.computeIfAbsent(term, this::newTerm).add(slot, fields));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long itemId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    MenuItemResponse get(long itemId) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slotsById.get(itemId);
+            return slot == null ? null : items.get(slot);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return slotsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Best matching items, highest score first. The last token is also matched as a prefix
+     * unless the query ends with a separator, so results follow the user as they type.
+     */
+    List<MenuItemResponse> search(String query, int limit, boolean availableOnly) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        boolean lastIsPrefix = Character.isLetterOrDigit(query.charAt(query.length() - 1));
+
+        lock.readLock().lock();
+        Scratch scratch = scratchPool.poll();
+        if (scratch == null) {
+            scratch = new Scratch();
+        }
+        try {
+            List<List<TermMatch>> tokenMatches = new ArrayList<>();
+            for (int i = 0; i < tokens.size(); i++) {
+                List<TermMatch> matches = matchToken(tokens.get(i), lastIsPrefix && i == tokens.size() - 1);
+                if (matches.isEmpty()) {
+                    return List.of();
+                }
+                tokenMatches.add(matches);
+            }
+            // Intersect starting from the most selective token
+            tokenMatches.sort(Comparator.comparingInt(MenuSearchIndex::postingsSize));
+            scratch.ensureCapacity(items.size());
+
+            int candidates = scratch.accumulate(tokenMatches.get(0));
+            int[] candidateSlots = Arrays.copyOf(scratch.touched, candidates);
+            float[] totals = new float[candidates];
+            for (int i = 0; i < candidates; i++) {
+                totals[i] = scratch.scores[candidateSlots[i]];
+            }
+            scratch.reset();
+
+            for (int t = 1; t < tokenMatches.size() && candidates > 0; t++) {
+                scratch.accumulate(tokenMatches.get(t));
+                int kept = 0;
+                for (int i = 0; i < candidates; i++) {
+                    float score = scratch.scores[candidateSlots[i]];
+                    if (score > 0) {
+                        candidateSlots[kept] = candidateSlots[i];
+                        totals[kept++] = totals[i] + score;
+                    }
+                }
+                candidates = kept;
+                scratch.reset();
+            }
+            return top(candidateSlots, totals, candidates, limit, availableOnly);
+        } finally {
+            scratchPool.offer(scratch);
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        // Fold accents so "jalapeno" finds "Jalapeño"
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        for (String token : NON_WORD.split(folded.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private List<TermMatch> matchToken(String token, boolean prefix) {
+        List<TermMatch> matches = new ArrayList<>();
+        addMatch(matches, token, EXACT);
+        if (prefix) {
+            prefixTerms(token).forEach(term -> addMatch(matches, term, PREFIX));
+        }
+        if (token.length() >= MIN_TYPO_LENGTH) {
+            forEachOneEditVariant(token, variant -> addMatch(matches, variant, TYPO));
+        }
+        return matches;
+    }
+
+    private void addMatch(List<TermMatch> matches, String term, float weight) {
+        Postings termPostings = postings.get(term);
+        if (termPostings != null) {
+            float idf = (float) Math.log(1.0 + (double) slotsById.size() / termPostings.size);
+            matches.add(new TermMatch(termPostings, weight * idf));
+        }
+    }
+
+    private List<String> prefixTerms(String prefix) {
+        List<String> range = new ArrayList<>();
+        for (String term : sortedTerms.subSet(prefix, false, prefix + Character.MAX_VALUE, false)) {
+            range.add(term);
+            if (range.size() == MAX_PREFIX_SCAN) {
+                break;
+            }
+        }
+        if (range.size() > MAX_PREFIX_TERMS) {
+            range.sort(Comparator.comparingInt((String term) -> postings.get(term).size).reversed());
+            return range.subList(0, MAX_PREFIX_TERMS);
+        }
+        return range;
+    }
+
+    private List<MenuItemResponse> top(int[] slots, float[] totals, int count, int limit, boolean availableOnly) {
+        // Small sorted array of candidate indexes, best first; limit is at most a few dozen
+        int[] best = new int[Math.min(limit, count)];
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            if (availableOnly && !Boolean.TRUE.equals(items.get(slots[i]).getAvailable())) {
+                continue;
+            }
+            if (size == best.length && !ranksBefore(i, best[size - 1], slots, totals)) {
+                continue;
+            }
+            int position = size == best.length ? size - 1 : size++;
+            while (position > 0 && ranksBefore(i, best[position - 1], slots, totals)) {
+                best[position] = best[position - 1];
+                position--;
+            }
+            best[position] = i;
+        }
+        List<MenuItemResponse> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(items.get(slots[best[i]]));
+        }
+        return result;
+    }
+
+    /**
+     * Higher score first, then shorter names (closer matches), then lower ids
+     */
+    private boolean ranksBefore(int a, int b, int[] slots, float[] totals) {
+        if (totals[a] != totals[b]) {
+            return totals[a] > totals[b];
+        }
+        MenuItemResponse itemA = items.get(slots[a]);
+        MenuItemResponse itemB = items.get(slots[b]);
+        if (itemA.getName().length() != itemB.getName().length()) {
+            return itemA.getName().length() < itemB.getName().length();
+        }
+        return itemA.getId() < itemB.getId();
+    }
+
+    private Postings newTerm(String term) {
+        sortedTerms.add(term);
+        return new Postings();
+    }
+
+    private void removeLocked(long itemId) {
+        Integer slot = slotsById.remove(itemId);
+        if (slot == null) {
+            return;
+        }
+        MenuItemResponse previous = items.set(slot, null);
+        freeSlots.push(slot);
+        for (String term : fieldsByTerm(previous).keySet()) {
+            Postings termPostings = postings.get(term);
+            termPostings.remove(slot);
+            if (termPostings.size == 0) {
+                postings.remove(term);
+                sortedTerms.remove(term);
+            }
+        }
+    }
+
+    private static Map<String, Integer> fieldsByTerm(MenuItemResponse item) {
+        Map<String, Integer> fields = new LinkedHashMap<>();
+        tokenize(item.getName()).forEach(term -> fields.merge(term, NAME, (a, b) -> a | b));
+        tokenize(item.getCategory()).forEach(term -> fields.merge(term, CATEGORY, (a, b) -> a | b));
+        return fields;
+    }
+
+    private static int postingsSize(List<TermMatch> matches) {
+        int size = 0;
+        for (TermMatch match : matches) {
+            size += match.postings().size;
+        }
+        return size;
+    }
+
+    /**
+     * Every distinct string one deletion, adjacent swap, substitution or insertion away from the token
+     */
+    static void forEachOneEditVariant(String token, Consumer<String> consumer) {
+        Set<String> seen = new HashSet<>();
+        char[] chars = token.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            offer(seen, consumer, token.substring(0, i) + token.substring(i + 1));
+            if (i + 1 < chars.length && chars[i] != chars[i + 1]) {
+                char[] swapped = chars.clone();
+                swapped[i] = chars[i + 1];
+                swapped[i + 1] = chars[i];
+                offer(seen, consumer, new String(swapped));
+            }
+        }
+        for (int i = 0; i <= chars.length; i++) {
+            String head = token.substring(0, i);
+            String tail = token.substring(i);
+            for (char c : ALPHABET) {
+                offer(seen, consumer, head + c + tail);
+                if (i < chars.length && c != chars[i]) {
+                    offer(seen, consumer, head + c + token.substring(i + 1));
+                }
+            }
+        }
+    }
+
+    private static void offer(Set<String> seen, Consumer<String> consumer, String variant) {
+        if (seen.add(variant)) {
+            consumer.accept(variant);
+        }
+    }
+
+    private record TermMatch(Postings postings, float weight) {
+    }
+
+    /**
+     * Unordered slots containing a term, with the fields (NAME, CATEGORY) it appears in
+     */
+    private static final class Postings {
+        private int[] slots = new int[2];
+        private byte[] fields = new byte[2];
+        private int size;
+
+        void add(int slot, int field) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                fields = Arrays.copyOf(fields, size * 2);
+            }
+            slots[size] = slot;
+            fields[size] = (byte) field;
+            size++;
+        }
+
+        void remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    size--;
+                    slots[i] = slots[size];
+                    fields[i] = fields[size];
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Best score per slot for one token, plus the slots touched so it can be cleared cheaply
+     */
+    private static final class Scratch {
+        private float[] scores = new float[0];
+        private int[] touched = new int[0];
+        private int touchedCount;
+
+        void ensureCapacity(int slots) {
+            if (scores.length < slots) {
+                scores = new float[slots];
+                touched = new int[slots];
+            }
+        }
+
+        int accumulate(List<TermMatch> matches) {
+            for (TermMatch match : matches) {
+                Postings termPostings = match.postings();
+                for (int i = 0; i < termPostings.size; i++) {
+                    int slot = termPostings.slots[i];
+                    float score = (termPostings.fields[i] & NAME) != 0 ? match.weight() * NAME_BOOST : match.weight();
+                    float current = scores[slot];
+                    if (current == 0) {
+                        touched[touchedCount++] = slot;
+                    }
+                    if (score > current) {
+                        scores[slot] = score;
+                    }
+                }
+            }
+            return touchedCount;
+        }
+
+        void reset() {
+            for (int i = 0; i < touchedCount; i++) {
+                scores[touched[i]] = 0;
+            }
+            touchedCount = 0;
+        }
+    }
+}
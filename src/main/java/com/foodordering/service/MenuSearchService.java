@@ -0,0 +1,74 @@
+package com.foodordering.service;
+
+import com.foodordering.dto.MenuItemResponse;
+import com.foodordering.entity.MenuItem;
+import com.foodordering.event.MenuCatalogChangedEvent;
+import com.foodordering.repository.MenuItemRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Menu search served from an in-memory MenuSearchIndex. MenuService keeps it current
+ * item by item; writes that bypass JPA (bulk imports) rebuild it from the database.
+ */
+@Service
+public class MenuSearchService {
+
+    public static final int MAX_LIMIT = 50;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private volatile MenuSearchIndex index = new MenuSearchIndex();
+
+    public List<MenuItemResponse> search(String query, int limit, boolean availableOnly) {
+        return index.search(query, limit, availableOnly);
+    }
+
+    /**
+     * The indexed copy of a menu item, as of its last write through MenuService
+     */
+    public Optional<MenuItemResponse> getItem(Long itemId) {
+        return Optional.ofNullable(index.get(itemId));
+    }
+
+    /**
+     * Build a fresh index and swap it in, so searches keep using the old one meanwhile.
+     * Synchronized with the incremental updates so none of them is lost in the swap.
+     * Runs before MenuService bumps the catalog version, so a version never vouches for older prices.
+     */
+    @EventListener({ApplicationReadyEvent.class, MenuCatalogChangedEvent.class})
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public synchronized void rebuild() {
+        MenuSearchIndex fresh = new MenuSearchIndex();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status ->
+                menuItemRepository.findAll().forEach(item -> fresh.put(new MenuItemResponse(item))));
+        index = fresh;
+    }
+
+    public synchronized void index(MenuItem item) {
+        index.put(new MenuItemResponse(item));
+    }
+
+    public synchronized void remove(Long itemId) {
+        index.remove(itemId);
+    }
+
+    public int getIndexedItemCount() {
+        return index.size();
+    }
+}
@@ -1,14 +1,24 @@
 package com.foodordering.service;
 
+import com.foodordering.dto.MenuChangesResponse;
 import com.foodordering.dto.MenuItemRequest;
 import com.foodordering.dto.MenuItemResponse;
 import com.foodordering.entity.MenuItem;
+import com.foodordering.event.MenuCatalogChangedEvent;
 import com.foodordering.repository.MenuItemRepository;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -17,9 +27,23 @@ public class MenuService {
     @Autowired
     private MenuItemRepository menuItemRepository;
     
+    @Autowired
+    private MenuSearchService menuSearchService;
+    
+    @Value("${menu.change-log.capacity:1000}")
+    private int changeLogCapacity;
+    
+    private MenuChangeLog changeLog;
+    
+    @PostConstruct
+    void init() {
+        changeLog = new MenuChangeLog(changeLogCapacity, System.currentTimeMillis());
+    }
+    
     /**
      * Get all menu items
      */
+    @Transactional(readOnly = true)
     public List<MenuItemResponse> getAllMenuItems() {
         return menuItemRepository.findAll()
                 .stream()
@@ -30,6 +54,7 @@ public class MenuService {
     /**
      * Get menu items by category
      */
+    @Transactional(readOnly = true)
     public List<MenuItemResponse> getMenuItemsByCategory(String category) {
         return menuItemRepository.findByCategory(category)
                 .stream()
@@ -40,6 +65,7 @@ public class MenuService {
     /**
      * Get only available menu items
      */
+    @Transactional(readOnly = true)
     public List<MenuItemResponse> getAvailableMenuItems() {
         return menuItemRepository.findByAvailable(true)
                 .stream()
@@ -50,6 +76,7 @@ public class MenuService {
     /**
      * Get menu item by ID
      */
+    @Transactional(readOnly = true)
     public Optional<MenuItemResponse> getMenuItemById(Long id) {
         return menuItemRepository.findById(id)
                 .map(MenuItemResponse::new);
@@ -59,6 +86,9 @@ public class MenuService {
      * Create a new menu item
      */
     public MenuItemResponse createMenuItem(MenuItemRequest request) {
+        if (menuItemRepository.existsByName(request.getName())) {
+            throw new RuntimeException("A menu item named " + request.getName() + " already exists");
+        }
     MenuItem menuItem = new MenuItem(
         request.getName(),
         request.getPrice(),
@@ -71,6 +101,9 @@ public class MenuService {
     }
         
         MenuItem savedMenuItem = menuItemRepository.save(menuItem);
+        // Index before bumping the version: cart quotes stamped with the old version get re-priced
+        menuSearchService.index(savedMenuItem);
+        changeLog.record(savedMenuItem.getId(), false);
         return new MenuItemResponse(savedMenuItem);
     }
     
@@ -78,6 +111,9 @@ public class MenuService {
      * Update an existing menu item
      */
     public Optional<MenuItemResponse> updateMenuItem(Long id, MenuItemRequest request) {
+        if (menuItemRepository.existsByNameAndIdNot(request.getName(), id)) {
+            throw new RuntimeException("A menu item named " + request.getName() + " already exists");
+        }
         return menuItemRepository.findById(id)
                 .map(menuItem -> {
                     menuItem.setName(request.getName());
@@ -88,6 +124,8 @@ public class MenuService {
                     menuItem.setImageUrl(request.getImageUrl());
                     
                     MenuItem updatedMenuItem = menuItemRepository.save(menuItem);
+                    menuSearchService.index(updatedMenuItem);
+                    changeLog.record(updatedMenuItem.getId(), false);
                     return new MenuItemResponse(updatedMenuItem);
                 });
     }
@@ -98,6 +136,8 @@ public class MenuService {
     public boolean deleteMenuItem(Long id) {
         if (menuItemRepository.existsById(id)) {
             menuItemRepository.deleteById(id);
+            menuSearchService.remove(id);
+            changeLog.record(id, true);
             return true;
         }
         return false;
@@ -111,7 +151,56 @@ public class MenuService {
                 .map(menuItem -> {
                     menuItem.setAvailable(!menuItem.getAvailable());
                     MenuItem updatedMenuItem = menuItemRepository.save(menuItem);
+                    menuSearchService.index(updatedMenuItem);
+                    changeLog.record(updatedMenuItem.getId(), false);
                     return new MenuItemResponse(updatedMenuItem);
                 });
     }
+    
+    /**
+     * Get the items created, updated or deleted after the given catalog version.
+     * Falls back to the full menu when since is missing or older than the change log.
+     */
+    @Transactional(readOnly = true)
+    public MenuChangesResponse getChangesSince(Long since) {
+        MenuChangeLog.Delta delta = since == null ? null : changeLog.since(since);
+        if (delta == null) {
+            // Read the version first so changes racing with the snapshot are sent again next time
+            long version = changeLog.currentVersion();
+            return new MenuChangesResponse(version, true, getAllMenuItems(), new ArrayList<>());
+        }
+        
+        List<Long> upsertedIds = new ArrayList<>();
+        List<Long> deletedIds = new ArrayList<>();
+        delta.changes().forEach((id, deleted) -> (deleted ? deletedIds : upsertedIds).add(id));
+        
+        Map<Long, MenuItem> itemsById = menuItemRepository.findAllById(upsertedIds).stream()
+                .collect(Collectors.toMap(MenuItem::getId, Function.identity()));
+        List<MenuItemResponse> items = new ArrayList<>();
+        for (Long id : upsertedIds) {
+            MenuItem item = itemsById.get(id);
+            if (item != null) {
+                items.add(new MenuItemResponse(item));
+            } else {
+                // Deleted after the log was read; its tombstone arrives with a later version
+                deletedIds.add(id);
+            }
+        }
+        items.sort(Comparator.comparing(MenuItemResponse::getId));
+        deletedIds.sort(Comparator.naturalOrder());
+        return new MenuChangesResponse(delta.version(), false, items, deletedIds);
+    }
+    
+    public long getCatalogVersion() {
+        return changeLog.currentVersion();
+    }
+    
+    /**
+     * Bulk imports write through JDBC without per-item ids, so history is dropped and
+     * clients resync from a snapshot
+     */
+    @EventListener(MenuCatalogChangedEvent.class)
+    public void onCatalogChanged() {
+        changeLog.reset();
+    }
 }
\ No newline at end of file
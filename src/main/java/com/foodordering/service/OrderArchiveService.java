@@ -0,0 +1,277 @@
+package com.foodordering.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodordering.dto.OrderResponse;
+import com.foodordering.entity.ArchivedOrder;
+import com.foodordering.entity.DeliveryAssignment;
+import com.foodordering.entity.DeliveryStatus;
+import com.foodordering.entity.Order;
+import com.foodordering.entity.OrderStatus;
+import com.foodordering.repository.ArchivedOrderRepository;
+import com.foodordering.repository.DeliveryAssignmentRepository;
+import com.foodordering.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Moves finished orders out of the hot orders, order_items and delivery_assignments tables
+ * into order_archive once they are archive.min-age-days old, so everyday order queries and
+ * their indexes stop growing with the whole history.
+ *
+ * Only DELIVERED and CANCELLED orders move. Each chunk is copied and deleted in its own
+ * transaction, oldest orders first, so a run can stop at any point and the next one picks up
+ * where it left off. Archived orders are read back only when asked for, see
+ * OrderService.getUserOrders(Long, boolean).
+ */
+@Service
+public class OrderArchiveService {
+
+    private static final List<OrderStatus> ARCHIVABLE = List.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private DeliveryAssignmentRepository deliveryAssignmentRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${archive.min-age-days:180}")
+    private long minAgeDays;
+
+    @Value("${archive.chunk-size:500}")
+    private int chunkSize;
+
+    // Bounds one run; whatever is left is archived by the next
+    @Value("${archive.max-chunks-per-run:200}")
+    private int maxChunksPerRun;
+
+    private volatile Map<String, Object> lastRun = Map.of();
+
+    /**
+     * Archive finished orders older than archive.min-age-days. Returns how many were moved.
+     */
+    @Scheduled(fixedDelayString = "${archive.interval-ms:3600000}", initialDelayString = "${archive.initial-delay-ms:60000}")
+    public int archiveOldOrders() {
+        if (!enabled) {
+            return 0;
+        }
+        return archiveOrdersCreatedBefore(LocalDateTime.now().minusDays(minAgeDays));
+    }
+
+    synchronized int archiveOrdersCreatedBefore(LocalDateTime cutoff) {
+        TransactionTemplate chunkTransaction = new TransactionTemplate(transactionManager);
+        chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        long start = System.nanoTime();
+        long[] bytes = new long[2];
+        int archived = 0;
+        int chunks = 0;
+        while (chunks < maxChunksPerRun) {
+            Integer moved = chunkTransaction.execute(status -> archiveChunk(cutoff, bytes));
+            chunks++;
+            archived += moved;
+            if (moved < chunkSize) {
+                break;
+            }
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ranAt", LocalDateTime.now());
+        stats.put("cutoff", cutoff);
+        stats.put("archivedOrders", archived);
+        stats.put("chunks", chunks);
+        stats.put("jsonBytes", bytes[0]);
+        stats.put("storedBytes", bytes[1]);
+        stats.put("millis", (System.nanoTime() - start) / 1_000_000);
+        lastRun = stats;
+        return archived;
+    }
+
+    /**
+     * Archived orders of a user, newest first
+     */
+    @Transactional(readOnly = true)
+    public List<OrderResponse> getUserOrders(Long userId) {
+        return archivedOrderRepository.findByUserIdOrderByCreatedAtDesc(userId).stream()
+                .map(archived -> decode(archived.getPayload()).order())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * When an order of the user was last archived; empty if none was
+     */
+    @Transactional(readOnly = true)
+    public Optional<LocalDateTime> getUserLastArchivedAt(Long userId) {
+        return archivedOrderRepository.findLastArchivedAtByUserId(userId);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<OrderResponse> getOrder(Long orderId) {
+        return getPayload(orderId).map(ArchivePayload::order);
+    }
+
+    /**
+     * Everything kept of an archived order, including its delivery details
+     */
+    @Transactional(readOnly = true)
+    Optional<ArchivePayload> getPayload(Long orderId) {
+        return archivedOrderRepository.findById(orderId).map(archived -> decode(archived.getPayload()));
+    }
+
+    /**
+     * Archive size and the last run, for diagnostics
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("minAgeDays", minAgeDays);
+        result.put("archivedOrders", archivedOrderRepository.count());
+        result.put("lastRun", lastRun);
+        return result;
+    }
+
+    private int archiveChunk(LocalDateTime cutoff, long[] bytes) {
+        List<Long> ids = orderRepository.findIdsByStatusInCreatedBefore(ARCHIVABLE, cutoff,
+                PageRequest.of(0, chunkSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Map<Long, DeliveryAssignment> deliveries = deliveryAssignmentRepository.findByOrderIdIn(ids).stream()
+                .collect(Collectors.toMap(DeliveryAssignment::getOrderId, Function.identity()));
+        LocalDateTime now = LocalDateTime.now();
+        List<ArchivedOrder> archived = new ArrayList<>(ids.size());
+        for (Order order : orderRepository.findByIdInWithItems(ids)) {
+            DeliveryAssignment delivery = deliveries.get(order.getId());
+            ArchivePayload payload = new ArchivePayload(toResponse(order), order.getDeliveryLatitude(),
+                    order.getDeliveryLongitude(), delivery == null ? null : new ArchivedDelivery(
+                            delivery.getDriverId(), delivery.getStopNumber(), delivery.getStatus(),
+                            delivery.getPickupDistanceKm(), delivery.getAssignedAt(), delivery.getCompletedAt()));
+            byte[] json = toJson(payload);
+            byte[] stored = deflate(json);
+            bytes[0] += json.length;
+            bytes[1] += stored.length;
+            archived.add(new ArchivedOrder(order, stored, now));
+        }
+        archivedOrderRepository.saveAllAndFlush(archived);
+        deliveryAssignmentRepository.deleteByOrderIdIn(ids);
+        orderRepository.deleteItemsByOrderIdIn(ids);
+        orderRepository.deleteByIdIn(ids);
+        return ids.size();
+    }
+
+    private static OrderResponse toResponse(Order order) {
+        List<OrderResponse.OrderItemResponse> items = order.getItems().stream()
+                .map(item -> new OrderResponse.OrderItemResponse(
+                        item.getId(),
+                        item.getMenuItem().getId(),
+                        item.getMenuItem().getName(),
+                        item.getMenuItem().getCategory(),
+                        item.getQuantity(),
+                        item.getUnitPrice(),
+                        item.getSubtotal()
+                ))
+                .collect(Collectors.toList());
+        OrderResponse response = new OrderResponse(order.getId(), order.getUserId(), items, order.getTotal(),
+                order.getStatus(), order.getCreatedAt(), order.getUpdatedAt());
+        response.setDiscount(order.getDiscount());
+        response.setScheduledFor(order.getScheduledFor());
+        return response;
+    }
+
+    private byte[] toJson(ArchivePayload payload) {
+        try {
+            return objectMapper.writeValueAsBytes(payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ArchivePayload decode(byte[] stored) {
+        try {
+            return objectMapper.readValue(inflate(stored), ArchivePayload.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2 + 16);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Truncated archived order");
+                }
+                out.write(buffer, 0, length);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt archived order", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * What is kept of an order: the order as its owner sees it, plus delivery details that
+     * only lived in the hot tables
+     */
+    record ArchivePayload(OrderResponse order, Double deliveryLatitude, Double deliveryLongitude,
+                          ArchivedDelivery delivery) {
+    }
+
+    record ArchivedDelivery(Long driverId, Integer stopNumber, DeliveryStatus status, Double pickupDistanceKm,
+                            LocalDateTime assignedAt, LocalDateTime completedAt) {
+    }
+}
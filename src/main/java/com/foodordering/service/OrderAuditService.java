@@ -0,0 +1,206 @@
+package com.foodordering.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodordering.dto.OrderAuditEntryResponse;
+import com.foodordering.entity.OrderStatus;
+import com.foodordering.entity.OutboxEventType;
+import com.foodordering.event.OutboxMessage;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Tamper-evident history of every order placed and every status change, for disputes.
+ *
+ * The journal is the "audit" outbox sink: OrderService's events reach it through the
+ * transactional outbox, so a committed change is journaled at least once even across a
+ * crash or a failed write, and the journal drops messages it already holds. A batch counts
+ * as delivered only once its records are on disk (with audit.sync), or at least in the
+ * mapping. The history lives outside the database so it does not grow the hot tables.
+ *
+ * Records are chained with an HMAC. Set audit.hmac-secret, kept away from the journal's
+ * files, for edits to be detectable by anyone without it; when blank a random key is
+ * generated once into audit.key-file.
+ */
+@Service
+public class OrderAuditService implements OutboxSink {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${audit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${audit.dir:data/audit}")
+    private Path dir;
+
+    @Value("${audit.segment-bytes:16777216}")
+    private int segmentBytes;
+
+    @Value("${audit.sync:true}")
+    private boolean sync;
+
+    @Value("${audit.hmac-secret:}")
+    private String secret;
+
+    @Value("${audit.key-file:data/audit.key}")
+    private Path keyFile;
+
+    // Must cover at least the largest outbox batch that can be redelivered
+    @Value("${audit.dedupe-window:10000}")
+    private int dedupeWindow;
+
+    @Value("${outbox.sinks:in-process,audit}")
+    private List<String> outboxSinks;
+
+    private AuditJournal journal;
+
+    @PostConstruct
+    void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        if (outboxSinks.stream().map(String::trim).noneMatch(getName()::equals)) {
+            throw new IllegalStateException("audit.enabled needs \"" + getName() + "\" in outbox.sinks");
+        }
+        journal = AuditJournal.open(dir, segmentBytes, key(), dedupeWindow);
+    }
+
+    @PreDestroy
+    void close() {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "audit";
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> batch) throws IOException {
+        if (journal == null) {
+            return;
+        }
+        long last = 0;
+        for (OutboxMessage message : batch) {
+            // Exact decimals, so totals keep their scale
+            JsonNode event = objectMapper.reader().with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+                    .readTree(message.getPayload());
+            long atMillis;
+            long sequence;
+            if (message.getEventType() == OutboxEventType.ORDER_PLACED) {
+                atMillis = epochMillis(event.get("createdAt"), message.getCreatedAt());
+                OrderStatus status = event.hasNonNull("scheduledFor") ? OrderStatus.SCHEDULED : OrderStatus.PENDING;
+                sequence = journal.append(message.getId(), AuditJournal.ORDER_PLACED, atMillis, message.getOrderId(),
+                        event.get("userId").asLong(), status, null, event.get("total").decimalValue());
+            } else {
+                atMillis = epochMillis(event.get("changedAt"), message.getCreatedAt());
+                sequence = journal.append(message.getId(), AuditJournal.STATUS_CHANGED, atMillis,
+                        message.getOrderId(), event.get("userId").asLong(),
+                        OrderStatus.valueOf(event.get("newStatus").asText()),
+                        OrderStatus.valueOf(event.get("previousStatus").asText()), null);
+            }
+            last = Math.max(last, sequence);
+        }
+        if (sync && last > 0) {
+            journal.sync(last);
+        }
+    }
+
+    /**
+     * Everything recorded for an order, oldest first
+     */
+    public List<OrderAuditEntryResponse> getOrderHistory(Long orderId) {
+        if (journal == null) {
+            throw new RuntimeException("Order audit journal is disabled");
+        }
+        return journal.find(orderId).stream()
+                .map(OrderAuditService::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Re-check every record's chained HMAC; reads the whole journal
+     */
+    public Map<String, Object> verify() {
+        if (journal == null) {
+            throw new RuntimeException("Order audit journal is disabled");
+        }
+        long start = System.nanoTime();
+        AuditJournal.Verification verification = journal.verify();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("valid", verification.problem() == null);
+        result.put("records", verification.records());
+        result.put("firstBadSequence", verification.firstBadSequence());
+        result.put("problem", verification.problem());
+        result.put("millis", (System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    /**
+     * Journal size and sync counters, for diagnostics. Undelivered events show in the outbox metrics.
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("sync", sync);
+        result.put("keyFromSecret", secret != null && !secret.isBlank());
+        if (journal != null) {
+            result.putAll(journal.stats());
+        }
+        return result;
+    }
+
+    private byte[] key() throws IOException {
+        if (secret != null && !secret.isBlank()) {
+            return secret.getBytes(StandardCharsets.UTF_8);
+        }
+        if (Files.exists(keyFile)) {
+            return Files.readAllBytes(keyFile);
+        }
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        if (keyFile.getParent() != null) {
+            Files.createDirectories(keyFile.getParent());
+        }
+        Files.write(keyFile, key, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.SYNC);
+        return key;
+    }
+
+    private static long epochMillis(JsonNode at, LocalDateTime fallback) {
+        LocalDateTime time = at == null || at.isNull() ? fallback : LocalDateTime.parse(at.asText());
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static OrderAuditEntryResponse toResponse(AuditJournal.Entry entry) {
+        return new OrderAuditEntryResponse(
+                entry.sequence(),
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(entry.atMillis()), ZoneId.systemDefault()),
+                entry.orderId(),
+                entry.userId(),
+                entry.type() == AuditJournal.ORDER_PLACED ? "ORDER_PLACED" : "ORDER_STATUS_CHANGED",
+                entry.previousStatus(),
+                entry.status(),
+                entry.total());
+    }
+}
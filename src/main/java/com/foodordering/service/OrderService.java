@@ -6,26 +6,76 @@ import com.foodordering.entity.MenuItem;
 import com.foodordering.entity.Order;
 import com.foodordering.entity.OrderItem;
 import com.foodordering.entity.OrderStatus;
+import com.foodordering.event.OrderEventLine;
+import com.foodordering.event.OrderPlacedEvent;
+import com.foodordering.event.OrderStatusChangedEvent;
 import com.foodordering.repository.MenuItemRepository;
 import com.foodordering.repository.OrderRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 public class OrderService {
     
+    // Order ids per item query, kept well under database IN-list limits
+    private static final int ITEM_FETCH_CHUNK_SIZE = 1000;
+    
+    // updated_at is stamped before commit, so a slower transaction can become visible after a
+    // poll that already saw later timestamps; re-send that window rather than miss the order
+    private static final Duration UPDATED_SINCE_OVERLAP = Duration.ofSeconds(2);
+    
+    // Statuses EtaService gives an estimate for
+    private static final List<OrderStatus> ESTIMATED_STATUSES = List.of(OrderStatus.SCHEDULED, OrderStatus.PENDING,
+            OrderStatus.CONFIRMED, OrderStatus.PREPARING, OrderStatus.OUT_FOR_DELIVERY);
+    
     @Autowired
     private OrderRepository orderRepository;
     
     @Autowired
     private MenuItemRepository menuItemRepository;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private EtaService etaService;
+    
+    @Autowired
+    private CartQuoteService cartQuoteService;
+    
+    @Autowired
+    private PricingService pricingService;
+    
+    @Autowired
+    private ScheduledOrderService scheduledOrderService;
+    
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
     @Transactional
     public OrderResponse createOrder(CreateOrderRequest request, Long userId) {
         // Calculate total and create order items
@@ -35,50 +85,116 @@ public class OrderService {
         // Create the order first
         Order order = new Order(userId, BigDecimal.ZERO);
         
-        // Process each item in the request
-        for (CreateOrderRequest.OrderItemRequest itemRequest : request.getItems()) {
-            MenuItem menuItem = menuItemRepository.findById(itemRequest.getMenuItemId())
-                .orElseThrow(() -> new RuntimeException("Menu item not found: " + itemRequest.getMenuItemId()));
-            
-            if (!menuItem.getAvailable()) {
-                throw new RuntimeException("Menu item is not available: " + menuItem.getName());
+        // A quote for this exact cart at the current catalog version was already validated and priced
+        Optional<CartQuoteService.RedeemedQuote> quoted = request.getQuoteToken() == null
+                ? Optional.empty()
+                : cartQuoteService.redeem(request.getQuoteToken(), request.getItems(), userId);
+        BigDecimal discount;
+        if (quoted.isPresent()) {
+            discount = quoted.get().discount();
+            for (CartQuoteService.QuotedLine line : quoted.get().lines()) {
+                total = total.add(line.unitPrice().multiply(BigDecimal.valueOf(line.quantity())));
+                orderItems.add(new OrderItem(order, menuItemRepository.getReferenceById(line.menuItemId()),
+                        line.quantity(), line.unitPrice()));
             }
-            
-            BigDecimal itemTotal = menuItem.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity()));
-            total = total.add(itemTotal);
-            
-            OrderItem orderItem = new OrderItem(order, menuItem, itemRequest.getQuantity(), menuItem.getPrice());
-            orderItems.add(orderItem);
+        } else {
+            List<PricingPlan.Line> pricingLines = new ArrayList<>();
+            // Process each item in the request
+            for (CreateOrderRequest.OrderItemRequest itemRequest : request.getItems()) {
+                MenuItem menuItem = menuItemRepository.findById(itemRequest.getMenuItemId())
+                    .orElseThrow(() -> new RuntimeException("Menu item not found: " + itemRequest.getMenuItemId()));
+                
+                if (!menuItem.getAvailable()) {
+                    throw new RuntimeException("Menu item is not available: " + menuItem.getName());
+                }
+                
+                BigDecimal itemTotal = menuItem.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity()));
+                total = total.add(itemTotal);
+                
+                OrderItem orderItem = new OrderItem(order, menuItem, itemRequest.getQuantity(), menuItem.getPrice());
+                orderItems.add(orderItem);
+                pricingLines.add(new PricingPlan.Line(menuItem.getId(), menuItem.getCategory(),
+                        itemRequest.getQuantity(), menuItem.getPrice()));
+            }
+            discount = pricingService.price(pricingLines).discount();
         }
         
-        // Set the calculated total
-        order.setTotal(total);
+        // Set the calculated total, after promotions
+        discount = discount.min(total);
+        order.setDiscount(discount);
+        order.setTotal(total.subtract(discount));
         order.setItems(orderItems);
+        order.setDeliveryLatitude(request.getDeliveryLatitude());
+        order.setDeliveryLongitude(request.getDeliveryLongitude());
+        
+        // Far enough ahead to wait before going to the kitchen; otherwise it starts now
+        if (request.getScheduledFor() != null) {
+            order.setScheduledFor(request.getScheduledFor());
+            if (scheduledOrderService.releaseTimeFor(request.getScheduledFor()) != null) {
+                order.setStatus(OrderStatus.SCHEDULED);
+            }
+        }
         
         // Save the order (this will cascade to order items)
         Order savedOrder = orderRepository.save(order);
         
+        // Listeners that must only see committed orders use @TransactionalEventListener
+        eventPublisher.publishEvent(new OrderPlacedEvent(
+                savedOrder.getId(),
+                savedOrder.getUserId(),
+                savedOrder.getTotal(),
+                savedOrder.getCreatedAt(),
+                toEventLines(savedOrder),
+                savedOrder.getStatus() == OrderStatus.SCHEDULED ? savedOrder.getScheduledFor() : null
+        ));
+        
         return convertToOrderResponse(savedOrder);
     }
     
+    @Transactional(readOnly = true)
     public OrderResponse getOrderById(Long orderId, Long userId) {
         Order order = orderRepository.findByIdWithItems(orderId);
-        if (order == null) {
-            throw new RuntimeException("Order not found: " + orderId);
+        OrderResponse response;
+        if (order != null) {
+            response = convertToOrderResponse(order);
+        } else {
+            // Old links keep working after the order moved to the archive
+            response = orderArchiveService.getOrder(orderId)
+                    .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
         }
         
-        if (!order.getUserId().equals(userId)) {
+        if (!response.getUserId().equals(userId)) {
             throw new RuntimeException("Access denied to order: " + orderId);
         }
         
-        return convertToOrderResponse(order);
+        return response;
     }
     
+    @Transactional(readOnly = true)
     public List<OrderResponse> getUserOrders(Long userId) {
-        List<Order> orders = orderRepository.findByUserIdOrderByCreatedAtDesc(userId);
-        return orders.stream()
-                .map(this::convertToOrderResponse)
-                .collect(Collectors.toList());
+        return withItems(orderRepository.findOrderSummariesByUserId(userId));
+    }
+    
+    /**
+     * The user's orders, newest first, with orders moved to the archive merged in when asked for.
+     * Hot orders are read first, so an order archived in between is seen twice rather than missed.
+     */
+    @Transactional(readOnly = true)
+    public List<OrderResponse> getUserOrders(Long userId, boolean includeArchived) {
+        List<OrderResponse> orders = getUserOrders(userId);
+        if (!includeArchived) {
+            return orders;
+        }
+        Set<Long> hotIds = orders.stream().map(OrderResponse::getId).collect(Collectors.toSet());
+        List<OrderResponse> merged = new ArrayList<>(orders);
+        for (OrderResponse archived : orderArchiveService.getUserOrders(userId)) {
+            if (!hotIds.contains(archived.getId())) {
+                merged.add(archived);
+            }
+        }
+        merged.sort(Comparator.comparing(OrderResponse::getCreatedAt,
+                Comparator.nullsLast(Comparator.reverseOrder())));
+        return merged;
     }
     
     @Transactional
@@ -88,11 +204,30 @@ public class OrderService {
         
         try {
             OrderStatus newStatus = OrderStatus.valueOf(statusString.toUpperCase());
+            if (newStatus == OrderStatus.SCHEDULED && order.getStatus() != OrderStatus.SCHEDULED) {
+                throw new RuntimeException("Orders can only be scheduled when they are placed");
+            }
+            OrderStatus previousStatus = order.getStatus();
+            LocalDateTime previousStatusSince = order.getUpdatedAt();
             order.setStatus(newStatus);
             Order updatedOrder = orderRepository.save(order);
             
             // Fetch the order with items for the response
             Order orderWithItems = orderRepository.findByIdWithItems(orderId);
+            
+            if (previousStatus != newStatus) {
+                eventPublisher.publishEvent(new OrderStatusChangedEvent(
+                        orderWithItems.getId(),
+                        orderWithItems.getUserId(),
+                        previousStatus,
+                        newStatus,
+                        orderWithItems.getCreatedAt(),
+                        previousStatusSince,
+                        orderWithItems.getUpdatedAt(),
+                        toEventLines(orderWithItems)
+                ));
+            }
+            
             return convertToOrderResponse(orderWithItems);
             
         } catch (IllegalArgumentException e) {
@@ -100,11 +235,200 @@ public class OrderService {
         }
     }
     
+    /**
+     * Move a CONFIRMED order to PREPARING with a conditional update, publishing the status
+     * change. Returns false, changing nothing, if it is gone or has left CONFIRMED, e.g. was
+     * cancelled after the kitchen queued it; a plain read-then-save could overwrite that cancel.
+     */
+    @Transactional
+    public boolean startPreparing(Long orderId) {
+        return moveStatusIf(orderId, OrderStatus.CONFIRMED, OrderStatus.PREPARING);
+    }
+    
+    /**
+     * Move a scheduled order to PENDING with a conditional update, publishing the status
+     * change. Returns false if it is gone or no longer SCHEDULED, e.g. cancelled before or
+     * while it is released.
+     */
+    @Transactional
+    public boolean releaseScheduledOrder(Long orderId) {
+        return moveStatusIf(orderId, OrderStatus.SCHEDULED, OrderStatus.PENDING);
+    }
+    
+    private boolean moveStatusIf(Long orderId, OrderStatus expected, OrderStatus status) {
+        Order order = orderRepository.findByIdWithItems(orderId);
+        if (order == null || order.getStatus() != expected) {
+            return false;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (orderRepository.updateStatusIf(orderId, expected, status, now) == 0) {
+            return false;
+        }
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(
+                order.getId(),
+                order.getUserId(),
+                expected,
+                status,
+                order.getCreatedAt(),
+                order.getUpdatedAt(),
+                now,
+                toEventLines(order)
+        ));
+        return true;
+    }
+    
+    /**
+     * Read as DTO projections rather than entities, so no managed entities or
+     * dirty-checking snapshots are kept for the whole order history
+     */
+    @Transactional(readOnly = true)
     public List<OrderResponse> getAllOrders() {
-        List<Order> orders = orderRepository.findAllByOrderByCreatedAtDesc();
-        return orders.stream()
-                .map(this::convertToOrderResponse)
-                .collect(Collectors.toList());
+        return withItems(orderRepository.findAllOrderSummaries());
+    }
+    
+    /**
+     * Hand every order, newest first, to the consumer without holding the whole history
+     * in memory. Orders are read in keyset pages of ITEM_FETCH_CHUNK_SIZE, each in its own
+     * read-only transaction, so no connection is held while the consumer runs (for example
+     * while it writes to a slow client). Not transactional itself.
+     */
+    public void forEachOrder(Consumer<OrderResponse> consumer) {
+        Pageable page = PageRequest.of(0, ITEM_FETCH_CHUNK_SIZE);
+        List<OrderResponse> batch = readPage(() -> orderRepository.findOrderSummariesPage(page));
+        while (!batch.isEmpty()) {
+            batch.forEach(consumer);
+            if (batch.size() < ITEM_FETCH_CHUNK_SIZE) {
+                break;
+            }
+            OrderResponse last = batch.get(batch.size() - 1);
+            batch = readPage(() -> orderRepository.findOrderSummariesBefore(last.getCreatedAt(), last.getId(), page));
+        }
+    }
+    
+    /**
+     * Same as forEachOrder for orders changed since the given time, oldest change first. An
+     * order changed while the pages are read can be handed over again, after its new change.
+     */
+    public void forEachOrderUpdatedSince(LocalDateTime updatedSince, Consumer<OrderResponse> consumer) {
+        Pageable page = PageRequest.of(0, ITEM_FETCH_CHUNK_SIZE);
+        LocalDateTime afterUpdatedAt = updatedSince.minus(UPDATED_SINCE_OVERLAP);
+        long afterId = 0;
+        while (true) {
+            LocalDateTime updatedAt = afterUpdatedAt;
+            long id = afterId;
+            List<OrderResponse> batch = readPage(() -> orderRepository.findOrderSummariesUpdatedAfter(updatedAt, id, page));
+            batch.forEach(consumer);
+            if (batch.size() < ITEM_FETCH_CHUNK_SIZE) {
+                break;
+            }
+            OrderResponse last = batch.get(batch.size() - 1);
+            afterUpdatedAt = last.getUpdatedAt();
+            afterId = last.getId();
+        }
+    }
+    
+    /**
+     * The user's orders changed since the given time, oldest change first. Orders changed
+     * just before it may be repeated, so clients merge the result by order id.
+     */
+    @Transactional(readOnly = true)
+    public List<OrderResponse> getUserOrdersUpdatedSince(Long userId, LocalDateTime updatedSince) {
+        return withItems(orderRepository.findOrderSummariesByUserIdUpdatedSince(
+                userId, updatedSince.minus(UPDATED_SINCE_OVERLAP)));
+    }
+    
+    /**
+     * Latest change to the user's order list, for Last-Modified: the newest updatedAt, or when
+     * one of their orders was last archived if that is later, since archiving removes orders
+     * without touching any updatedAt. Empty when they have no orders at all.
+     */
+    @Transactional(readOnly = true)
+    public Optional<LocalDateTime> getUserOrdersLastModified(Long userId) {
+        Optional<LocalDateTime> updated = orderRepository.findLastUpdatedAtByUserId(userId);
+        Optional<LocalDateTime> archived = orderArchiveService.getUserLastArchivedAt(userId);
+        if (updated.isEmpty() || (archived.isPresent() && archived.get().isAfter(updated.get()))) {
+            return archived;
+        }
+        return updated;
+    }
+    
+    /**
+     * Validator for the ETAs of the user's open orders, or null when they have none. An ETA is
+     * the requested time for a SCHEDULED order and otherwise moves with the clock, the learned
+     * dwell times and the kitchen backlog while updatedAt stands still. Rather than computing
+     * every estimate (each order's lines included) on an unchanged poll, this hashes the open
+     * orders' ids, statuses and requested times, plus the current minute while any of them is
+     * counting down, so a cached list keeps a drifting ETA for at most a minute.
+     */
+    @Transactional(readOnly = true)
+    public String getUserOrdersEtaTag(Long userId) {
+        List<Object[]> open = orderRepository.findEtaInputsByUserIdAndStatusIn(userId, ESTIMATED_STATUSES);
+        if (open.isEmpty()) {
+            return null;
+        }
+        int hash = 1;
+        boolean countingDown = false;
+        for (Object[] row : open) {
+            OrderStatus status = (OrderStatus) row[1];
+            // Stable across restarts and nodes: no identity hash codes
+            hash = 31 * hash + row[0].hashCode();
+            hash = 31 * hash + status.name().hashCode();
+            hash = 31 * hash + Objects.hashCode(row[2]);
+            countingDown |= status != OrderStatus.SCHEDULED;
+        }
+        if (countingDown) {
+            hash = 31 * hash + Long.hashCode(System.currentTimeMillis() / 60_000);
+        }
+        return Integer.toHexString(hash);
+    }
+    
+    /**
+     * One of the user's orders with its ETA, read as a projection; empty if it is missing,
+     * archived or not theirs
+     */
+    @Transactional(readOnly = true)
+    public Optional<OrderResponse> findUserOrder(Long orderId, Long userId) {
+        return orderRepository.findOrderSummaryByIdAndUserId(orderId, userId)
+                .map(order -> withItems(List.of(order)).get(0));
+    }
+    
+    private List<OrderResponse> readPage(Supplier<List<OrderResponse>> summaries) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return readOnly.execute(status -> withItems(summaries.get()));
+    }
+    
+    private List<OrderResponse> withItems(List<OrderResponse> orders) {
+        Map<Long, OrderResponse> ordersById = new HashMap<>();
+        for (OrderResponse order : orders) {
+            ordersById.put(order.getId(), order);
+        }
+        
+        List<Long> orderIds = new ArrayList<>(ordersById.keySet());
+        for (int from = 0; from < orderIds.size(); from += ITEM_FETCH_CHUNK_SIZE) {
+            List<Long> chunk = orderIds.subList(from, Math.min(from + ITEM_FETCH_CHUNK_SIZE, orderIds.size()));
+            for (Object[] row : orderRepository.findItemRowsByOrderIds(chunk)) {
+                Integer quantity = (Integer) row[4];
+                BigDecimal unitPrice = (BigDecimal) row[5];
+                ordersById.get((Long) row[0]).getItems().add(new OrderResponse.OrderItemResponse(
+                        (Long) row[1],
+                        (Long) row[2],
+                        (String) row[3],
+                        (String) row[6],
+                        quantity,
+                        unitPrice,
+                        unitPrice.multiply(BigDecimal.valueOf(quantity))
+                ));
+            }
+        }
+        for (OrderResponse order : orders) {
+            order.setEstimatedDeliveryAt(etaService.estimateDeliveryAt(order));
+        }
+        return orders;
+    }
+    
+    private List<OrderEventLine> toEventLines(Order order) {
+        return OrderEventLine.from(order.getItems(), order.getDiscount());
     }
     
     private OrderResponse convertToOrderResponse(Order order) {
@@ -113,13 +437,14 @@ public class OrderService {
                         item.getId(),
                         item.getMenuItem().getId(),
                         item.getMenuItem().getName(),
+                        item.getMenuItem().getCategory(),
                         item.getQuantity(),
                         item.getUnitPrice(),
                         item.getSubtotal()
                 ))
                 .collect(Collectors.toList());
         
-        return new OrderResponse(
+        OrderResponse response = new OrderResponse(
                 order.getId(),
                 order.getUserId(),
                 itemResponses,
@@ -128,5 +453,9 @@ public class OrderService {
                 order.getCreatedAt(),
                 order.getUpdatedAt()
         );
+        response.setDiscount(order.getDiscount());
+        response.setScheduledFor(order.getScheduledFor());
+        response.setEstimatedDeliveryAt(etaService.estimateDeliveryAt(response));
+        return response;
     }
 }
\ No newline at end of file
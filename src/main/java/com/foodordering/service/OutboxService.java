@@ -0,0 +1,215 @@
+package com.foodordering.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodordering.entity.OutboxEvent;
+import com.foodordering.entity.OutboxEventType;
+import com.foodordering.event.OrderPlacedEvent;
+import com.foodordering.event.OrderStatusChangedEvent;
+import com.foodordering.event.OutboxMessage;
+import com.foodordering.repository.OutboxEventRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Transactional outbox for order events.
+ *
+ * OrderPlacedEvent and OrderStatusChangedEvent are written to outbox_events by a synchronous
+ * listener inside the transaction that published them, so an event exists exactly when its
+ * order change committed. The relay drains the table oldest id first, in batches, to every
+ * sink named in outbox.sinks and deletes a batch only after all of them accepted it: delivery
+ * is at least once and survives restarts, and a failing sink holds the backlog back rather
+ * than losing it.
+ *
+ * The batch size adapts between outbox.min-batch-size and outbox.max-batch-size: it doubles
+ * while full batches are delivered well within outbox.target-batch-ms and halves when a batch
+ * is slower than that or fails.
+ */
+@Service
+public class OutboxService {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private List<OutboxSink> availableSinks;
+
+    @Value("${outbox.sinks:in-process,audit}")
+    private List<String> sinkNames;
+
+    @Value("${outbox.batch-size:100}")
+    private int initialBatchSize;
+
+    @Value("${outbox.min-batch-size:10}")
+    private int minBatchSize;
+
+    @Value("${outbox.max-batch-size:1000}")
+    private int maxBatchSize;
+
+    @Value("${outbox.target-batch-ms:250}")
+    private long targetBatchMillis;
+
+    // Bounds one run so a large backlog does not hold the scheduler thread indefinitely
+    @Value("${outbox.max-batches-per-run:50}")
+    private int maxBatchesPerRun;
+
+    private List<OutboxSink> sinks;
+
+    // Guarded by this
+    private int batchSize;
+    private long relayedMessages;
+    private long failedBatches;
+    private String lastError;
+
+    private volatile Map<String, Object> lastBatch = Map.of();
+
+    @PostConstruct
+    void init() {
+        Map<String, OutboxSink> byName = availableSinks.stream()
+                .collect(Collectors.toMap(OutboxSink::getName, sink -> sink));
+        List<OutboxSink> enabled = new ArrayList<>();
+        for (String name : sinkNames) {
+            if (name.isBlank()) {
+                continue;
+            }
+            OutboxSink sink = byName.get(name.trim());
+            if (sink == null) {
+                throw new IllegalStateException("Unknown outbox sink: " + name.trim() + ", available: " + byName.keySet());
+            }
+            enabled.add(sink);
+        }
+        sinks = enabled;
+        batchSize = Math.max(minBatchSize, Math.min(maxBatchSize, initialBatchSize));
+    }
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        write(OutboxEventType.ORDER_PLACED, event.getOrderId(), event);
+    }
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        write(OutboxEventType.ORDER_STATUS_CHANGED, event.getOrderId(), event);
+    }
+
+    /**
+     * Deliver waiting events to the sinks. Returns how many were delivered. Stops at the first
+     * failed batch; the next run retries it.
+     */
+    @Scheduled(fixedDelayString = "${outbox.poll-ms:500}")
+    public synchronized int relay() {
+        if (sinks.isEmpty()) {
+            return 0;
+        }
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate write = new TransactionTemplate(transactionManager);
+
+        int relayed = 0;
+        for (int run = 0; run < maxBatchesPerRun; run++) {
+            int size = batchSize;
+            List<OutboxMessage> batch = readOnly.execute(status ->
+                    outboxEventRepository.findBacklog(PageRequest.of(0, size)).stream()
+                            .map(OutboxMessage::from)
+                            .collect(Collectors.toList()));
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            long start = System.nanoTime();
+            OutboxSink current = null;
+            try {
+                for (OutboxSink sink : sinks) {
+                    current = sink;
+                    sink.publish(batch);
+                }
+            } catch (Exception e) {
+                failedBatches++;
+                lastError = current.getName() + ": " + e;
+                batchSize = Math.max(minBatchSize, size / 2);
+                break;
+            }
+            long millis = (System.nanoTime() - start) / 1_000_000;
+
+            List<Long> ids = batch.stream().map(OutboxMessage::getId).collect(Collectors.toList());
+            write.executeWithoutResult(status -> outboxEventRepository.deleteByIdIn(ids));
+            relayed += batch.size();
+            relayedMessages += batch.size();
+
+            if (millis > targetBatchMillis) {
+                batchSize = Math.max(minBatchSize, size / 2);
+            } else if (batch.size() == size && millis * 2 < targetBatchMillis) {
+                batchSize = Math.min(maxBatchSize, size * 2);
+            }
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("relayedAt", LocalDateTime.now());
+            stats.put("messages", batch.size());
+            stats.put("lastId", ids.get(ids.size() - 1));
+            stats.put("millis", millis);
+            // Time the oldest event in the batch waited in the outbox
+            stats.put("lagMillis", Duration.between(batch.get(0).getCreatedAt(), LocalDateTime.now()).toMillis());
+            lastBatch = stats;
+
+            if (batch.size() < size) {
+                break;
+            }
+        }
+        return relayed;
+    }
+
+    /**
+     * Backlog, lag and delivery counters, for diagnostics
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("sinks", sinks.stream().map(OutboxSink::getName).collect(Collectors.toList()));
+        result.put("pendingMessages", outboxEventRepository.count());
+        Optional<LocalDateTime> oldest = outboxEventRepository.findOldestCreatedAt();
+        result.put("oldestPendingAt", oldest.orElse(null));
+        result.put("lagMillis", oldest.map(at -> Duration.between(at, LocalDateTime.now()).toMillis()).orElse(0L));
+        synchronized (this) {
+            result.put("batchSize", batchSize);
+            result.put("relayedMessages", relayedMessages);
+            result.put("failedBatches", failedBatches);
+            result.put("lastError", lastError);
+        }
+        result.put("lastBatch", lastBatch);
+        return result;
+    }
+
+    private void write(OutboxEventType type, Long orderId, Object event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + type + " for order " + orderId, e);
+        }
+        outboxEventRepository.save(new OutboxEvent(type, orderId, payload, LocalDateTime.now()));
+    }
+}
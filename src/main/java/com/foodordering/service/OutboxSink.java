@@ -0,0 +1,19 @@
+package com.foodordering.service;
+
+import com.foodordering.event.OutboxMessage;
+import java.util.List;
+
+/**
+ * Somewhere the outbox relay delivers order events. Sinks are beans, switched on by name in
+ * outbox.sinks. A batch counts as delivered only if publish returns; on an exception the
+ * whole batch is offered again later, to every sink, so sinks must tolerate duplicates.
+ */
+public interface OutboxSink {
+    
+    String getName();
+    
+    /**
+     * Deliver the batch, in order, before returning
+     */
+    void publish(List<OutboxMessage> batch) throws Exception;
+}
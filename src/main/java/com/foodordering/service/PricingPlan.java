@@ -0,0 +1,322 @@
+package com.foodordering.service;
+
+import com.foodordering.entity.PricingRule;
+import com.foodordering.entity.PricingRuleType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Pricing rules compiled for one stretch of time, immutable once built.
+ *
+ * Only rules active at the compile time are kept, and for each menu item and each category
+ * only the offers that can still win: the highest percentage, the highest amount off and the
+ * buy-X-get-Y rules not beaten by another one. COMBO rules are kept by their sorted category
+ * set. Pricing a cart is then a few map lookups per line plus the category sets present in
+ * the cart, however many rules exist. The plan is valid until the next time any rule starts
+ * or stops applying; after that it must be compiled again.
+ *
+ * Every line gets its single best offer; on top of that the order gets its single best combo.
+ */
+final class PricingPlan {
+
+    static final int MAX_COMBO_CATEGORIES = 4;
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final Map<Long, Offers> byMenuItem = new HashMap<>();
+    private final Map<String, Offers> byCategory = new HashMap<>();
+    private final Map<String, PricingRule> combos = new HashMap<>();
+    // Categories in any combo; other categories in a cart cannot complete one
+    private final Set<String> inCombos = new HashSet<>();
+    private final int largestCombo;
+    private final int activeRules;
+    private final LocalDateTime compiledAt;
+    private final LocalDateTime validUntil;
+
+    private PricingPlan(Collection<PricingRule> rules, LocalDateTime now) {
+        LocalDateTime until = null;
+        int comboSize = 0;
+        int active = 0;
+        for (PricingRule rule : rules) {
+            LocalDateTime change = nextChange(rule, now);
+            if (change != null && (until == null || change.isBefore(until))) {
+                until = change;
+            }
+            if (!appliesAt(rule, now)) {
+                continue;
+            }
+            active++;
+            if (rule.getType() == PricingRuleType.COMBO) {
+                String[] categories = comboCategories(rule.getComboCategories());
+                String key = String.join(",", categories);
+                PricingRule best = combos.get(key);
+                if (best == null || rule.getDiscountValue().compareTo(best.getDiscountValue()) > 0) {
+                    combos.put(key, rule);
+                }
+                inCombos.addAll(Arrays.asList(categories));
+                comboSize = Math.max(comboSize, categories.length);
+            } else if (rule.getMenuItemId() != null) {
+                byMenuItem.computeIfAbsent(rule.getMenuItemId(), id -> new Offers()).add(rule);
+            } else {
+                byCategory.computeIfAbsent(normalize(rule.getCategory()), category -> new Offers()).add(rule);
+            }
+        }
+        this.largestCombo = comboSize;
+        this.activeRules = active;
+        this.compiledAt = now;
+        this.validUntil = until;
+    }
+
+    static PricingPlan compile(Collection<PricingRule> rules, LocalDateTime now) {
+        return new PricingPlan(rules, now);
+    }
+
+    boolean isValidAt(LocalDateTime time) {
+        return !time.isBefore(compiledAt) && (validUntil == null || time.isBefore(validUntil));
+    }
+
+    Result price(List<Line> lines) {
+        BigDecimal discount = BigDecimal.ZERO;
+        List<String> applied = new ArrayList<>();
+        Map<String, Integer> quantityByCategory = largestCombo == 0 ? null : new TreeMap<>();
+        Map<String, BigDecimal> cheapestByCategory = largestCombo == 0 ? null : new HashMap<>();
+
+        for (Line line : lines) {
+            String category = normalize(line.category());
+            Offers itemOffers = byMenuItem.get(line.menuItemId());
+            Offers categoryOffers = category == null ? null : byCategory.get(category);
+            Best best = new Best();
+            if (itemOffers != null) {
+                itemOffers.bestFor(line, best);
+            }
+            if (categoryOffers != null) {
+                categoryOffers.bestFor(line, best);
+            }
+            if (best.rule != null) {
+                discount = discount.add(best.amount);
+                applied.add(best.rule.getName());
+            }
+            if (quantityByCategory != null && inCombos.contains(category)) {
+                quantityByCategory.merge(category, line.quantity(), Integer::sum);
+                cheapestByCategory.merge(category, line.unitPrice(), BigDecimal::min);
+            }
+        }
+
+        if (quantityByCategory != null && quantityByCategory.size() >= 2) {
+            Best best = new Best();
+            String[] present = quantityByCategory.keySet().toArray(new String[0]);
+            bestCombo(present, 0, new String[Math.min(largestCombo, present.length)], 0,
+                    quantityByCategory, cheapestByCategory, best);
+            if (best.rule != null) {
+                discount = discount.add(best.amount);
+                applied.add(best.rule.getName());
+            }
+        }
+        return new Result(discount.setScale(2, RoundingMode.HALF_UP), applied);
+    }
+
+    int getActiveRules() {
+        return activeRules;
+    }
+
+    int getIndexedKeys() {
+        return byMenuItem.size() + byCategory.size() + combos.size();
+    }
+
+    LocalDateTime getCompiledAt() {
+        return compiledAt;
+    }
+
+    /**
+     * When the set of applying rules next changes, or null if it never does
+     */
+    LocalDateTime getValidUntil() {
+        return validUntil;
+    }
+
+    /**
+     * Walk the subsets of the cart's categories (sorted, so each subset spells a combo key)
+     */
+    private void bestCombo(String[] present, int from, String[] chosen, int size,
+                           Map<String, Integer> quantities, Map<String, BigDecimal> cheapest, Best best) {
+        if (size >= 2) {
+            PricingRule rule = combos.get(String.join(",", Arrays.copyOf(chosen, size)));
+            if (rule != null) {
+                int sets = Integer.MAX_VALUE;
+                BigDecimal setPrice = BigDecimal.ZERO;
+                for (int i = 0; i < size; i++) {
+                    sets = Math.min(sets, quantities.get(chosen[i]));
+                    setPrice = setPrice.add(cheapest.get(chosen[i]));
+                }
+                // Never more than the cheapest items making up the set
+                BigDecimal amount = rule.getDiscountValue().min(setPrice).multiply(BigDecimal.valueOf(sets));
+                best.offer(rule, amount);
+            }
+        }
+        if (size == chosen.length) {
+            return;
+        }
+        for (int i = from; i < present.length; i++) {
+            chosen[size] = present[i];
+            bestCombo(present, i + 1, chosen, size + 1, quantities, cheapest, best);
+        }
+    }
+
+    static boolean appliesAt(PricingRule rule, LocalDateTime time) {
+        if (!Boolean.TRUE.equals(rule.getActive())) {
+            return false;
+        }
+        if (rule.getStartsAt() != null && time.isBefore(rule.getStartsAt())) {
+            return false;
+        }
+        if (rule.getEndsAt() != null && !time.isBefore(rule.getEndsAt())) {
+            return false;
+        }
+        if (rule.getDailyStart() == null || rule.getDailyEnd() == null) {
+            return true;
+        }
+        LocalTime clock = time.toLocalTime();
+        if (rule.getDailyStart().isBefore(rule.getDailyEnd())) {
+            return !clock.isBefore(rule.getDailyStart()) && clock.isBefore(rule.getDailyEnd());
+        }
+        // Runs past midnight
+        return !clock.isBefore(rule.getDailyStart()) || clock.isBefore(rule.getDailyEnd());
+    }
+
+    private static LocalDateTime nextChange(PricingRule rule, LocalDateTime now) {
+        if (!Boolean.TRUE.equals(rule.getActive()) || (rule.getEndsAt() != null && !now.isBefore(rule.getEndsAt()))) {
+            return null;
+        }
+        if (rule.getStartsAt() != null && now.isBefore(rule.getStartsAt())) {
+            return rule.getStartsAt();
+        }
+        LocalDateTime next = rule.getEndsAt();
+        if (rule.getDailyStart() != null && rule.getDailyEnd() != null) {
+            for (LocalTime boundary : new LocalTime[] {rule.getDailyStart(), rule.getDailyEnd()}) {
+                LocalDateTime at = now.toLocalDate().atTime(boundary);
+                if (!at.isAfter(now)) {
+                    at = at.plusDays(1);
+                }
+                if (next == null || at.isBefore(next)) {
+                    next = at;
+                }
+            }
+        }
+        return next;
+    }
+
+    static String[] comboCategories(String comboCategories) {
+        return Arrays.stream(comboCategories.split(","))
+                .map(PricingPlan::normalize)
+                .filter(category -> category != null && !category.isEmpty())
+                .distinct()
+                .sorted()
+                .toArray(String[]::new);
+    }
+
+    private static String normalize(String category) {
+        return category == null ? null : category.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Offers for one menu item or category that can still be the best for some line
+     */
+    private static final class Offers {
+
+        private PricingRule percentOff;
+        private PricingRule amountOff;
+        // By group size (buy + free) ascending and free quantity strictly increasing
+        private final List<PricingRule> buyXGetY = new ArrayList<>(1);
+
+        void add(PricingRule rule) {
+            switch (rule.getType()) {
+                case PERCENT_OFF -> {
+                    if (percentOff == null || rule.getDiscountValue().compareTo(percentOff.getDiscountValue()) > 0) {
+                        percentOff = rule;
+                    }
+                }
+                case AMOUNT_OFF -> {
+                    if (amountOff == null || rule.getDiscountValue().compareTo(amountOff.getDiscountValue()) > 0) {
+                        amountOff = rule;
+                    }
+                }
+                case BUY_X_GET_Y -> addBuyXGetY(rule);
+                default -> { }
+            }
+        }
+
+        /**
+         * A rule with no larger groups and at least as many free units gives at least as much
+         * for every quantity, so only that frontier is kept
+         */
+        private void addBuyXGetY(PricingRule rule) {
+            int group = groupSize(rule);
+            int free = rule.getFreeQuantity();
+            for (PricingRule kept : buyXGetY) {
+                if (groupSize(kept) <= group && kept.getFreeQuantity() >= free) {
+                    return;
+                }
+            }
+            buyXGetY.removeIf(kept -> groupSize(kept) >= group && kept.getFreeQuantity() <= free);
+            buyXGetY.add(rule);
+            buyXGetY.sort(Comparator.comparingInt(Offers::groupSize));
+        }
+
+        void bestFor(Line line, Best best) {
+            BigDecimal quantity = BigDecimal.valueOf(line.quantity());
+            if (percentOff != null) {
+                best.offer(percentOff, line.unitPrice().multiply(quantity)
+                        .multiply(percentOff.getDiscountValue().min(HUNDRED))
+                        .divide(HUNDRED, 2, RoundingMode.HALF_UP));
+            }
+            if (amountOff != null) {
+                best.offer(amountOff, amountOff.getDiscountValue().min(line.unitPrice()).multiply(quantity));
+            }
+            for (PricingRule rule : buyXGetY) {
+                int groups = line.quantity() / groupSize(rule);
+                if (groups == 0) {
+                    // Larger groups only come later in the list
+                    break;
+                }
+                best.offer(rule, line.unitPrice().multiply(BigDecimal.valueOf((long) groups * rule.getFreeQuantity())));
+            }
+        }
+
+        private static int groupSize(PricingRule rule) {
+            return rule.getBuyQuantity() + rule.getFreeQuantity();
+        }
+    }
+
+    private static final class Best {
+
+        private PricingRule rule;
+        private BigDecimal amount = BigDecimal.ZERO;
+
+        void offer(PricingRule candidate, BigDecimal candidateAmount) {
+            if (candidateAmount.compareTo(amount) > 0) {
+                rule = candidate;
+                amount = candidateAmount;
+            }
+        }
+    }
+
+    record Line(Long menuItemId, String category, int quantity, BigDecimal unitPrice) {
+    }
+
+    record Result(BigDecimal discount, List<String> appliedRules) {
+    }
+}
@@ -0,0 +1,167 @@
+package com.foodordering.service;
+
+import com.foodordering.dto.PricingRuleRequest;
+import com.foodordering.dto.PricingRuleResponse;
+import com.foodordering.entity.PricingRule;
+import com.foodordering.entity.PricingRuleType;
+import com.foodordering.repository.PricingRuleRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Promotions applied when carts are quoted and orders are placed.
+ *
+ * Active rules are held in memory and compiled into a PricingPlan, which is swapped out
+ * whenever a rule is changed here or a time window opens or closes, so pricing never reads
+ * the database and never looks at rules that cannot apply.
+ */
+@Service
+public class PricingService {
+
+    @Autowired
+    private PricingRuleRepository pricingRuleRepository;
+
+    private volatile List<PricingRule> rules;
+
+    private volatile PricingPlan plan;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reload() {
+        rules = List.copyOf(pricingRuleRepository.findByActiveTrue());
+        plan = null;
+    }
+
+    PricingPlan.Result price(List<PricingPlan.Line> lines) {
+        return currentPlan(LocalDateTime.now()).price(lines);
+    }
+
+    PricingPlan currentPlan(LocalDateTime now) {
+        PricingPlan current = plan;
+        if (current != null && current.isValidAt(now)) {
+            return current;
+        }
+        return compile(now);
+    }
+
+    public List<PricingRuleResponse> getRules() {
+        return pricingRuleRepository.findAll().stream()
+                .map(PricingRuleResponse::new)
+                .collect(Collectors.toList());
+    }
+
+    public PricingRuleResponse createRule(PricingRuleRequest request) {
+        PricingRule rule = new PricingRule();
+        apply(rule, request);
+        PricingRule saved = pricingRuleRepository.save(rule);
+        reload();
+        return new PricingRuleResponse(saved);
+    }
+
+    public Optional<PricingRuleResponse> updateRule(Long id, PricingRuleRequest request) {
+        return pricingRuleRepository.findById(id)
+                .map(rule -> {
+                    apply(rule, request);
+                    PricingRule saved = pricingRuleRepository.save(rule);
+                    reload();
+                    return new PricingRuleResponse(saved);
+                });
+    }
+
+    public boolean deleteRule(Long id) {
+        if (!pricingRuleRepository.existsById(id)) {
+            return false;
+        }
+        pricingRuleRepository.deleteById(id);
+        reload();
+        return true;
+    }
+
+    public Map<String, Object> snapshot() {
+        PricingPlan current = currentPlan(LocalDateTime.now());
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabledRules", rules.size());
+        result.put("applyingRules", current.getActiveRules());
+        result.put("indexedKeys", current.getIndexedKeys());
+        result.put("compiledAt", current.getCompiledAt());
+        result.put("validUntil", current.getValidUntil());
+        return result;
+    }
+
+    private synchronized PricingPlan compile(LocalDateTime now) {
+        PricingPlan current = plan;
+        if (current != null && current.isValidAt(now)) {
+            return current;
+        }
+        if (rules == null) {
+            rules = List.copyOf(pricingRuleRepository.findByActiveTrue());
+        }
+        plan = PricingPlan.compile(rules, now);
+        return plan;
+    }
+
+    /**
+     * Copy a request onto a rule, rejecting fields that do not fit its type
+     */
+    private static void apply(PricingRule rule, PricingRuleRequest request) {
+        PricingRuleType type = request.getType();
+        boolean combo = type == PricingRuleType.COMBO;
+        boolean hasItem = request.getMenuItemId() != null;
+        boolean hasCategory = request.getCategory() != null && !request.getCategory().isBlank();
+        if (combo && (hasItem || hasCategory)) {
+            throw new RuntimeException("COMBO rules take comboCategories, not menuItemId or category");
+        }
+        if (!combo && hasItem == hasCategory) {
+            throw new RuntimeException("Exactly one of menuItemId and category is required");
+        }
+        if (combo) {
+            int categories = request.getComboCategories() == null
+                    ? 0 : PricingPlan.comboCategories(request.getComboCategories()).length;
+            if (categories < 2 || categories > PricingPlan.MAX_COMBO_CATEGORIES) {
+                throw new RuntimeException("COMBO rules need 2 to " + PricingPlan.MAX_COMBO_CATEGORIES
+                        + " distinct comboCategories");
+            }
+        }
+        if (type == PricingRuleType.BUY_X_GET_Y) {
+            if (request.getBuyQuantity() == null || request.getFreeQuantity() == null) {
+                throw new RuntimeException("BUY_X_GET_Y rules require buyQuantity and freeQuantity");
+            }
+        } else if (request.getDiscountValue() == null) {
+            throw new RuntimeException(type + " rules require discountValue");
+        }
+        if (type == PricingRuleType.PERCENT_OFF && request.getDiscountValue().compareTo(BigDecimal.valueOf(100)) > 0) {
+            throw new RuntimeException("Percentage cannot exceed 100");
+        }
+        if (request.getStartsAt() != null && request.getEndsAt() != null
+                && !request.getStartsAt().isBefore(request.getEndsAt())) {
+            throw new RuntimeException("startsAt must be before endsAt");
+        }
+        if ((request.getDailyStart() == null) != (request.getDailyEnd() == null)
+                || (request.getDailyStart() != null && request.getDailyStart().equals(request.getDailyEnd()))) {
+            throw new RuntimeException("dailyStart and dailyEnd must be given together and differ");
+        }
+
+        rule.setName(request.getName());
+        rule.setType(type);
+        rule.setMenuItemId(combo ? null : request.getMenuItemId());
+        rule.setCategory(combo || !hasCategory ? null : request.getCategory().trim());
+        rule.setComboCategories(combo ? request.getComboCategories() : null);
+        rule.setDiscountValue(type == PricingRuleType.BUY_X_GET_Y ? null : request.getDiscountValue());
+        rule.setBuyQuantity(type == PricingRuleType.BUY_X_GET_Y ? request.getBuyQuantity() : null);
+        rule.setFreeQuantity(type == PricingRuleType.BUY_X_GET_Y ? request.getFreeQuantity() : null);
+        rule.setStartsAt(request.getStartsAt());
+        rule.setEndsAt(request.getEndsAt());
+        rule.setDailyStart(request.getDailyStart());
+        rule.setDailyEnd(request.getDailyEnd());
+        rule.setActive(request.getActive() == null || request.getActive());
+    }
+}
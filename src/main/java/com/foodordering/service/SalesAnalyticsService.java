@@ -0,0 +1,271 @@
+package com.foodordering.service;
+
+import com.foodordering.dto.SalesRollupResponse;
+import com.foodordering.entity.OrderStatus;
+import com.foodordering.entity.RollupDimension;
+import com.foodordering.entity.SalesRollup;
+import com.foodordering.event.OrderEventLine;
+import com.foodordering.event.OrderPlacedEvent;
+import com.foodordering.event.OrderStatusChangedEvent;
+import com.foodordering.repository.SalesRollupRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps hourly sales rollups per store, category and menu item.
+ *
+ * Committed orders are folded into striped in-memory accumulators (one lock per
+ * stripe, so concurrent checkouts rarely contend) and periodically flushed into
+ * the sales_rollups table. Dashboard reads only touch rollup rows plus the
+ * not-yet-flushed deltas, never order_items. Revenue is what was charged, after
+ * promotion discounts.
+ */
+@Service
+public class SalesAnalyticsService {
+
+    static final String STORE_KEY = "all";
+
+    @Autowired
+    private SalesRollupRepository salesRollupRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${analytics.rollup.stripes:16}")
+    private int stripeCount;
+
+    private Stripe[] stripes;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        stripes = new Stripe[Math.max(1, stripeCount)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @TransactionalEventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        record(event.getCreatedAt(), event.getLines(), 1);
+    }
+
+    @TransactionalEventListener
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        // Cancelled orders stop counting towards revenue; un-cancelling restores them
+        if (event.getNewStatus() == OrderStatus.CANCELLED) {
+            record(event.getOrderCreatedAt(), event.getLines(), -1);
+        } else if (event.getPreviousStatus() == OrderStatus.CANCELLED) {
+            record(event.getOrderCreatedAt(), event.getLines(), 1);
+        }
+    }
+
+    /**
+     * Fold one order into the accumulators of the hour it was placed in.
+     * sign is +1 to add the order and -1 to remove it again.
+     */
+    void record(LocalDateTime orderCreatedAt, List<OrderEventLine> lines, int sign) {
+        LocalDateTime bucket = orderCreatedAt.truncatedTo(ChronoUnit.HOURS);
+        Map<RollupKey, Delta> orderDeltas = new LinkedHashMap<>();
+
+        for (OrderEventLine line : lines) {
+            // Net of promotions, so revenue adds up to the order totals charged
+            BigDecimal revenue = line.getNetSubtotal();
+            long quantity = line.getQuantity();
+            orderDeltas.computeIfAbsent(new RollupKey(RollupDimension.STORE, STORE_KEY, bucket),
+                    key -> new Delta("All items")).add(revenue, quantity);
+            orderDeltas.computeIfAbsent(new RollupKey(RollupDimension.CATEGORY, line.getCategory(), bucket),
+                    key -> new Delta(line.getCategory())).add(revenue, quantity);
+            orderDeltas.computeIfAbsent(new RollupKey(RollupDimension.MENU_ITEM, String.valueOf(line.getMenuItemId()), bucket),
+                    key -> new Delta(line.getMenuItemName())).add(revenue, quantity);
+        }
+
+        // Each distinct key counts the order once, however many lines it had
+        for (Map.Entry<RollupKey, Delta> entry : orderDeltas.entrySet()) {
+            Delta delta = entry.getValue();
+            delta.orderCount = 1;
+            if (sign < 0) {
+                delta.negate();
+            }
+            Stripe stripe = stripeFor(entry.getKey());
+            synchronized (stripe) {
+                stripe.deltas.computeIfAbsent(entry.getKey(), key -> new Delta(delta.label)).merge(delta);
+            }
+        }
+    }
+
+    /**
+     * Flush accumulated deltas into the rollup table. Deltas that fail to persist
+     * are merged back so the next flush retries them.
+     */
+    @Scheduled(fixedDelayString = "${analytics.rollup.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        Map<RollupKey, Delta> drained = new HashMap<>();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                if (stripe.deltas.isEmpty()) {
+                    continue;
+                }
+                drained.putAll(stripe.deltas);
+                stripe.deltas = new HashMap<>();
+            }
+        }
+        if (drained.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Map.Entry<RollupKey, Delta> entry : drained.entrySet()) {
+                    RollupKey key = entry.getKey();
+                    Delta delta = entry.getValue();
+                    SalesRollup rollup = salesRollupRepository
+                            .findByDimensionAndDimensionKeyAndBucketStart(key.dimension(), key.key(), key.bucket())
+                            .orElseGet(() -> new SalesRollup(key.dimension(), key.key(), delta.label, key.bucket()));
+                    rollup.setLabel(delta.label);
+                    rollup.setRevenue(rollup.getRevenue().add(delta.revenue));
+                    rollup.setQuantity(rollup.getQuantity() + delta.quantity);
+                    rollup.setOrderCount(rollup.getOrderCount() + delta.orderCount);
+                    salesRollupRepository.save(rollup);
+                }
+            });
+        } catch (RuntimeException e) {
+            for (Map.Entry<RollupKey, Delta> entry : drained.entrySet()) {
+                Stripe stripe = stripeFor(entry.getKey());
+                synchronized (stripe) {
+                    stripe.deltas.computeIfAbsent(entry.getKey(), key -> new Delta(entry.getValue().label))
+                            .merge(entry.getValue());
+                }
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Get hourly rollups for a dimension in [from, to), optionally for a single key
+     */
+    public List<SalesRollupResponse> getHourlyRollups(RollupDimension dimension, String key,
+                                                      LocalDateTime from, LocalDateTime to) {
+        Map<RollupKey, SalesRollupResponse> buckets = loadBuckets(dimension, from, to);
+        List<SalesRollupResponse> result = new ArrayList<>();
+        for (SalesRollupResponse bucket : buckets.values()) {
+            if (key == null || key.equals(bucket.getKey())) {
+                result.add(bucket);
+            }
+        }
+        result.sort(Comparator.comparing(SalesRollupResponse::getBucketStart)
+                .thenComparing(SalesRollupResponse::getKey));
+        return result;
+    }
+
+    /**
+     * Get totals per key for a dimension in [from, to), highest revenue first
+     */
+    public List<SalesRollupResponse> getTotals(RollupDimension dimension, LocalDateTime from, LocalDateTime to) {
+        Map<String, SalesRollupResponse> totals = new HashMap<>();
+        for (SalesRollupResponse bucket : loadBuckets(dimension, from, to).values()) {
+            SalesRollupResponse total = totals.computeIfAbsent(bucket.getKey(), key -> new SalesRollupResponse(
+                    dimension, key, bucket.getLabel(), null, BigDecimal.ZERO, 0L, 0L));
+            total.setRevenue(total.getRevenue().add(bucket.getRevenue()));
+            total.setQuantity(total.getQuantity() + bucket.getQuantity());
+            total.setOrderCount(total.getOrderCount() + bucket.getOrderCount());
+        }
+        List<SalesRollupResponse> result = new ArrayList<>(totals.values());
+        result.sort(Comparator.comparing(SalesRollupResponse::getRevenue).reversed()
+                .thenComparing(SalesRollupResponse::getKey));
+        return result;
+    }
+
+    private Map<RollupKey, SalesRollupResponse> loadBuckets(RollupDimension dimension,
+                                                            LocalDateTime from, LocalDateTime to) {
+        Map<RollupKey, SalesRollupResponse> buckets = new HashMap<>();
+        for (SalesRollup rollup : salesRollupRepository
+                .findByDimensionAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStart(dimension, from, to)) {
+            buckets.put(new RollupKey(dimension, rollup.getDimensionKey(), rollup.getBucketStart()),
+                    new SalesRollupResponse(dimension, rollup.getDimensionKey(), rollup.getLabel(),
+                            rollup.getBucketStart(), rollup.getRevenue(), rollup.getQuantity(), rollup.getOrderCount()));
+        }
+
+        // Overlay deltas that have not been flushed yet so dashboards stay real-time
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                for (Map.Entry<RollupKey, Delta> entry : stripe.deltas.entrySet()) {
+                    RollupKey key = entry.getKey();
+                    if (key.dimension() != dimension || key.bucket().isBefore(from) || !key.bucket().isBefore(to)) {
+                        continue;
+                    }
+                    Delta delta = entry.getValue();
+                    SalesRollupResponse bucket = buckets.computeIfAbsent(key, k -> new SalesRollupResponse(
+                            dimension, k.key(), delta.label, k.bucket(), BigDecimal.ZERO, 0L, 0L));
+                    bucket.setLabel(delta.label);
+                    bucket.setRevenue(bucket.getRevenue().add(delta.revenue));
+                    bucket.setQuantity(bucket.getQuantity() + delta.quantity);
+                    bucket.setOrderCount(bucket.getOrderCount() + delta.orderCount);
+                }
+            }
+        }
+        return buckets;
+    }
+
+    private Stripe stripeFor(RollupKey key) {
+        return stripes[Math.floorMod(key.hashCode(), stripes.length)];
+    }
+
+    private record RollupKey(RollupDimension dimension, String key, LocalDateTime bucket) {}
+
+    private static final class Stripe {
+        private Map<RollupKey, Delta> deltas = new HashMap<>();
+    }
+
+    private static final class Delta {
+        private final String label;
+        private BigDecimal revenue = BigDecimal.ZERO;
+        private long quantity;
+        private long orderCount;
+
+        private Delta(String label) {
+            this.label = label;
+        }
+
+        private void add(BigDecimal revenue, long quantity) {
+            this.revenue = this.revenue.add(revenue);
+            this.quantity += quantity;
+        }
+
+        private void negate() {
+            revenue = revenue.negate();
+            quantity = -quantity;
+            orderCount = -orderCount;
+        }
+
+        private void merge(Delta other) {
+            revenue = revenue.add(other.revenue);
+            quantity += other.quantity;
+            orderCount += other.orderCount;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.foodordering.service;
+
+import com.foodordering.entity.OrderStatus;
+import com.foodordering.event.OrderPlacedEvent;
+import com.foodordering.event.OrderStatusChangedEvent;
+import com.foodordering.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Holds scheduled orders until the kitchen lead time before their requested time, then
+ * releases them to PENDING like any order placed for now.
+ *
+ * Waiting orders live in a TimerWheel keyed by order id, so hundreds of thousands of them
+ * cost one small entry each and a poll only looks at the ids that came due. The database
+ * stays the source of truth: the wheel is refilled from SCHEDULED orders at startup, and
+ * releasing re-checks the status, so an order cancelled or moved on by hand is left alone.
+ */
+@Service
+public class ScheduledOrderService {
+
+    @Autowired
+    @Lazy
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // How long before the requested time an order goes to the kitchen
+    @Value("${scheduling.lead-minutes:45}")
+    private long leadMinutes;
+
+    @Value("${scheduling.max-days-ahead:30}")
+    private long maxDaysAhead;
+
+    @Value("${scheduling.tick-ms:1000}")
+    private long tickMillis;
+
+    // Wait before trying again to release an order whose release failed
+    @Value("${scheduling.retry-ms:30000}")
+    private long retryMillis;
+
+    private TimerWheel wheel;
+
+    private volatile Map<String, Object> lastPoll = Map.of();
+
+    @PostConstruct
+    synchronized void init() {
+        wheel = new TimerWheel(tickMillis, System.currentTimeMillis());
+    }
+
+    /**
+     * When an order wanted at the given time should be released to the kitchen, or null if it
+     * is already within the lead time and should start now. Throws if the time is out of range.
+     */
+    public LocalDateTime releaseTimeFor(LocalDateTime scheduledFor) {
+        LocalDateTime now = LocalDateTime.now();
+        if (!scheduledFor.isAfter(now)) {
+            throw new RuntimeException("Scheduled time must be in the future");
+        }
+        if (scheduledFor.isAfter(now.plusDays(maxDaysAhead))) {
+            throw new RuntimeException("Orders can be scheduled at most " + maxDaysAhead + " days ahead");
+        }
+        LocalDateTime releaseAt = scheduledFor.minusMinutes(leadMinutes);
+        return releaseAt.isAfter(now) ? releaseAt : null;
+    }
+
+    /**
+     * Refill the wheel from the database, so a restart loses no scheduled order. Orders whose
+     * release time passed while the application was down are released by the next poll.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = orderRepository.streamScheduledForByStatus(OrderStatus.SCHEDULED)) {
+                rows.forEach(row -> schedule((Long) row[0], (LocalDateTime) row[1]));
+            }
+        });
+    }
+
+    @TransactionalEventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        if (event.getScheduledFor() != null) {
+            schedule(event.getOrderId(), event.getScheduledFor());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        // Released, or cancelled or moved on by hand before its time
+        if (event.getPreviousStatus() == OrderStatus.SCHEDULED) {
+            synchronized (this) {
+                wheel.cancel(event.getOrderId());
+            }
+        }
+    }
+
+    /**
+     * Release every order that came due. Returns how many were released.
+     */
+    @Scheduled(fixedDelayString = "${scheduling.poll-ms:1000}")
+    public int releaseDue() {
+        return releaseDue(System.currentTimeMillis());
+    }
+
+    int releaseDue(long nowMillis) {
+        List<Long> due;
+        synchronized (this) {
+            due = wheel.advance(nowMillis);
+        }
+        int released = 0;
+        int failed = 0;
+        for (Long orderId : due) {
+            try {
+                if (orderService.releaseScheduledOrder(orderId)) {
+                    released++;
+                }
+            } catch (RuntimeException e) {
+                // Keep it in the wheel rather than strand it until the next restart
+                failed++;
+                synchronized (this) {
+                    wheel.schedule(orderId, nowMillis + retryMillis);
+                }
+            }
+        }
+
+        if (!due.isEmpty()) {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("ranAt", LocalDateTime.now());
+            stats.put("dueOrders", due.size());
+            stats.put("releasedOrders", released);
+            stats.put("failedOrders", failed);
+            lastPoll = stats;
+        }
+        return released;
+    }
+
+    boolean isWaiting(Long orderId) {
+        synchronized (this) {
+            return wheel.contains(orderId);
+        }
+    }
+
+    /**
+     * Waiting orders, per wheel level, and the last poll that released anything, for diagnostics
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        synchronized (this) {
+            result.put("waitingOrders", wheel.size());
+            result.put("entriesPerLevel", wheel.levelSizes());
+        }
+        result.put("leadMinutes", leadMinutes);
+        result.put("tickMillis", tickMillis);
+        result.put("lastRelease", lastPoll);
+        return result;
+    }
+
+    private void schedule(Long orderId, LocalDateTime scheduledFor) {
+        // No requested time: nothing to wait for
+        long releaseAtMillis = scheduledFor == null ? 0 : scheduledFor.minusMinutes(leadMinutes)
+                .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        synchronized (this) {
+            wheel.schedule(orderId, releaseAtMillis);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.foodordering.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Work waiting at one kitchen station, earliest promised time first.
+ *
+ * A pull takes the most urgent ticket and tops the batch up with queued tickets for
+ * the same menu item, in promise order, until maxBatch units are reached. Tickets are
+ * also indexed by menu item so batching never scans the whole queue.
+ */
+class StationQueue {
+
+    private static final Comparator<Ticket> BY_PROMISE = Comparator
+            .comparing(Ticket::promisedAt)
+            .thenComparingLong(Ticket::sequence);
+
+    private final String name;
+    private final int maxBatch;
+    private final NavigableSet<Ticket> queue = new TreeSet<>(BY_PROMISE);
+    private final Map<Long, NavigableSet<Ticket>> byMenuItem = new HashMap<>();
+    private int queuedUnits;
+
+    StationQueue(String name, int maxBatch) {
+        if (maxBatch <= 0) {
+            throw new IllegalArgumentException("maxBatch must be positive");
+        }
+        this.name = name;
+        this.maxBatch = maxBatch;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    synchronized void add(Ticket ticket) {
+        queue.add(ticket);
+        byMenuItem.computeIfAbsent(ticket.menuItemId(), id -> new TreeSet<>(BY_PROMISE)).add(ticket);
+        queuedUnits += ticket.quantity();
+    }
+
+    /**
+     * Next batch of tickets for one menu item, or an empty list if nothing is queued
+     */
+    synchronized List<Ticket> pollBatch() {
+        Ticket head = queue.pollFirst();
+        if (head == null) {
+            return List.of();
+        }
+        List<Ticket> batch = new ArrayList<>();
+        batch.add(head);
+        int units = head.quantity();
+
+        NavigableSet<Ticket> sameItem = byMenuItem.get(head.menuItemId());
+        sameItem.remove(head);
+        Iterator<Ticket> candidates = sameItem.iterator();
+        while (candidates.hasNext() && units < maxBatch) {
+            Ticket candidate = candidates.next();
+            if (units + candidate.quantity() <= maxBatch) {
+                candidates.remove();
+                queue.remove(candidate);
+                batch.add(candidate);
+                units += candidate.quantity();
+            }
+        }
+        if (sameItem.isEmpty()) {
+            byMenuItem.remove(head.menuItemId());
+        }
+        for (Ticket ticket : batch) {
+            queuedUnits -= ticket.quantity();
+        }
+        return batch;
+    }
+
+    /**
+     * Drop the queued tickets of a cancelled order and return how many there were
+     */
+    synchronized int removeOrder(Long orderId) {
+        List<Ticket> removed = new ArrayList<>();
+        queue.removeIf(ticket -> {
+            if (ticket.orderId().equals(orderId)) {
+                removed.add(ticket);
+                return true;
+            }
+            return false;
+        });
+        for (Ticket ticket : removed) {
+            NavigableSet<Ticket> sameItem = byMenuItem.get(ticket.menuItemId());
+            sameItem.remove(ticket);
+            if (sameItem.isEmpty()) {
+                byMenuItem.remove(ticket.menuItemId());
+            }
+            queuedUnits -= ticket.quantity();
+        }
+        return removed.size();
+    }
+
+    synchronized int getQueuedUnits() {
+        return queuedUnits;
+    }
+
+    synchronized Map<String, Object> snapshot() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("station", name);
+        stats.put("maxBatch", maxBatch);
+        stats.put("queuedTickets", queue.size());
+        stats.put("queuedUnits", queuedUnits);
+        stats.put("nextPromisedAt", queue.isEmpty() ? null : queue.first().promisedAt());
+        return stats;
+    }
+
+    /**
+     * One order line waiting at a station. sequence breaks ties between equal promises in arrival order.
+     */
+    record Ticket(long sequence, Long orderId, Long menuItemId, String menuItemName, int quantity,
+                  LocalDateTime promisedAt) {
+    }
+}
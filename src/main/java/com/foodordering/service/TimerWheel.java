@@ -0,0 +1,181 @@
+package com.foodordering.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical timing wheel of ids due at a time, advanced by its owner rather than a thread.
+ *
+ * Four levels of 64 slots cover 64, 64^2, 64^3 and 64^4 ticks ahead; later deadlines wait in
+ * an overflow list. An id sits in the finest level whose span reaches its deadline and moves
+ * down a level each time the wheel turns into its slot, so scheduling and cancelling are O(1)
+ * and advancing costs one slot per tick plus each id's few cascades, however many are waiting.
+ * Deadlines are rounded up to the next tick: an id is never due early, and late by at most
+ * a tick plus however late advance is called.
+ *
+ * Not thread-safe; ScheduledOrderService only touches it while holding its own lock.
+ */
+final class TimerWheel {
+
+    static final int LEVELS = 4;
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final long tickMillis;
+    private final List<List<Entry>> slots = new ArrayList<>(LEVELS * SLOTS);
+    private final List<Entry> overflow = new ArrayList<>();
+    // Deadline already reached when scheduled or cascaded; handed out by the next advance
+    private final List<Entry> ready = new ArrayList<>();
+    // The live entry per id. Cancelled or rescheduled entries stay in their slot until it is
+    // reached and are skipped there, so cancelling never searches a slot
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private long currentTick;
+
+    TimerWheel(long tickMillis, long nowMillis) {
+        if (tickMillis < 1) {
+            throw new IllegalArgumentException("Tick must be at least 1 ms");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = nowMillis / tickMillis;
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            slots.add(null);
+        }
+    }
+
+    /**
+     * Schedule an id, replacing any earlier deadline for it
+     */
+    void schedule(long id, long deadlineMillis) {
+        long deadlineTick = deadlineMillis / tickMillis + (deadlineMillis % tickMillis == 0 ? 0 : 1);
+        Entry entry = new Entry(id, deadlineTick);
+        entries.put(id, entry);
+        place(entry);
+    }
+
+    boolean cancel(long id) {
+        return entries.remove(id) != null;
+    }
+
+    boolean contains(long id) {
+        return entries.containsKey(id);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Turn the wheel to the given time and return the ids now due, removing them. Ids come
+     * out in deadline order to the tick; time never moves backwards.
+     */
+    List<Long> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<Long> due = new ArrayList<>();
+        expire(ready, due);
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            int index = (int) (currentTick & SLOT_MASK);
+            List<Entry> slot = slots.get(index);
+            if (slot != null) {
+                slots.set(index, null);
+                expire(slot, due);
+            }
+            expire(ready, due);
+        }
+        return due;
+    }
+
+    /**
+     * Waiting ids per level, overflow last, counting cancelled entries not yet reached
+     */
+    int[] levelSizes() {
+        int[] sizes = new int[LEVELS + 1];
+        for (int i = 0; i < slots.size(); i++) {
+            if (slots.get(i) != null) {
+                sizes[i / SLOTS] += slots.get(i).size();
+            }
+        }
+        sizes[LEVELS] = overflow.size();
+        return sizes;
+    }
+
+    private void place(Entry entry) {
+        long ticksAhead = entry.deadlineTick - currentTick;
+        if (ticksAhead <= 0) {
+            ready.add(entry);
+            return;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = SLOT_BITS * (level + 1);
+            if (ticksAhead < 1L << shift) {
+                int index = level * SLOTS + (int) ((entry.deadlineTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+                List<Entry> slot = slots.get(index);
+                if (slot == null) {
+                    slot = new ArrayList<>(4);
+                    slots.set(index, slot);
+                }
+                slot.add(entry);
+                return;
+            }
+        }
+        overflow.add(entry);
+    }
+
+    /**
+     * On entering a slot of a coarser level, spread its entries over the finer levels.
+     * Coarsest first, so entries cascaded into a slot that is also being entered move on too.
+     */
+    private void cascade() {
+        if ((currentTick & ((1L << (SLOT_BITS * LEVELS)) - 1)) == 0 && !overflow.isEmpty()) {
+            List<Entry> waiting = new ArrayList<>(overflow);
+            overflow.clear();
+            replace(waiting);
+        }
+        for (int level = LEVELS - 1; level >= 1; level--) {
+            int shift = SLOT_BITS * level;
+            if ((currentTick & ((1L << shift) - 1)) != 0) {
+                continue;
+            }
+            int index = level * SLOTS + (int) ((currentTick >>> shift) & SLOT_MASK);
+            List<Entry> slot = slots.get(index);
+            if (slot != null) {
+                slots.set(index, null);
+                replace(slot);
+            }
+        }
+    }
+
+    private void replace(List<Entry> moving) {
+        for (Entry entry : moving) {
+            if (entries.get(entry.id) == entry) {
+                place(entry);
+            }
+        }
+    }
+
+    private void expire(List<Entry> slot, List<Long> due) {
+        for (Entry entry : slot) {
+            if (entries.get(entry.id) == entry) {
+                entries.remove(entry.id);
+                due.add(entry.id);
+            }
+        }
+        slot.clear();
+    }
+
+    private static final class Entry {
+
+        private final long id;
+        private final long deadlineTick;
+
+        Entry(long id, long deadlineTick) {
+            this.id = id;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
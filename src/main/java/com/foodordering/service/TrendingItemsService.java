@@ -0,0 +1,142 @@
+package com.foodordering.service;
+
+import com.foodordering.dto.MenuItemResponse;
+import com.foodordering.entity.MenuItem;
+import com.foodordering.event.MenuCatalogChangedEvent;
+import com.foodordering.event.OrderEventLine;
+import com.foodordering.event.OrderPlacedEvent;
+import com.foodordering.repository.MenuItemRepository;
+import com.foodordering.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * "Popular right now" menu items, fed from committed orders into a bounded
+ * TrendingSketch and rebuilt from recent orders at startup.
+ */
+@Service
+public class TrendingItemsService {
+
+    public static final int MAX_LIMIT = 50;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${trending.sketch.capacity:200}")
+    private int capacity;
+
+    @Value("${trending.half-life-minutes:60}")
+    private long halfLifeMinutes;
+
+    @Value("${trending.rebuild-window-hours:24}")
+    private long rebuildWindowHours;
+
+    @Value("${trending.cache-ttl-seconds:30}")
+    private long cacheTtlSeconds;
+
+    private TrendingSketch sketch;
+
+    private volatile CachedTrending cached;
+
+    @PostConstruct
+    void init() {
+        sketch = new TrendingSketch(capacity, halfLifeMinutes * 60_000, System.currentTimeMillis());
+    }
+
+    @TransactionalEventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        long timestamp = toMillis(event.getCreatedAt());
+        for (OrderEventLine line : event.getLines()) {
+            sketch.add(line.getMenuItemId(), line.getQuantity(), timestamp);
+        }
+    }
+
+    /**
+     * Replay the last rebuildWindowHours of orders so a restart does not reset the ranking.
+     * Rows are streamed, so memory stays bounded by the sketch capacity.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildFromRecentOrders() {
+        LocalDateTime since = LocalDateTime.now().minusHours(rebuildWindowHours);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = orderRepository.streamItemSalesSince(since)) {
+                rows.forEach(row -> sketch.add((Long) row[0], ((Integer) row[1]).longValue(),
+                        toMillis((LocalDateTime) row[2])));
+            }
+        });
+        invalidateCache();
+    }
+
+    /**
+     * Get the currently trending, available menu items, most popular first
+     */
+    public List<MenuItemResponse> getTrendingItems(int limit) {
+        CachedTrending current = cached;
+        long now = System.currentTimeMillis();
+        if (current == null || now - current.computedAtMillis() > cacheTtlSeconds * 1000) {
+            current = new CachedTrending(computeTrending(now), now);
+            cached = current;
+        }
+        List<MenuItemResponse> items = current.items();
+        return items.subList(0, Math.min(Math.max(limit, 0), items.size()));
+    }
+
+    public long getCacheTtlSeconds() {
+        return cacheTtlSeconds;
+    }
+
+    @EventListener(MenuCatalogChangedEvent.class)
+    public void invalidateCache() {
+        cached = null;
+    }
+
+    private List<MenuItemResponse> computeTrending(long nowMillis) {
+        // Over-fetch so unavailable or deleted items can be skipped
+        List<TrendingSketch.Entry> top = sketch.top(MAX_LIMIT * 2, nowMillis);
+        List<Long> ids = top.stream().map(TrendingSketch.Entry::itemId).collect(Collectors.toList());
+        Map<Long, MenuItem> itemsById = menuItemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(MenuItem::getId, Function.identity()));
+
+        List<MenuItemResponse> result = new ArrayList<>();
+        for (Long id : ids) {
+            MenuItem item = itemsById.get(id);
+            if (item != null && Boolean.TRUE.equals(item.getAvailable())) {
+                result.add(new MenuItemResponse(item));
+                if (result.size() == MAX_LIMIT) {
+                    break;
+                }
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private record CachedTrending(List<MenuItemResponse> items, long computedAtMillis) {}
+}
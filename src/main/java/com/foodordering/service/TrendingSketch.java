@@ -0,0 +1,105 @@
+package com.foodordering.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy-hitters sketch with exponential time decay.
+ *
+ * At most {@code capacity} counters are kept, so memory is bounded regardless of
+ * how many distinct items or orders are seen. Decay uses forward decay: each
+ * observation is weighted by exp(lambda * (t - landmark)) and scores are divided
+ * by exp(lambda * (now - landmark)) on read, so counters never need rescaling on
+ * insert. The landmark is moved forward before the exponent can overflow.
+ */
+class TrendingSketch {
+
+    private static final double MAX_EXPONENT = 30.0;
+
+    private final int capacity;
+    private final double lambdaPerMilli;
+    private final Map<Long, Counter> counters;
+    private long landmarkMillis;
+
+    TrendingSketch(int capacity, long halfLifeMillis, long landmarkMillis) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.lambdaPerMilli = Math.log(2) / Math.max(1, halfLifeMillis);
+        this.counters = new HashMap<>(capacity * 2);
+        this.landmarkMillis = landmarkMillis;
+    }
+
+    synchronized void add(long itemId, long weight, long timestampMillis) {
+        double exponent = lambdaPerMilli * (timestampMillis - landmarkMillis);
+        if (exponent > MAX_EXPONENT) {
+            rescale(timestampMillis);
+            exponent = 0;
+        }
+        double decayedWeight = weight * Math.exp(exponent);
+
+        Counter counter = counters.get(itemId);
+        if (counter != null) {
+            counter.score += decayedWeight;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(itemId, new Counter(decayedWeight, 0));
+            return;
+        }
+
+        // Replace the smallest counter; its score becomes the newcomer's error bound
+        Long minId = null;
+        Counter min = null;
+        for (Map.Entry<Long, Counter> entry : counters.entrySet()) {
+            if (min == null || entry.getValue().score < min.score) {
+                minId = entry.getKey();
+                min = entry.getValue();
+            }
+        }
+        counters.remove(minId);
+        counters.put(itemId, new Counter(min.score + decayedWeight, min.score));
+    }
+
+    /**
+     * Top items by decayed score as of nowMillis, highest first.
+     */
+    synchronized List<Entry> top(int limit, long nowMillis) {
+        double scale = Math.exp(-lambdaPerMilli * (nowMillis - landmarkMillis));
+        List<Entry> entries = new ArrayList<>(counters.size());
+        for (Map.Entry<Long, Counter> entry : counters.entrySet()) {
+            Counter counter = entry.getValue();
+            entries.add(new Entry(entry.getKey(), counter.score * scale, counter.error * scale));
+        }
+        entries.sort((a, b) -> Double.compare(b.score(), a.score()));
+        return entries.size() > limit ? new ArrayList<>(entries.subList(0, limit)) : entries;
+    }
+
+    synchronized int size() {
+        return counters.size();
+    }
+
+    private void rescale(long newLandmarkMillis) {
+        double factor = Math.exp(-lambdaPerMilli * (newLandmarkMillis - landmarkMillis));
+        for (Counter counter : counters.values()) {
+            counter.score *= factor;
+            counter.error *= factor;
+        }
+        landmarkMillis = newLandmarkMillis;
+    }
+
+    record Entry(long itemId, double score, double error) {}
+
+    private static final class Counter {
+        private double score;
+        private double error;
+
+        private Counter(double score, double error) {
+            this.score = score;
+            this.error = error;
+        }
+    }
+}
@@ -3,9 +3,13 @@ package com.foodordering.service;
 import com.foodordering.entity.Role;
 import com.foodordering.entity.User;
 import com.foodordering.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.Optional;
 
 @Service
@@ -17,8 +21,12 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Transactional
     public User registerUser(String email, String password, Role role) {
-        if (userRepository.existsByEmail(email)) {
+        if (loadByEmail(email).isPresent()) {
             throw new RuntimeException("Email already exists");
         }
         
@@ -27,16 +35,18 @@ public class UserService {
         return userRepository.save(user);
     }
     
+    @Transactional(readOnly = true)
     public Optional<User> findByEmail(String email) {
-        return userRepository.findByEmail(email);
+        return loadByEmail(email);
     }
     
     public boolean validatePassword(String rawPassword, String encodedPassword) {
         return passwordEncoder.matches(rawPassword, encodedPassword);
     }
     
+    @Transactional(readOnly = true)
     public User authenticateUser(String email, String password) {
-        Optional<User> userOpt = findByEmail(email);
+        Optional<User> userOpt = loadByEmail(email);
         if (userOpt.isPresent()) {
             User user = userOpt.get();
             if (validatePassword(password, user.getPassword())) {
@@ -45,4 +55,13 @@ public class UserService {
         }
         throw new RuntimeException("Invalid credentials");
     }
+    
+    /**
+     * Look up by the email natural id, served from the second-level cache when possible
+     */
+    private Optional<User> loadByEmail(String email) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(email);
+    }
 }
\ No newline at end of file
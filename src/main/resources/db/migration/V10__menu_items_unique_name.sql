@@ -0,0 +1,5 @@
+-- Bulk imports and admin edits match menu items by name, so a name may appear only once.
+-- A catalog that already repeats a name must have those items merged before this runs.
+DROP INDEX idx_menu_items_name;
+
+ALTER TABLE menu_items ADD CONSTRAINT uk_menu_items_name UNIQUE (name);
@@ -0,0 +1,67 @@
+-- Baseline schema matching the JPA entities. Used by the prod profile, where
+-- Hibernate only validates the schema (spring.jpa.hibernate.ddl-auto=validate).
+
+CREATE TABLE users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    email VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    role VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT ck_users_role CHECK (role IN ('CUSTOMER', 'ADMIN'))
+);
+
+CREATE TABLE menu_items (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(255) NOT NULL,
+    price NUMERIC(10, 2) NOT NULL,
+    category VARCHAR(255) NOT NULL,
+    available BOOLEAN NOT NULL,
+    image_url VARCHAR(255),
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    CONSTRAINT pk_menu_items PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_menu_items_name ON menu_items (name);
+
+CREATE TABLE orders (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id BIGINT NOT NULL,
+    total NUMERIC(10, 2) NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    CONSTRAINT pk_orders PRIMARY KEY (id),
+    CONSTRAINT fk_orders_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT ck_orders_status CHECK (status IN ('PENDING', 'CONFIRMED', 'PREPARING', 'OUT_FOR_DELIVERY', 'DELIVERED', 'CANCELLED'))
+);
+
+CREATE TABLE order_items (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    order_id BIGINT NOT NULL,
+    menu_item_id BIGINT NOT NULL,
+    quantity INTEGER NOT NULL,
+    unit_price NUMERIC(10, 2) NOT NULL,
+    CONSTRAINT pk_order_items PRIMARY KEY (id),
+    CONSTRAINT fk_order_items_order FOREIGN KEY (order_id) REFERENCES orders (id),
+    CONSTRAINT fk_order_items_menu_item FOREIGN KEY (menu_item_id) REFERENCES menu_items (id)
+);
+
+CREATE TABLE sales_rollups (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    dimension VARCHAR(255) NOT NULL,
+    dimension_key VARCHAR(255) NOT NULL,
+    label VARCHAR(255),
+    bucket_start TIMESTAMP(6) NOT NULL,
+    revenue NUMERIC(14, 2) NOT NULL,
+    quantity BIGINT NOT NULL,
+    order_count BIGINT NOT NULL,
+    CONSTRAINT pk_sales_rollups PRIMARY KEY (id),
+    CONSTRAINT uk_sales_rollups_bucket UNIQUE (dimension, dimension_key, bucket_start),
+    CONSTRAINT ck_sales_rollups_dimension CHECK (dimension IN ('STORE', 'CATEGORY', 'MENU_ITEM'))
+);
+
+CREATE INDEX idx_sales_rollups_dimension_bucket ON sales_rollups (dimension, bucket_start);
@@ -0,0 +1,4 @@
+-- Incremental order polling (?updatedSince=) and Last-Modified lookups on orders
+CREATE INDEX idx_orders_updated_at ON orders (updated_at);
+
+CREATE INDEX idx_orders_user_updated_at ON orders (user_id, updated_at);
@@ -0,0 +1,34 @@
+-- Delivery dispatch: drop-off points on orders, drivers and driver assignments
+ALTER TABLE orders ADD COLUMN delivery_latitude DOUBLE PRECISION;
+
+ALTER TABLE orders ADD COLUMN delivery_longitude DOUBLE PRECISION;
+
+CREATE TABLE drivers (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(255) NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    latitude DOUBLE PRECISION,
+    longitude DOUBLE PRECISION,
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    CONSTRAINT pk_drivers PRIMARY KEY (id),
+    CONSTRAINT ck_drivers_status CHECK (status IN ('OFFLINE', 'AVAILABLE', 'ON_DELIVERY'))
+);
+
+CREATE TABLE delivery_assignments (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    order_id BIGINT NOT NULL,
+    driver_id BIGINT NOT NULL,
+    stop_number INTEGER NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    pickup_distance_km DOUBLE PRECISION NOT NULL,
+    assigned_at TIMESTAMP(6) NOT NULL,
+    completed_at TIMESTAMP(6),
+    CONSTRAINT pk_delivery_assignments PRIMARY KEY (id),
+    CONSTRAINT uk_delivery_assignments_order UNIQUE (order_id),
+    CONSTRAINT fk_delivery_assignments_order FOREIGN KEY (order_id) REFERENCES orders (id),
+    CONSTRAINT fk_delivery_assignments_driver FOREIGN KEY (driver_id) REFERENCES drivers (id),
+    CONSTRAINT ck_delivery_assignments_status CHECK (status IN ('ASSIGNED', 'DELIVERED', 'CANCELLED'))
+);
+
+CREATE INDEX idx_delivery_assignments_driver_status ON delivery_assignments (driver_id, status);
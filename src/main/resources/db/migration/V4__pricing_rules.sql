@@ -0,0 +1,22 @@
+-- Pricing rules and the discount they gave each order (orders.total is after discount)
+ALTER TABLE orders ADD COLUMN discount NUMERIC(10, 2) DEFAULT 0 NOT NULL;
+
+CREATE TABLE pricing_rules (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(255) NOT NULL,
+    type VARCHAR(255) NOT NULL,
+    menu_item_id BIGINT,
+    category VARCHAR(255),
+    combo_categories VARCHAR(255),
+    discount_value NUMERIC(10, 2),
+    buy_quantity INTEGER,
+    free_quantity INTEGER,
+    starts_at TIMESTAMP(6),
+    ends_at TIMESTAMP(6),
+    daily_start TIME,
+    daily_end TIME,
+    active BOOLEAN NOT NULL,
+    created_at TIMESTAMP(6),
+    CONSTRAINT pk_pricing_rules PRIMARY KEY (id),
+    CONSTRAINT ck_pricing_rules_type CHECK (type IN ('PERCENT_OFF', 'AMOUNT_OFF', 'BUY_X_GET_Y', 'COMBO'))
+);
@@ -0,0 +1,9 @@
+-- Scheduled orders: the requested time, the SCHEDULED status and the index the release queue recovers from
+ALTER TABLE orders ADD COLUMN scheduled_for TIMESTAMP(6);
+
+ALTER TABLE orders DROP CONSTRAINT ck_orders_status;
+
+ALTER TABLE orders ADD CONSTRAINT ck_orders_status
+    CHECK (status IN ('SCHEDULED', 'PENDING', 'CONFIRMED', 'PREPARING', 'OUT_FOR_DELIVERY', 'DELIVERED', 'CANCELLED'));
+
+CREATE INDEX idx_orders_status_scheduled_for ON orders (status, scheduled_for);
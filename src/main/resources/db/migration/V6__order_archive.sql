@@ -0,0 +1,14 @@
+-- Cold tier for finished orders: listing columns plus the deflated order, keyed by the original order id
+CREATE TABLE order_archive (
+    id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    total NUMERIC(10, 2) NOT NULL,
+    created_at TIMESTAMP(6),
+    archived_at TIMESTAMP(6) NOT NULL,
+    payload VARBINARY(1000000) NOT NULL,
+    CONSTRAINT pk_order_archive PRIMARY KEY (id),
+    CONSTRAINT ck_order_archive_status CHECK (status IN ('DELIVERED', 'CANCELLED'))
+);
+
+CREATE INDEX idx_order_archive_user_created_at ON order_archive (user_id, created_at);
@@ -0,0 +1,10 @@
+-- Transactional outbox: order events written with the order change, deleted once relayed
+CREATE TABLE outbox_events (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    event_type VARCHAR(255) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    payload VARCHAR(1000000) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_outbox_events PRIMARY KEY (id),
+    CONSTRAINT ck_outbox_events_event_type CHECK (event_type IN ('ORDER_PLACED', 'ORDER_STATUS_CHANGED'))
+);
@@ -0,0 +1,2 @@
+-- Keyset paging of the admin order list, newest first
+CREATE INDEX idx_orders_created_at_id ON orders (created_at, id);
@@ -0,0 +1,2 @@
+-- Latest archiving per user, part of the order list's Last-Modified
+CREATE INDEX idx_order_archive_user_archived_at ON order_archive (user_id, archived_at);
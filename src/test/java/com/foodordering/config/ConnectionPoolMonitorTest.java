@@ -0,0 +1,110 @@
+package com.foodordering.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodordering.controller.OrderController;
+import com.foodordering.repository.MenuItemRepository;
+import com.foodordering.service.OrderService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class ConnectionPoolMonitorTest {
+    
+    @Autowired
+    private ConnectionPoolMonitor connectionPoolMonitor;
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+    
+    @Test
+    public void testPoolIsTunedAndReportsMetrics() throws Exception {
+        HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+        assertEquals(ConnectionPoolMonitor.derivePoolSize(20), hikari.getMaximumPoolSize());
+        assertEquals(10_000, hikari.getLeakDetectionThreshold());
+        assertEquals(2_000, hikari.getConnectionTimeout());
+        
+        menuItemRepository.count();
+        
+        List<Map<String, Object>> snapshot = connectionPoolMonitor.snapshot();
+        Map<String, Object> pool = snapshot.stream()
+                .filter(stats -> "FoodOrderingPool".equals(stats.get("pool")))
+                .findFirst()
+                .orElseThrow();
+        assertTrue((Long) pool.get("acquireCount") > 0);
+        assertEquals(0, pool.get("pending"));
+    }
+    
+    @Test
+    public void testRequestsAreShedWhileConnectionQueueIsFull() throws Exception {
+        ConnectionPoolMonitor saturated = mock(ConnectionPoolMonitor.class);
+        when(saturated.getPendingThreads()).thenReturn(40);
+        
+        ConnectionPoolLoadSheddingFilter filter = new ConnectionPoolLoadSheddingFilter();
+        ReflectionTestUtils.setField(filter, "connectionPoolMonitor", saturated);
+        ReflectionTestUtils.setField(filter, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(filter, "maxPending", 32);
+        ReflectionTestUtils.setField(filter, "retryAfterSeconds", 2);
+        
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/orders");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        
+        assertEquals(503, response.getStatus());
+        assertEquals("2", response.getHeader("Retry-After"));
+        assertNull(chain.getRequest(), "Request must not reach the application");
+        
+        when(saturated.getPendingThreads()).thenReturn(0);
+        MockFilterChain passingChain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/orders"), new MockHttpServletResponse(), passingChain);
+        assertNotNull(passingChain.getRequest());
+    }
+    
+    @Test
+    public void testOrderPlacementWithoutConnectionGetsConfiguredRetryAfter() throws Exception {
+        OrderService orderService = mock(OrderService.class);
+        when(orderService.createOrder(any(), any()))
+                .thenThrow(new CannotCreateTransactionException("Connection is not available"));
+        OrderController controller = new OrderController();
+        ReflectionTestUtils.setField(controller, "orderService", orderService);
+        ApiExceptionHandler handler = new ApiExceptionHandler();
+        ReflectionTestUtils.setField(handler, "retryAfterSeconds", 3);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(controller).setControllerAdvice(handler).build();
+        
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("userId", 1L);
+        MockHttpServletResponse response = mockMvc.perform(post("/api/orders").session(session)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"items\":[{\"menuItemId\":1,\"quantity\":1}]}"))
+                .andReturn().getResponse();
+        
+        assertEquals(503, response.getStatus());
+        assertEquals("3", response.getHeader("Retry-After"));
+        assertTrue(response.getContentAsString().contains("SERVICE_OVERLOADED"));
+    }
+}
@@ -0,0 +1,122 @@
+package com.foodordering.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.foodordering.dto.OrderResponse;
+import com.foodordering.entity.OrderStatus;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bytes on the wire and CPU per response for the admin order list.
+ */
+public class JsonResponseBenchmarkTest {
+
+    private final ObjectMapper defaultMapper = mapper();
+    private final ObjectMapper blackbirdMapper = mapper().registerModule(new JacksonConfig().blackbirdModule());
+
+    @Test
+    public void testBlackbirdProducesIdenticalJson() throws Exception {
+        List<OrderResponse> orders = sampleOrders(50);
+        assertEquals(defaultMapper.writeValueAsString(orders), blackbirdMapper.writeValueAsString(orders));
+        assertArrayEquals(defaultMapper.writeValueAsBytes(orders), stream(blackbirdMapper, orders, new ByteArrayOutputStream()).toByteArray());
+    }
+
+    /**
+     * Run with: mvn test -Pbenchmark -Dtest=JsonResponseBenchmarkTest
+     */
+    @Test
+    @Tag("benchmark")
+    public void benchmarkOrderListResponse() throws Exception {
+        List<OrderResponse> orders = sampleOrders(5_000);
+
+        long rawBytes = defaultMapper.writeValueAsBytes(orders).length;
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            stream(blackbirdMapper, orders, gzip);
+        }
+
+        long defaultCpu = cpuNanosPerResponse(() -> defaultMapper.writeValue(OutputStream.nullOutputStream(), orders));
+        long blackbirdCpu = cpuNanosPerResponse(() -> stream(blackbirdMapper, orders, OutputStream.nullOutputStream()));
+        long gzipCpu = cpuNanosPerResponse(() -> {
+            try (GZIPOutputStream gzip = new GZIPOutputStream(OutputStream.nullOutputStream())) {
+                stream(blackbirdMapper, orders, gzip);
+            }
+        });
+
+        System.out.printf("%d orders: %d KB raw, %d KB gzip%n", orders.size(), rawBytes >> 10, compressed.size() >> 10);
+        System.out.printf("CPU per response: default %.2f ms, blackbird streaming %.2f ms, blackbird + gzip %.2f ms%n",
+                defaultCpu / 1e6, blackbirdCpu / 1e6, gzipCpu / 1e6);
+        assertTrue(compressed.size() * 4 < rawBytes);
+    }
+
+    private static <T extends OutputStream> T stream(ObjectMapper mapper, List<OrderResponse> orders, T out) throws IOException {
+        ObjectWriter writer = mapper.writerFor(OrderResponse.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = writer.createGenerator(out)) {
+            generator.writeStartArray();
+            for (OrderResponse order : orders) {
+                writer.writeValue(generator, order);
+            }
+            generator.writeEndArray();
+        }
+        return out;
+    }
+
+    private static long cpuNanosPerResponse(Work work) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < 50; i++) {
+            work.run();
+        }
+        int iterations = 100;
+        long start = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < iterations; i++) {
+            work.run();
+        }
+        return (threads.getCurrentThreadCpuTime() - start) / iterations;
+    }
+
+    private static ObjectMapper mapper() {
+        return new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private static List<OrderResponse> sampleOrders(int count) {
+        String[] names = {"Margherita Pizza", "Classic Burger", "Coca Cola", "Iced Tea", "Veggie Burger"};
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 12, 0);
+        List<OrderResponse> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            List<OrderResponse.OrderItemResponse> items = new ArrayList<>();
+            for (int line = 0; line < 3; line++) {
+                BigDecimal price = new BigDecimal("9.99").add(BigDecimal.valueOf(line));
+                items.add(new OrderResponse.OrderItemResponse((long) i * 3 + line, (long) line + 1,
+                        names[(i + line) % names.length], line + 1, price, price.multiply(BigDecimal.valueOf(line + 1))));
+            }
+            LocalDateTime createdAt = start.plusSeconds(i * 37L);
+            orders.add(new OrderResponse((long) i, (long) (i % 100), items, new BigDecimal("68.94"),
+                    OrderStatus.values()[i % OrderStatus.values().length], createdAt, createdAt.plusMinutes(5)));
+        }
+        return orders;
+    }
+
+    @FunctionalInterface
+    private interface Work {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,160 @@
+package com.foodordering.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PriorityAdmissionFilterTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(2);
+    private PriorityAdmissionFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        filter = new PriorityAdmissionFilter();
+        ReflectionTestUtils.setField(filter, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "criticalPaths", List.of("POST /api/orders", "POST /api/auth/login"));
+        ReflectionTestUtils.setField(filter, "lowPaths", List.of("GET /api/orders/admin/**", "/api/analytics/**"));
+        ReflectionTestUtils.setField(filter, "standardMaxConcurrent", 2);
+        ReflectionTestUtils.setField(filter, "standardQueueTimeoutMs", 2000L);
+        ReflectionTestUtils.setField(filter, "lowMaxConcurrent", 1);
+        ReflectionTestUtils.setField(filter, "retryAfterSeconds", 1);
+        // 10 threads - 2 STANDARD - 1 LOW - 2 reserved leaves 5 to queue in
+        ReflectionTestUtils.setField(filter, "maxThreads", 10);
+        ReflectionTestUtils.setField(filter, "criticalReservedThreads", 2);
+        filter.init();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testRequestsAreClassifiedByMethodAndPath() {
+        assertEquals(RequestClass.CRITICAL, filter.classify(new MockHttpServletRequest("POST", "/api/orders")));
+        assertEquals(RequestClass.STANDARD, filter.classify(new MockHttpServletRequest("GET", "/api/orders")));
+        assertEquals(RequestClass.LOW, filter.classify(new MockHttpServletRequest("GET", "/api/orders/admin/all")));
+        assertEquals(RequestClass.LOW, filter.classify(new MockHttpServletRequest("GET", "/api/analytics/sales/totals")));
+        assertEquals(RequestClass.STANDARD, filter.classify(new MockHttpServletRequest("GET", "/api/menu/items")));
+    }
+
+    @Test
+    public void testCheckoutIsAdmittedWhileBrowsingIsSaturated() throws Exception {
+        // Two browsing requests hold every STANDARD slot, a third queues behind them
+        Future<?> first = blockInBackground("GET", "/api/menu/items");
+        Future<?> second = blockInBackground("GET", "/api/menu/items");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<MockHttpServletResponse> queued = executor.submit(() -> send("GET", "/api/menu/items", new MockFilterChain()));
+        waitForQueued(RequestClass.STANDARD, 1);
+
+        assertEquals(200, send("POST", "/api/orders", new MockFilterChain()).getStatus());
+
+        // Low priority work is shed first while browsing is backed up
+        MockHttpServletResponse low = send("GET", "/api/orders/admin/all", new MockFilterChain());
+        assertEquals(503, low.getStatus());
+        assertEquals("1", low.getHeader("Retry-After"));
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertEquals(200, queued.get(5, TimeUnit.SECONDS).getStatus());
+        assertEquals(200, send("GET", "/api/orders/admin/all", new MockFilterChain()).getStatus());
+
+        Map<String, Object> standard = stats(RequestClass.STANDARD);
+        assertEquals(3L, standard.get("completed"));
+        assertTrue((Double) standard.get("avgQueueWaitMs") > 0);
+        assertEquals(1L, stats(RequestClass.LOW).get("rejected"));
+        assertEquals(1L, stats(RequestClass.CRITICAL).get("completed"));
+    }
+
+    @Test
+    public void testFullQueueIsRejectedAtOnceAndCheckoutStillAdmitted() throws Exception {
+        // 6 threads - 2 STANDARD - 1 LOW - 2 reserved leaves room for one queued request
+        filter = new PriorityAdmissionFilter();
+        ReflectionTestUtils.setField(filter, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "criticalPaths", List.of("POST /api/orders"));
+        ReflectionTestUtils.setField(filter, "lowPaths", List.of("/api/analytics/**"));
+        ReflectionTestUtils.setField(filter, "standardMaxConcurrent", 2);
+        ReflectionTestUtils.setField(filter, "standardQueueTimeoutMs", 2000L);
+        ReflectionTestUtils.setField(filter, "lowMaxConcurrent", 1);
+        ReflectionTestUtils.setField(filter, "retryAfterSeconds", 1);
+        ReflectionTestUtils.setField(filter, "maxThreads", 6);
+        ReflectionTestUtils.setField(filter, "criticalReservedThreads", 2);
+        filter.init();
+        assertEquals(1, stats(RequestClass.STANDARD).get("maxQueued"));
+
+        Future<?> first = blockInBackground("GET", "/api/menu/items");
+        Future<?> second = blockInBackground("GET", "/api/menu/items");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<MockHttpServletResponse> queued = executor.submit(() -> send("GET", "/api/menu/items", new MockFilterChain()));
+        waitForQueued(RequestClass.STANDARD, 1);
+
+        // The queue is full: rejected without waiting out the queue timeout
+        long start = System.nanoTime();
+        assertEquals(503, send("GET", "/api/menu/items", new MockFilterChain()).getStatus());
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(1000));
+        assertEquals(200, send("POST", "/api/orders", new MockFilterChain()).getStatus());
+        assertEquals(1, stats(RequestClass.STANDARD).get("queued"));
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertEquals(200, queued.get(5, TimeUnit.SECONDS).getStatus());
+        assertEquals(1L, stats(RequestClass.STANDARD).get("rejected"));
+    }
+
+    private Future<?> blockInBackground(String method, String uri) {
+        FilterChain blocking = (request, response) -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        return executor.submit(() -> send(method, uri, blocking));
+    }
+
+    private MockHttpServletResponse send(String method, String uri, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(method, uri), response, chain);
+        return response;
+    }
+
+    private void waitForQueued(RequestClass requestClass, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while ((Integer) stats(requestClass).get("queued") < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, stats(requestClass).get("queued"));
+    }
+
+    private Map<String, Object> stats(RequestClass requestClass) {
+        return filter.snapshot().stream()
+                .filter(stats -> requestClass.name().equals(stats.get("class")))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,158 @@
+package com.foodordering.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimitFilterTest {
+
+    private RateLimitProperties properties;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        properties = new RateLimitProperties();
+        properties.setRules(List.of(
+                new RateLimitProperties.Rule("POST", "/api/auth/login", 3, 0.5),
+                new RateLimitProperties.Rule(null, "/api/**", 100, 50)
+        ));
+        filter = new RateLimitFilter();
+        ReflectionTestUtils.setField(filter, "properties", properties);
+        ReflectionTestUtils.setField(filter, "objectMapper", new ObjectMapper());
+    }
+
+    @Test
+    public void testBucketAllowsBurstThenRefillsAtRate() {
+        long second = TimeUnit.SECONDS.toNanos(1);
+        TokenBucket bucket = new TokenBucket(3, 2, 0);
+
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(second / 2, bucket.tryAcquire(0));
+
+        // Two tokens per second: half a second later exactly one more is available
+        assertEquals(0, bucket.tryAcquire(second / 2));
+        assertTrue(bucket.tryAcquire(second / 2) > 0);
+
+        assertFalse(bucket.isIdle(second, second));
+        assertTrue(bucket.isIdle(3 * second, second));
+    }
+
+    @Test
+    public void testConcurrentRequestsNeverExceedCapacity() throws Exception {
+        TokenBucket bucket = new TokenBucket(1000, 0.001, 0);
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int thread = 0; thread < 8; thread++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < 500; i++) {
+                    if (bucket.tryAcquire(0) == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(1000, granted.get());
+    }
+
+    @Test
+    public void testLoginIsLimitedPerClientWithRetryAfter() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, login("10.0.0.1").getStatus());
+        }
+        MockHttpServletResponse limited = login("10.0.0.1");
+        assertEquals(429, limited.getStatus());
+        assertEquals("2", limited.getHeader("Retry-After"));
+        assertTrue(limited.getContentAsString().contains("RATE_LIMITED"));
+
+        // Another client and another route have their own buckets
+        assertEquals(200, login("10.0.0.2").getStatus());
+        assertEquals(200, send("GET", "/api/menu/items", "10.0.0.1", null).getStatus());
+    }
+
+    @Test
+    public void testLoggedInUsersAreKeyedBySessionUser() throws Exception {
+        properties.setRules(List.of(new RateLimitProperties.Rule("POST", "/api/orders", 1, 0.1)));
+
+        assertEquals(200, send("POST", "/api/orders", "10.0.0.1", 7L).getStatus());
+        // Same user from a different address shares the bucket, a different user does not
+        assertEquals(429, send("POST", "/api/orders", "10.0.0.2", 7L).getStatus());
+        assertEquals(200, send("POST", "/api/orders", "10.0.0.1", 8L).getStatus());
+        assertEquals(200, send("GET", "/api/orders", "10.0.0.1", 7L).getStatus());
+    }
+
+    @Test
+    public void testIdleBucketsAreEvicted() throws Exception {
+        properties.setRules(List.of(new RateLimitProperties.Rule(null, "/api/**", 1, 1000)));
+        properties.setIdleEvictionSeconds(0);
+        properties.setMaxBuckets(10);
+
+        for (int i = 0; i < 25; i++) {
+            send("GET", "/api/menu/items", "10.0.1." + i, null);
+        }
+        assertTrue(filter.getBucketCount() <= 11);
+
+        Thread.sleep(5);
+        filter.evictIdleBuckets();
+        assertEquals(0, filter.getBucketCount());
+    }
+
+    @Test
+    public void testNewClientsShareOverflowBucketUntilTheSweep() throws Exception {
+        // One token per 100 ms
+        properties.setRules(List.of(new RateLimitProperties.Rule(null, "/api/**", 1, 10)));
+        properties.setIdleEvictionSeconds(0);
+        properties.setMaxBuckets(2);
+
+        assertEquals(200, send("GET", "/api/menu/items", "10.0.2.1", null).getStatus());
+        assertEquals(200, send("GET", "/api/menu/items", "10.0.2.2", null).getStatus());
+        // Full, and not cleaned up on the request path even once both are evictable
+        Thread.sleep(200);
+        assertEquals(200, send("GET", "/api/menu/items", "10.0.2.3", null).getStatus());
+        assertEquals(429, send("GET", "/api/menu/items", "10.0.2.4", null).getStatus());
+        assertEquals(3, filter.getBucketCount());
+
+        Thread.sleep(200);
+        filter.evictIdleBuckets();
+        assertEquals(0, filter.getBucketCount());
+        assertEquals(200, send("GET", "/api/menu/items", "10.0.2.4", null).getStatus());
+    }
+
+    private MockHttpServletResponse login(String remoteAddr) throws Exception {
+        return send("POST", "/api/auth/login", remoteAddr, null);
+    }
+
+    private MockHttpServletResponse send(String method, String uri, String remoteAddr, Long userId) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(remoteAddr);
+        if (userId != null) {
+            request.getSession().setAttribute("userId", userId);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,134 @@
+package com.foodordering.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Routes against three embedded H2 databases that each know their own name.
+ */
+public class ReadWriteRoutingDataSourceTest {
+
+    private final DataSource primary = database("primary");
+    private final SwitchableDataSource replicaA = new SwitchableDataSource(database("replica-a"));
+    private final SwitchableDataSource replicaB = new SwitchableDataSource(database("replica-b"));
+
+    private ReadWriteRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    public void setUp() {
+        routing = new ReadWriteRoutingDataSource(primary, List.of(replicaA, replicaB), 200);
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void testReadOnlyTransactionsAlternateBetweenReplicas() {
+        Set<String> served = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            served.add(currentNode(readOnly));
+        }
+        assertEquals(Set.of("replica-a", "replica-b"), served);
+
+        assertEquals("primary", currentNode(readWrite));
+        assertEquals("primary", jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    @Test
+    public void testUnhealthyReplicaIsSkippedUntilItRecovers() {
+        replicaA.down = true;
+        routing.checkHealth();
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals("replica-b", currentNode(readOnly));
+        }
+
+        replicaB.down = true;
+        routing.checkHealth();
+        assertEquals("primary", currentNode(readOnly));
+
+        replicaA.down = false;
+        routing.checkHealth();
+        assertEquals("replica-a", currentNode(readOnly));
+    }
+
+    @Test
+    public void testUserReadsOwnWritesFromPrimaryWithinWindow() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.getSession().setAttribute("userId", 7L);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        routing.recordWrite(7L);
+        assertEquals("primary", currentNode(readOnly));
+
+        // Other users are unaffected
+        request.getSession().setAttribute("userId", 8L);
+        assertTrue(currentNode(readOnly).startsWith("replica"));
+
+        request.getSession().setAttribute("userId", 7L);
+        Thread.sleep(250);
+        assertTrue(currentNode(readOnly).startsWith("replica"));
+    }
+
+    private String currentNode(TransactionTemplate template) {
+        return template.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(32))");
+        jdbc.update("DELETE FROM node");
+        jdbc.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+
+    private static class SwitchableDataSource extends DelegatingDataSource {
+        private volatile boolean down;
+
+        SwitchableDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (down) {
+                throw new SQLException("Replica unavailable");
+            }
+            return super.getConnection();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.foodordering.config;
+
+import com.foodordering.repository.MenuItemRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Boots the application the way the prod profile does: schema created only by the
+ * Flyway migrations and checked by Hibernate with ddl-auto=validate. Fails when an
+ * entity changes without a matching migration.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:migration-test;DB_CLOSE_DELAY=-1",
+    "spring.flyway.enabled=true",
+    "spring.jpa.hibernate.ddl-auto=validate"
+})
+@ActiveProfiles("test")
+public class SchemaMigrationTest {
+    
+    @Autowired
+    private Flyway flyway;
+    
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+    
+    @Test
+    public void testMigrationsMatchEntities() {
+        assertTrue(flyway.info().applied().length > 0, "Migrations should have been applied");
+        assertEquals(0, flyway.info().pending().length, "No migration should be pending");
+        
+        // Seeding through the migrated schema exercises inserts on it as well
+        assertTrue(menuItemRepository.count() > 0);
+    }
+}
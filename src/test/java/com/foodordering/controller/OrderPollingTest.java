@@ -0,0 +1,238 @@
+package com.foodordering.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodordering.dto.CreateOrderRequest;
+import com.foodordering.dto.OrderResponse;
+import com.foodordering.entity.Role;
+import com.foodordering.repository.OrderRepository;
+import com.foodordering.repository.UserRepository;
+import com.foodordering.service.OrderService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+public class OrderPollingTest {
+
+    private static final TypeReference<List<OrderResponse>> ORDER_LIST = new TypeReference<>() {};
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Long> createdOrderIds = new ArrayList<>();
+
+    private Long customerId;
+
+    private MockHttpSession customer;
+
+    @BeforeEach
+    void setUp() {
+        customerId = userRepository.findByEmail("customer@example.com").orElseThrow().getId();
+        customer = new MockHttpSession();
+        customer.setAttribute("userId", customerId);
+        customer.setAttribute("userRole", Role.CUSTOMER);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        orderRepository.deleteAllById(createdOrderIds);
+        createdOrderIds.clear();
+    }
+
+    @Test
+    public void testUnchangedOrderListIsNotModified() throws Exception {
+        Long orderId = placeOrder();
+
+        MockHttpServletResponse first = mockMvc.perform(get("/api/orders").session(customer)).andReturn().getResponse();
+        assertEquals(200, first.getStatus());
+        String etag = first.getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        // The open order has an ETA, which a date cannot validate
+        assertNull(first.getHeader(HttpHeaders.LAST_MODIFIED));
+
+        MockHttpServletResponse byEtag = mockMvc.perform(get("/api/orders").session(customer)
+                .header(HttpHeaders.IF_NONE_MATCH, etag)).andReturn().getResponse();
+        assertEquals(304, byEtag.getStatus());
+        assertEquals(0, byEtag.getContentLength());
+
+        // A status change moves updatedAt, so the same validator no longer matches
+        Thread.sleep(5);
+        orderService.updateOrderStatus(orderId, "CONFIRMED");
+        MockHttpServletResponse changed = mockMvc.perform(get("/api/orders").session(customer)
+                .header(HttpHeaders.IF_NONE_MATCH, etag)).andReturn().getResponse();
+        assertEquals(200, changed.getStatus());
+        assertNotEquals(etag, changed.getHeader(HttpHeaders.ETAG));
+
+        // Without open orders the date validates the list as well
+        orderService.updateOrderStatus(orderId, "CANCELLED");
+        MockHttpServletResponse closed = mockMvc.perform(get("/api/orders").session(customer)).andReturn().getResponse();
+        String lastModified = closed.getHeader(HttpHeaders.LAST_MODIFIED);
+        assertNotNull(lastModified);
+        MockHttpServletResponse byDate = mockMvc.perform(get("/api/orders").session(customer)
+                .header(HttpHeaders.IF_MODIFIED_SINCE, lastModified)).andReturn().getResponse();
+        assertEquals(304, byDate.getStatus());
+    }
+
+    @Test
+    public void testChangedEtaIsNotAnsweredWithNotModified() throws Exception {
+        Long orderId = placeOrder();
+        // Move the promised time without touching updatedAt, as the clock and kitchen load do
+        jdbcTemplate.update("UPDATE orders SET status = 'SCHEDULED', scheduled_for = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now().plusHours(2)), orderId);
+
+        MockHttpServletResponse first = mockMvc.perform(get("/api/orders/" + orderId).session(customer))
+                .andReturn().getResponse();
+        String etag = first.getHeader(HttpHeaders.ETAG);
+        MockHttpServletResponse firstList = mockMvc.perform(get("/api/orders").session(customer))
+                .andReturn().getResponse();
+        String listEtag = firstList.getHeader(HttpHeaders.ETAG);
+
+        jdbcTemplate.update("UPDATE orders SET scheduled_for = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now().plusHours(3)), orderId);
+        MockHttpServletResponse moved = mockMvc.perform(get("/api/orders/" + orderId).session(customer)
+                .header(HttpHeaders.IF_NONE_MATCH, etag)).andReturn().getResponse();
+        assertEquals(200, moved.getStatus());
+        assertNotEquals(etag, moved.getHeader(HttpHeaders.ETAG));
+        MockHttpServletResponse movedList = mockMvc.perform(get("/api/orders").session(customer)
+                .header(HttpHeaders.IF_NONE_MATCH, listEtag)).andReturn().getResponse();
+        assertEquals(200, movedList.getStatus());
+    }
+
+    @Test
+    public void testUnchangedOrderIsNotModified() throws Exception {
+        Long orderId = placeOrder();
+
+        MockHttpServletResponse first = mockMvc.perform(get("/api/orders/" + orderId).session(customer))
+                .andReturn().getResponse();
+        assertEquals(200, first.getStatus());
+        String etag = first.getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletResponse unchanged = mockMvc.perform(get("/api/orders/" + orderId).session(customer)
+                .header(HttpHeaders.IF_NONE_MATCH, etag)).andReturn().getResponse();
+        assertEquals(304, unchanged.getStatus());
+
+        // Another customer's validator check must not reveal anything about the order
+        MockHttpSession stranger = new MockHttpSession();
+        stranger.setAttribute("userId", -1L);
+        MockHttpServletResponse denied = mockMvc.perform(get("/api/orders/" + orderId).session(stranger)
+                .header(HttpHeaders.IF_NONE_MATCH, etag)).andReturn().getResponse();
+        assertEquals(400, denied.getStatus());
+    }
+
+    @Test
+    public void testUpdatedSinceReturnsOnlyRecentChanges() throws Exception {
+        Long staleOrderId = placeOrder();
+        Long freshOrderId = placeOrder();
+        jdbcTemplate.update("UPDATE orders SET updated_at = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusHours(1)), staleOrderId);
+        String since = LocalDateTime.now().minusMinutes(1).toString();
+
+        List<Long> customerIds = orderIds(mockMvc.perform(get("/api/orders").session(customer)
+                .param("updatedSince", since)).andReturn().getResponse());
+        assertTrue(customerIds.contains(freshOrderId));
+        assertFalse(customerIds.contains(staleOrderId));
+
+        MockHttpSession admin = new MockHttpSession();
+        admin.setAttribute("userId", 1L);
+        admin.setAttribute("userRole", Role.ADMIN);
+        List<Long> adminIds = orderIds(mockMvc.perform(get("/api/orders/admin/all").session(admin)
+                .param("updatedSince", since)).andReturn().getResponse());
+        assertTrue(adminIds.contains(freshOrderId));
+        assertFalse(adminIds.contains(staleOrderId));
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void benchmarkUnchangedOrderListPoll() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            OrderResponse order = orderService.createOrder(new CreateOrderRequest(List.of(
+                    new CreateOrderRequest.OrderItemRequest(1L, 1),
+                    new CreateOrderRequest.OrderItemRequest(2L, 2),
+                    new CreateOrderRequest.OrderItemRequest(3L, 1))), customerId);
+            createdOrderIds.add(order.getId());
+        }
+        String etag = mockMvc.perform(get("/api/orders").session(customer)).andReturn().getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        for (int warmup = 0; warmup < 2_000; warmup++) {
+            mockMvc.perform(get("/api/orders").session(customer).header(HttpHeaders.IF_NONE_MATCH, etag));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        int iterations = 5_000;
+        int notModified = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            MockHttpServletResponse poll = mockMvc.perform(get("/api/orders").session(customer)
+                    .header(HttpHeaders.IF_NONE_MATCH, etag)).andReturn().getResponse();
+            if (poll.getStatus() == 304) {
+                notModified++;
+            }
+        }
+        long nanos = System.nanoTime() - start;
+
+        System.out.printf("Unchanged poll with %d open orders: %.1f us, %.1f statements, %.1f entities loaded%n",
+                createdOrderIds.size(), nanos / 1e3 / iterations,
+                (double) statistics.getPrepareStatementCount() / iterations,
+                (double) statistics.getEntityLoadCount() / iterations);
+        // A minute boundary may fall inside the loop and answer a few polls in full
+        assertTrue(notModified > iterations * 9 / 10);
+    }
+
+    private Long placeOrder() {
+        OrderResponse order = orderService.createOrder(new CreateOrderRequest(List.of(
+                new CreateOrderRequest.OrderItemRequest(1L, 1))), customerId);
+        createdOrderIds.add(order.getId());
+        return order.getId();
+    }
+
+    private List<Long> orderIds(MockHttpServletResponse response) throws Exception {
+        assertEquals(200, response.getStatus());
+        return objectMapper.readValue(response.getContentAsByteArray(), ORDER_LIST).stream()
+                .map(OrderResponse::getId)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,179 @@
+package com.foodordering.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodordering.dto.CreateOrderRequest;
+import com.foodordering.dto.MenuItemResponse;
+import com.foodordering.dto.OrderResponse;
+import com.foodordering.entity.OrderStatus;
+import com.foodordering.entity.Role;
+import com.foodordering.repository.OrderRepository;
+import com.foodordering.repository.UserRepository;
+import com.foodordering.service.OrderService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+public class WireFormatNegotiationTest {
+
+    private static final TypeReference<List<MenuItemResponse>> MENU_LIST = new TypeReference<>() {};
+    private static final TypeReference<List<OrderResponse>> ORDER_LIST = new TypeReference<>() {};
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MappingJackson2HttpMessageConverter jsonConverter;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    public void testMenuIsJsonByDefaultAndBinaryOnRequest() throws Exception {
+        MockHttpServletResponse json = mockMvc.perform(get("/api/menu/items")).andReturn().getResponse();
+        assertEquals("application/json", json.getContentType());
+        List<MenuItemResponse> expected = jsonConverter.getObjectMapper().readValue(json.getContentAsByteArray(), MENU_LIST);
+
+        MockHttpServletResponse cbor = mockMvc.perform(get("/api/menu/items").header("Accept", "application/cbor"))
+                .andReturn().getResponse();
+        assertEquals("application/cbor", cbor.getContentType());
+        List<MenuItemResponse> decoded = cborConverter.getObjectMapper().readValue(cbor.getContentAsByteArray(), MENU_LIST);
+
+        assertEquals(expected.size(), decoded.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getName(), decoded.get(i).getName());
+            assertEquals(0, expected.get(i).getPrice().compareTo(decoded.get(i).getPrice()));
+            assertEquals(expected.get(i).getCreatedAt(), decoded.get(i).getCreatedAt());
+        }
+        assertTrue(cbor.getContentAsByteArray().length < json.getContentAsByteArray().length);
+    }
+
+    @Test
+    public void testStreamedOrderListHonoursSmile() throws Exception {
+        Long customerId = userRepository.findByEmail("customer@example.com").orElseThrow().getId();
+        OrderResponse order = orderService.createOrder(new CreateOrderRequest(List.of(
+                new CreateOrderRequest.OrderItemRequest(1L, 2))), customerId);
+        try {
+            MockHttpSession admin = new MockHttpSession();
+            admin.setAttribute("userId", 1L);
+            admin.setAttribute("userRole", Role.ADMIN);
+
+            MockHttpServletResponse smile = mockMvc.perform(get("/api/orders/admin/all")
+                    .session(admin)
+                    .header("Accept", "application/x-jackson-smile"))
+                    .andReturn().getResponse();
+            assertEquals("application/x-jackson-smile", smile.getContentType());
+            List<OrderResponse> orders = smileConverter.getObjectMapper().readValue(smile.getContentAsByteArray(), ORDER_LIST);
+            OrderResponse decoded = orders.stream()
+                    .filter(candidate -> candidate.getId().equals(order.getId()))
+                    .findFirst()
+                    .orElseThrow();
+            assertEquals(1, decoded.getItems().size());
+            assertEquals(0, order.getTotal().compareTo(decoded.getTotal()));
+
+            MockHttpServletResponse json = mockMvc.perform(get("/api/orders/admin/all").session(admin))
+                    .andReturn().getResponse();
+            assertEquals("application/json", json.getContentType());
+        } finally {
+            orderRepository.deleteById(order.getId());
+        }
+    }
+
+    /**
+     * Size and encode/decode throughput of JSON, CBOR and Smile for a large order list and the menu.
+     * Run with: mvn test -Pbenchmark -Dtest=WireFormatNegotiationTest
+     */
+    @Test
+    @Tag("benchmark")
+    public void benchmarkWireFormats() throws Exception {
+        List<OrderResponse> orders = sampleOrders(5_000);
+        byte[] menuJson = mockMvc.perform(get("/api/menu/items")).andReturn().getResponse().getContentAsByteArray();
+        List<MenuItemResponse> menu = jsonConverter.getObjectMapper().readValue(menuJson, MENU_LIST);
+
+        Map<String, ObjectMapper> formats = new LinkedHashMap<>();
+        formats.put("json", jsonConverter.getObjectMapper());
+        formats.put("cbor", cborConverter.getObjectMapper());
+        formats.put("smile", smileConverter.getObjectMapper());
+
+        System.out.printf("%-6s %12s %12s %14s %14s%n", "format", "orders KB", "menu bytes", "encode/s", "decode/s");
+        for (Map.Entry<String, ObjectMapper> format : formats.entrySet()) {
+            ObjectMapper mapper = format.getValue();
+            byte[] encodedOrders = mapper.writeValueAsBytes(orders);
+            byte[] encodedMenu = mapper.writeValueAsBytes(menu);
+            assertEquals(orders.size(), mapper.readValue(encodedOrders, ORDER_LIST).size());
+
+            double encodesPerSecond = throughput(() -> mapper.writeValueAsBytes(orders));
+            double decodesPerSecond = throughput(() -> mapper.readValue(encodedOrders, ORDER_LIST));
+            System.out.printf("%-6s %12d %12d %14.1f %14.1f%n", format.getKey(),
+                    encodedOrders.length >> 10, encodedMenu.length, encodesPerSecond, decodesPerSecond);
+        }
+    }
+
+    private static double throughput(Work work) throws Exception {
+        for (int i = 0; i < 20; i++) {
+            work.run();
+        }
+        int iterations = 50;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            work.run();
+        }
+        return iterations / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private static List<OrderResponse> sampleOrders(int count) {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 12, 0);
+        List<OrderResponse> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            List<OrderResponse.OrderItemResponse> items = new ArrayList<>();
+            for (int line = 0; line < 3; line++) {
+                BigDecimal price = new BigDecimal("9.99").add(BigDecimal.valueOf(line));
+                items.add(new OrderResponse.OrderItemResponse((long) i * 3 + line, (long) line + 1,
+                        "Menu item " + (i + line) % 28, line + 1, price, price.multiply(BigDecimal.valueOf(line + 1))));
+            }
+            LocalDateTime createdAt = start.plusSeconds(i * 37L);
+            orders.add(new OrderResponse((long) i, (long) (i % 100), items, new BigDecimal("68.94"),
+                    OrderStatus.values()[i % OrderStatus.values().length], createdAt, createdAt.plusMinutes(5)));
+        }
+        return orders;
+    }
+
+    @FunctionalInterface
+    private interface Work {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,259 @@
+package com.foodordering.service;
+
+import com.foodordering.entity.OrderStatus;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuditJournalTest {
+
+    // Room for ten records per segment
+    private static final int SMALL_SEGMENT = AuditJournal.HEADER_BYTES + 10 * AuditJournal.RECORD_BYTES;
+
+    private static final byte[] KEY = "audit-journal-test-key".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testRecordsAreFoundByOrderAcrossSegmentsAndAfterReopen() throws Exception {
+        AuditJournal journal = AuditJournal.open(dir, SMALL_SEGMENT, KEY, 1000);
+        for (long i = 0; i < 35; i++) {
+            long orderId = 100 + i % 4;
+            if (i < 4) {
+                journal.append(i + 1, AuditJournal.ORDER_PLACED, 1_000 + i, orderId, 7, OrderStatus.PENDING, null,
+                        new BigDecimal("12.50"));
+            } else {
+                journal.append(i + 1, AuditJournal.STATUS_CHANGED, 1_000 + i, orderId, 7, OrderStatus.CONFIRMED,
+                        OrderStatus.PENDING, null);
+            }
+        }
+        journal.close();
+        assertEquals(4, segmentFiles().size());
+
+        List<AuditJournal.Entry> before = journal.find(101);
+        AuditJournal reopened = AuditJournal.open(dir, SMALL_SEGMENT, KEY, 1000);
+        List<AuditJournal.Entry> entries = reopened.find(101);
+        assertEquals(before, entries);
+        assertEquals(9, entries.size());
+        assertEquals(2, entries.get(0).sequence());
+        assertEquals(AuditJournal.ORDER_PLACED, entries.get(0).type());
+        assertEquals(new BigDecimal("12.50"), entries.get(0).total());
+        assertNull(entries.get(0).previousStatus());
+        assertEquals(OrderStatus.PENDING, entries.get(1).previousStatus());
+        assertEquals(1_005, entries.get(1).atMillis());
+        assertEquals(6, entries.get(1).outboxId());
+        for (int i = 1; i < entries.size(); i++) {
+            assertEquals(entries.get(i - 1).sequence() + 4, entries.get(i).sequence());
+        }
+        assertTrue(reopened.find(999).isEmpty());
+
+        // Appending carries on the sequence and the chain
+        assertEquals(36, reopened.append(36, AuditJournal.STATUS_CHANGED, 2_000, 101, 7, OrderStatus.DELIVERED,
+                OrderStatus.CONFIRMED, null));
+        AuditJournal.Verification verification = reopened.verify();
+        assertNull(verification.problem());
+        assertEquals(36, verification.records());
+    }
+
+    @Test
+    public void testTornLastRecordIsCutOffOnOpen() throws Exception {
+        AuditJournal journal = AuditJournal.open(dir, SMALL_SEGMENT, KEY, 1000);
+        for (long orderId = 1; orderId <= 3; orderId++) {
+            journal.append(orderId, AuditJournal.ORDER_PLACED, 1_000, orderId, 7, OrderStatus.PENDING, null,
+                    BigDecimal.TEN);
+        }
+        journal.close();
+        // The last record's body only partly reached the disk
+        overwrite(segmentFiles().get(0), AuditJournal.HEADER_BYTES + 2 * AuditJournal.RECORD_BYTES + 30, 0x5A);
+
+        AuditJournal reopened = AuditJournal.open(dir, SMALL_SEGMENT, KEY, 1000);
+        assertEquals(Boolean.TRUE, reopened.stats().get("tornTailRecovered"));
+        assertTrue(reopened.find(3).isEmpty());
+        assertEquals(3, reopened.append(4, AuditJournal.ORDER_PLACED, 2_000, 4, 7, OrderStatus.PENDING, null,
+                BigDecimal.ONE));
+        assertEquals(1, reopened.find(4).size());
+        assertNull(reopened.verify().problem());
+    }
+
+    @Test
+    public void testEditedRecordIsDetected() throws Exception {
+        AuditJournal journal = AuditJournal.open(dir, SMALL_SEGMENT, KEY, 1000);
+        for (long orderId = 1; orderId <= 15; orderId++) {
+            journal.append(orderId, AuditJournal.STATUS_CHANGED, 1_000, orderId, 7, OrderStatus.CANCELLED,
+                    OrderStatus.PENDING, null);
+        }
+        // Turn the cancellation of order 5 into a delivery, in the file under the live mapping, and
+        // give it a fresh tag under a key guessed by whoever edited it
+        int record = AuditJournal.HEADER_BYTES + 4 * AuditJournal.RECORD_BYTES;
+        int body = record + 4 + AuditJournal.TAG_BYTES;
+        overwrite(segmentFiles().get(0), body + 41, 4);
+        try (FileChannel channel = FileChannel.open(segmentFiles().get(0), StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            ByteBuffer previousTag = ByteBuffer.allocate(AuditJournal.TAG_BYTES);
+            channel.read(previousTag, record - AuditJournal.RECORD_BYTES + 4);
+            ByteBuffer edited = ByteBuffer.allocate(AuditJournal.BODY_BYTES);
+            channel.read(edited, body);
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec("guessed".getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            mac.update(previousTag.array());
+            mac.update(edited.array());
+            channel.write(ByteBuffer.wrap(Arrays.copyOf(mac.doFinal(), AuditJournal.TAG_BYTES)), record + 4);
+        }
+
+        AuditJournal.Verification verification = journal.verify();
+        assertEquals(5L, verification.firstBadSequence());
+        assertEquals(4, verification.records());
+        assertThrows(IllegalStateException.class, () -> journal.find(5));
+        assertEquals(1, journal.find(14).size());
+    }
+
+    @Test
+    public void testRedeliveredOutboxMessagesAreSkippedAlsoAfterReopen() throws Exception {
+        AuditJournal journal = AuditJournal.open(dir, SMALL_SEGMENT, KEY, 1000);
+        for (long outboxId = 1; outboxId <= 12; outboxId++) {
+            assertEquals(outboxId, journal.append(outboxId, AuditJournal.STATUS_CHANGED, 1_000, outboxId, 7,
+                    OrderStatus.CONFIRMED, OrderStatus.PENDING, null));
+        }
+        // The relay failed after the journal took the batch and delivers it again
+        assertEquals(0, journal.append(12, AuditJournal.STATUS_CHANGED, 1_000, 12, 7, OrderStatus.CONFIRMED,
+                OrderStatus.PENDING, null));
+        journal.close();
+
+        AuditJournal reopened = AuditJournal.open(dir, SMALL_SEGMENT, KEY, 1000);
+        assertEquals(0, reopened.append(3, AuditJournal.STATUS_CHANGED, 1_000, 3, 7, OrderStatus.CONFIRMED,
+                OrderStatus.PENDING, null));
+        assertEquals(13, reopened.append(13, AuditJournal.STATUS_CHANGED, 1_000, 13, 7, OrderStatus.CONFIRMED,
+                OrderStatus.PENDING, null));
+        assertEquals(1, reopened.find(3).size());
+        assertEquals(1L, reopened.stats().get("duplicatesSkipped"));
+        assertNull(reopened.verify().problem());
+    }
+
+    @Test
+    public void testJournalDoesNotOpenUnderAnotherKey() throws Exception {
+        AuditJournal journal = AuditJournal.open(dir, SMALL_SEGMENT, KEY, 1000);
+        journal.append(1, AuditJournal.ORDER_PLACED, 1_000, 1, 7, OrderStatus.PENDING, null, BigDecimal.TEN);
+        journal.close();
+
+        // Refused rather than cutting off the records as torn
+        byte[] otherKey = "another-key".getBytes(StandardCharsets.UTF_8);
+        assertThrows(IllegalStateException.class, () -> AuditJournal.open(dir, SMALL_SEGMENT, otherKey, 1000));
+        assertEquals(1, AuditJournal.open(dir, SMALL_SEGMENT, KEY, 1000).find(1).size());
+    }
+
+    @Test
+    public void testConcurrentAppendsShareSyncs() throws Exception {
+        AuditJournal journal = AuditJournal.open(dir, 1 << 20, KEY, 1000);
+        int threads = 8;
+        int appendsPerThread = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long orderId = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < appendsPerThread; i++) {
+                        long sequence = journal.append(orderId * appendsPerThread + i + 1,
+                                AuditJournal.STATUS_CHANGED, i, orderId, 7,
+                                OrderStatus.PREPARING, OrderStatus.CONFIRMED, null);
+                        journal.sync(sequence);
+                        assertTrue((Long) journal.stats().get("durableSequence") >= sequence);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Map<String, Object> stats = journal.stats();
+        assertEquals((long) threads * appendsPerThread, stats.get("durableSequence"));
+        assertTrue((Long) stats.get("syncs") <= threads * appendsPerThread);
+        assertEquals(appendsPerThread, journal.find(3).size());
+    }
+
+    /**
+     * Appends 1,000,000 records from 16 threads, each waiting for its fsync, then looks up
+     * 10,000 orders, reporting append throughput, records per fsync and lookup cost.
+     * Run with: mvn test -Pbenchmark -Dtest=AuditJournalTest
+     */
+    @Test
+    @Tag("benchmark")
+    public void benchmarkGroupSyncedAppendsAndLookups() throws Exception {
+        AuditJournal journal = AuditJournal.open(dir, 16 << 20, KEY, 1000);
+        int threads = 16;
+        int records = 1_000_000;
+        int orders = 200_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = thread; i < records; i += threads) {
+                        long sequence = journal.append(i + 1, AuditJournal.STATUS_CHANGED, i, i % orders, 7,
+                                OrderStatus.PREPARING, OrderStatus.CONFIRMED, null);
+                        journal.sync(sequence);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        long appendNanos = System.nanoTime() - start;
+        long syncs = (Long) journal.stats().get("syncs");
+
+        start = System.nanoTime();
+        int found = 0;
+        for (long orderId = 0; orderId < orders; orderId += orders / 10_000) {
+            found += journal.find(orderId).size();
+        }
+        long lookupNanos = System.nanoTime() - start;
+        assertEquals(10_000 * (records / orders), found);
+
+        System.out.printf("%,d records from %d threads: %,.0f appends/s, %,d fsyncs (%.1f records each), "
+                        + "%d segments; 10,000 order lookups %.1f us each%n",
+                records, threads, records / (appendNanos / 1e9), syncs, (double) records / syncs,
+                journal.stats().get("segments"), lookupNanos / 10_000 / 1e3);
+    }
+
+    private List<Path> segmentFiles() throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static void overwrite(Path file, long position, int value) throws Exception {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {(byte) value}), position);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.foodordering.service;
+
+import com.foodordering.dto.CartQuoteResponse;
+import com.foodordering.dto.CreateOrderRequest;
+import com.foodordering.dto.MenuItemRequest;
+import com.foodordering.dto.MenuItemResponse;
+import com.foodordering.dto.OrderResponse;
+import com.foodordering.repository.OrderRepository;
+import com.foodordering.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class CartQuoteServiceTest {
+
+    @Autowired
+    private CartQuoteService cartQuoteService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private MenuService menuService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<Long> createdOrderIds = new ArrayList<>();
+
+    private final List<Long> createdItemIds = new ArrayList<>();
+
+    private Long customerId;
+
+    private MenuItemResponse soup;
+
+    private MenuItemResponse salad;
+
+    @BeforeEach
+    void setUp() {
+        customerId = userRepository.findByEmail("customer@example.com").orElseThrow().getId();
+        soup = createItem("Quote Test Soup", "6.50", true);
+        salad = createItem("Quote Test Salad", "8.25", true);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        orderRepository.deleteAllById(createdOrderIds);
+        createdItemIds.forEach(menuService::deleteMenuItem);
+        createdOrderIds.clear();
+        createdItemIds.clear();
+    }
+
+    @Test
+    public void testQuotedCartIsOrderedAtQuotedPrices() {
+        List<CreateOrderRequest.OrderItemRequest> cart = cart(soup.getId(), 2, salad.getId(), 1);
+        CartQuoteResponse quote = cartQuoteService.quote(cart, customerId);
+
+        assertTrue(quote.getErrors().isEmpty());
+        assertNotNull(quote.getQuoteToken());
+        assertEquals(new BigDecimal("21.25"), quote.getTotal());
+        assertEquals(new BigDecimal("13.00"), quote.getItems().get(0).getSubtotal());
+        assertEquals("Quote Test Salad", quote.getItems().get(1).getMenuItemName());
+        assertEquals(menuService.getCatalogVersion(), quote.getCatalogVersion());
+
+        OrderResponse order = placeOrder(cart, quote.getQuoteToken());
+        assertEquals(0, new BigDecimal("21.25").compareTo(order.getTotal()));
+        assertEquals(2, order.getItems().size());
+        assertEquals("Quote Test Soup", order.getItems().get(0).getMenuItemName());
+        assertEquals(0, new BigDecimal("8.25").compareTo(order.getItems().get(1).getUnitPrice()));
+    }
+
+    @Test
+    public void testInvalidCartListsEveryProblem() {
+        MenuItemResponse soldOut = createItem("Quote Test Sold Out", "4.00", false);
+        CartQuoteResponse quote = cartQuoteService.quote(List.of(
+                new CreateOrderRequest.OrderItemRequest(soup.getId(), 0),
+                new CreateOrderRequest.OrderItemRequest(-1L, 1),
+                new CreateOrderRequest.OrderItemRequest(soldOut.getId(), 1),
+                new CreateOrderRequest.OrderItemRequest(salad.getId(), 1)), customerId);
+
+        assertNull(quote.getQuoteToken());
+        assertEquals(List.of(
+                "Item 1: quantity must be at least 1",
+                "Item 2: menu item not found: -1",
+                "Item 3: menu item is not available: Quote Test Sold Out"), quote.getErrors());
+    }
+
+    @Test
+    public void testQuoteIsBoundToUserCartAndSignature() {
+        List<CreateOrderRequest.OrderItemRequest> cart = cart(soup.getId(), 1, salad.getId(), 1);
+        String token = cartQuoteService.quote(cart, customerId).getQuoteToken();
+
+        String tampered = token.substring(0, token.indexOf('.') - 2) + "xx" + token.substring(token.indexOf('.'));
+        assertThrows(RuntimeException.class, () -> cartQuoteService.redeem(tampered, cart, customerId));
+        assertThrows(RuntimeException.class, () -> cartQuoteService.redeem("not-a-quote", cart, customerId));
+        assertThrows(RuntimeException.class, () -> cartQuoteService.redeem(token, cart, customerId + 1));
+        assertThrows(RuntimeException.class,
+                () -> cartQuoteService.redeem(token, cart(soup.getId(), 3, salad.getId(), 1), customerId));
+        assertTrue(cartQuoteService.redeem(token, cart, customerId).isPresent());
+
+        Object ttl = ReflectionTestUtils.getField(cartQuoteService, "ttlSeconds");
+        ReflectionTestUtils.setField(cartQuoteService, "ttlSeconds", -1L);
+        try {
+            String expired = cartQuoteService.quote(cart, customerId).getQuoteToken();
+            assertThrows(RuntimeException.class, () -> cartQuoteService.redeem(expired, cart, customerId));
+        } finally {
+            ReflectionTestUtils.setField(cartQuoteService, "ttlSeconds", ttl);
+        }
+    }
+
+    @Test
+    public void testCatalogChangeAfterQuoteRepricesOrder() {
+        List<CreateOrderRequest.OrderItemRequest> cart = cart(soup.getId(), 2, salad.getId(), 1);
+        String token = cartQuoteService.quote(cart, customerId).getQuoteToken();
+
+        menuService.updateMenuItem(soup.getId(),
+                new MenuItemRequest(soup.getName(), new BigDecimal("7.00"), soup.getCategory(), true));
+        assertTrue(cartQuoteService.redeem(token, cart, customerId).isEmpty());
+
+        OrderResponse order = placeOrder(cart, token);
+        assertEquals(0, new BigDecimal("22.25").compareTo(order.getTotal()));
+    }
+
+    private MenuItemResponse createItem(String name, String price, boolean available) {
+        MenuItemResponse item = menuService.createMenuItem(
+                new MenuItemRequest(name, new BigDecimal(price), "Soups", available));
+        createdItemIds.add(item.getId());
+        return item;
+    }
+
+    private OrderResponse placeOrder(List<CreateOrderRequest.OrderItemRequest> cart, String quoteToken) {
+        CreateOrderRequest request = new CreateOrderRequest(cart);
+        request.setQuoteToken(quoteToken);
+        OrderResponse order = orderService.createOrder(request, customerId);
+        createdOrderIds.add(order.getId());
+        return order;
+    }
+
+    private static List<CreateOrderRequest.OrderItemRequest> cart(Long firstId, int firstQuantity,
+                                                                  Long secondId, int secondQuantity) {
+        return List.of(new CreateOrderRequest.OrderItemRequest(firstId, firstQuantity),
+                new CreateOrderRequest.OrderItemRequest(secondId, secondQuantity));
+    }
+}
@@ -0,0 +1,311 @@
+package com.foodordering.service;
+
+import com.foodordering.dto.CreateOrderRequest;
+import com.foodordering.dto.DriverRequest;
+import com.foodordering.dto.DriverResponse;
+import com.foodordering.dto.KitchenBatchResponse;
+import com.foodordering.dto.OrderResponse;
+import com.foodordering.entity.DeliveryAssignment;
+import com.foodordering.entity.DeliveryStatus;
+import com.foodordering.entity.Driver;
+import com.foodordering.entity.DriverStatus;
+import com.foodordering.entity.OrderStatus;
+import com.foodordering.event.OrderStatusChangedEvent;
+import com.foodordering.repository.DeliveryAssignmentRepository;
+import com.foodordering.repository.DriverRepository;
+import com.foodordering.repository.MenuItemRepository;
+import com.foodordering.repository.OrderRepository;
+import com.foodordering.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class DeliveryDispatchTest {
+
+    @Autowired
+    private DispatchService dispatchService;
+
+    @Autowired
+    private KitchenService kitchenService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private DriverRepository driverRepository;
+
+    @Autowired
+    private DeliveryAssignmentRepository assignmentRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${dispatch.pickup-latitude}")
+    private double kitchenLatitude;
+
+    @Value("${dispatch.pickup-longitude}")
+    private double kitchenLongitude;
+
+    private final List<Long> createdOrderIds = new ArrayList<>();
+
+    private final List<Long> createdDriverIds = new ArrayList<>();
+
+    private Long customerId;
+
+    @BeforeEach
+    void setUp() {
+        customerId = userRepository.findByEmail("customer@example.com").orElseThrow().getId();
+        drain("oven");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        for (Long driverId : createdDriverIds) {
+            assignmentRepository.findAll().stream()
+                    .filter(assignment -> assignment.getDriverId().equals(driverId))
+                    .forEach(assignmentRepository::delete);
+            Driver driver = driverRepository.findById(driverId).orElseThrow();
+            driver.setStatus(DriverStatus.AVAILABLE);
+            driverRepository.save(driver);
+            dispatchService.setDriverStatus(driverId, DriverStatus.OFFLINE);
+        }
+        orderRepository.deleteAllById(createdOrderIds);
+        driverRepository.deleteAllById(createdDriverIds);
+        createdOrderIds.clear();
+        createdDriverIds.clear();
+    }
+
+    @Test
+    public void testPreparedOrderIsDispatchedAndDelivered() {
+        DriverResponse driver = createDriver(kitchenLatitude + 0.001, kitchenLongitude);
+        Long orderId = placeConfirmedOrder(kitchenLatitude + 0.02, kitchenLongitude + 0.01);
+
+        KitchenBatchResponse batch = kitchenService.pullNextBatch("oven").orElseThrow();
+        assertTrue(kitchenService.completeBatch(batch.getBatchId()));
+        assertEquals(OrderStatus.PREPARING, orderRepository.findById(orderId).orElseThrow().getStatus());
+
+        // Orders prepared by earlier tests may still be waiting; they are older and go first
+        for (int window = 0; window < 5 && assignmentRepository.findByOrderId(orderId).isEmpty(); window++) {
+            dispatchService.runDispatchWindow();
+        }
+        DeliveryAssignment assignment = assignmentRepository.findByOrderId(orderId).orElseThrow();
+        assertEquals(driver.getId(), assignment.getDriverId());
+        assertEquals(DeliveryStatus.ASSIGNED, assignment.getStatus());
+        assertEquals(OrderStatus.OUT_FOR_DELIVERY, orderRepository.findById(orderId).orElseThrow().getStatus());
+        assertEquals(DriverStatus.ON_DELIVERY, driverRepository.findById(driver.getId()).orElseThrow().getStatus());
+
+        assertTrue(dispatchService.completeDelivery(assignment.getId()));
+        assertFalse(dispatchService.completeDelivery(assignment.getId()));
+
+        assertEquals(OrderStatus.DELIVERED, orderRepository.findById(orderId).orElseThrow().getStatus());
+        assertEquals(DeliveryStatus.DELIVERED, assignmentRepository.findById(assignment.getId()).orElseThrow().getStatus());
+        Driver freed = driverRepository.findById(driver.getId()).orElseThrow();
+        assertEquals(DriverStatus.AVAILABLE, freed.getStatus());
+        assertEquals(kitchenLatitude + 0.02, freed.getLatitude(), 1e-9);
+    }
+
+    @Test
+    public void testCancellingFreesTheDriver() {
+        DriverResponse driver = createDriver(kitchenLatitude, kitchenLongitude + 0.001);
+        Long orderId = placeConfirmedOrder(kitchenLatitude - 0.01, kitchenLongitude);
+        kitchenService.completeBatch(kitchenService.pullNextBatch("oven").orElseThrow().getBatchId());
+        for (int window = 0; window < 5 && assignmentRepository.findByOrderId(orderId).isEmpty(); window++) {
+            dispatchService.runDispatchWindow();
+        }
+        assertTrue(assignmentRepository.findByOrderId(orderId).isPresent());
+
+        orderService.updateOrderStatus(orderId, "CANCELLED");
+
+        assertEquals(DeliveryStatus.CANCELLED, assignmentRepository.findByOrderId(orderId).orElseThrow().getStatus());
+        assertEquals(DriverStatus.AVAILABLE, driverRepository.findById(driver.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    public void testStopsOfOneRunFinishedConcurrentlyFreeTheDriver() throws Exception {
+        DriverResponse driver = createDriver(kitchenLatitude, kitchenLongitude);
+        Long first = placeOutForDelivery(driver.getId(), 1);
+        Long second = placeOutForDelivery(driver.getId(), 2);
+        Driver onDelivery = driverRepository.findById(driver.getId()).orElseThrow();
+        onDelivery.setStatus(DriverStatus.ON_DELIVERY);
+        driverRepository.save(onDelivery);
+
+        // Hold each finisher just before it counts the driver's open deliveries, so that without
+        // the driver lock both count while the other's change is still uncommitted. The wait is
+        // shorter than the database lock timeout, which the second finisher spends on the lock.
+        CyclicBarrier beforeCount = new CyclicBarrier(2);
+        DeliveryAssignmentRepository counting = mock(DeliveryAssignmentRepository.class, delegatesTo(assignmentRepository));
+        doAnswer(invocation -> {
+            try {
+                beforeCount.await(1, TimeUnit.SECONDS);
+            } catch (BrokenBarrierException | TimeoutException e) {
+                // The other finisher is waiting for the driver lock
+            }
+            return assignmentRepository.countByDriverIdAndStatus(invocation.getArgument(0), invocation.getArgument(1));
+        }).when(counting).countByDriverIdAndStatus(any(), any());
+        DispatchService target = AopTestUtils.getTargetObject(dispatchService);
+        ReflectionTestUtils.setField(target, "assignmentRepository", counting);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<?>> finishing = new ArrayList<>();
+            for (Long orderId : List.of(first, second)) {
+                // The listener directly, as after the orders' commits, each holding a single connection
+                OrderStatusChangedEvent delivered = new OrderStatusChangedEvent(orderId, customerId,
+                        OrderStatus.OUT_FOR_DELIVERY, OrderStatus.DELIVERED, LocalDateTime.now(),
+                        LocalDateTime.now(), LocalDateTime.now(), List.of());
+                finishing.add(executor.submit(() -> dispatchService.onOrderStatusChanged(delivered)));
+            }
+            for (Future<?> future : finishing) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+            ReflectionTestUtils.setField(target, "assignmentRepository", assignmentRepository);
+        }
+
+        assertEquals(0, assignmentRepository.countByDriverIdAndStatus(driver.getId(), DeliveryStatus.ASSIGNED));
+        assertEquals(DriverStatus.AVAILABLE, driverRepository.findById(driver.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    public void testDriverStuckOnDeliveryWithoutAssignmentsCanBeReset() {
+        DriverResponse driver = createDriver(kitchenLatitude, kitchenLongitude);
+        Long orderId = placeOutForDelivery(driver.getId(), 1);
+        Driver onDelivery = driverRepository.findById(driver.getId()).orElseThrow();
+        onDelivery.setStatus(DriverStatus.ON_DELIVERY);
+        driverRepository.save(onDelivery);
+
+        assertThrows(RuntimeException.class,
+                () -> dispatchService.setDriverStatus(driver.getId(), DriverStatus.AVAILABLE));
+        DeliveryAssignment assignment = assignmentRepository.findByOrderId(orderId).orElseThrow();
+        assignment.setStatus(DeliveryStatus.DELIVERED);
+        assignmentRepository.save(assignment);
+
+        assertEquals(DriverStatus.AVAILABLE,
+                dispatchService.setDriverStatus(driver.getId(), DriverStatus.AVAILABLE).orElseThrow().getStatus());
+    }
+
+    @Test
+    public void testOfflineDriversAreNotDispatched() {
+        DriverResponse driver = createDriver(kitchenLatitude, kitchenLongitude);
+        dispatchService.setDriverStatus(driver.getId(), DriverStatus.OFFLINE);
+        assertTrue(dispatchService.updateLocation(driver.getId(), kitchenLatitude + 0.005, kitchenLongitude));
+        assertFalse(dispatchService.updateLocation(-1L, kitchenLatitude, kitchenLongitude));
+
+        Long orderId = placeConfirmedOrder(kitchenLatitude + 0.01, kitchenLongitude);
+        kitchenService.completeBatch(kitchenService.pullNextBatch("oven").orElseThrow().getBatchId());
+        dispatchService.runDispatchWindow();
+
+        assertTrue(assignmentRepository.findByOrderId(orderId).isEmpty());
+        assertEquals(OrderStatus.PREPARING, orderRepository.findById(orderId).orElseThrow().getStatus());
+        assertThrows(RuntimeException.class,
+                () -> dispatchService.setDriverStatus(driver.getId(), DriverStatus.ON_DELIVERY));
+        // The order is cancelled so it does not linger in the dispatch queue for later tests
+        orderService.updateOrderStatus(orderId, "CANCELLED");
+    }
+
+    @Test
+    public void testFailedRunKeepsOrdersWaiting() {
+        DriverResponse driver = createDriver(kitchenLatitude + 0.002, kitchenLongitude);
+        Long orderId = placeConfirmedOrder(kitchenLatitude + 0.015, kitchenLongitude);
+        kitchenService.completeBatch(kitchenService.pullNextBatch("oven").orElseThrow().getBatchId());
+
+        DispatchService target = AopTestUtils.getTargetObject(dispatchService);
+        Object transactionTemplate = ReflectionTestUtils.getField(target, "transactionTemplate");
+        Object retryBaseMillis = ReflectionTestUtils.getField(target, "retryBaseMillis");
+        // No wait between attempts, so the test does not sit out the backoff
+        ReflectionTestUtils.setField(target, "retryBaseMillis", 0L);
+        try {
+            ReflectionTestUtils.setField(target, "transactionTemplate", new TransactionTemplate() {
+                @Override
+                public <T> T execute(TransactionCallback<T> action) {
+                    throw new CannotCreateTransactionException("Connection pool exhausted");
+                }
+            });
+            try {
+                for (int window = 0; window < 5; window++) {
+                    dispatchService.runDispatchWindow();
+                }
+            } finally {
+                ReflectionTestUtils.setField(target, "transactionTemplate", transactionTemplate);
+            }
+            assertTrue(assignmentRepository.findByOrderId(orderId).isEmpty());
+            assertEquals(OrderStatus.PREPARING, orderRepository.findById(orderId).orElseThrow().getStatus());
+            assertTrue((Integer) dispatchService.snapshot().get("backingOffOrders") > 0);
+
+            // Still waiting, so it is assigned once the database is back
+            for (int window = 0; window < 5 && assignmentRepository.findByOrderId(orderId).isEmpty(); window++) {
+                dispatchService.runDispatchWindow();
+            }
+        } finally {
+            ReflectionTestUtils.setField(target, "retryBaseMillis", retryBaseMillis);
+        }
+        assertEquals(driver.getId(), assignmentRepository.findByOrderId(orderId).orElseThrow().getDriverId());
+        assertEquals(OrderStatus.OUT_FOR_DELIVERY, orderRepository.findById(orderId).orElseThrow().getStatus());
+    }
+
+    private DriverResponse createDriver(double latitude, double longitude) {
+        DriverResponse driver = dispatchService.createDriver(new DriverRequest("Test Driver", latitude, longitude));
+        createdDriverIds.add(driver.getId());
+        return driver;
+    }
+
+    private Long placeConfirmedOrder(double latitude, double longitude) {
+        CreateOrderRequest request = new CreateOrderRequest(List.of(new CreateOrderRequest.OrderItemRequest(
+                menuItemRepository.findByCategory("Pizza").get(0).getId(), 1)));
+        request.setDeliveryLatitude(latitude);
+        request.setDeliveryLongitude(longitude);
+        OrderResponse order = orderService.createOrder(request, customerId);
+        createdOrderIds.add(order.getId());
+        orderService.updateOrderStatus(order.getId(), "CONFIRMED");
+        return order.getId();
+    }
+
+    private Long placeOutForDelivery(Long driverId, int stopNumber) {
+        Long orderId = placeConfirmedOrder(kitchenLatitude + 0.01 * stopNumber, kitchenLongitude);
+        assignmentRepository.save(new DeliveryAssignment(orderId, driverId, stopNumber, 0.1, LocalDateTime.now()));
+        orderService.updateOrderStatus(orderId, "OUT_FOR_DELIVERY");
+        return orderId;
+    }
+
+    private void drain(String station) {
+        Optional<KitchenBatchResponse> batch;
+        while ((batch = kitchenService.pullNextBatch(station)).isPresent()) {
+            kitchenService.completeBatch(batch.get().getBatchId());
+        }
+    }
+}
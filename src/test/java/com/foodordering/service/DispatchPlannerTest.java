@@ -0,0 +1,227 @@
+package com.foodordering.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DispatchPlannerTest {
+
+    private static final double KITCHEN_LATITUDE = 40.7128;
+    private static final double KITCHEN_LONGITUDE = -74.0060;
+
+    // Roughly one kilometre in each direction around the kitchen
+    private static final double KM_LATITUDE = 1 / 110.574;
+    private static final double KM_LONGITUDE = 1 / (111.320 * Math.cos(Math.toRadians(KITCHEN_LATITUDE)));
+
+    @Test
+    public void testNearestMatchesBruteForce() {
+        GeoGrid grid = new GeoGrid(KITCHEN_LATITUDE, 0.5);
+        Random random = new Random(3);
+        double[][] positions = new double[2_000][];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = randomPosition(random, 12);
+            grid.put(i, positions[i][0], positions[i][1]);
+        }
+        grid.remove(0);
+        // A removed point is not put back by a position update
+        assertFalse(grid.replaceIfPresent(0, positions[0][0], positions[0][1]));
+        assertFalse(grid.contains(0));
+
+        for (int query = 0; query < 50; query++) {
+            double[] at = randomPosition(random, 10);
+            List<Double> expected = new ArrayList<>();
+            for (int i = 1; i < positions.length; i++) {
+                double distance = GeoGrid.distanceKm(at[0], at[1], positions[i][0], positions[i][1]);
+                if (distance <= 3) {
+                    expected.add(distance);
+                }
+            }
+            expected.sort(Comparator.naturalOrder());
+            List<GeoGrid.Neighbour> actual = grid.nearest(at[0], at[1], 3, 10);
+
+            // The grid projects around a fixed latitude, so compare distances rather than ids of near-ties
+            assertEquals(Math.min(10, expected.size()), actual.size());
+            for (int i = 0; i < actual.size(); i++) {
+                assertEquals(expected.get(i), actual.get(i).distanceKm(), 0.001);
+                assertNotEquals(0L, actual.get(i).id());
+            }
+        }
+    }
+
+    @Test
+    public void testOldestOrdersGetNearestDrivers() {
+        DispatchPlanner planner = new DispatchPlanner(KITCHEN_LATITUDE, KITCHEN_LONGITUDE, 5, 3, 1);
+        GeoGrid drivers = new GeoGrid(KITCHEN_LATITUDE, 0.5);
+        drivers.put(1, at(2, 0)[0], at(2, 0)[1]);
+        drivers.put(2, at(0, 0.5)[0], at(0, 0.5)[1]);
+        drivers.put(3, at(0, 9)[0], at(0, 9)[1]);
+
+        List<DispatchPlanner.ReadyOrder> ready = List.of(
+                order(10L, 3, 3, 2_000),
+                order(11L, -3, -3, 1_000));
+        List<DispatchPlanner.Run> plan = planner.plan(ready, drivers);
+
+        assertEquals(2, plan.size());
+        assertEquals(2L, plan.get(0).driverId());
+        assertEquals(List.of(11L), orderIds(plan.get(0)));
+        assertEquals(1L, plan.get(1).driverId());
+        assertEquals(List.of(10L), orderIds(plan.get(1)));
+        assertEquals(0.5, plan.get(0).pickupDistanceKm(), 0.01);
+
+        // Driver 3 is beyond maxPickupKm
+        drivers.remove(1);
+        drivers.remove(2);
+        assertTrue(planner.plan(ready, drivers).isEmpty());
+    }
+
+    @Test
+    public void testNearbyDropOffsShareADriverWhenDriversAreScarce() {
+        DispatchPlanner planner = new DispatchPlanner(KITCHEN_LATITUDE, KITCHEN_LONGITUDE, 5, 3, 1);
+        GeoGrid drivers = new GeoGrid(KITCHEN_LATITUDE, 0.5);
+        drivers.put(1, at(0, 1)[0], at(0, 1)[1]);
+        drivers.put(2, at(0, 2)[0], at(0, 2)[1]);
+
+        List<DispatchPlanner.ReadyOrder> ready = List.of(
+                order(1L, 4, 0, 1_000),
+                order(2L, -4, 0, 2_000),
+                order(3L, 2.5, 0, 3_000),
+                order(4L, 4.5, 0.2, 4_000),
+                new DispatchPlanner.ReadyOrder(5L, null, null, 5_000));
+        List<DispatchPlanner.Run> plan = planner.plan(ready, drivers);
+
+        assertEquals(2, plan.size());
+        // Oldest first; stops ordered outwards from the kitchen
+        assertEquals(List.of(1L, 4L), orderIds(plan.get(0)));
+        assertEquals(List.of(2L), orderIds(plan.get(1)));
+
+        // With a driver per order nothing is bundled
+        for (long id = 3; id <= 6; id++) {
+            drivers.put(id, at(0, id * 0.1)[0], at(0, id * 0.1)[1]);
+        }
+        plan = planner.plan(ready, drivers);
+        assertEquals(5, plan.size());
+        assertTrue(plan.stream().allMatch(run -> run.stops().size() == 1));
+    }
+
+    @Test
+    public void testStopsOrderedNearestFirst() {
+        DispatchPlanner planner = new DispatchPlanner(KITCHEN_LATITUDE, KITCHEN_LONGITUDE, 5, 3, 2);
+        GeoGrid drivers = new GeoGrid(KITCHEN_LATITUDE, 0.5);
+        drivers.put(1, KITCHEN_LATITUDE, KITCHEN_LONGITUDE);
+
+        List<DispatchPlanner.Run> plan = planner.plan(List.of(
+                order(1L, 5, 0, 1_000),
+                order(2L, 3.5, 0, 2_000),
+                order(3L, 4.2, 0, 3_000)), drivers);
+
+        assertEquals(1, plan.size());
+        assertEquals(List.of(2L, 3L, 1L), orderIds(plan.get(0)));
+    }
+
+    /**
+     * Simulates an hour of 2 s dispatch windows: 5,000 drivers spread over a 10 km radius,
+     * 300 orders a minute and drivers coming back free where they delivered at 30 km/h.
+     * Run with: mvn test -Pbenchmark -Dtest=DispatchPlannerTest
+     */
+    @Test
+    @Tag("benchmark")
+    public void benchmarkDispatchSimulation() {
+        int driverCount = 5_000;
+        int windows = 1_800;
+        long windowMillis = 2_000;
+        int ordersPerWindow = 10;
+        double speedKmPerMinute = 0.5;
+        Random random = new Random(11);
+
+        DispatchPlanner planner = new DispatchPlanner(KITCHEN_LATITUDE, KITCHEN_LONGITUDE, 10, 3, 1.5);
+        GeoGrid free = new GeoGrid(KITCHEN_LATITUDE, 0.5);
+        for (int id = 0; id < driverCount; id++) {
+            double[] position = randomPosition(random, 10);
+            free.put(id, position[0], position[1]);
+        }
+        // Busy drivers by the time they are free again: {freeAtMillis, driverId, latitude, longitude}
+        PriorityQueue<double[]> busy = new PriorityQueue<>(Comparator.comparingDouble(entry -> entry[0]));
+        List<DispatchPlanner.ReadyOrder> waiting = new ArrayList<>();
+        long nextOrderId = 0;
+        long[] planNanos = new long[windows];
+        long assignedOrders = 0;
+        long runs = 0;
+        double totalWaitMillis = 0;
+        double totalPickupKm = 0;
+
+        for (int window = 0; window < windows; window++) {
+            long now = window * windowMillis;
+            while (!busy.isEmpty() && busy.peek()[0] <= now) {
+                double[] back = busy.poll();
+                free.put((long) back[1], back[2], back[3]);
+            }
+            for (int i = 0; i < ordersPerWindow; i++) {
+                double[] dropOff = randomPosition(random, 8);
+                waiting.add(new DispatchPlanner.ReadyOrder(nextOrderId++, dropOff[0], dropOff[1],
+                        now - random.nextInt((int) windowMillis)));
+            }
+
+            long start = System.nanoTime();
+            List<DispatchPlanner.Run> plan = planner.plan(waiting, free);
+            planNanos[window] = System.nanoTime() - start;
+
+            Set<Long> assigned = new HashSet<>();
+            for (DispatchPlanner.Run run : plan) {
+                GeoGrid.Point driver = free.remove(run.driverId());
+                double routeKm = run.pickupDistanceKm();
+                double latitude = KITCHEN_LATITUDE;
+                double longitude = KITCHEN_LONGITUDE;
+                for (DispatchPlanner.ReadyOrder stop : run.stops()) {
+                    routeKm += GeoGrid.distanceKm(latitude, longitude, stop.latitude(), stop.longitude());
+                    latitude = stop.latitude();
+                    longitude = stop.longitude();
+                    assigned.add(stop.orderId());
+                    totalWaitMillis += now - stop.readyAtMillis();
+                }
+                busy.add(new double[] {now + routeKm / speedKmPerMinute * 60_000, driver.id(), latitude, longitude});
+                totalPickupKm += run.pickupDistanceKm();
+                runs++;
+            }
+            assignedOrders += assigned.size();
+            waiting.removeIf(order -> assigned.contains(order.orderId()));
+        }
+
+        Arrays.sort(planNanos);
+        System.out.printf("%d drivers, %d windows, %d orders: %d assigned in %d runs, %d still waiting%n",
+                driverCount, windows, nextOrderId, assignedOrders, runs, waiting.size());
+        System.out.printf("  avg wait for driver %.1f s, avg pickup distance %.2f km, %.2f orders per run%n",
+                totalWaitMillis / assignedOrders / 1000, totalPickupKm / runs, (double) assignedOrders / runs);
+        System.out.printf("  plan time p50 %.3f ms, p99 %.3f ms, max %.3f ms%n",
+                planNanos[windows / 2] / 1e6, planNanos[windows * 99 / 100] / 1e6, planNanos[windows - 1] / 1e6);
+    }
+
+    private static DispatchPlanner.ReadyOrder order(Long orderId, double northKm, double eastKm, long readyAtMillis) {
+        double[] position = at(northKm, eastKm);
+        return new DispatchPlanner.ReadyOrder(orderId, position[0], position[1], readyAtMillis);
+    }
+
+    private static double[] at(double northKm, double eastKm) {
+        return new double[] {KITCHEN_LATITUDE + northKm * KM_LATITUDE, KITCHEN_LONGITUDE + eastKm * KM_LONGITUDE};
+    }
+
+    private static double[] randomPosition(Random random, double radiusKm) {
+        double distance = radiusKm * Math.sqrt(random.nextDouble());
+        double angle = random.nextDouble() * 2 * Math.PI;
+        return at(distance * Math.sin(angle), distance * Math.cos(angle));
+    }
+
+    private static List<Long> orderIds(DispatchPlanner.Run run) {
+        return run.stops().stream().map(DispatchPlanner.ReadyOrder::orderId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,123 @@
+package com.foodordering.service;
+
+import com.foodordering.dto.OrderResponse;
+import com.foodordering.entity.OrderStatus;
+import com.foodordering.event.OrderEventLine;
+import com.foodordering.event.OrderStatusChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class EtaServiceTest {
+
+    private static final LocalDateTime EVENING = LocalDateTime.of(2024, 1, 1, 19, 0);
+
+    private EtaService etaService;
+
+    private KitchenService kitchenService;
+
+    @BeforeEach
+    void setUp() {
+        kitchenService = mock(KitchenService.class);
+        etaService = new EtaService();
+        ReflectionTestUtils.setField(etaService, "kitchenService", kitchenService);
+        ReflectionTestUtils.setField(etaService, "alpha", 0.05);
+        ReflectionTestUtils.setField(etaService, "minSamples", 5.0);
+        ReflectionTestUtils.setField(etaService, "defaultPendingMinutes", 3L);
+        ReflectionTestUtils.setField(etaService, "defaultConfirmedMinutes", 10L);
+        ReflectionTestUtils.setField(etaService, "defaultPreparingMinutes", 15L);
+        ReflectionTestUtils.setField(etaService, "defaultOutForDeliveryMinutes", 20L);
+        etaService.init();
+    }
+
+    @Test
+    public void testDwellStatsQuantilesAndDecay() {
+        DwellStats stats = new DwellStats(0.01);
+        Random random = new Random(5);
+        for (int i = 0; i < 2_000; i++) {
+            stats.record(100 + random.nextDouble() * 200);
+        }
+        assertEquals(200, stats.getMedianSeconds(), 200 * 0.08);
+        assertEquals(280, stats.getP90Seconds(), 280 * 0.1);
+        assertEquals(200, stats.getMeanSeconds(), 20);
+        assertEquals(100, stats.getWeight(), 0.5);
+
+        // Old behaviour fades out: after a slowdown the statistics follow within ~1/alpha samples
+        for (int i = 0; i < 500; i++) {
+            stats.record(1_000);
+        }
+        assertEquals(1_000, stats.getMedianSeconds(), 1_000 * 0.08);
+        assertTrue(stats.getMeanSeconds() > 950);
+    }
+
+    @Test
+    public void testDefaultsWithoutHistory() {
+        OrderResponse pending = order(OrderStatus.PENDING, EVENING, "Pizza");
+        // 3 + 10 + 15 + 20 minutes
+        assertEquals(EVENING.plusMinutes(48), etaService.estimateDeliveryAt(pending, EVENING));
+
+        assertNull(etaService.estimateDeliveryAt(order(OrderStatus.DELIVERED, EVENING, "Pizza"), EVENING));
+        assertNull(etaService.estimateDeliveryAt(order(OrderStatus.CANCELLED, EVENING, "Pizza"), EVENING));
+    }
+
+    @Test
+    public void testLearnedDwellTimesAndElapsedTime() {
+        for (int i = 0; i < 20; i++) {
+            transition(OrderStatus.PREPARING, OrderStatus.OUT_FOR_DELIVERY, 600, "Pizza");
+            transition(OrderStatus.PREPARING, OrderStatus.OUT_FOR_DELIVERY, 120, "Drinks");
+            transition(OrderStatus.OUT_FOR_DELIVERY, OrderStatus.DELIVERED, 1_200, "Pizza");
+        }
+
+        // Slowest category wins: 600 s of pizza minus 100 s already spent, then the delivery
+        OrderResponse preparing = order(OrderStatus.PREPARING, EVENING.minusSeconds(100), "Pizza", "Drinks");
+        assertEquals(500 + 1_200, secondsUntil(etaService.estimateDeliveryAt(preparing, EVENING)), 1_800 * 0.08);
+
+        // Past the median, the p90 bounds what is left; never less than a minute
+        OrderResponse late = order(OrderStatus.OUT_FOR_DELIVERY, EVENING.minusSeconds(1_250), "Pizza");
+        assertEquals(60, secondsUntil(etaService.estimateDeliveryAt(late, EVENING)), 1);
+    }
+
+    @Test
+    public void testConfirmedWaitScalesWithKitchenBacklog() {
+        when(kitchenService.getQueuedUnits("Burgers")).thenReturn(4);
+        for (int i = 0; i < 20; i++) {
+            transition(OrderStatus.PENDING, OrderStatus.CONFIRMED, 30, "Burgers");
+            transition(OrderStatus.CONFIRMED, OrderStatus.PREPARING, 300, "Burgers");
+        }
+        OrderResponse confirmed = order(OrderStatus.CONFIRMED, EVENING, "Burgers");
+        double usual = secondsUntil(etaService.estimateDeliveryAt(confirmed, EVENING));
+
+        // Twice the usual queue: (9 + 1) / (4 + 1) times the usual 300 s wait
+        when(kitchenService.getQueuedUnits("Burgers")).thenReturn(9);
+        double busy = secondsUntil(etaService.estimateDeliveryAt(confirmed, EVENING));
+        assertEquals(300, busy - usual, 300 * 0.08);
+    }
+
+    private void transition(OrderStatus from, OrderStatus to, long dwellSeconds, String category) {
+        LocalDateTime since = EVENING.minusSeconds(dwellSeconds);
+        etaService.onOrderStatusChanged(new OrderStatusChangedEvent(1L, 2L, from, to, since, since, EVENING,
+                List.of(new OrderEventLine(3L, category + " item", category, 1, BigDecimal.TEN))));
+    }
+
+    private static OrderResponse order(OrderStatus status, LocalDateTime updatedAt, String... categories) {
+        OrderResponse order = new OrderResponse(1L, 2L, BigDecimal.TEN, status, updatedAt, updatedAt);
+        for (String category : categories) {
+            order.getItems().add(new OrderResponse.OrderItemResponse(3L, 4L, category + " item", category, 1,
+                    BigDecimal.TEN, BigDecimal.TEN));
+        }
+        return order;
+    }
+
+    private static double secondsUntil(LocalDateTime eta) {
+        return Duration.between(EVENING, eta).getSeconds();
+    }
+}
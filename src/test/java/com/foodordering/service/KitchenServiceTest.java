@@ -0,0 +1,138 @@
+package com.foodordering.service;
+
+import com.foodordering.dto.CreateOrderRequest;
+import com.foodordering.dto.KitchenBatchResponse;
+import com.foodordering.dto.OrderResponse;
+import com.foodordering.entity.Order;
+import com.foodordering.entity.OrderStatus;
+import com.foodordering.event.OrderPreparedEvent;
+import com.foodordering.repository.MenuItemRepository;
+import com.foodordering.repository.OrderRepository;
+import com.foodordering.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@RecordApplicationEvents
+public class KitchenServiceTest {
+
+    @Autowired
+    private KitchenService kitchenService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    private final List<Long> createdOrderIds = new ArrayList<>();
+
+    private Long customerId;
+
+    @BeforeEach
+    void setUp() {
+        customerId = userRepository.findByEmail("customer@example.com").orElseThrow().getId();
+        // Other tests share the context, so start from empty stations
+        drain("oven");
+        drain("grill");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        orderRepository.deleteAllById(createdOrderIds);
+        createdOrderIds.clear();
+    }
+
+    @Test
+    public void testConfirmedOrdersAreBatchedAndStarted() {
+        Long pizzaId = menuItemRepository.findByCategory("Pizza").get(0).getId();
+        Long first = placeConfirmedOrder(pizzaId, 1);
+        Long second = placeConfirmedOrder(pizzaId, 2);
+
+        KitchenBatchResponse batch = kitchenService.pullNextBatch("oven").orElseThrow();
+        assertEquals(pizzaId, batch.getMenuItemId());
+        assertEquals(3, batch.getQuantity());
+        assertEquals(List.of(first, second), batch.getLines().stream()
+                .map(KitchenBatchResponse.BatchLine::getOrderId)
+                .collect(Collectors.toList()));
+        assertEquals(OrderStatus.PREPARING, orderRepository.findById(first).orElseThrow().getStatus());
+        assertEquals(OrderStatus.PREPARING, orderRepository.findById(second).orElseThrow().getStatus());
+        assertTrue(kitchenService.pullNextBatch("oven").isEmpty());
+
+        assertTrue(kitchenService.completeBatch(batch.getBatchId()));
+        assertFalse(kitchenService.completeBatch(batch.getBatchId()));
+        assertEquals(List.of(first, second), events.stream(OrderPreparedEvent.class)
+                .map(OrderPreparedEvent::getOrderId)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testCancelledOrderLeavesTheQueue() {
+        Long burgerId = menuItemRepository.findByCategory("Burgers").get(0).getId();
+        Long orderId = placeConfirmedOrder(burgerId, 2);
+        assertEquals(2, kitchenService.getQueuedUnits("Burgers"));
+
+        orderService.updateOrderStatus(orderId, "CANCELLED");
+
+        assertEquals(0, kitchenService.getQueuedUnits("Burgers"));
+        assertTrue(kitchenService.pullNextBatch("grill").isEmpty());
+    }
+
+    @Test
+    public void testOrderCancelledBeforeItsBatchIsNotStarted() {
+        Long pizzaId = menuItemRepository.findByCategory("Pizza").get(0).getId();
+        Long cancelled = placeConfirmedOrder(pizzaId, 1);
+        Long kept = placeConfirmedOrder(pizzaId, 2);
+        // Committed, but the kitchen has not heard of it yet
+        Order order = orderRepository.findById(cancelled).orElseThrow();
+        order.setStatus(OrderStatus.CANCELLED);
+        orderRepository.save(order);
+
+        KitchenBatchResponse batch = kitchenService.pullNextBatch("oven").orElseThrow();
+        assertEquals(List.of(kept), batch.getLines().stream()
+                .map(KitchenBatchResponse.BatchLine::getOrderId)
+                .collect(Collectors.toList()));
+        assertEquals(2, batch.getQuantity());
+        assertEquals(OrderStatus.CANCELLED, orderRepository.findById(cancelled).orElseThrow().getStatus());
+        assertEquals(OrderStatus.PREPARING, orderRepository.findById(kept).orElseThrow().getStatus());
+        kitchenService.completeBatch(batch.getBatchId());
+    }
+
+    private Long placeConfirmedOrder(Long menuItemId, int quantity) {
+        OrderResponse order = orderService.createOrder(new CreateOrderRequest(List.of(
+                new CreateOrderRequest.OrderItemRequest(menuItemId, quantity))), customerId);
+        createdOrderIds.add(order.getId());
+        orderService.updateOrderStatus(order.getId(), "CONFIRMED");
+        return order.getId();
+    }
+
+    private void drain(String station) {
+        Optional<KitchenBatchResponse> batch;
+        while ((batch = kitchenService.pullNextBatch(station)).isPresent()) {
+            kitchenService.completeBatch(batch.get().getBatchId());
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.foodordering.service;
+
+import com.foodordering.dto.BulkImportResponse;
+import com.foodordering.dto.MenuItemRequest;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class MenuBulkImportServiceTest {
+    
+    @Autowired
+    private MenuBulkImportService menuBulkImportService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private MenuService menuService;
+    
+    @Autowired
+    private MenuSearchService menuSearchService;
+    
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM menu_items WHERE category LIKE 'BulkTest%'");
+        // The JDBC delete bypasses Hibernate, so drop any cached copies of those rows
+        entityManagerFactory.getCache().evictAll();
+        menuSearchService.rebuild();
+    }
+    
+    @Test
+    public void testJsonItemsAreUpsertedByName() {
+        BulkImportResponse first = menuBulkImportService.importItems(List.of(
+                new MenuItemRequest("BulkTest Soup", new BigDecimal("4.50"), "BulkTest Starters", true),
+                new MenuItemRequest("BulkTest Salad", new BigDecimal("5.50"), "BulkTest Starters", true)
+        ));
+        assertEquals(2, first.getCreated());
+        assertEquals(0, first.getUpdated());
+        
+        BulkImportResponse second = menuBulkImportService.importItems(List.of(
+                new MenuItemRequest("BulkTest Soup", new BigDecimal("4.95"), "BulkTest Starters", true),
+                new MenuItemRequest("BulkTest Bread", new BigDecimal("2.00"), "BulkTest Starters", true)
+        ));
+        assertEquals(1, second.getCreated());
+        assertEquals(1, second.getUpdated());
+        
+        BigDecimal soupPrice = jdbcTemplate.queryForObject(
+                "SELECT price FROM menu_items WHERE name = 'BulkTest Soup'", BigDecimal.class);
+        assertEquals(0, new BigDecimal("4.95").compareTo(soupPrice));
+        assertEquals(3, countBulkTestItems());
+    }
+    
+    @Test
+    public void testInvalidRowRejectsWholeImport() {
+        String csv = "name,price,category\n" +
+                "BulkTest Good,3.00,BulkTest Sides\n" +
+                "BulkTest Bad,not-a-price,BulkTest Sides\n" +
+                ",1.00,BulkTest Sides\n";
+        
+        BulkImportValidationException e = assertThrows(BulkImportValidationException.class,
+                () -> menuBulkImportService.importCsv(stream(csv)));
+        
+        assertEquals(2, e.getErrors().size());
+        assertTrue(e.getErrors().get(0).startsWith("Line 3"));
+        assertEquals(0, countBulkTestItems());
+    }
+    
+    @Test
+    public void testQuotedCsvFields() throws Exception {
+        String csv = "category,name,price,available\n" +
+                "BulkTest Mains,\"BulkTest Fish, Chips & \"\"Mushy\"\" Peas\",11.00,false\n";
+        
+        menuBulkImportService.importCsv(stream(csv));
+        
+        Boolean available = jdbcTemplate.queryForObject(
+                "SELECT available FROM menu_items WHERE name = 'BulkTest Fish, Chips & \"Mushy\" Peas'", Boolean.class);
+        assertFalse(available);
+    }
+    
+    @Test
+    public void testStreamedCsvIsWrittenInChunks() throws Exception {
+        // Two full chunks of the default 1000 rows and a partial one
+        int rows = 2_500;
+        
+        BulkImportResponse response = menuBulkImportService.importCsv(new GeneratedCsvInputStream(rows));
+        
+        assertEquals(rows, response.getProcessed());
+        assertEquals(rows, response.getCreated());
+        assertEquals(3, response.getChunks());
+        assertEquals(rows, countBulkTestItems());
+    }
+    
+    @Test
+    public void testCommittedChunksAreAnnouncedWhenALaterChunkFails() {
+        ReflectionTestUtils.setField(menuBulkImportService, "chunkSize", 1);
+        try {
+            long versionBefore = menuService.getCatalogVersion();
+            // Valid, but too large for NUMERIC(10, 2), so the second chunk fails in the database
+            List<MenuItemRequest> requests = List.of(
+                    new MenuItemRequest("BulkTest Committed", new BigDecimal("3.00"), "BulkTest Sides", true),
+                    new MenuItemRequest("BulkTest Overflow", new BigDecimal("1000000000.00"), "BulkTest Sides", true));
+            
+            assertThrows(RuntimeException.class, () -> menuBulkImportService.importItems(requests));
+            
+            assertEquals(1, countBulkTestItems());
+            assertTrue(menuService.getCatalogVersion() > versionBefore);
+            assertEquals(1, menuSearchService.search("BulkTest Committed", 10, false).size());
+        } finally {
+            ReflectionTestUtils.setField(menuBulkImportService, "chunkSize", 1000);
+        }
+    }
+    
+    @Test
+    public void testNameInsertedByAConcurrentWriterBecomesAnUpdate() throws Exception {
+        List<MenuItemRequest> requests = List.of(
+                new MenuItemRequest("BulkTest Race", new BigDecimal("2.50"), "BulkTest Race", true),
+                new MenuItemRequest("BulkTest Calm", new BigDecimal("3.50"), "BulkTest Race", true));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // Still uncommitted while the import looks the names up, then committed under it
+            Future<BulkImportResponse> future = new TransactionTemplate(transactionManager).execute(status -> {
+                jdbcTemplate.update("INSERT INTO menu_items (name, price, category, available) " +
+                        "VALUES ('BulkTest Race', 1.00, 'BulkTest Race', true)");
+                Future<BulkImportResponse> submitted = executor.submit(() -> menuBulkImportService.importItems(requests));
+                try {
+                    Thread.sleep(500);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return submitted;
+            });
+            
+            BulkImportResponse response = future.get(30, TimeUnit.SECONDS);
+            assertEquals(1, response.getCreated());
+            assertEquals(1, response.getUpdated());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(2, countBulkTestItems());
+        BigDecimal price = jdbcTemplate.queryForObject(
+                "SELECT price FROM menu_items WHERE name = 'BulkTest Race'", BigDecimal.class);
+        assertEquals(0, new BigDecimal("2.50").compareTo(price));
+    }
+    
+    @Test
+    public void testMenuItemNamesAreUnique() {
+        menuBulkImportService.importItems(List.of(
+                new MenuItemRequest("BulkTest Tea", new BigDecimal("1.80"), "BulkTest Drinks", true)));
+        
+        RuntimeException e = assertThrows(RuntimeException.class, () -> menuService.createMenuItem(
+                new MenuItemRequest("BulkTest Tea", new BigDecimal("2.00"), "BulkTest Drinks", true)));
+        assertTrue(e.getMessage().contains("already exists"));
+        assertThrows(DuplicateKeyException.class, () -> jdbcTemplate.update(
+                "INSERT INTO menu_items (name, price, category, available) VALUES ('BulkTest Tea', 2.00, 'BulkTest Drinks', true)"));
+        assertEquals(1, countBulkTestItems());
+    }
+    
+    /**
+     * Imports 100,000 generated CSV rows, reporting the time taken and the chunks written.
+     * Run with: mvn test -Pbenchmark -Dtest=MenuBulkImportServiceTest
+     */
+    @Test
+    @Tag("benchmark")
+    public void benchmarkImportOneHundredThousandRowsFromStream() throws Exception {
+        int rows = 100_000;
+        long start = System.nanoTime();
+        
+        BulkImportResponse response = menuBulkImportService.importCsv(new GeneratedCsvInputStream(rows));
+        
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        assertEquals(rows, response.getProcessed());
+        assertEquals(rows, response.getCreated());
+        assertEquals(rows, countBulkTestItems());
+        System.out.printf("Imported %,d rows in %,d ms, %d chunks%n", rows, elapsedMillis, response.getChunks());
+    }
+    
+    private long countBulkTestItems() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM menu_items WHERE category LIKE 'BulkTest%'", Long.class);
+    }
+    
+    private static InputStream stream(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Produces a header plus {@code rows} generated CSV lines, one line at a time.
+     */
+    private static final class GeneratedCsvInputStream extends InputStream {
+        private final int rows;
+        private int nextRow = -1;
+        private byte[] line = new byte[0];
+        private int position;
+        
+        private GeneratedCsvInputStream(int rows) {
+            this.rows = rows;
+        }
+        
+        @Override
+        public int read() {
+            if (position == line.length) {
+                if (nextRow >= rows) {
+                    return -1;
+                }
+                String text = nextRow < 0
+                        ? "name,price,category,available\n"
+                        : "BulkTest Item " + nextRow + "," + (1 + nextRow % 50) + ".99,BulkTest Category "
+                                + (nextRow % 20) + ",true\n";
+                line = text.getBytes(StandardCharsets.UTF_8);
+                position = 0;
+                nextRow++;
+            }
+            return line[position++];
+        }
+    }
+}
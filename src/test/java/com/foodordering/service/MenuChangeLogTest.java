@@ -0,0 +1,60 @@
+package com.foodordering.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MenuChangeLogTest {
+
+    @Test
+    public void testDeltaHasLatestStatePerItem() {
+        MenuChangeLog log = new MenuChangeLog(10, 1_000);
+        long v1 = log.record(1, false);
+        log.record(2, false);
+        log.record(1, false);
+        log.record(3, false);
+        log.record(2, true);
+
+        MenuChangeLog.Delta delta = log.since(v1);
+        assertEquals(1_005, delta.version());
+        // Ordered by last change; item 2's tombstone replaces its earlier update
+        assertEquals(List.of(1L, 3L, 2L), List.copyOf(delta.changes().keySet()));
+        assertEquals(Map.of(1L, false, 3L, false, 2L, true), delta.changes());
+
+        assertTrue(log.since(log.currentVersion()).changes().isEmpty());
+        assertEquals(3, log.since(1_000).changes().size());
+    }
+
+    @Test
+    public void testClientsBehindTheLogNeedASnapshot() {
+        MenuChangeLog log = new MenuChangeLog(3, 0);
+        for (long id = 1; id <= 5; id++) {
+            log.record(id, false);
+        }
+
+        assertEquals(3, log.size());
+        assertNull(log.since(0));
+        assertNull(log.since(1));
+        assertEquals(List.of(3L, 4L, 5L), List.copyOf(log.since(2).changes().keySet()));
+
+        // Versions from a previous run (below the start) or never issued (above current)
+        assertNull(log.since(-1));
+        assertNull(log.since(6));
+    }
+
+    @Test
+    public void testResetForcesSnapshotForOlderVersions() {
+        MenuChangeLog log = new MenuChangeLog(10, 0);
+        long before = log.record(1, false);
+        long afterReset = log.reset();
+        long later = log.record(2, false);
+
+        assertNull(log.since(before));
+        assertEquals(1, log.size());
+        assertEquals(List.of(2L), List.copyOf(log.since(afterReset).changes().keySet()));
+        assertTrue(log.since(later).changes().isEmpty());
+    }
+}
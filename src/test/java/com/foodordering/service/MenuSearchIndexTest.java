@@ -0,0 +1,137 @@
+package com.foodordering.service;
+
+import com.foodordering.dto.MenuItemResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MenuSearchIndexTest {
+
+    @Test
+    public void testRankingPrefixAndTypos() {
+        MenuSearchIndex index = new MenuSearchIndex();
+        index.put(item(1, "Margherita Pizza", "Pizza", true));
+        index.put(item(2, "Pepperoni Pizza", "Pizza", true));
+        index.put(item(3, "Classic Burger", "Burgers", true));
+        index.put(item(4, "Spicy Jalapeño Burger", "Burgers", true));
+        index.put(item(5, "Pepsi", "Drinks", false));
+
+        // Every word must match; shorter names rank first among equal scores
+        assertEquals(List.of(2L), ids(index.search("pepperoni pizza", 10, false)));
+        assertEquals(List.of(1L, 2L), ids(index.search("pizza", 10, false)).stream().sorted().toList());
+
+        // The word being typed is a prefix, a finished word is not
+        assertEquals(List.of(5L, 2L), ids(index.search("pep", 10, false)));
+        assertEquals(List.of(2L), ids(index.search("pep", 10, true)));
+        assertTrue(index.search("pep ", 10, false).isEmpty());
+
+        // One typo per word, accents folded, category matched below names
+        assertEquals(List.of(4L), ids(index.search("jalapeno burgr", 10, false)));
+        assertEquals(List.of(1L), ids(index.search("margerita", 10, false)));
+        assertEquals(List.of(3L, 4L), ids(index.search("burgers", 10, false)).stream().sorted().toList());
+        assertTrue(index.search("xyz", 10, false).isEmpty());
+    }
+
+    @Test
+    public void testIncrementalUpdates() {
+        MenuSearchIndex index = new MenuSearchIndex();
+        index.put(item(1, "Iced Tea", "Drinks", true));
+        index.put(item(2, "Iced Coffee", "Drinks", true));
+
+        index.put(item(1, "Lemon Iced Tea", "Drinks", true));
+        assertEquals(List.of(1L), ids(index.search("lemon", 10, false)));
+
+        index.remove(2);
+        assertEquals(1, index.size());
+        assertTrue(index.search("coffee", 10, false).isEmpty());
+        assertTrue(index.search("cofee", 10, false).isEmpty());
+        assertEquals(List.of(1L), ids(index.search("iced", 10, false)));
+    }
+
+    @Test
+    public void testOneEditVariants() {
+        Set<String> variants = new HashSet<>();
+        MenuSearchIndex.forEachOneEditVariant("piza", variants::add);
+
+        assertTrue(variants.containsAll(List.of("pizza", "pza", "pizz", "ipza", "pisa")));
+        assertFalse(variants.contains("piza"));
+        assertFalse(variants.contains("pasta"));
+        // 4 deletions + 3 swaps + 36 * 5 insertions + 35 * 4 substitutions, minus duplicates
+        assertTrue(variants.size() <= 4 + 3 + 36 * 5 + 35 * 4);
+    }
+
+    /**
+     * Query latency over 100k items.
+     * Run with: mvn test -Pbenchmark -Dtest=MenuSearchIndexTest
+     */
+    @Test
+    @Tag("benchmark")
+    public void benchmarkSearchAt100kItems() {
+        String[] styles = {"Classic", "Spicy", "Smoked", "Crispy", "Grilled", "Vegan", "Double", "Loaded", "Sweet", "Garlic"};
+        String[] dishes = {"Pizza", "Burger", "Taco", "Burrito", "Salad", "Wrap", "Noodles", "Curry", "Sandwich", "Soup",
+                "Milkshake", "Smoothie", "Pasta", "Ramen", "Dumplings", "Fries", "Wings", "Bowl", "Sushi", "Pancakes"};
+        String[] categories = {"Pizza", "Burgers", "Mexican", "Salads", "Asian", "Drinks", "Desserts", "Breakfast"};
+        Random random = new Random(7);
+
+        MenuSearchIndex index = new MenuSearchIndex();
+        long buildStart = System.nanoTime();
+        for (int i = 0; i < 100_000; i++) {
+            // A made-up kitchen word per item keeps the vocabulary realistically large
+            String name = styles[random.nextInt(styles.length)] + " " + randomWord(random) + " "
+                    + dishes[random.nextInt(dishes.length)];
+            index.put(item(i, name, categories[random.nextInt(categories.length)], random.nextInt(10) > 0));
+        }
+        long buildMillis = (System.nanoTime() - buildStart) / 1_000_000;
+
+        List<String> queries = List.of("pizza", "spicy burger", "griled taco", "smoked ram", "crispy wings",
+                "vegan noodles", "garlc", "pa", "desserts pancakes", "double burgr");
+        for (int i = 0; i < 20_000; i++) {
+            index.search(queries.get(i % queries.size()), 20, true);
+        }
+        System.out.printf("100k items indexed in %d ms%n", buildMillis);
+        for (String query : queries) {
+            long[] nanos = new long[1_000];
+            int hits = 0;
+            for (int i = 0; i < nanos.length; i++) {
+                long start = System.nanoTime();
+                hits = index.search(query, 20, true).size();
+                nanos[i] = System.nanoTime() - start;
+            }
+            Arrays.sort(nanos);
+            System.out.printf("  %-18s %2d hits  p50 %.3f ms  p99 %.3f ms%n",
+                    query, hits, nanos[nanos.length / 2] / 1e6, nanos[nanos.length * 99 / 100] / 1e6);
+        }
+    }
+
+    private static String randomWord(Random random) {
+        StringBuilder word = new StringBuilder();
+        int length = 4 + random.nextInt(5);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(26)));
+        }
+        return word.toString();
+    }
+
+    private static MenuItemResponse item(long id, String name, String category, boolean available) {
+        MenuItemResponse item = new MenuItemResponse();
+        item.setId(id);
+        item.setName(name);
+        item.setCategory(category);
+        item.setPrice(new BigDecimal("9.99"));
+        item.setAvailable(available);
+        return item;
+    }
+
+    private static List<Long> ids(List<MenuItemResponse> items) {
+        return items.stream().map(MenuItemResponse::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,160 @@
+package com.foodordering.service;
+
+import com.foodordering.dto.CreateOrderRequest;
+import com.foodordering.dto.MenuItemRequest;
+import com.foodordering.dto.MenuItemResponse;
+import com.foodordering.dto.OrderResponse;
+import com.foodordering.entity.DeliveryAssignment;
+import com.foodordering.entity.DeliveryStatus;
+import com.foodordering.entity.Driver;
+import com.foodordering.entity.OrderStatus;
+import com.foodordering.repository.ArchivedOrderRepository;
+import com.foodordering.repository.DeliveryAssignmentRepository;
+import com.foodordering.repository.DriverRepository;
+import com.foodordering.repository.OrderRepository;
+import com.foodordering.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class OrderArchiveServiceTest {
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private MenuService menuService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private DeliveryAssignmentRepository deliveryAssignmentRepository;
+
+    @Autowired
+    private DriverRepository driverRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<Long> createdOrderIds = new ArrayList<>();
+
+    private Long customerId;
+
+    private MenuItemResponse stew;
+
+    private Driver driver;
+
+    @BeforeEach
+    void setUp() {
+        customerId = userRepository.findByEmail("customer@example.com").orElseThrow().getId();
+        stew = menuService.createMenuItem(
+                new MenuItemRequest("Archive Test Stew", new BigDecimal("9.50"), "Stews", true));
+        driver = driverRepository.save(new Driver("Archive Test Driver", 40.0, -73.0));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        deliveryAssignmentRepository.deleteAll(deliveryAssignmentRepository.findByOrderIdIn(createdOrderIds));
+        archivedOrderRepository.deleteAllById(createdOrderIds);
+        orderRepository.deleteAllById(createdOrderIds);
+        driverRepository.deleteById(driver.getId());
+        menuService.deleteMenuItem(stew.getId());
+        createdOrderIds.clear();
+    }
+
+    @Test
+    public void testFinishedOrdersMoveToArchiveAndReadBack() {
+        OrderResponse delivered = placeOrder(2);
+        deliveryAssignmentRepository.save(
+                new DeliveryAssignment(delivered.getId(), driver.getId(), 1, 1.5, LocalDateTime.now()));
+        orderService.updateOrderStatus(delivered.getId(), "DELIVERED");
+        OrderResponse cancelled = placeOrder(1);
+        orderService.updateOrderStatus(cancelled.getId(), "CANCELLED");
+        OrderResponse open = placeOrder(3);
+        LocalDateTime deliveredCreatedAt = orderRepository.findById(delivered.getId()).orElseThrow().getCreatedAt();
+        LocalDateTime lastModified = orderService.getUserOrdersLastModified(customerId).orElseThrow();
+
+        assertEquals(2, orderArchiveService.archiveOrdersCreatedBefore(LocalDateTime.now().plusMinutes(1)));
+        // No remaining order changed, yet the list did: polling clients must not get a 304
+        assertTrue(orderService.getUserOrdersLastModified(customerId).orElseThrow().isAfter(lastModified));
+        assertFalse(orderRepository.existsById(delivered.getId()));
+        assertFalse(orderRepository.existsById(cancelled.getId()));
+        assertTrue(orderRepository.existsById(open.getId()));
+        assertTrue(deliveryAssignmentRepository.findByOrderId(delivered.getId()).isEmpty());
+
+        // Hot orders only, unless asked
+        assertEquals(List.of(open.getId()), ids(orderService.getUserOrders(customerId)));
+        List<OrderResponse> all = orderService.getUserOrders(customerId, true);
+        assertEquals(List.of(open.getId(), cancelled.getId(), delivered.getId()), ids(all));
+        OrderResponse archived = all.get(2);
+        assertEquals(OrderStatus.DELIVERED, archived.getStatus());
+        assertEquals(0, new BigDecimal("19.00").compareTo(archived.getTotal()));
+        assertEquals("Archive Test Stew", archived.getItems().get(0).getMenuItemName());
+        assertEquals(2, archived.getItems().get(0).getQuantity());
+        assertEquals(deliveredCreatedAt, archived.getCreatedAt());
+        assertNull(archived.getEstimatedDeliveryAt());
+
+        OrderResponse byId = orderService.getOrderById(delivered.getId(), customerId);
+        assertEquals(delivered.getId(), byId.getId());
+        assertThrows(RuntimeException.class, () -> orderService.getOrderById(delivered.getId(), customerId + 1));
+
+        OrderArchiveService.ArchivePayload payload = orderArchiveService.getPayload(delivered.getId()).orElseThrow();
+        assertEquals(driver.getId(), payload.delivery().driverId());
+        assertEquals(DeliveryStatus.DELIVERED, payload.delivery().status());
+    }
+
+    @Test
+    public void testRunMovesOrdersInChunksAndSkipsNewerOnes() {
+        for (int i = 0; i < 5; i++) {
+            orderService.updateOrderStatus(placeOrder(1).getId(), "DELIVERED");
+        }
+        LocalDateTime cutoff = LocalDateTime.now().plusSeconds(1);
+        assertEquals(0, orderArchiveService.archiveOrdersCreatedBefore(LocalDateTime.now().minusDays(1)));
+
+        Object chunkSize = ReflectionTestUtils.getField(orderArchiveService, "chunkSize");
+        ReflectionTestUtils.setField(orderArchiveService, "chunkSize", 2);
+        try {
+            assertEquals(5, orderArchiveService.archiveOrdersCreatedBefore(cutoff));
+        } finally {
+            ReflectionTestUtils.setField(orderArchiveService, "chunkSize", chunkSize);
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, Object> lastRun = (Map<String, Object>) orderArchiveService.snapshot().get("lastRun");
+        assertEquals(3, lastRun.get("chunks"));
+        assertTrue((Long) lastRun.get("storedBytes") < (Long) lastRun.get("jsonBytes"));
+        assertEquals(5, orderService.getUserOrders(customerId, true).size());
+    }
+
+    private OrderResponse placeOrder(int quantity) {
+        OrderResponse order = orderService.createOrder(
+                new CreateOrderRequest(List.of(new CreateOrderRequest.OrderItemRequest(stew.getId(), quantity))),
+                customerId);
+        createdOrderIds.add(order.getId());
+        return order;
+    }
+
+    private static List<Long> ids(List<OrderResponse> orders) {
+        return orders.stream().map(OrderResponse::getId).toList();
+    }
+}
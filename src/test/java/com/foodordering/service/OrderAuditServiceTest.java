@@ -0,0 +1,97 @@
+package com.foodordering.service;
+
+import com.foodordering.dto.CreateOrderRequest;
+import com.foodordering.dto.MenuItemRequest;
+import com.foodordering.dto.MenuItemResponse;
+import com.foodordering.dto.OrderAuditEntryResponse;
+import com.foodordering.dto.OrderResponse;
+import com.foodordering.entity.OrderStatus;
+import com.foodordering.repository.OrderRepository;
+import com.foodordering.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class OrderAuditServiceTest {
+
+    @Autowired
+    private OrderAuditService orderAuditService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private MenuService menuService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<Long> createdOrderIds = new ArrayList<>();
+
+    private Long customerId;
+
+    private MenuItemResponse soup;
+
+    @BeforeEach
+    void setUp() {
+        customerId = userRepository.findByEmail("customer@example.com").orElseThrow().getId();
+        soup = menuService.createMenuItem(
+                new MenuItemRequest("Audit Test Soup", new BigDecimal("6.75"), "Soups", true));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        orderRepository.deleteAllById(createdOrderIds);
+        menuService.deleteMenuItem(soup.getId());
+        createdOrderIds.clear();
+    }
+
+    @Test
+    public void testOrderHistoryIsJournaled() {
+        OrderResponse order = orderService.createOrder(
+                new CreateOrderRequest(List.of(new CreateOrderRequest.OrderItemRequest(soup.getId(), 2))),
+                customerId);
+        createdOrderIds.add(order.getId());
+        orderService.updateOrderStatus(order.getId(), "CONFIRMED");
+        orderService.updateOrderStatus(order.getId(), "CANCELLED");
+        // Rejected, so never journaled
+        assertThrows(RuntimeException.class, () -> orderService.updateOrderStatus(order.getId(), "SCHEDULED"));
+
+        outboxService.relay();
+        List<OrderAuditEntryResponse> history = orderAuditService.getOrderHistory(order.getId());
+        assertEquals(3, history.size());
+        assertEquals("ORDER_PLACED", history.get(0).getEventType());
+        assertEquals(OrderStatus.PENDING, history.get(0).getStatus());
+        assertEquals(0, order.getTotal().compareTo(history.get(0).getTotal()));
+        assertEquals(customerId, history.get(0).getUserId());
+        assertEquals(OrderStatus.PENDING, history.get(1).getPreviousStatus());
+        assertEquals(OrderStatus.CONFIRMED, history.get(1).getStatus());
+        assertEquals(OrderStatus.CANCELLED, history.get(2).getStatus());
+        assertNull(history.get(2).getTotal());
+        assertTrue(history.get(1).getSequence() < history.get(2).getSequence());
+
+        Map<String, Object> verification = orderAuditService.verify();
+        assertEquals(Boolean.TRUE, verification.get("valid"));
+        Map<String, Object> snapshot = orderAuditService.snapshot();
+        assertEquals(0L, snapshot.get("duplicatesSkipped"));
+        assertEquals((Long) snapshot.get("nextSequence") - 1, snapshot.get("durableSequence"));
+    }
+}
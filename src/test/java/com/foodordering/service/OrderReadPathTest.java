@@ -0,0 +1,207 @@
+package com.foodordering.service;
+
+import com.foodordering.dto.CreateOrderRequest;
+import com.foodordering.dto.OrderResponse;
+import com.foodordering.entity.MenuItem;
+import com.foodordering.entity.Order;
+import com.foodordering.repository.MenuItemRepository;
+import com.foodordering.repository.OrderRepository;
+import com.foodordering.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class OrderReadPathTest {
+
+    private static final String BENCHMARK_EMAIL = "order-read-benchmark@example.com";
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Long> createdOrderIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        orderRepository.deleteAllById(createdOrderIds);
+        createdOrderIds.clear();
+        jdbcTemplate.update("DELETE FROM order_items WHERE order_id IN " +
+                "(SELECT o.id FROM orders o JOIN users u ON u.id = o.user_id WHERE u.email = ?)", BENCHMARK_EMAIL);
+        jdbcTemplate.update("DELETE FROM orders WHERE user_id IN (SELECT id FROM users WHERE email = ?)", BENCHMARK_EMAIL);
+        jdbcTemplate.update("DELETE FROM users WHERE email = ?", BENCHMARK_EMAIL);
+    }
+
+    @Test
+    public void testProjectedOrdersMatchEntityMapping() {
+        Long userId = userRepository.findByEmail("customer@example.com").orElseThrow().getId();
+        List<MenuItem> items = menuItemRepository.findAll();
+        for (int i = 0; i < 3; i++) {
+            CreateOrderRequest request = new CreateOrderRequest(List.of(
+                    new CreateOrderRequest.OrderItemRequest(items.get(i).getId(), i + 1),
+                    new CreateOrderRequest.OrderItemRequest(items.get(i + 10).getId(), 2)
+            ));
+            createdOrderIds.add(orderService.createOrder(request, userId).getId());
+        }
+
+        List<OrderResponse> userOrders = orderService.getUserOrders(userId);
+        List<OrderResponse> allOrders = orderService.getAllOrders();
+        assertTrue(userOrders.stream().map(OrderResponse::getId).collect(Collectors.toList()).containsAll(createdOrderIds));
+        assertEquals(allOrders.stream().filter(order -> order.getUserId().equals(userId)).count(), userOrders.size());
+
+        for (Long orderId : createdOrderIds) {
+            OrderResponse expected = orderService.getOrderById(orderId, userId);
+            OrderResponse projected = userOrders.stream()
+                    .filter(order -> order.getId().equals(orderId))
+                    .findFirst()
+                    .orElseThrow();
+            assertEquals(expected.getStatus(), projected.getStatus());
+            assertEquals(0, expected.getTotal().compareTo(projected.getTotal()));
+            assertEquals(expected.getItems().size(), projected.getItems().size());
+            for (int i = 0; i < expected.getItems().size(); i++) {
+                OrderResponse.OrderItemResponse expectedItem = expected.getItems().get(i);
+                OrderResponse.OrderItemResponse projectedItem = projected.getItems().get(i);
+                assertEquals(expectedItem.getMenuItemName(), projectedItem.getMenuItemName());
+                assertEquals(expectedItem.getQuantity(), projectedItem.getQuantity());
+                assertEquals(0, expectedItem.getSubtotal().compareTo(projectedItem.getSubtotal()));
+            }
+        }
+
+        // Newest first
+        for (int i = 1; i < allOrders.size(); i++) {
+            assertFalse(allOrders.get(i).getCreatedAt().isAfter(allOrders.get(i - 1).getCreatedAt()));
+        }
+
+        // The streaming variant yields the same orders in the same order,
+        // with no transaction or connection held while the consumer runs
+        List<OrderResponse> streamed = new ArrayList<>();
+        orderService.forEachOrder(order -> {
+            assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+            streamed.add(order);
+        });
+        assertEquals(allOrders.stream().map(OrderResponse::getId).collect(Collectors.toList()),
+                streamed.stream().map(OrderResponse::getId).collect(Collectors.toList()));
+        assertEquals(allOrders.stream().mapToInt(order -> order.getItems().size()).sum(),
+                streamed.stream().mapToInt(order -> order.getItems().size()).sum());
+    }
+
+    @Test
+    public void testReadOnlyTransactionsSkipDirtyChecking() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            Session session = entityManager.unwrap(Session.class);
+            assertTrue(session.isDefaultReadOnly());
+            assertEquals(FlushMode.MANUAL, session.getHibernateFlushMode());
+
+            MenuItem item = menuItemRepository.findAll().get(0);
+            assertTrue(session.isReadOnly(item));
+        });
+    }
+
+    /**
+     * Compares heap allocated by the old entity-based getAllOrders with the projection-based one.
+     * Run with: mvn test -Pbenchmark -Dtest=OrderReadPathTest
+     */
+    @Test
+    @Tag("benchmark")
+    public void benchmarkGetAllOrdersAllocation() {
+        int orderCount = 50_000;
+        seedOrders(orderCount);
+
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        Supplier<Integer> entityPath = () -> readWrite.execute(status -> {
+            List<Order> orders = orderRepository.findAllByOrderByCreatedAtDesc();
+            int lines = 0;
+            for (Order order : orders) {
+                lines += order.getItems().stream().mapToInt(item -> item.getMenuItem().getName().length() > 0 ? 1 : 0).sum();
+            }
+            return lines;
+        });
+        Supplier<Integer> projectionPath = () -> orderService.getAllOrders().stream()
+                .mapToInt(order -> order.getItems().size())
+                .sum();
+
+        // Warm up both paths once before measuring
+        entityPath.get();
+        projectionPath.get();
+
+        long entityBytes = allocatedBytes(entityPath);
+        long projectionBytes = allocatedBytes(projectionPath);
+        System.out.printf("getAllOrders over %d orders: entity path %d MB, projection path %d MB%n",
+                orderCount, entityBytes >> 20, projectionBytes >> 20);
+        assertTrue(projectionBytes < entityBytes);
+    }
+
+    private void seedOrders(int orderCount) {
+        jdbcTemplate.update("INSERT INTO users (email, password, role, created_at, updated_at) VALUES (?, 'x', 'CUSTOMER', ?, ?)",
+                BENCHMARK_EMAIL, Timestamp.valueOf(LocalDateTime.now()), Timestamp.valueOf(LocalDateTime.now()));
+        Long userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = ?", Long.class, BENCHMARK_EMAIL);
+        List<MenuItem> menu = menuItemRepository.findAll();
+
+        LocalDateTime start = LocalDateTime.now().minusDays(30);
+        List<Object[]> orders = new ArrayList<>();
+        for (int i = 0; i < orderCount; i++) {
+            Timestamp createdAt = Timestamp.valueOf(start.plusSeconds(i * 50L));
+            orders.add(new Object[]{new BigDecimal("25.00"), createdAt, createdAt, userId, "DELIVERED"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO orders (total, created_at, updated_at, user_id, status) VALUES (?, ?, ?, ?, ?)", orders);
+
+        List<Long> orderIds = jdbcTemplate.queryForList("SELECT id FROM orders WHERE user_id = ?", Long.class, userId);
+        List<Object[]> lines = new ArrayList<>();
+        for (int i = 0; i < orderIds.size(); i++) {
+            for (int line = 0; line < 2; line++) {
+                MenuItem item = menu.get((i + line * 7) % menu.size());
+                lines.add(new Object[]{1 + line, item.getPrice(), item.getId(), orderIds.get(i)});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO order_items (quantity, unit_price, menu_item_id, order_id) VALUES (?, ?, ?, ?)", lines);
+    }
+
+    private static long allocatedBytes(Supplier<Integer> work) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        assertTrue(work.get() > 0);
+        return threads.getThreadAllocatedBytes(threadId) - before;
+    }
+}
@@ -0,0 +1,200 @@
+package com.foodordering.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodordering.dto.CreateOrderRequest;
+import com.foodordering.dto.MenuItemRequest;
+import com.foodordering.dto.MenuItemResponse;
+import com.foodordering.dto.OrderResponse;
+import com.foodordering.entity.OutboxEvent;
+import com.foodordering.entity.OutboxEventType;
+import com.foodordering.event.OutboxMessage;
+import com.foodordering.repository.OrderRepository;
+import com.foodordering.repository.OutboxEventRepository;
+import com.foodordering.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class OutboxServiceTest {
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private FileOutboxSink fileOutboxSink;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private MenuService menuService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<Long> createdOrderIds = new ArrayList<>();
+
+    private final List<OutboxMessage> delivered = new CopyOnWriteArrayList<>();
+
+    private final OutboxSink capturing = new OutboxSink() {
+        @Override
+        public String getName() {
+            return "capturing";
+        }
+
+        @Override
+        public void publish(List<OutboxMessage> batch) {
+            delivered.addAll(batch);
+        }
+    };
+
+    private final OutboxSink failing = new OutboxSink() {
+        @Override
+        public String getName() {
+            return "failing";
+        }
+
+        @Override
+        public void publish(List<OutboxMessage> batch) {
+            throw new IllegalStateException("broker down");
+        }
+    };
+
+    private OutboxService target;
+
+    private Object originalSinks;
+
+    private Long customerId;
+
+    private MenuItemResponse wrap;
+
+    @BeforeEach
+    void setUp() {
+        customerId = userRepository.findByEmail("customer@example.com").orElseThrow().getId();
+        wrap = menuService.createMenuItem(
+                new MenuItemRequest("Outbox Test Wrap", new BigDecimal("7.25"), "Wraps", true));
+        // The scheduled relay runs alongside the test, so it has to see the same sinks
+        target = AopTestUtils.getTargetObject(outboxService);
+        originalSinks = ReflectionTestUtils.getField(target, "sinks");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        ReflectionTestUtils.setField(target, "sinks", originalSinks);
+        outboxService.relay();
+        orderRepository.deleteAllById(createdOrderIds);
+        menuService.deleteMenuItem(wrap.getId());
+        createdOrderIds.clear();
+    }
+
+    @Test
+    public void testOrderEventsAreRelayedInOrderThenRemoved() {
+        useSinks(capturing);
+        OrderResponse order = placeOrder();
+        orderService.updateOrderStatus(order.getId(), "CONFIRMED");
+        orderService.updateOrderStatus(order.getId(), "PREPARING");
+
+        outboxService.relay();
+
+        List<OutboxMessage> messages = messagesFor(order.getId());
+        assertEquals(List.of(OutboxEventType.ORDER_PLACED, OutboxEventType.ORDER_STATUS_CHANGED,
+                OutboxEventType.ORDER_STATUS_CHANGED), messages.stream().map(OutboxMessage::getEventType).toList());
+        assertTrue(messages.get(0).getId() < messages.get(1).getId());
+        assertTrue(messages.get(1).getId() < messages.get(2).getId());
+        assertTrue(messages.get(2).getPayload().contains("\"newStatus\":\"PREPARING\""));
+        assertTrue(outboxEventRepository.findByAggregateIdOrderById(order.getId()).isEmpty());
+    }
+
+    @Test
+    public void testFailedBatchIsKeptAndRedelivered() {
+        useSinks(capturing, failing);
+        long failedBefore = (Long) outboxService.snapshot().get("failedBatches");
+        OrderResponse order = placeOrder();
+
+        // Written with the order, and kept while a sink refuses it
+        assertEquals(0, outboxService.relay());
+        List<OutboxEvent> pending = outboxEventRepository.findByAggregateIdOrderById(order.getId());
+        assertEquals(1, pending.size());
+        assertEquals(OutboxEventType.ORDER_PLACED, pending.get(0).getEventType());
+        assertTrue((Long) outboxService.snapshot().get("failedBatches") > failedBefore);
+        assertTrue(((String) outboxService.snapshot().get("lastError")).startsWith("failing:"));
+
+        useSinks(capturing);
+        outboxService.relay();
+        assertTrue(outboxEventRepository.findByAggregateIdOrderById(order.getId()).isEmpty());
+        // The first sink already had it: at least once, with the same id
+        List<OutboxMessage> messages = messagesFor(order.getId());
+        assertTrue(messages.size() >= 2);
+        assertTrue(messages.stream().allMatch(message -> message.getId().equals(pending.get(0).getId())));
+    }
+
+    @Test
+    public void testFileSinkAppendsJsonLines(@TempDir Path dir) throws Exception {
+        Path log = dir.resolve("events/order-events.log");
+        Object originalPath = ReflectionTestUtils.getField(fileOutboxSink, "path");
+        ReflectionTestUtils.setField(fileOutboxSink, "path", log);
+        try {
+            useSinks(fileOutboxSink);
+            OrderResponse order = placeOrder();
+            orderService.updateOrderStatus(order.getId(), "CANCELLED");
+            outboxService.relay();
+        } finally {
+            ReflectionTestUtils.setField(fileOutboxSink, "path", originalPath);
+        }
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : Files.readAllLines(log)) {
+            JsonNode node = objectMapper.readTree(line);
+            if (node.get("orderId").asLong() == createdOrderIds.get(0)) {
+                lines.add(node);
+            }
+        }
+        assertEquals(2, lines.size());
+        assertEquals("ORDER_PLACED", lines.get(0).get("eventType").asText());
+        assertEquals(customerId.longValue(), lines.get(0).get("payload").get("userId").asLong());
+        assertEquals("CANCELLED", lines.get(1).get("payload").get("newStatus").asText());
+    }
+
+    private void useSinks(OutboxSink... sinks) {
+        ReflectionTestUtils.setField(target, "sinks", List.of(sinks));
+    }
+
+    private List<OutboxMessage> messagesFor(Long orderId) {
+        return delivered.stream().filter(message -> message.getOrderId().equals(orderId)).toList();
+    }
+
+    private OrderResponse placeOrder() {
+        OrderResponse order = orderService.createOrder(
+                new CreateOrderRequest(List.of(new CreateOrderRequest.OrderItemRequest(wrap.getId(), 1))),
+                customerId);
+        createdOrderIds.add(order.getId());
+        return order;
+    }
+}
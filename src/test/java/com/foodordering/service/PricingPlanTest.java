@@ -0,0 +1,216 @@
+package com.foodordering.service;
+
+import com.foodordering.entity.PricingRule;
+import com.foodordering.entity.PricingRuleType;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PricingPlanTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    @Test
+    public void testEachLineGetsItsBestOffer() {
+        PricingRule percent = rule("10% off margherita", PricingRuleType.PERCENT_OFF, "10");
+        percent.setMenuItemId(1L);
+        PricingRule amount = rule("3 off pizzas", PricingRuleType.AMOUNT_OFF, "3");
+        amount.setCategory("Pizza");
+        PricingRule threeForTwo = buyXGetY("3 for 2 margherita", 2, 1);
+        threeForTwo.setMenuItemId(1L);
+        PricingPlan plan = PricingPlan.compile(List.of(percent, amount, threeForTwo), NOON);
+
+        // Three at 10.00: 3.00 percent, 9.00 amount off, 10.00 free item
+        PricingPlan.Result result = plan.price(List.of(line(1L, "Pizza", 3, "10.00")));
+        assertEquals(new BigDecimal("10.00"), result.discount());
+        assertEquals(List.of("3 for 2 margherita"), result.appliedRules());
+
+        result = plan.price(List.of(
+                line(1L, "pizza", 2, "10.00"),
+                line(2L, "Pizza", 1, "2.50"),
+                line(3L, "Drinks", 1, "2.00")));
+        // 6.00 on the first line, never more than the price on the second, nothing on drinks
+        assertEquals(new BigDecimal("8.50"), result.discount());
+        assertEquals(List.of("3 off pizzas", "3 off pizzas"), result.appliedRules());
+    }
+
+    @Test
+    public void testBuyXGetYKeepsOnlyRulesThatCanWin() {
+        PricingRule twoForOne = buyXGetY("2 for 1", 1, 1);
+        PricingRule threeForTwo = buyXGetY("3 for 2", 2, 1);
+        PricingRule fiveForThree = buyXGetY("5 for 3", 3, 2);
+        for (PricingRule rule : List.of(threeForTwo, fiveForThree, twoForOne)) {
+            rule.setCategory("Sides");
+        }
+        PricingPlan plan = PricingPlan.compile(List.of(threeForTwo, fiveForThree, twoForOne), NOON);
+
+        assertEquals(new BigDecimal("0.00"), plan.price(List.of(line(1L, "Sides", 1, "4.00"))).discount());
+        assertEquals(new BigDecimal("8.00"), plan.price(List.of(line(1L, "Sides", 5, "4.00"))).discount());
+        assertEquals(List.of("2 for 1"), plan.price(List.of(line(1L, "Sides", 4, "4.00"))).appliedRules());
+    }
+
+    @Test
+    public void testBestComboAppliesPerCompleteSet() {
+        PricingRule meal = rule("Burger meal", PricingRuleType.COMBO, "2");
+        meal.setComboCategories("Burgers, Drinks");
+        PricingRule bigMeal = rule("Big meal", PricingRuleType.COMBO, "5");
+        bigMeal.setComboCategories("Drinks,Burgers,Sides");
+        PricingRule dessert = rule("Sweet deal", PricingRuleType.COMBO, "2");
+        dessert.setComboCategories("Desserts,Drinks");
+        PricingPlan plan = PricingPlan.compile(List.of(meal, bigMeal, dessert), NOON);
+
+        PricingPlan.Result result = plan.price(List.of(
+                line(1L, "Burgers", 2, "9.00"),
+                line(2L, "Drinks", 3, "2.00"),
+                line(3L, "Pizza", 1, "12.00")));
+        assertEquals(new BigDecimal("4.00"), result.discount());
+        assertEquals(List.of("Burger meal"), result.appliedRules());
+
+        result = plan.price(List.of(
+                line(1L, "Burgers", 2, "9.00"),
+                line(2L, "Drinks", 2, "2.00"),
+                line(4L, "Sides", 1, "3.00")));
+        assertEquals(new BigDecimal("5.00"), result.discount());
+        assertEquals(List.of("Big meal"), result.appliedRules());
+
+        // Capped at what the cheapest set costs
+        assertEquals(new BigDecimal("1.50"), plan.price(List.of(
+                line(5L, "Desserts", 1, "0.50"),
+                line(2L, "Drinks", 1, "1.00"))).discount());
+    }
+
+    @Test
+    public void testTimeWindowsAndRecompileTime() {
+        PricingRule happyHour = rule("Happy hour", PricingRuleType.PERCENT_OFF, "50");
+        happyHour.setCategory("Drinks");
+        happyHour.setDailyStart(LocalTime.of(17, 0));
+        happyHour.setDailyEnd(LocalTime.of(19, 0));
+        PricingRule lateNight = rule("Late night", PricingRuleType.AMOUNT_OFF, "1");
+        lateNight.setCategory("Pizza");
+        lateNight.setDailyStart(LocalTime.of(22, 0));
+        lateNight.setDailyEnd(LocalTime.of(2, 0));
+        PricingRule launch = rule("Launch week", PricingRuleType.PERCENT_OFF, "20");
+        launch.setMenuItemId(9L);
+        launch.setStartsAt(NOON.plusDays(2));
+        launch.setEndsAt(NOON.plusDays(9));
+        PricingRule disabled = rule("Disabled", PricingRuleType.PERCENT_OFF, "90");
+        disabled.setCategory("Drinks");
+        disabled.setActive(false);
+        List<PricingRule> rules = List.of(happyHour, lateNight, launch, disabled);
+        List<PricingPlan.Line> cart = List.of(line(1L, "Drinks", 1, "4.00"), line(2L, "Pizza", 1, "10.00"),
+                line(9L, "Burgers", 1, "10.00"));
+
+        PricingPlan plan = PricingPlan.compile(rules, NOON);
+        assertEquals(new BigDecimal("0.00"), plan.price(cart).discount());
+        assertEquals(0, plan.getActiveRules());
+        assertEquals(NOON.withHour(17), plan.getValidUntil());
+        assertFalse(plan.isValidAt(NOON.withHour(17)));
+
+        plan = PricingPlan.compile(rules, NOON.withHour(18));
+        assertEquals(new BigDecimal("2.00"), plan.price(cart).discount());
+        assertEquals(NOON.withHour(19), plan.getValidUntil());
+
+        plan = PricingPlan.compile(rules, NOON.plusDays(3).withHour(1));
+        assertEquals(new BigDecimal("3.00"), plan.price(cart).discount());
+        assertEquals(NOON.plusDays(3).withHour(2), plan.getValidUntil());
+
+        plan = PricingPlan.compile(rules, NOON.plusDays(10));
+        assertEquals(new BigDecimal("0.00"), plan.price(cart).discount());
+        assertEquals(NOON.plusDays(10).withHour(17), plan.getValidUntil());
+    }
+
+    /**
+     * Cost of pricing a 10-line cart against 100 and 10,000 active rules over 2,000 items in
+     * 40 categories, plus the time to compile the larger plan.
+     * Run with: mvn test -Pbenchmark -Dtest=PricingPlanTest
+     */
+    @Test
+    @Tag("benchmark")
+    public void benchmarkPricingWithManyRules() {
+        int items = 2_000;
+        int categories = 40;
+        Random random = new Random(17);
+        List<List<PricingPlan.Line>> carts = new ArrayList<>();
+        for (int c = 0; c < 1_000; c++) {
+            List<PricingPlan.Line> cart = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                long item = random.nextInt(items);
+                cart.add(new PricingPlan.Line(item, "category-" + item % categories, 1 + random.nextInt(4),
+                        BigDecimal.valueOf(200 + random.nextInt(2_000), 2)));
+            }
+            carts.add(cart);
+        }
+
+        for (int ruleCount : new int[] {100, 10_000}) {
+            List<PricingRule> rules = randomRules(ruleCount, items, categories, new Random(ruleCount));
+            long compileStart = System.nanoTime();
+            PricingPlan plan = PricingPlan.compile(rules, NOON);
+            long compileNanos = System.nanoTime() - compileStart;
+
+            BigDecimal checksum = BigDecimal.ZERO;
+            for (int warmup = 0; warmup < 200_000; warmup++) {
+                checksum = checksum.add(plan.price(carts.get(warmup % carts.size())).discount());
+            }
+            int iterations = 500_000;
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                checksum = checksum.add(plan.price(carts.get(i % carts.size())).discount());
+            }
+            long nanos = System.nanoTime() - start;
+            System.out.printf("%,d rules (%,d applying, %,d keys): compile %.1f ms, %.2f us per 10-line cart "
+                            + "(checksum %s)%n", ruleCount, plan.getActiveRules(), plan.getIndexedKeys(),
+                    compileNanos / 1e6, nanos / 1e3 / iterations, checksum);
+        }
+    }
+
+    private static List<PricingRule> randomRules(int count, int items, int categories, Random random) {
+        List<PricingRule> rules = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            PricingRuleType type = PricingRuleType.values()[random.nextInt(PricingRuleType.values().length)];
+            PricingRule rule = type == PricingRuleType.BUY_X_GET_Y
+                    ? buyXGetY("rule-" + i, 1 + random.nextInt(4), 1 + random.nextInt(2))
+                    : rule("rule-" + i, type, type == PricingRuleType.PERCENT_OFF
+                            ? String.valueOf(5 + random.nextInt(40)) : (1 + random.nextInt(5)) + ".00");
+            if (type == PricingRuleType.COMBO) {
+                int first = random.nextInt(categories);
+                int second = (first + 1 + random.nextInt(categories - 1)) % categories;
+                rule.setComboCategories("category-" + first + ",category-" + second);
+            } else if (random.nextBoolean()) {
+                rule.setMenuItemId((long) random.nextInt(items));
+            } else {
+                rule.setCategory("category-" + random.nextInt(categories));
+            }
+            // A third run as happy hours, some of them now
+            if (random.nextInt(3) == 0) {
+                int hour = random.nextInt(24);
+                rule.setDailyStart(LocalTime.of(hour, 0));
+                rule.setDailyEnd(LocalTime.of((hour + 2) % 24, 0));
+            }
+            rules.add(rule);
+        }
+        return rules;
+    }
+
+    private static PricingRule rule(String name, PricingRuleType type, String value) {
+        return new PricingRule(name, type, new BigDecimal(value));
+    }
+
+    private static PricingRule buyXGetY(String name, int buy, int free) {
+        PricingRule rule = new PricingRule(name, PricingRuleType.BUY_X_GET_Y, null);
+        rule.setBuyQuantity(buy);
+        rule.setFreeQuantity(free);
+        return rule;
+    }
+
+    private static PricingPlan.Line line(Long menuItemId, String category, int quantity, String unitPrice) {
+        return new PricingPlan.Line(menuItemId, category, quantity, new BigDecimal(unitPrice));
+    }
+}
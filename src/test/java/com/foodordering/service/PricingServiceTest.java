@@ -0,0 +1,157 @@
+package com.foodordering.service;
+
+import com.foodordering.dto.CartQuoteResponse;
+import com.foodordering.dto.CreateOrderRequest;
+import com.foodordering.dto.MenuItemRequest;
+import com.foodordering.dto.MenuItemResponse;
+import com.foodordering.dto.OrderResponse;
+import com.foodordering.dto.PricingRuleRequest;
+import com.foodordering.dto.PricingRuleResponse;
+import com.foodordering.entity.PricingRuleType;
+import com.foodordering.repository.OrderRepository;
+import com.foodordering.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class PricingServiceTest {
+
+    @Autowired
+    private PricingService pricingService;
+
+    @Autowired
+    private CartQuoteService cartQuoteService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private MenuService menuService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<Long> createdOrderIds = new ArrayList<>();
+
+    private final List<Long> createdRuleIds = new ArrayList<>();
+
+    private Long customerId;
+
+    private MenuItemResponse wings;
+
+    @BeforeEach
+    void setUp() {
+        customerId = userRepository.findByEmail("customer@example.com").orElseThrow().getId();
+        wings = menuService.createMenuItem(
+                new MenuItemRequest("Pricing Test Wings", new BigDecimal("8.00"), "Pricing Test", true));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        orderRepository.deleteAllById(createdOrderIds);
+        createdRuleIds.forEach(pricingService::deleteRule);
+        menuService.deleteMenuItem(wings.getId());
+        createdOrderIds.clear();
+        createdRuleIds.clear();
+    }
+
+    @Test
+    public void testRulesApplyToQuotesAndOrders() {
+        PricingRuleRequest percent = new PricingRuleRequest("Wing Wednesday", PricingRuleType.PERCENT_OFF,
+                new BigDecimal("25"));
+        percent.setCategory("Pricing Test");
+        createRule(percent);
+        PricingRuleRequest threeForTwo = new PricingRuleRequest("Wings 3 for 2", PricingRuleType.BUY_X_GET_Y, null);
+        threeForTwo.setMenuItemId(wings.getId());
+        threeForTwo.setBuyQuantity(2);
+        threeForTwo.setFreeQuantity(1);
+        createRule(threeForTwo);
+
+        List<CreateOrderRequest.OrderItemRequest> cart = List.of(new CreateOrderRequest.OrderItemRequest(wings.getId(), 2));
+        CartQuoteResponse quote = cartQuoteService.quote(cart, customerId);
+        assertEquals(new BigDecimal("16.00"), quote.getSubtotal());
+        assertEquals(new BigDecimal("4.00"), quote.getDiscount());
+        assertEquals(new BigDecimal("12.00"), quote.getTotal());
+        assertEquals(List.of("Wing Wednesday"), quote.getAppliedPromotions());
+
+        OrderResponse quoted = placeOrder(cart, quote.getQuoteToken());
+        assertEquals(0, new BigDecimal("12.00").compareTo(quoted.getTotal()));
+        assertEquals(0, new BigDecimal("4.00").compareTo(quoted.getDiscount()));
+
+        // Without a quote the same rules price the order; three wings make the third one free
+        OrderResponse order = placeOrder(List.of(new CreateOrderRequest.OrderItemRequest(wings.getId(), 3)), null);
+        assertEquals(0, new BigDecimal("16.00").compareTo(order.getTotal()));
+        assertEquals(0, new BigDecimal("8.00").compareTo(order.getDiscount()));
+        OrderResponse listed = orderService.getUserOrders(customerId).stream()
+                .filter(summary -> summary.getId().equals(order.getId()))
+                .findFirst().orElseThrow();
+        assertEquals(0, new BigDecimal("8.00").compareTo(listed.getDiscount()));
+    }
+
+    @Test
+    public void testDisabledAndDeletedRulesStopApplying() {
+        PricingRuleRequest request = new PricingRuleRequest("Wings 2 off", PricingRuleType.AMOUNT_OFF,
+                new BigDecimal("2.00"));
+        request.setMenuItemId(wings.getId());
+        PricingRuleResponse rule = createRule(request);
+        List<CreateOrderRequest.OrderItemRequest> cart = List.of(new CreateOrderRequest.OrderItemRequest(wings.getId(), 1));
+        assertEquals(new BigDecimal("2.00"), cartQuoteService.quote(cart, customerId).getDiscount());
+
+        request.setActive(false);
+        assertTrue(pricingService.updateRule(rule.getId(), request).isPresent());
+        assertEquals(new BigDecimal("0.00"), cartQuoteService.quote(cart, customerId).getDiscount());
+
+        assertTrue(pricingService.deleteRule(rule.getId()));
+        assertFalse(pricingService.deleteRule(rule.getId()));
+        assertTrue(pricingService.getRules().stream().noneMatch(listed -> listed.getId().equals(rule.getId())));
+    }
+
+    @Test
+    public void testInvalidRulesAreRejected() {
+        PricingRuleRequest both = new PricingRuleRequest("Both", PricingRuleType.PERCENT_OFF, BigDecimal.TEN);
+        both.setMenuItemId(wings.getId());
+        both.setCategory("Pricing Test");
+        assertThrows(RuntimeException.class, () -> pricingService.createRule(both));
+
+        PricingRuleRequest combo = new PricingRuleRequest("Lonely combo", PricingRuleType.COMBO, BigDecimal.ONE);
+        combo.setComboCategories("Burgers, burgers");
+        assertThrows(RuntimeException.class, () -> pricingService.createRule(combo));
+
+        PricingRuleRequest tooMuch = new PricingRuleRequest("Too much", PricingRuleType.PERCENT_OFF,
+                new BigDecimal("100.5"));
+        tooMuch.setCategory("Pricing Test");
+        assertThrows(RuntimeException.class, () -> pricingService.createRule(tooMuch));
+
+        PricingRuleRequest noQuantities = new PricingRuleRequest("No quantities", PricingRuleType.BUY_X_GET_Y, null);
+        noQuantities.setCategory("Pricing Test");
+        assertThrows(RuntimeException.class, () -> pricingService.createRule(noQuantities));
+    }
+
+    private PricingRuleResponse createRule(PricingRuleRequest request) {
+        PricingRuleResponse rule = pricingService.createRule(request);
+        createdRuleIds.add(rule.getId());
+        return rule;
+    }
+
+    private OrderResponse placeOrder(List<CreateOrderRequest.OrderItemRequest> cart, String quoteToken) {
+        CreateOrderRequest request = new CreateOrderRequest(cart);
+        request.setQuoteToken(quoteToken);
+        OrderResponse order = orderService.createOrder(request, customerId);
+        createdOrderIds.add(order.getId());
+        return order;
+    }
+}
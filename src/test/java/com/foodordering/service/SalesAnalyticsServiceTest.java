@@ -0,0 +1,167 @@
+package com.foodordering.service;
+
+import com.foodordering.dto.CreateOrderRequest;
+import com.foodordering.dto.OrderResponse;
+import com.foodordering.dto.PricingRuleRequest;
+import com.foodordering.dto.SalesRollupResponse;
+import com.foodordering.entity.MenuItem;
+import com.foodordering.entity.PricingRuleType;
+import com.foodordering.entity.RollupDimension;
+import com.foodordering.repository.MenuItemRepository;
+import com.foodordering.repository.OrderRepository;
+import com.foodordering.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class SalesAnalyticsServiceTest {
+    
+    @Autowired
+    private SalesAnalyticsService salesAnalyticsService;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PricingService pricingService;
+    
+    private final List<Long> createdOrderIds = new ArrayList<>();
+    
+    @AfterEach
+    void cleanUp() {
+        orderRepository.deleteAllById(createdOrderIds);
+        createdOrderIds.clear();
+    }
+    
+    @Test
+    public void testCommittedOrdersAreRolledUpPerItemAndCategory() {
+        MenuItem pizza = findItem("Margherita Pizza");
+        MenuItem cola = findItem("Coca Cola");
+        LocalDateTime from = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime to = from.plusHours(1);
+        
+        SalesRollupResponse pizzaBefore = total(RollupDimension.MENU_ITEM, String.valueOf(pizza.getId()), from, to);
+        SalesRollupResponse drinksBefore = total(RollupDimension.CATEGORY, "Drinks", from, to);
+        
+        placeOrder(pizza.getId(), 2, cola.getId(), 1);
+        
+        // Unflushed deltas are already visible
+        SalesRollupResponse pizzaPending = total(RollupDimension.MENU_ITEM, String.valueOf(pizza.getId()), from, to);
+        assertEquals(pizzaBefore.getQuantity() + 2, pizzaPending.getQuantity());
+        
+        salesAnalyticsService.flush();
+        
+        SalesRollupResponse pizzaAfter = total(RollupDimension.MENU_ITEM, String.valueOf(pizza.getId()), from, to);
+        SalesRollupResponse drinksAfter = total(RollupDimension.CATEGORY, "Drinks", from, to);
+        assertEquals(pizzaBefore.getQuantity() + 2, pizzaAfter.getQuantity());
+        assertEquals(pizzaBefore.getOrderCount() + 1, pizzaAfter.getOrderCount());
+        assertEquals(0, pizzaBefore.getRevenue().add(pizza.getPrice().multiply(BigDecimal.valueOf(2)))
+                .compareTo(pizzaAfter.getRevenue()));
+        assertEquals(drinksBefore.getQuantity() + 1, drinksAfter.getQuantity());
+        assertEquals("Margherita Pizza", pizzaAfter.getLabel());
+        
+        List<SalesRollupResponse> hourly = salesAnalyticsService.getHourlyRollups(RollupDimension.STORE,
+                SalesAnalyticsService.STORE_KEY, from, to);
+        assertEquals(1, hourly.size());
+        assertEquals(from, hourly.get(0).getBucketStart());
+    }
+    
+    @Test
+    public void testRevenueIsNetOfPromotions() {
+        MenuItem pizza = findItem("Hawaiian Pizza");
+        MenuItem cola = findItem("Iced Tea");
+        PricingRuleRequest percent = new PricingRuleRequest("Analytics Test Pizza Deal", PricingRuleType.PERCENT_OFF,
+                new BigDecimal("15"));
+        percent.setMenuItemId(pizza.getId());
+        Long ruleId = pricingService.createRule(percent).getId();
+        try {
+            LocalDateTime from = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+            LocalDateTime to = from.plusHours(1);
+            SalesRollupResponse storeBefore = total(RollupDimension.STORE, SalesAnalyticsService.STORE_KEY, from, to);
+            SalesRollupResponse pizzaBefore = total(RollupDimension.MENU_ITEM, String.valueOf(pizza.getId()), from, to);
+            
+            OrderResponse order = placeOrder(pizza.getId(), 3, cola.getId(), 2);
+            assertTrue(order.getDiscount().signum() > 0);
+            salesAnalyticsService.flush();
+            
+            SalesRollupResponse storeAfter = total(RollupDimension.STORE, SalesAnalyticsService.STORE_KEY, from, to);
+            SalesRollupResponse pizzaAfter = total(RollupDimension.MENU_ITEM, String.valueOf(pizza.getId()), from, to);
+            assertEquals(0, storeBefore.getRevenue().add(order.getTotal()).compareTo(storeAfter.getRevenue()));
+            BigDecimal pizzaGross = pizza.getPrice().multiply(BigDecimal.valueOf(3));
+            assertTrue(pizzaAfter.getRevenue().subtract(pizzaBefore.getRevenue()).compareTo(pizzaGross) < 0);
+            
+            orderService.updateOrderStatus(order.getId(), "CANCELLED");
+            salesAnalyticsService.flush();
+            assertEquals(0, storeBefore.getRevenue().compareTo(
+                    total(RollupDimension.STORE, SalesAnalyticsService.STORE_KEY, from, to).getRevenue()));
+        } finally {
+            pricingService.deleteRule(ruleId);
+        }
+    }
+    
+    @Test
+    public void testCancellationReversesRollups() {
+        MenuItem pizza = findItem("Pepperoni Pizza");
+        MenuItem cola = findItem("Pepsi");
+        LocalDateTime from = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime to = from.plusHours(1);
+        
+        SalesRollupResponse before = total(RollupDimension.CATEGORY, "Pizza", from, to);
+        
+        OrderResponse order = placeOrder(pizza.getId(), 3, cola.getId(), 1);
+        salesAnalyticsService.flush();
+        orderService.updateOrderStatus(order.getId(), "CANCELLED");
+        salesAnalyticsService.flush();
+        
+        SalesRollupResponse after = total(RollupDimension.CATEGORY, "Pizza", from, to);
+        assertEquals(before.getQuantity(), after.getQuantity());
+        assertEquals(before.getOrderCount(), after.getOrderCount());
+        assertEquals(0, before.getRevenue().compareTo(after.getRevenue()));
+    }
+    
+    private OrderResponse placeOrder(Long firstItemId, int firstQuantity, Long secondItemId, int secondQuantity) {
+        Long userId = userRepository.findByEmail("customer@example.com").orElseThrow().getId();
+        CreateOrderRequest request = new CreateOrderRequest(List.of(
+                new CreateOrderRequest.OrderItemRequest(firstItemId, firstQuantity),
+                new CreateOrderRequest.OrderItemRequest(secondItemId, secondQuantity)
+        ));
+        OrderResponse order = orderService.createOrder(request, userId);
+        createdOrderIds.add(order.getId());
+        return order;
+    }
+    
+    private MenuItem findItem(String name) {
+        return menuItemRepository.findAll().stream()
+                .filter(item -> item.getName().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+    
+    private SalesRollupResponse total(RollupDimension dimension, String key, LocalDateTime from, LocalDateTime to) {
+        return salesAnalyticsService.getTotals(dimension, from, to).stream()
+                .filter(rollup -> rollup.getKey().equals(key))
+                .findFirst()
+                .orElse(new SalesRollupResponse(dimension, key, null, null, BigDecimal.ZERO, 0L, 0L));
+    }
+}
@@ -0,0 +1,167 @@
+package com.foodordering.service;
+
+import com.foodordering.dto.CreateOrderRequest;
+import com.foodordering.dto.MenuItemRequest;
+import com.foodordering.dto.MenuItemResponse;
+import com.foodordering.dto.OrderResponse;
+import com.foodordering.entity.OrderStatus;
+import com.foodordering.repository.OrderRepository;
+import com.foodordering.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class ScheduledOrderServiceTest {
+
+    private static final long HOUR_MILLIS = 3_600_000L;
+
+    @Autowired
+    private ScheduledOrderService scheduledOrderService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private MenuService menuService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Long> createdOrderIds = new ArrayList<>();
+
+    private Long customerId;
+
+    private MenuItemResponse pie;
+
+    @BeforeEach
+    void setUp() {
+        customerId = userRepository.findByEmail("customer@example.com").orElseThrow().getId();
+        pie = menuService.createMenuItem(
+                new MenuItemRequest("Scheduled Test Pie", new BigDecimal("11.00"), "Pies", true));
+        // releaseDue below moves the wheel hours ahead; start each test from a wheel at the real time
+        scheduledOrderService.init();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        orderRepository.deleteAllById(createdOrderIds);
+        menuService.deleteMenuItem(pie.getId());
+        createdOrderIds.clear();
+        scheduledOrderService.init();
+    }
+
+    @Test
+    public void testScheduledOrderIsHeldThenReleased() {
+        LocalDateTime wantedAt = LocalDateTime.now().plusHours(3).truncatedTo(ChronoUnit.SECONDS);
+        OrderResponse order = placeOrder(wantedAt);
+
+        assertEquals(OrderStatus.SCHEDULED, order.getStatus());
+        assertEquals(wantedAt, order.getScheduledFor());
+        assertEquals(wantedAt, order.getEstimatedDeliveryAt());
+        assertTrue(scheduledOrderService.isWaiting(order.getId()));
+        OrderResponse listed = orderService.getUserOrders(customerId).stream()
+                .filter(summary -> summary.getId().equals(order.getId()))
+                .findFirst().orElseThrow();
+        assertEquals(wantedAt, listed.getScheduledFor());
+
+        // Not before the lead time ahead of the requested time
+        scheduledOrderService.releaseDue(System.currentTimeMillis() + HOUR_MILLIS);
+        assertEquals(OrderStatus.SCHEDULED, orderRepository.findById(order.getId()).orElseThrow().getStatus());
+
+        assertEquals(1, scheduledOrderService.releaseDue(System.currentTimeMillis() + 3 * HOUR_MILLIS));
+        assertEquals(OrderStatus.PENDING, orderRepository.findById(order.getId()).orElseThrow().getStatus());
+        assertFalse(scheduledOrderService.isWaiting(order.getId()));
+    }
+
+    @Test
+    public void testOrderWithinLeadTimeStartsNow() {
+        LocalDateTime wantedAt = LocalDateTime.now().plusMinutes(20);
+        OrderResponse order = placeOrder(wantedAt);
+
+        assertEquals(OrderStatus.PENDING, order.getStatus());
+        assertEquals(wantedAt, order.getScheduledFor());
+        assertFalse(scheduledOrderService.isWaiting(order.getId()));
+
+        CreateOrderRequest tooFar = new CreateOrderRequest(List.of(new CreateOrderRequest.OrderItemRequest(pie.getId(), 1)));
+        tooFar.setScheduledFor(LocalDateTime.now().plusDays(90));
+        assertThrows(RuntimeException.class, () -> orderService.createOrder(tooFar, customerId));
+        assertThrows(RuntimeException.class, () -> orderService.updateOrderStatus(order.getId(), "SCHEDULED"));
+    }
+
+    @Test
+    public void testCancelledOrderIsNotReleased() {
+        OrderResponse order = placeOrder(LocalDateTime.now().plusHours(2));
+        orderService.updateOrderStatus(order.getId(), "CANCELLED");
+
+        assertFalse(scheduledOrderService.isWaiting(order.getId()));
+        scheduledOrderService.releaseDue(System.currentTimeMillis() + 3 * HOUR_MILLIS);
+        assertEquals(OrderStatus.CANCELLED, orderRepository.findById(order.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    public void testCancelCommittedDuringReleaseWins() throws Exception {
+        OrderResponse order = placeOrder(LocalDateTime.now().plusHours(2));
+
+        Boolean released = new TransactionTemplate(transactionManager).execute(status -> {
+            // The release transaction has already read the order as SCHEDULED when the cancel commits
+            assertEquals(OrderStatus.SCHEDULED, orderRepository.findById(order.getId()).orElseThrow().getStatus());
+            Thread cancel = new Thread(() -> orderService.updateOrderStatus(order.getId(), "CANCELLED"));
+            cancel.start();
+            try {
+                cancel.join(10_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return orderService.releaseScheduledOrder(order.getId());
+        });
+
+        assertFalse(released);
+        assertEquals(OrderStatus.CANCELLED, orderRepository.findById(order.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    public void testWaitingOrdersAreRecoveredAfterRestart() {
+        OrderResponse order = placeOrder(LocalDateTime.now().plusDays(2));
+        OrderResponse cancelled = placeOrder(LocalDateTime.now().plusDays(2));
+        orderService.updateOrderStatus(cancelled.getId(), "CANCELLED");
+
+        // A fresh wheel, as after a restart
+        scheduledOrderService.init();
+        assertFalse(scheduledOrderService.isWaiting(order.getId()));
+        scheduledOrderService.recover();
+
+        assertTrue(scheduledOrderService.isWaiting(order.getId()));
+        assertFalse(scheduledOrderService.isWaiting(cancelled.getId()));
+        assertEquals(1, scheduledOrderService.releaseDue(System.currentTimeMillis() + 48 * HOUR_MILLIS));
+        assertEquals(OrderStatus.PENDING, orderRepository.findById(order.getId()).orElseThrow().getStatus());
+    }
+
+    private OrderResponse placeOrder(LocalDateTime scheduledFor) {
+        CreateOrderRequest request = new CreateOrderRequest(List.of(new CreateOrderRequest.OrderItemRequest(pie.getId(), 1)));
+        request.setScheduledFor(scheduledFor);
+        OrderResponse order = orderService.createOrder(request, customerId);
+        createdOrderIds.add(order.getId());
+        return order;
+    }
+}
@@ -0,0 +1,108 @@
+package com.foodordering.service;
+
+import com.foodordering.config.SecondLevelCacheConfig;
+import com.foodordering.dto.MenuItemRequest;
+import com.foodordering.dto.MenuItemResponse;
+import com.foodordering.entity.MenuItem;
+import com.foodordering.repository.MenuItemRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class SecondLevelCacheTest {
+
+    @Autowired
+    private MenuService menuService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MenuBulkImportService menuBulkImportService;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM menu_items WHERE category LIKE 'CacheTest%'");
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    public void testMenuItemIsServedFromCacheAndInvalidatedByMenuServiceWrites() {
+        Long id = menuItemRepository.findAll().get(0).getId();
+        menuService.getMenuItemById(id);
+
+        Statistics statistics = statistics();
+        long hitsBefore = statistics.getCacheRegionStatistics(SecondLevelCacheConfig.MENU_ITEMS_REGION).getHitCount();
+        boolean available = menuService.getMenuItemById(id).orElseThrow().getAvailable();
+        assertTrue(statistics.getCacheRegionStatistics(SecondLevelCacheConfig.MENU_ITEMS_REGION).getHitCount() > hitsBefore);
+
+        int availableBefore = menuService.getAvailableMenuItems().size();
+        menuService.toggleAvailability(id);
+        try {
+            assertEquals(!available, menuService.getMenuItemById(id).orElseThrow().getAvailable());
+            // The cached findByAvailable result is invalidated by the write
+            assertEquals(availableBefore + (available ? -1 : 1), menuService.getAvailableMenuItems().size());
+        } finally {
+            menuService.toggleAvailability(id);
+        }
+        assertEquals(available, menuService.getMenuItemById(id).orElseThrow().getAvailable());
+    }
+
+    @Test
+    public void testUserLookupByEmailUsesNaturalIdCache() {
+        userService.findByEmail("customer@example.com").orElseThrow();
+
+        Statistics statistics = statistics();
+        long hitsBefore = statistics.getCacheRegionStatistics(SecondLevelCacheConfig.USER_EMAILS_REGION).getHitCount();
+        assertEquals("customer@example.com", userService.findByEmail("customer@example.com").orElseThrow().getEmail());
+        assertTrue(statistics.getCacheRegionStatistics(SecondLevelCacheConfig.USER_EMAILS_REGION).getHitCount() > hitsBefore);
+
+        assertTrue(userService.findByEmail("nobody@example.com").isEmpty());
+    }
+
+    @Test
+    public void testBulkImportEvictsCachedMenuReads() {
+        menuBulkImportService.importItems(List.of(
+                new MenuItemRequest("CacheTest Salad", new BigDecimal("7.00"), "CacheTest", true)));
+        List<MenuItemResponse> before = menuService.getMenuItemsByCategory("CacheTest");
+        assertEquals(0, new BigDecimal("7.00").compareTo(before.get(0).getPrice()));
+        MenuItem cached = menuItemRepository.findById(before.get(0).getId()).orElseThrow();
+        assertEquals("CacheTest Salad", cached.getName());
+
+        // Plain JDBC writes, only visible because the import publishes MenuCatalogChangedEvent
+        menuBulkImportService.importItems(List.of(
+                new MenuItemRequest("CacheTest Salad", new BigDecimal("8.50"), "CacheTest", true),
+                new MenuItemRequest("CacheTest Wrap", new BigDecimal("6.00"), "CacheTest", true)));
+
+        List<MenuItemResponse> after = menuService.getMenuItemsByCategory("CacheTest");
+        assertEquals(2, after.size());
+        assertEquals(0, new BigDecimal("8.50").compareTo(
+                menuItemRepository.findById(before.get(0).getId()).orElseThrow().getPrice()));
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
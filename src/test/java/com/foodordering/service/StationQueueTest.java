@@ -0,0 +1,67 @@
+package com.foodordering.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StationQueueTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private long sequence;
+
+    @Test
+    public void testEarliestPromiseFirstWithSameItemBatching() {
+        StationQueue queue = new StationQueue("oven", 4);
+        queue.add(ticket(1L, 10L, 1, NOON.plusMinutes(20)));
+        queue.add(ticket(2L, 20L, 2, NOON.plusMinutes(5)));
+        queue.add(ticket(3L, 10L, 2, NOON.plusMinutes(10)));
+        queue.add(ticket(4L, 10L, 2, NOON.plusMinutes(15)));
+        assertEquals(7, queue.getQueuedUnits());
+
+        // Item 20 is most urgent and has nothing to batch with
+        assertEquals(List.of(2L), orderIds(queue.pollBatch()));
+        // Item 10: 2 + 2 fills the batch, the 1 unit for order 1 has to wait
+        assertEquals(List.of(3L, 4L), orderIds(queue.pollBatch()));
+        assertEquals(List.of(1L), orderIds(queue.pollBatch()));
+        assertTrue(queue.pollBatch().isEmpty());
+        assertEquals(0, queue.getQueuedUnits());
+    }
+
+    @Test
+    public void testBatchSkipsTicketsThatDoNotFit() {
+        StationQueue queue = new StationQueue("grill", 4);
+        queue.add(ticket(1L, 10L, 2, NOON));
+        queue.add(ticket(2L, 10L, 3, NOON.plusMinutes(1)));
+        queue.add(ticket(3L, 10L, 2, NOON.plusMinutes(2)));
+
+        assertEquals(List.of(1L, 3L), orderIds(queue.pollBatch()));
+        assertEquals(List.of(2L), orderIds(queue.pollBatch()));
+    }
+
+    @Test
+    public void testRemoveOrder() {
+        StationQueue queue = new StationQueue("drinks", 8);
+        queue.add(ticket(1L, 10L, 1, NOON));
+        queue.add(ticket(2L, 10L, 1, NOON.plusMinutes(1)));
+        queue.add(ticket(2L, 30L, 1, NOON.plusMinutes(1)));
+
+        assertEquals(2, queue.removeOrder(2L));
+        assertEquals(0, queue.removeOrder(2L));
+        assertEquals(1, queue.getQueuedUnits());
+        assertEquals(List.of(1L), orderIds(queue.pollBatch()));
+        assertTrue(queue.pollBatch().isEmpty());
+    }
+
+    private StationQueue.Ticket ticket(Long orderId, Long menuItemId, int quantity, LocalDateTime promisedAt) {
+        return new StationQueue.Ticket(++sequence, orderId, menuItemId, "Item " + menuItemId, quantity, promisedAt);
+    }
+
+    private static List<Long> orderIds(List<StationQueue.Ticket> batch) {
+        return batch.stream().map(StationQueue.Ticket::orderId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,135 @@
+package com.foodordering.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimerWheelTest {
+
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    public void testIdsComeDueAtTheirTickAcrossLevels() {
+        TimerWheel wheel = new TimerWheel(1_000, START);
+        Random random = new Random(3);
+        Map<Long, Long> deadlines = new HashMap<>();
+        for (long id = 0; id < 20_000; id++) {
+            // Spread over every level: seconds, minutes, hours and days ahead
+            long ahead = (long) Math.pow(10, 3 + random.nextDouble() * 6.5);
+            deadlines.put(id, START + ahead);
+            wheel.schedule(id, START + ahead);
+        }
+
+        long now = START;
+        long previous = now;
+        while (!deadlines.isEmpty()) {
+            now += 1 + (long) random.nextInt(120_000);
+            for (Long id : wheel.advance(now)) {
+                long deadline = deadlines.remove(id);
+                // Due once the tick holding the deadline is reached, and not before
+                long dueAt = (deadline + 999) / 1_000 * 1_000;
+                assertTrue(dueAt <= now, "id " + id + " released early");
+                assertTrue(dueAt > previous, "id " + id + " released late");
+            }
+            previous = now;
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testCancelAndReschedule() {
+        TimerWheel wheel = new TimerWheel(1_000, START);
+        wheel.schedule(1, START + 5_000);
+        wheel.schedule(2, START + 5_000);
+        wheel.schedule(3, START + 90_000);
+        assertTrue(wheel.cancel(2));
+        assertFalse(wheel.cancel(2));
+        // Moved earlier, from the second level down to the first
+        wheel.schedule(3, START + 3_500);
+
+        assertEquals(List.of(), wheel.advance(START + 3_000));
+        assertEquals(List.of(3L), wheel.advance(START + 4_000));
+        assertEquals(List.of(1L), wheel.advance(START + 100_000));
+        assertFalse(wheel.contains(3));
+        assertEquals(0, wheel.size());
+
+        // Already due when scheduled: handed out by the next advance without moving time
+        wheel.schedule(4, START);
+        assertEquals(List.of(4L), wheel.advance(START + 100_000));
+    }
+
+    @Test
+    public void testDeadlinesBeyondTheWheelWaitInOverflow() {
+        // 64^4 ms is under five hours, so a day ahead overflows
+        TimerWheel wheel = new TimerWheel(1, START);
+        long day = 24 * 3_600_000L;
+        wheel.schedule(1, START + day);
+        wheel.schedule(2, START + 1_000);
+        assertEquals(1, wheel.levelSizes()[TimerWheel.LEVELS]);
+
+        assertEquals(List.of(2L), wheel.advance(START + day - 1));
+        assertEquals(1, wheel.size());
+        assertEquals(List.of(1L), wheel.advance(START + day));
+    }
+
+    /**
+     * Schedules 500,000 orders over the next 30 days, cancels a tenth, then advances a day
+     * of one-second polls, reporting schedule cost, poll cost and memory held.
+     * Run with: mvn test -Pbenchmark -Dtest=TimerWheelTest
+     */
+    @Test
+    @Tag("benchmark")
+    public void benchmarkHundredsOfThousandsOfScheduledOrders() {
+        int orders = 500_000;
+        long horizon = 30L * 24 * 3_600_000;
+        Random random = new Random(11);
+        long[] deadlines = new long[orders];
+        for (int i = 0; i < orders; i++) {
+            deadlines[i] = START + (long) (random.nextDouble() * horizon);
+        }
+
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long usedBefore = runtime.totalMemory() - runtime.freeMemory();
+        TimerWheel wheel = new TimerWheel(1_000, START);
+        long start = System.nanoTime();
+        for (int i = 0; i < orders; i++) {
+            wheel.schedule(i, deadlines[i]);
+        }
+        long scheduleNanos = System.nanoTime() - start;
+        for (int i = 0; i < orders; i += 10) {
+            wheel.cancel(i);
+        }
+        System.gc();
+        long usedAfter = runtime.totalMemory() - runtime.freeMemory();
+
+        List<Long> pollNanos = new ArrayList<>();
+        int released = 0;
+        for (long now = START + 1_000; now <= START + 24 * 3_600_000L; now += 1_000) {
+            long pollStart = System.nanoTime();
+            released += wheel.advance(now).size();
+            pollNanos.add(System.nanoTime() - pollStart);
+        }
+        pollNanos.sort(null);
+        long expected = 0;
+        for (int i = 0; i < orders; i++) {
+            if (i % 10 != 0 && deadlines[i] <= START + 24 * 3_600_000L) {
+                expected++;
+            }
+        }
+        assertEquals(expected, released);
+
+        System.out.printf("%,d orders: schedule %.0f ns each, %.1f MB held; %,d polls released %,d, "
+                        + "median %.1f us, p99 %.1f us, max %.1f us per poll; %,d still waiting%n",
+                orders, (double) scheduleNanos / orders, (usedAfter - usedBefore) / 1e6, pollNanos.size(), released,
+                pollNanos.get(pollNanos.size() / 2) / 1e3, pollNanos.get(pollNanos.size() * 99 / 100) / 1e3,
+                pollNanos.get(pollNanos.size() - 1) / 1e3, wheel.size());
+    }
+}
@@ -0,0 +1,65 @@
+package com.foodordering.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrendingSketchTest {
+    
+    private static final long HOUR = 3_600_000L;
+    
+    @Test
+    public void testMemoryIsBoundedAndHeavyHittersSurvive() {
+        TrendingSketch sketch = new TrendingSketch(50, HOUR, 0);
+        Random random = new Random(42);
+        
+        // 100k long-tail items seen once each, interleaved with three heavy hitters
+        for (int i = 0; i < 100_000; i++) {
+            sketch.add(1_000 + i, 1, i);
+            if (i % 10 == 0) {
+                sketch.add(1, 3, i);
+                sketch.add(2, 2, i);
+                sketch.add(3, 1, i);
+            }
+            if (random.nextInt(100) == 0) {
+                assertTrue(sketch.size() <= 50);
+            }
+        }
+        
+        List<TrendingSketch.Entry> top = sketch.top(3, 100_000);
+        assertEquals(50, sketch.size());
+        assertEquals(List.of(1L, 2L, 3L), top.stream().map(TrendingSketch.Entry::itemId).toList());
+    }
+    
+    @Test
+    public void testOlderPopularityDecays() {
+        TrendingSketch sketch = new TrendingSketch(10, HOUR, 0);
+        
+        // Item 1 was very popular five hours ago, item 2 is moderately popular now
+        sketch.add(1, 100, 0);
+        sketch.add(2, 10, 5 * HOUR);
+        
+        List<TrendingSketch.Entry> top = sketch.top(2, 5 * HOUR);
+        assertEquals(2L, top.get(0).itemId());
+        assertEquals(10.0, top.get(0).score(), 1e-6);
+        assertEquals(100.0 / 32, top.get(1).score(), 1e-6);
+    }
+    
+    @Test
+    public void testScoresStayFiniteOverLongRuns() {
+        TrendingSketch sketch = new TrendingSketch(10, 60_000, 0);
+        
+        // Far more than MAX_EXPONENT half-lives, forcing landmark rescaling
+        for (long t = 0; t < 1000 * 60_000L; t += 60_000) {
+            sketch.add(7, 1, t);
+        }
+        
+        TrendingSketch.Entry entry = sketch.top(1, 1000 * 60_000L).get(0);
+        assertTrue(Double.isFinite(entry.score()));
+        // Steady state of one unit per half-life is 1 / (1 - 1/2)
+        assertEquals(1.0, entry.score(), 1.0);
+    }
+}